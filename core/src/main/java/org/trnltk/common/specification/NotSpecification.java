@@ -23,6 +23,10 @@ public class NotSpecification<T> extends AbstractSpecification<T> {
         this.wrapped = wrapped;
     }
 
+    public Specification<T> getWrapped() {
+        return wrapped;
+    }
+
     @Override
     public boolean isSatisfiedBy(T object) {
         return !wrapped.isSatisfiedBy(object);
@@ -25,6 +25,14 @@ public class OrSpecification<T> extends AbstractSpecification<T> {
         this.spec2 = spec2;
     }
 
+    public Specification<T> getSpec1() {
+        return spec1;
+    }
+
+    public Specification<T> getSpec2() {
+        return spec2;
+    }
+
     @Override
     public boolean isSatisfiedBy(final T object) {
         return spec1.isSatisfiedBy(object) || spec2.isSatisfiedBy(object);
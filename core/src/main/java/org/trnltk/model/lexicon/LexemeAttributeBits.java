@@ -0,0 +1,46 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.model.lexicon;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collection;
+
+/**
+ * Represents sets of {@link LexemeAttribute}s as bits of a long, so that sets can be compared with a few bitwise
+ * operations. Bit <code>i</code> is set if the attribute with ordinal <code>i</code> is in the set.
+ */
+public abstract class LexemeAttributeBits {
+
+    static {
+        Validate.isTrue(LexemeAttribute.values().length <= Long.SIZE, "Lexeme attributes don't fit in a long");
+    }
+
+    public static long bitOf(LexemeAttribute lexemeAttribute) {
+        return 1L << lexemeAttribute.ordinal();
+    }
+
+    public static long bitsOf(Collection<LexemeAttribute> lexemeAttributes) {
+        long bits = 0L;
+        if (lexemeAttributes == null)
+            return bits;
+        for (LexemeAttribute lexemeAttribute : lexemeAttributes) {
+            bits |= bitOf(lexemeAttribute);
+        }
+        return bits;
+    }
+}
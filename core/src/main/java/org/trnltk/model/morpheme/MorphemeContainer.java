@@ -19,12 +19,12 @@ package org.trnltk.model.morpheme;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.trnltk.model.letter.TurkishSequence;
 import org.trnltk.model.lexicon.*;
 import org.trnltk.model.suffix.*;
+import org.trnltk.morphology.contextless.parser.PhoneticAttributeSets;
 import org.trnltk.morphology.morphotactics.SuffixGraphState;
 import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
 import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
@@ -48,26 +48,46 @@ import java.util.*;
  * <p/>
  * This class is optimized to save the state of most commonly used information e.g. last suffix or suffixes since last derivation;
  * thus it is heavy.
+ * <p/>
+ * Suffix transitions are kept in a persistent chain where each item points to the previous one. A copy of a container
+ * shares the chain with the original and adding a transition to the copy only appends a new item to the chain. Thus,
+ * creating a child container costs constant memory over its parent. Collections returned by the getters are built from
+ * the chain when they are asked.
+ * <p/>
+ * Similarly, remaining surface is kept as an offset in the remaining surface of the root container; a transition only
+ * moves the offset and the string is created when it is asked.
+ * <p/>
+ * Phonetic attributes after a transition can be given by the caller, e.g. from the target node of an edge in the suffix
+ * form graph. They are recalculated from the surface so far only when the given ones might differ; that is, when
+ * the root has a lexeme attribute which changes its phonetic attributes or when there is a non-alphanumeric suffix.
  */
 @SuppressWarnings("WeakerAccess")
 public class MorphemeContainer {
 
-    private final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
+    private static final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
+    private static final long[] NO_BITS = new long[0];
+    private static final ImmutableSet<LexemeAttribute> NO_VOICING = Sets.immutableEnumSet(LexemeAttribute.NoVoicing);
 
     // final values
     private final Root root;
     private final SuffixGraphState rootState;
+    private final ImmutableSet<LexemeAttribute> rootLexemeAttributes;
+    // true if the phonetic attributes of the root are not the ones calculated from its sequence
+    private final boolean rootHasPhoneticLexemeAttributes;
+    // bit i is set if the lexeme of the root has the lexeme attribute with ordinal i
+    private final long rootLexemeAttributeBits;
 
     // things below are changed with suffixTransitions, but do have a value set in constructor
     private TurkishSequence surfaceSoFar;
-    private String remainingSurface;
-    @SuppressWarnings("CanBeFinal")
-    private LinkedList<SuffixTransition> suffixTransitions;
+    // remaining surface is remainingSurfaceSource starting from remainingSurfaceOffset
+    private String remainingSurfaceSource;
+    private int remainingSurfaceOffset;
+    private TransitionChain transitionChain;
     private SuffixGraphState lastState;
-    private String wholeSurface;
     private ImmutableSet<PhoneticExpectation> phoneticExpectations;
     private ImmutableSet<LexemeAttribute> lexemeAttributes;
     private ImmutableSet<PhoneticAttribute> phoneticAttributes;
+    private int phoneticAttributeNumber;
 
     // things below are changed with suffixTransitions, but do not have a value set in constructor
     private SuffixTransition lastSuffixTransition = null;
@@ -75,62 +95,86 @@ public class MorphemeContainer {
     private SuffixTransition lastNonBlankSuffixTransition = null;
     private Suffix lastDerivationSuffix = null;
     private SuffixTransition lastNonBlankDerivation = null;
-    private LinkedHashSet<SuffixTransition> transitionsSinceDerivationSuffix = new LinkedHashSet<SuffixTransition>();
-    private LinkedHashSet<SuffixTransition> transitionsFromDerivationSuffix = new LinkedHashSet<SuffixTransition>();
-    private LinkedHashSet<Suffix> suffixesSinceDerivationSuffix = new LinkedHashSet<Suffix>();
-    private LinkedHashSet<SuffixGroup> suffixGroupsSinceLastDerivationSuffix = new LinkedHashSet<SuffixGroup>();
+    // false once a non-empty, non-alphanumeric suffix form is added; empty forms don't change it
+    private boolean alphanumericSuffixesSoFar = true;
+    // true once a transition which changes the phonetics of the surface is added
+    private boolean phoneticallyChangingTransitionSoFar = false;
+    // number of the transitions at the end of the chain, which are added since the last derivation suffix
+    private int transitionCountSinceDerivationSuffix = 0;
+
+    // membership of suffixes and suffix groups since last derivation, indexed by their ordinals
+    // arrays are shared between copies and never modified; a new array is created when a bit is set
+    private long[] suffixesSinceDerivationSuffixBits = NO_BITS;
+    private long[] suffixGroupsSinceDerivationSuffixBits = NO_BITS;
+    // true when a suffix or a group without an ordinal is added since last derivation; then the chain is walked
+    private boolean unindexedSuffixSinceDerivationSuffix = false;
+
+    // built from the chain when asked, cleared when a transition is added
+    private List<SuffixTransition> suffixTransitionList = null;
+    // built from the source when asked, cleared when a transition is added
+    private String remainingSurface = null;
 
     public MorphemeContainer(Root root, SuffixGraphState rootState, String remainingSurface) {
         this.root = root;
         this.rootState = rootState;
+        this.rootLexemeAttributes = Sets.immutableEnumSet(this.root.getLexeme().getAttributes());
+        this.rootHasPhoneticLexemeAttributes = this.rootLexemeAttributes.contains(LexemeAttribute.InverseHarmony)
+                || this.rootLexemeAttributes.contains(LexemeAttribute.EndsWithAyn);
+        this.rootLexemeAttributeBits = LexemeAttributeBits.bitsOf(this.rootLexemeAttributes);
 
         this.surfaceSoFar = root.getSequence();
-        this.remainingSurface = remainingSurface;
-        this.suffixTransitions = new LinkedList<SuffixTransition>();
+        this.remainingSurfaceSource = Strings.nullToEmpty(remainingSurface);
+        this.remainingSurfaceOffset = 0;
+        this.transitionChain = null;
         this.lastState = this.rootState;
-        this.wholeSurface = Strings.nullToEmpty(this.surfaceSoFar.getUnderlyingString()) + Strings.nullToEmpty(this.remainingSurface);
         this.phoneticExpectations = Sets.immutableEnumSet(root.getPhoneticExpectations());
-        this.lexemeAttributes = Sets.immutableEnumSet(this.root.getLexeme().getAttributes());
+        this.lexemeAttributes = this.rootLexemeAttributes;
         this.phoneticAttributes = Sets.immutableEnumSet(this.root.getPhoneticAttributes());
+        this.phoneticAttributeNumber = PhoneticAttributeSets.numberOf(this.phoneticAttributes);
     }
 
     public MorphemeContainer(final MorphemeContainer toCopy) {
         this.root = toCopy.root;
         this.rootState = toCopy.rootState;
+        this.rootLexemeAttributes = toCopy.rootLexemeAttributes;
+        this.rootHasPhoneticLexemeAttributes = toCopy.rootHasPhoneticLexemeAttributes;
+        this.rootLexemeAttributeBits = toCopy.rootLexemeAttributeBits;
         this.surfaceSoFar = toCopy.surfaceSoFar;
+        this.remainingSurfaceSource = toCopy.remainingSurfaceSource;
+        this.remainingSurfaceOffset = toCopy.remainingSurfaceOffset;
         this.remainingSurface = toCopy.remainingSurface;
-        //noinspection unchecked
-        this.suffixTransitions = (LinkedList<SuffixTransition>) toCopy.suffixTransitions.clone();
+        this.transitionChain = toCopy.transitionChain;
+        this.suffixTransitionList = toCopy.suffixTransitionList;
         this.lastState = toCopy.lastState;
-        this.wholeSurface = toCopy.wholeSurface;
         this.phoneticExpectations = toCopy.phoneticExpectations;
         this.lexemeAttributes = toCopy.lexemeAttributes;
         this.phoneticAttributes = toCopy.phoneticAttributes;
+        this.phoneticAttributeNumber = toCopy.phoneticAttributeNumber;
 
         this.lastSuffixTransition = toCopy.lastSuffixTransition;
         this.lastDerivationSuffixTransition = toCopy.lastDerivationSuffixTransition;
         this.lastNonBlankSuffixTransition = toCopy.lastNonBlankSuffixTransition;
         this.lastDerivationSuffix = toCopy.lastDerivationSuffix;
         this.lastNonBlankDerivation = toCopy.lastNonBlankDerivation;
-        //noinspection unchecked
-        this.transitionsSinceDerivationSuffix = (LinkedHashSet<SuffixTransition>) toCopy.transitionsSinceDerivationSuffix.clone();
-        //noinspection unchecked
-        this.transitionsFromDerivationSuffix = (LinkedHashSet<SuffixTransition>) toCopy.transitionsFromDerivationSuffix.clone();
-        //noinspection unchecked
-        this.suffixesSinceDerivationSuffix = (LinkedHashSet<Suffix>) toCopy.suffixesSinceDerivationSuffix.clone();
-        //noinspection unchecked
-        this.suffixGroupsSinceLastDerivationSuffix = (LinkedHashSet<SuffixGroup>) toCopy.suffixGroupsSinceLastDerivationSuffix.clone();
+        this.alphanumericSuffixesSoFar = toCopy.alphanumericSuffixesSoFar;
+        this.phoneticallyChangingTransitionSoFar = toCopy.phoneticallyChangingTransitionSoFar;
+        this.transitionCountSinceDerivationSuffix = toCopy.transitionCountSinceDerivationSuffix;
+        this.suffixesSinceDerivationSuffixBits = toCopy.suffixesSinceDerivationSuffixBits;
+        this.suffixGroupsSinceDerivationSuffixBits = toCopy.suffixGroupsSinceDerivationSuffixBits;
+        this.unindexedSuffixSinceDerivationSuffix = toCopy.unindexedSuffixSinceDerivationSuffix;
     }
 
     /**
-     * Deep clone the given {@code MorphemeContainer} and set remaining surface of the container according to the given whole surface.
+     * Clone the given {@code MorphemeContainer} and set remaining surface of the container according to the given whole surface.
      *
      * @param toCopy       source container
      * @param wholeSurface Whole surface to compute remaining surface
      */
     public MorphemeContainer(MorphemeContainer toCopy, TurkishSequence wholeSurface) {
         this(toCopy);
-        this.remainingSurface = wholeSurface.subsequence(toCopy.getSurfaceSoFar().getUnderlyingString().length()).getUnderlyingString();
+        this.remainingSurfaceSource = wholeSurface.getUnderlyingString();
+        this.remainingSurfaceOffset = toCopy.getSurfaceSoFar().getUnderlyingString().length();
+        this.remainingSurface = null;
     }
 
     /**
@@ -140,13 +184,46 @@ public class MorphemeContainer {
      * @param targetState           target suffix graph state to go with the transition
      */
     public void addTransition(SuffixFormApplication suffixFormApplication, SuffixGraphState targetState) {
+        this.addTransition(suffixFormApplication, targetState, null);
+    }
+
+    /**
+     * Add a suffix transition and incrementally re-compute the states, using the given phonetic attributes as the
+     * phonetic attributes after the transition when they are valid for the container.
+     * <p/>
+     * Given attributes must be the phonetic attributes of the container with the actual suffix form of the application
+     * appended, e.g. the attributes of the target node of a suffix form graph edge.
+     *
+     * @param suffixFormApplication       SuffixFormApplication for the transition
+     * @param targetState                 target suffix graph state to go with the transition
+     * @param phoneticAttributesOfTarget  phonetic attributes after the transition, or null to calculate them
+     */
+    public void addTransition(SuffixFormApplication suffixFormApplication, SuffixGraphState targetState, ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget) {
         final SuffixTransition newSuffixTransition = new SuffixTransition(this.lastState, suffixFormApplication, targetState);
-        this.suffixTransitions.add(newSuffixTransition);
+        this.transitionChain = new TransitionChain(newSuffixTransition, this.transitionChain);
+        this.suffixTransitionList = null;
 
-        this.reinitialize(newSuffixTransition);
+        this.reinitialize(newSuffixTransition, phoneticAttributesOfTarget);
     }
 
-    private void reinitialize(final SuffixTransition newSuffixTransition) {
+    /**
+     * Same with {@link #addTransition(SuffixFormApplication, SuffixGraphState, ImmutableSet)}, but the given transition
+     * instance is added to the container instead of a new one; e.g. the transition of a suffix form graph edge, which
+     * is shared by all the containers taking the edge.
+     *
+     * @param suffixTransition           transition to add, source state of it must be the last state of the container
+     * @param phoneticAttributesOfTarget phonetic attributes after the transition, or null to calculate them
+     */
+    public void addTransition(SuffixTransition suffixTransition, ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget) {
+        Validate.isTrue(suffixTransition.getSourceState().equals(this.lastState));
+
+        this.transitionChain = new TransitionChain(suffixTransition, this.transitionChain);
+        this.suffixTransitionList = null;
+
+        this.reinitialize(suffixTransition, phoneticAttributesOfTarget);
+    }
+
+    private void reinitialize(final SuffixTransition newSuffixTransition, final ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget) {
         Validate.notNull(newSuffixTransition);
 
         final SuffixFormApplication suffixFormApplication = newSuffixTransition.getSuffixFormApplication();
@@ -156,9 +233,13 @@ public class MorphemeContainer {
 
         // update surface so far and remaining surface
         this.surfaceSoFar = this.surfaceSoFar.append(suffixFormApplication.getActualSuffixForm());
-        this.remainingSurface = StringUtils.isBlank(this.remainingSurface) ?
-                StringUtils.EMPTY :
-                this.remainingSurface.substring(suffixFormApplication.getActualSuffixForm().length());
+        if (this.isRemainingSurfaceBlank()) {
+            this.remainingSurfaceSource = StringUtils.EMPTY;
+            this.remainingSurfaceOffset = 0;
+        } else {
+            this.remainingSurfaceOffset += suffixFormApplication.getActualSuffixForm().length();
+        }
+        this.remainingSurface = null;
 
         // when there is a non-blank suffix form, then clear phoneticExpectations, since parser checked
         // them and decided that they're satisfied
@@ -168,36 +249,61 @@ public class MorphemeContainer {
         // update easy stuff
         this.lastState = newSuffixTransition.getTargetState();
         this.lastSuffixTransition = newSuffixTransition;
-        this.wholeSurface = Strings.nullToEmpty(this.surfaceSoFar.getUnderlyingString()) + Strings.nullToEmpty(this.remainingSurface);
 
         if (newSuffixTransition.isDerivational()) {
             // update the things when new suffix is a derivational one
 
             this.lastDerivationSuffixTransition = newSuffixTransition;
             this.lastDerivationSuffix = suffixForm.getSuffix();
-            this.transitionsSinceDerivationSuffix = new LinkedHashSet<SuffixTransition>();
-            //noinspection unchecked
-            this.transitionsFromDerivationSuffix = new LinkedHashSet(Arrays.asList(newSuffixTransition));
-            this.suffixesSinceDerivationSuffix = new LinkedHashSet<Suffix>();
-            this.suffixGroupsSinceLastDerivationSuffix = new LinkedHashSet<SuffixGroup>();
+            this.transitionCountSinceDerivationSuffix = 0;
+            this.suffixesSinceDerivationSuffixBits = NO_BITS;
+            this.suffixGroupsSinceDerivationSuffixBits = NO_BITS;
+            this.unindexedSuffixSinceDerivationSuffix = false;
 
             if (suffixFormApplication.getSuffixForm().getForm().isNotBlank())
                 this.lastNonBlankDerivation = newSuffixTransition;
 
         } else {
-            this.transitionsSinceDerivationSuffix.add(newSuffixTransition);
-            this.transitionsFromDerivationSuffix.add(newSuffixTransition);
-            this.suffixesSinceDerivationSuffix.add(suffixForm.getSuffix());
-            if (suffixForm.getSuffix().getSuffixGroup() != null)
-                this.suffixGroupsSinceLastDerivationSuffix.add(suffixForm.getSuffix().getSuffixGroup());
+            this.transitionCountSinceDerivationSuffix++;
+
+            final Suffix suffix = suffixForm.getSuffix();
+            if (suffix.getOrdinal() >= 0)
+                this.suffixesSinceDerivationSuffixBits = withBit(this.suffixesSinceDerivationSuffixBits, suffix.getOrdinal());
+            else
+                this.unindexedSuffixSinceDerivationSuffix = true;
+
+            final SuffixGroup suffixGroup = suffix.getSuffixGroup();
+            if (suffixGroup != null) {
+                if (suffixGroup.getOrdinal() >= 0)
+                    this.suffixGroupsSinceDerivationSuffixBits = withBit(this.suffixGroupsSinceDerivationSuffixBits, suffixGroup.getOrdinal());
+                else
+                    this.unindexedSuffixSinceDerivationSuffix = true;
+            }
         }
 
         if (suffixFormApplication.getSuffixForm().getForm().isNotBlank())
             this.lastNonBlankSuffixTransition = newSuffixTransition;
 
-        // cannot do the following 2 incrementally
+        final String actualSuffixForm = suffixFormApplication.getActualSuffixForm();
+        if (!actualSuffixForm.isEmpty() && !StringUtils.isAlphanumeric(actualSuffixForm))
+            this.alphanumericSuffixesSoFar = false;
+
+        // free, zero and empty transitions don't change the phonetics. the str " " would change them!
+        final Suffix suffix = suffixForm.getSuffix();
+        if (!(suffix instanceof FreeTransitionSuffix) && !(suffix instanceof ZeroTransitionSuffix) &&
+                !(suffix instanceof ConditionalFreeTransitionSuffix) && !suffixFormApplication.getActualSuffixForm().isEmpty())
+            this.phoneticallyChangingTransitionSoFar = true;
+
         this.lexemeAttributes = this.findLexemeAttributes();
-        this.phoneticAttributes = this.findPhoneticAttributes();
+
+        // given attributes are computed from the attributes before the transition, char by char. that is the same with
+        // the calculation from the surface so far unless lexeme attributes of the root or a non-alphanumeric suffix
+        // changed the attributes
+        if (phoneticAttributesOfTarget != null && !this.rootHasPhoneticLexemeAttributes && this.alphanumericSuffixesSoFar)
+            this.phoneticAttributes = phoneticAttributesOfTarget;
+        else
+            this.phoneticAttributes = this.findPhoneticAttributes();
+        this.phoneticAttributeNumber = PhoneticAttributeSets.numberOf(this.phoneticAttributes);
     }
 
     /**
@@ -224,7 +330,43 @@ public class MorphemeContainer {
      * @return remainingSurface
      */
     public String getRemainingSurface() {
-        return remainingSurface;
+        if (this.remainingSurface == null)
+            this.remainingSurface = this.remainingSurfaceSource.substring(this.remainingSurfaceOffset);
+        return this.remainingSurface;
+    }
+
+    /**
+     * @return length of the remaining surface, without creating it
+     */
+    public int getRemainingSurfaceLength() {
+        return this.remainingSurfaceSource.length() - this.remainingSurfaceOffset;
+    }
+
+    /**
+     * @param index Index in the remaining surface
+     * @return char at the index of the remaining surface, without creating it
+     */
+    public char remainingSurfaceCharAt(int index) {
+        return this.remainingSurfaceSource.charAt(this.remainingSurfaceOffset + index);
+    }
+
+    /**
+     * @param prefix Prefix to check
+     * @return true if remaining surface starts with the prefix, without creating it
+     */
+    public boolean remainingSurfaceStartsWith(String prefix) {
+        return this.remainingSurfaceSource.startsWith(prefix, this.remainingSurfaceOffset);
+    }
+
+    /**
+     * @return true if remaining surface is blank (see {@link StringUtils#isBlank(CharSequence)}), without creating it
+     */
+    public boolean isRemainingSurfaceBlank() {
+        for (int i = this.remainingSurfaceOffset; i < this.remainingSurfaceSource.length(); i++) {
+            if (!Character.isWhitespace(this.remainingSurfaceSource.charAt(i)))
+                return false;
+        }
+        return true;
     }
 
     /**
@@ -236,7 +378,7 @@ public class MorphemeContainer {
      */
     public Set<SuffixTransition> getTransitionsSinceDerivationSuffix() {
         // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
-        return Collections.unmodifiableSet(this.transitionsSinceDerivationSuffix);
+        return Collections.unmodifiableSet(this.collectTransitionsSinceDerivationSuffix(false));
     }
 
     /**
@@ -248,7 +390,7 @@ public class MorphemeContainer {
      */
     public Set<SuffixTransition> getTransitionsFromDerivationSuffix() {
         // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
-        return Collections.unmodifiableSet(this.transitionsFromDerivationSuffix);
+        return Collections.unmodifiableSet(this.collectTransitionsSinceDerivationSuffix(true));
     }
 
     /**
@@ -262,8 +404,38 @@ public class MorphemeContainer {
      * @return set
      */
     public Set<Suffix> getSuffixesSinceDerivationSuffix() {
+        final LinkedHashSet<Suffix> suffixes = new LinkedHashSet<Suffix>();
+        for (SuffixTransition suffixTransition : this.collectTransitionsSinceDerivationSuffix(false)) {
+            suffixes.add(suffixTransition.getSuffixFormApplication().getSuffixForm().getSuffix());
+        }
         // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
-        return Collections.unmodifiableSet(this.suffixesSinceDerivationSuffix);
+        return Collections.unmodifiableSet(suffixes);
+    }
+
+    /**
+     * Checks if the given suffix is applied since derivation suffix, without building the set of suffixes.
+     *
+     * @param suffix Suffix to check
+     * @return true if {@link MorphemeContainer#getSuffixesSinceDerivationSuffix()} contains the suffix
+     */
+    public boolean hasSuffixSinceDerivationSuffix(Suffix suffix) {
+        if (suffix.getOrdinal() >= 0 && !this.unindexedSuffixSinceDerivationSuffix)
+            return isBitSet(this.suffixesSinceDerivationSuffixBits, suffix.getOrdinal());
+
+        TransitionChain item = this.transitionChain;
+        for (int i = 0; i < this.transitionCountSinceDerivationSuffix; i++) {
+            if (item.transition.getSuffixFormApplication().getSuffixForm().getSuffix().equals(suffix))
+                return true;
+            item = item.previous;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if there is no suffix transition added since derivation suffix
+     */
+    public boolean hasNoTransitionsSinceDerivationSuffix() {
+        return this.transitionCountSinceDerivationSuffix == 0;
     }
 
     /**
@@ -277,8 +449,33 @@ public class MorphemeContainer {
      * @return set
      */
     public Set<SuffixGroup> getSuffixGroupsSinceLastDerivationSuffix() {
+        final LinkedHashSet<SuffixGroup> suffixGroups = new LinkedHashSet<SuffixGroup>();
+        for (SuffixTransition suffixTransition : this.collectTransitionsSinceDerivationSuffix(false)) {
+            final SuffixGroup suffixGroup = suffixTransition.getSuffixFormApplication().getSuffixForm().getSuffix().getSuffixGroup();
+            if (suffixGroup != null)
+                suffixGroups.add(suffixGroup);
+        }
         // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
-        return Collections.unmodifiableSet(this.suffixGroupsSinceLastDerivationSuffix);
+        return Collections.unmodifiableSet(suffixGroups);
+    }
+
+    /**
+     * Checks if a suffix of the given group is applied since derivation suffix, without building the set of groups.
+     *
+     * @param suffixGroup Suffix group to check
+     * @return true if {@link MorphemeContainer#getSuffixGroupsSinceLastDerivationSuffix()} contains the group
+     */
+    public boolean hasSuffixGroupSinceLastDerivationSuffix(SuffixGroup suffixGroup) {
+        if (suffixGroup.getOrdinal() >= 0 && !this.unindexedSuffixSinceDerivationSuffix)
+            return isBitSet(this.suffixGroupsSinceDerivationSuffixBits, suffixGroup.getOrdinal());
+
+        TransitionChain item = this.transitionChain;
+        for (int i = 0; i < this.transitionCountSinceDerivationSuffix; i++) {
+            if (suffixGroup.equals(item.transition.getSuffixFormApplication().getSuffixForm().getSuffix().getSuffixGroup()))
+                return true;
+            item = item.previous;
+        }
+        return false;
     }
 
     /**
@@ -315,6 +512,16 @@ public class MorphemeContainer {
         return this.phoneticAttributes;
     }
 
+    /**
+     * Get phonetic attributes for the container as a number. Used for finding the nodes of suffix form graph quickly.
+     *
+     * @return number of the phonetic attributes
+     * @see PhoneticAttributeSets#numberOf(java.util.Set)
+     */
+    public int getPhoneticAttributeNumber() {
+        return this.phoneticAttributeNumber;
+    }
+
     /**
      * Get phonetic expectations of the container. Phonetic expectations are cleared once a non-blank suffix is applied.
      *
@@ -343,11 +550,27 @@ public class MorphemeContainer {
         return this.lexemeAttributes;
     }
 
+    /**
+     * @return Attributes of the lexeme of the root, as bits
+     * @see LexemeAttributeBits
+     */
+    public long getRootLexemeAttributeBits() {
+        return this.rootLexemeAttributeBits;
+    }
+
+    /**
+     * @return true if a transition other than free, zero and empty transitions is added; that is, a transition
+     *         which changes the phonetics of the surface
+     */
+    public boolean hasPhoneticallyChangingTransition() {
+        return this.phoneticallyChangingTransitionSoFar;
+    }
+
     /**
      * @return true if container has a suffix transition added
      */
     public boolean hasTransitions() {
-        return CollectionUtils.isNotEmpty(this.suffixTransitions);
+        return this.transitionChain != null;
     }
 
     /**
@@ -371,14 +594,62 @@ public class MorphemeContainer {
         return this.lastSuffixTransition;
     }
 
+    /**
+     * @return Number of suffix transitions applied to the container, without creating the list of them
+     */
+    public int getTransitionCount() {
+        return this.transitionChain == null ? 0 : this.transitionChain.size;
+    }
+
     /**
      * Get all suffix transitions applied to the container
      *
      * @return Unmodifiable (JDK) list
      */
     public List<SuffixTransition> getSuffixTransitions() {
-        // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
-        return Collections.unmodifiableList(this.suffixTransitions);
+        if (this.suffixTransitionList == null) {
+            final int size = this.transitionChain == null ? 0 : this.transitionChain.size;
+            final SuffixTransition[] suffixTransitions = new SuffixTransition[size];
+            TransitionChain item = this.transitionChain;
+            for (int i = size - 1; i >= 0; i--) {
+                suffixTransitions[i] = item.transition;
+                item = item.previous;
+            }
+            // since Guava immutable collections are copying the items, using JDK unmodifiable collections for a better performance
+            this.suffixTransitionList = Collections.unmodifiableList(Arrays.asList(suffixTransitions));
+        }
+        return this.suffixTransitionList;
+    }
+
+    private static long[] withBit(long[] bits, int index) {
+        final int word = index >>> 6;
+        final long mask = 1L << index;
+        if (word < bits.length && (bits[word] & mask) != 0)
+            return bits;
+
+        final long[] newBits = Arrays.copyOf(bits, Math.max(bits.length, word + 1));
+        newBits[word] |= mask;
+        return newBits;
+    }
+
+    private static boolean isBitSet(long[] bits, int index) {
+        final int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private LinkedHashSet<SuffixTransition> collectTransitionsSinceDerivationSuffix(boolean includeDerivationSuffix) {
+        final SuffixTransition[] suffixTransitions = new SuffixTransition[this.transitionCountSinceDerivationSuffix];
+        TransitionChain item = this.transitionChain;
+        for (int i = suffixTransitions.length - 1; i >= 0; i--) {
+            suffixTransitions[i] = item.transition;
+            item = item.previous;
+        }
+
+        final LinkedHashSet<SuffixTransition> result = new LinkedHashSet<SuffixTransition>();
+        if (includeDerivationSuffix && this.lastDerivationSuffixTransition != null)
+            result.add(this.lastDerivationSuffixTransition);
+        result.addAll(Arrays.asList(suffixTransitions));
+        return result;
     }
 
     private ImmutableSet<LexemeAttribute> findLexemeAttributes() {
@@ -390,12 +661,12 @@ public class MorphemeContainer {
         // ...... then voicing is not applicable. (e.g. yurut+uyor != yuruduyor)
         // ...... then return NoVoicing
 
-        if (CollectionUtils.isEmpty(this.suffixTransitions))
-            return Sets.immutableEnumSet(this.root.getLexeme().getAttributes());
+        if (!this.hasTransitions())
+            return this.rootLexemeAttributes;
 
         final SuffixTransition lastNonBlankSuffixTransition = this.getLastNonBlankSuffixTransition();
         if (lastNonBlankSuffixTransition == null) {
-            return Sets.immutableEnumSet(this.root.getLexeme().getAttributes());
+            return this.rootLexemeAttributes;
         } else {
             //TODO:!!!!  necessary for the case yurutemeyecekmisim !-> yurudemeyecekmisim
             final SuffixGraphState lastState = this.getLastState();
@@ -408,7 +679,7 @@ public class MorphemeContainer {
                 final boolean lastSuffixIsBlank = StringUtils.isBlank(this.getLastSuffixTransition().getSuffixFormApplication().getActualSuffixForm());
 
                 if (lastStateIsDerivational || lastSuffixIsBlank)
-                    return ImmutableSet.of(LexemeAttribute.NoVoicing);
+                    return NO_VOICING;
                 else
                     return ImmutableSet.of();
             }
@@ -441,10 +712,10 @@ public class MorphemeContainer {
 
         if (!rootState.equals(that.rootState)) return false;
         else if (phoneticExpectations != null ? !phoneticExpectations.equals(that.phoneticExpectations) : that.phoneticExpectations != null) return false;
-        else if (!remainingSurface.equals(that.remainingSurface)) return false;
+        else if (!this.getRemainingSurface().equals(that.getRemainingSurface())) return false;
         else if (!root.equals(that.root)) return false;
         else if (!surfaceSoFar.equals(that.surfaceSoFar)) return false;
-        else if (suffixTransitions != null ? !suffixTransitions.equals(that.suffixTransitions) : that.suffixTransitions != null) return false;
+        else if (!TransitionChain.equals(transitionChain, that.transitionChain)) return false;
 
         return true;
     }
@@ -454,8 +725,8 @@ public class MorphemeContainer {
         int result = root.hashCode();
         result = 31 * result + rootState.hashCode();
         result = 31 * result + surfaceSoFar.hashCode();
-        result = 31 * result + remainingSurface.hashCode();
-        result = 31 * result + (suffixTransitions != null ? suffixTransitions.hashCode() : 0);
+        result = 31 * result + this.getRemainingSurface().hashCode();
+        result = 31 * result + this.getSuffixTransitions().hashCode();
         result = 31 * result + (phoneticExpectations != null ? phoneticExpectations.hashCode() : 0);
         return result;
     }
@@ -466,8 +737,8 @@ public class MorphemeContainer {
                 "root=" + root +
                 ", rootState=" + rootState +
                 ", surfaceSoFar='" + surfaceSoFar + '\'' +
-                ", remainingSurface='" + remainingSurface + '\'' +
-                ", suffixTransitions=" + suffixTransitions +
+                ", remainingSurface='" + this.getRemainingSurface() + '\'' +
+                ", suffixTransitions=" + this.getSuffixTransitions() +
                 ", phoneticExpectations=" + phoneticExpectations +
                 '}';
     }
@@ -477,4 +748,34 @@ public class MorphemeContainer {
     public void overwritePhoneticExpectations(ImmutableSet<PhoneticExpectation> phoneticExpectations) {
         this.phoneticExpectations = phoneticExpectations;
     }
+
+    /**
+     * An immutable item of the suffix transition chain. Items are shared between the containers copied from each other.
+     */
+    private static final class TransitionChain {
+        private final SuffixTransition transition;
+        private final TransitionChain previous;
+        private final int size;
+
+        private TransitionChain(SuffixTransition transition, TransitionChain previous) {
+            this.transition = transition;
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+        }
+
+        private static boolean equals(TransitionChain first, TransitionChain second) {
+            if (first == second)
+                return true;
+            if (first == null || second == null || first.size != second.size)
+                return false;
+
+            while (first != second) {
+                if (!first.transition.equals(second.transition))
+                    return false;
+                first = first.previous;
+                second = second.previous;
+            }
+            return true;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.trnltk.model.suffix;
 
+import org.apache.commons.lang3.Validate;
 import org.trnltk.common.specification.Specification;
 import org.trnltk.model.morpheme.MorphemeContainer;
 
@@ -34,6 +35,7 @@ public class Suffix {
     private final SuffixGroup suffixGroup;
     private final String prettyName;
     private final boolean allowRepetition;
+    private int ordinal = -1;
 
 
     /**
@@ -167,6 +169,26 @@ public class Suffix {
         return allowRepetition;
     }
 
+    /**
+     * @return Dense ordinal of the <code>Suffix</code> in its {@link org.trnltk.morphology.morphotactics.SuffixGraph},
+     *         or -1 if graph is not initialized yet
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the dense ordinal of the <code>Suffix</code>. Ordinals are assigned once, when the
+     * {@link org.trnltk.morphology.morphotactics.SuffixGraph} is initialized.
+     *
+     * @throws IllegalStateException if the ordinal is already assigned
+     */
+    public void setOrdinal(int ordinal) {
+        Validate.isTrue(ordinal >= 0, "Ordinal must not be negative");
+        Validate.validState(this.ordinal < 0, "Ordinal of suffix %s is already assigned", this.name);
+        this.ordinal = ordinal;
+    }
+
 
     @Override
     public boolean equals(Object o) {
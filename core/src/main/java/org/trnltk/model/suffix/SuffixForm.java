@@ -16,6 +16,7 @@
 
 package org.trnltk.model.suffix;
 
+import org.apache.commons.lang3.Validate;
 import org.trnltk.common.specification.Specification;
 import org.trnltk.model.morpheme.MorphemeContainer;
 
@@ -30,6 +31,9 @@ import org.trnltk.model.morpheme.MorphemeContainer;
  * <li>postCondition: Condition to permit transitions after <code>Suffix</code> with the {@link SuffixForm}.</li>
  * <li>postDerivativeCondition Condition to permit derivational transitions after <code>Suffix</code> with the {@link SuffixForm}</li>
  * </ul>
+ * <p/>
+ * Conditions can be replaced with compiled ones which are satisfied by the same containers, see
+ * {@link #setCompiledConditions(Specification, Specification, Specification)}.
  *
  * @see SuffixFormSequence
  */
@@ -41,6 +45,12 @@ public class SuffixForm {
     private final Specification<MorphemeContainer> postCondition;
     private final Specification<MorphemeContainer> postDerivativeCondition;
 
+    // returned by the getters when set; equality is still computed with the conditions above
+    private Specification<MorphemeContainer> compiledPrecondition;
+    private Specification<MorphemeContainer> compiledPostCondition;
+    private Specification<MorphemeContainer> compiledPostDerivativeCondition;
+    private boolean conditionsCompiled;
+
     public SuffixForm(Suffix suffix, String form, Specification<MorphemeContainer> precondition,
                       Specification<MorphemeContainer> postCondition, Specification<MorphemeContainer> postDerivativeCondition) {
         this.suffix = suffix;
@@ -69,7 +79,7 @@ public class SuffixForm {
      * @see SuffixForm
      */
     public Specification<MorphemeContainer> getPostCondition() {
-        return postCondition;
+        return compiledPostCondition != null ? compiledPostCondition : postCondition;
     }
 
     /**
@@ -77,7 +87,7 @@ public class SuffixForm {
      * @see SuffixForm
      */
     public Specification<MorphemeContainer> getPrecondition() {
-        return precondition;
+        return compiledPrecondition != null ? compiledPrecondition : precondition;
     }
 
     /**
@@ -85,7 +95,25 @@ public class SuffixForm {
      * @see SuffixForm
      */
     public Specification<MorphemeContainer> getPostDerivativeCondition() {
-        return postDerivativeCondition;
+        return compiledPostDerivativeCondition != null ? compiledPostDerivativeCondition : postDerivativeCondition;
+    }
+
+    /**
+     * Sets the compiled conditions to be returned by the getters instead of the conditions given on creation.
+     * Conditions are compiled once, when the {@link org.trnltk.morphology.morphotactics.SuffixGraph} is initialized.
+     *
+     * @param compiledPrecondition            Compiled precondition, or null to use the given one
+     * @param compiledPostCondition           Compiled post condition, or null to use the given one
+     * @param compiledPostDerivativeCondition Compiled post derivative condition, or null to use the given one
+     * @throws IllegalStateException if the compiled conditions are already set
+     */
+    public void setCompiledConditions(Specification<MorphemeContainer> compiledPrecondition, Specification<MorphemeContainer> compiledPostCondition,
+                                      Specification<MorphemeContainer> compiledPostDerivativeCondition) {
+        Validate.validState(!this.conditionsCompiled, "Conditions of suffix form %s are already compiled", this.form);
+        this.conditionsCompiled = true;
+        this.compiledPrecondition = compiledPrecondition;
+        this.compiledPostCondition = compiledPostCondition;
+        this.compiledPostDerivativeCondition = compiledPostDerivativeCondition;
     }
 
     @Override
@@ -96,6 +96,7 @@ public class SuffixFormSequence {
     private final String suffixFormStr;
     private final ImmutableList<SuffixFormSequenceRule> rules;
     private final boolean firstLetterVowel;
+    private int ordinal = -1;
 
     public SuffixFormSequence(String suffixFormStr) {
         Validate.notNull(suffixFormStr);
@@ -190,6 +191,27 @@ public class SuffixFormSequence {
         return this.firstLetterVowel;
     }
 
+    /**
+     * @return Dense ordinal of the <code>SuffixFormSequence</code> in its
+     *         {@link org.trnltk.morphology.morphotactics.SuffixGraph}, or -1 if graph is not initialized yet.
+     *         Equal sequences share the same ordinal.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the dense ordinal of the <code>SuffixFormSequence</code>. Ordinals are assigned when the
+     * {@link org.trnltk.morphology.morphotactics.SuffixGraph} is initialized.
+     *
+     * @throws IllegalStateException if the ordinal is already assigned
+     */
+    public void setOrdinal(int ordinal) {
+        Validate.isTrue(ordinal >= 0, "Ordinal must not be negative");
+        Validate.validState(this.ordinal < 0, "Ordinal of suffix form sequence %s is already assigned", this.suffixFormStr);
+        this.ordinal = ordinal;
+    }
+
     private boolean findIsFirstLetterVowel() {
         if (!this.isNotBlank())
             return false;
@@ -16,6 +16,8 @@
 
 package org.trnltk.model.suffix;
 
+import org.apache.commons.lang3.Validate;
+
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -28,6 +30,7 @@ import java.util.Set;
 public class SuffixGroup {
     private final String name;
     private final Set<Suffix> suffixes = new LinkedHashSet<Suffix>();
+    private int ordinal = -1;
 
     public SuffixGroup(String name) {
         this.name = name;
@@ -47,6 +50,26 @@ public class SuffixGroup {
         return suffixes;
     }
 
+    /**
+     * @return Dense ordinal of the group in its {@link org.trnltk.morphology.morphotactics.SuffixGraph},
+     *         or -1 if graph is not initialized yet
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the dense ordinal of the group. Ordinals are assigned once, when the
+     * {@link org.trnltk.morphology.morphotactics.SuffixGraph} is initialized.
+     *
+     * @throws IllegalStateException if the ordinal is already assigned
+     */
+    public void setOrdinal(int ordinal) {
+        Validate.isTrue(ordinal >= 0, "Ordinal must not be negative");
+        Validate.validState(this.ordinal < 0, "Ordinal of suffix group %s is already assigned", this.name);
+        this.ordinal = ordinal;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -75,8 +75,9 @@ public class SuffixTransition {
 
         SuffixTransition that = (SuffixTransition) o;
 
+        // applications are mostly the shared instances of the suffix form graph edges; identity check saves comparing the suffix forms
         if (!sourceState.equals(that.sourceState)) return false;
-        else if (!suffixFormApplication.equals(that.suffixFormApplication)) return false;
+        else if (suffixFormApplication != that.suffixFormApplication && !suffixFormApplication.equals(that.suffixFormApplication)) return false;
         else if (!targetState.equals(that.targetState)) return false;
 
         return true;
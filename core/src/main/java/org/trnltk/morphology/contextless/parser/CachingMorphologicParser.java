@@ -16,27 +16,46 @@
 
 package org.trnltk.morphology.contextless.parser;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.trnltk.model.letter.TurkishSequence;
 import org.trnltk.model.morpheme.MorphemeContainer;
 import org.trnltk.morphology.contextless.parser.cache.MorphologicParserCache;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
 
 /**
  * Uses a caching with compute-if-absent logic. Different cache algorithms could be injected (One level, Two level, LRU, Time-based, etc.)
+ * <p/>
+ * Parser is safe to share across threads as long as the delegate and the cache are. Bundled caches are.
+ * <p/>
+ * Concurrent misses for the same input are parsed only once: the first thread registers an in-flight parse for the
+ * input and the others wait for its result instead of parsing the input again. An in-flight parse checks the cache
+ * again before parsing, since the parse of another thread might be put on the cache and dropped just after the miss.
+ * An in-flight parse is dropped after its result is put on the cache.
  */
 public class CachingMorphologicParser implements MorphologicParser {
 
     private final MorphologicParser delegate;
     private final MorphologicParserCache cache;
     private final boolean useLocalCache;
+    private final ConcurrentMap<String, FutureTask<List<MorphemeContainer>>> inFlightParses = new ConcurrentHashMap<String, FutureTask<List<MorphemeContainer>>>();
 
     /**
      * Create a new caching parser.
      *
      * @param cache         Cache implementation instance
      * @param delegate      Morphologic parser to delegate parsing if results are absent
-     * @param useLocalCache if true, a method-local cache is used while doing a batch parse
+     * @param useLocalCache if true, a method-local cache is used while doing a batch parse; misses of the batch are
+     *                      parsed before waiting for the parses of other threads. Otherwise, inputs of the batch are
+     *                      looked up and parsed one by one. In both cases, the results of a batch are put on the cache
+     *                      at once
      */
     public CachingMorphologicParser(MorphologicParserCache cache, MorphologicParser delegate, boolean useLocalCache) {
         this.cache = cache;
@@ -47,12 +66,17 @@ public class CachingMorphologicParser implements MorphologicParser {
     }
 
     /**
-     * @see CachingMorphologicParser#parse(org.trnltk.model.letter.TurkishSequence)
-     * @deprecated Throws {@link UnsupportedOperationException}
+     * Parses the underlying strings of the inputs with {@link #parseAllStr(java.util.List)}. Unlike
+     * {@link #parse(org.trnltk.model.letter.TurkishSequence)}, inputs are already created by the client; using their
+     * strings as the cache keys costs nothing.
      */
     @Override
     public List<List<MorphemeContainer>> parseAll(List<TurkishSequence> inputs) {
-        throw new UnsupportedOperationException();
+        final List<String> strInputs = new ArrayList<String>(inputs.size());
+        for (TurkishSequence input : inputs) {
+            strInputs.add(input.getUnderlyingString());
+        }
+        return this.parseAllStr(strInputs);
     }
 
     @Override
@@ -63,47 +87,184 @@ public class CachingMorphologicParser implements MorphologicParser {
         if (useLocalCache) {
             // a method-local cache and values to update.
             // this is done to prevent blocking the cache (I mean the one which is field, not the local variable)
+            final Map<String, List<MorphemeContainer>> batchValuesMap = new HashMap<String, List<MorphemeContainer>>();
+            final Map<String, FutureTask<List<MorphemeContainer>>> ownParses = new LinkedHashMap<String, FutureTask<List<MorphemeContainer>>>();
+            final Map<String, FutureTask<List<MorphemeContainer>>> otherParses = new HashMap<String, FutureTask<List<MorphemeContainer>>>();
 
             for (String input : inputs) {
-                final List<MorphemeContainer> locallyCachedValues = newValuesMap.get(input);
-                if (locallyCachedValues != null) {
-                    results.add(locallyCachedValues);
+                if (batchValuesMap.containsKey(input) || ownParses.containsKey(input) || otherParses.containsKey(input))
+                    continue;
+                final List<MorphemeContainer> cachedResult = this.cache.get(input);
+                if (cachedResult != null) {
+                    batchValuesMap.put(input, cachedResult);
                 } else {
+                    final FutureTask<List<MorphemeContainer>> parse = this.newParse(input);
+                    final FutureTask<List<MorphemeContainer>> inFlightParse = this.inFlightParses.putIfAbsent(input, parse);
+                    if (inFlightParse == null)
+                        ownParses.put(input, parse);
+                    else
+                        otherParses.put(input, inFlightParse);
+                }
+            }
+
+            // own parses are run before waiting for the others; threads waiting for the parses of each other cannot deadlock
+            try {
+                for (FutureTask<List<MorphemeContainer>> parse : ownParses.values()) {
+                    parse.run();
+                }
+                for (Map.Entry<String, FutureTask<List<MorphemeContainer>>> entry : ownParses.entrySet()) {
+                    final List<MorphemeContainer> morphemeContainers = nonNull(getResult(entry.getValue()));
+                    batchValuesMap.put(entry.getKey(), morphemeContainers);
+                    newValuesMap.put(entry.getKey(), morphemeContainers);
+                }
+                cache.putAll(newValuesMap);
+            } finally {
+                for (Map.Entry<String, FutureTask<List<MorphemeContainer>>> entry : ownParses.entrySet()) {
+                    this.inFlightParses.remove(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (Map.Entry<String, FutureTask<List<MorphemeContainer>>> entry : otherParses.entrySet()) {
+                batchValuesMap.put(entry.getKey(), nonNull(getResult(entry.getValue())));
+            }
+
+            for (String input : inputs) {
+                results.add(batchValuesMap.get(input));
+            }
+        } else {
+            // an own parse is run as soon as it is registered, thus threads waiting for the parses of each other cannot deadlock
+            final Map<String, FutureTask<List<MorphemeContainer>>> ownParses = new HashMap<String, FutureTask<List<MorphemeContainer>>>();
+            try {
+                for (String input : inputs) {
                     final List<MorphemeContainer> cachedResult = this.cache.get(input);
                     if (cachedResult != null) {
                         results.add(cachedResult);
-                    } else {
-                        List<MorphemeContainer> morphemeContainers = this.delegate.parseStr(input);
-                        morphemeContainers = morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers;
-                        results.add(morphemeContainers);
-                        newValuesMap.put(input, morphemeContainers);
+                        continue;
                     }
+
+                    final FutureTask<List<MorphemeContainer>> parse = this.newParse(input);
+                    final FutureTask<List<MorphemeContainer>> inFlightParse = this.inFlightParses.putIfAbsent(input, parse);
+                    if (inFlightParse != null) {
+                        // a parse of another thread or of a previous occurrence in the batch
+                        results.add(nonNull(getResult(inFlightParse)));
+                        continue;
+                    }
+
+                    ownParses.put(input, parse);
+                    parse.run();
+                    final List<MorphemeContainer> morphemeContainers = nonNull(getResult(parse));
+                    results.add(morphemeContainers);
+                    newValuesMap.put(input, morphemeContainers);
+                }
+                cache.putAll(newValuesMap);
+            } finally {
+                for (Map.Entry<String, FutureTask<List<MorphemeContainer>>> entry : ownParses.entrySet()) {
+                    this.inFlightParses.remove(entry.getKey(), entry.getValue());
                 }
-            }
-        } else {
-            for (String input : inputs) {
-                final List<MorphemeContainer> result = this.delegate.parseStr(input);
-                newValuesMap.put(input, result);
             }
         }
 
-        cache.putAll(newValuesMap);
-
         return results;
     }
 
+    @Override
+    public List<List<MorphemeContainer>> parseAllParallel(List<String> inputs, int parallelism) {
+        return ParallelMorphologicParsing.parseAll(this, inputs, parallelism);
+    }
+
+    @Override
+    public List<List<MorphemeContainer>> parseAllParallel(List<String> inputs, ForkJoinPool forkJoinPool, ParseProgressListener progressListener) {
+        return ParallelMorphologicParsing.parseAll(this, inputs, forkJoinPool, progressListener);
+    }
+
     @Override
     public List<MorphemeContainer> parseStr(String input) {
         final List<MorphemeContainer> cachedResult = this.cache.get(input);
         if (cachedResult != null) {
             return cachedResult;
-        } else {
-            final List<MorphemeContainer> morphemeContainers = this.delegate.parseStr(input);
+        }
+
+        final FutureTask<List<MorphemeContainer>> parse = this.newParse(input);
+        final FutureTask<List<MorphemeContainer>> inFlightParse = this.inFlightParses.putIfAbsent(input, parse);
+        if (inFlightParse != null)
+            return nonNull(getResult(inFlightParse));
+
+        try {
+            parse.run();
+            final List<MorphemeContainer> morphemeContainers = getResult(parse);
             cache.put(input, morphemeContainers);
-            return morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers;
+            return nonNull(morphemeContainers);
+        } finally {
+            this.inFlightParses.remove(input, parse);
+        }
+    }
+
+    private FutureTask<List<MorphemeContainer>> newParse(final String input) {
+        return new FutureTask<List<MorphemeContainer>>(new Callable<List<MorphemeContainer>>() {
+            @Override
+            public List<MorphemeContainer> call() throws Exception {
+                // another thread might have put the result and dropped its parse after the miss
+                final List<MorphemeContainer> cachedResult = cache.get(input);
+                if (cachedResult != null)
+                    return cachedResult;
+                return delegate.parseStr(input);
+            }
+        });
+    }
+
+    /**
+     * Waits for the parse to complete and rethrows the failure of the parse, if any, in the waiting thread.
+     */
+    private static List<MorphemeContainer> getResult(FutureTask<List<MorphemeContainer>> parse) {
+        try {
+            return Uninterruptibles.getUninterruptibly(parse);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
         }
     }
 
+    private static List<MorphemeContainer> nonNull(List<MorphemeContainer> morphemeContainers) {
+        return morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers;
+    }
+
+    /**
+     * Uses the cached results if there are any. Otherwise, delegate checks the input without full parsing and result
+     * is not cached.
+     */
+    @Override
+    public boolean isParseable(String input) {
+        final List<MorphemeContainer> cachedResult = this.cache.get(input);
+        if (cachedResult != null)
+            return !cachedResult.isEmpty();
+        else
+            return this.delegate.isParseable(input);
+    }
+
+    /**
+     * Uses the cached results if there are any. Otherwise, delegate parses until the first result and result is not
+     * cached.
+     */
+    @Override
+    public MorphemeContainer parseFirstStr(String input) {
+        final List<MorphemeContainer> cachedResult = this.cache.get(input);
+        if (cachedResult != null)
+            return cachedResult.isEmpty() ? null : cachedResult.get(0);
+        else
+            return this.delegate.parseFirstStr(input);
+    }
+
+    /**
+     * Uses the cached results if there are any. Otherwise, delegate counts the results and result is not cached.
+     */
+    @Override
+    public int countParseResultsStr(String input) {
+        final List<MorphemeContainer> cachedResult = this.cache.get(input);
+        if (cachedResult != null)
+            return cachedResult.size();
+        else
+            return this.delegate.countParseResultsStr(input);
+    }
+
     /**
      * Parsing a {@link TurkishSequence} is not supported since {@link MorphologicParserCache} is only using strings
      * as cache keys.
@@ -17,26 +17,31 @@
 package org.trnltk.morphology.contextless.parser;
 
 import com.google.common.base.Function;
-import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Multimap;
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.log4j.Logger;
 import org.trnltk.model.letter.TurkishSequence;
 import org.trnltk.model.lexicon.Root;
 import org.trnltk.model.morpheme.MorphemeContainer;
 import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.morphology.contextless.rootfinder.InputProfile;
 import org.trnltk.morphology.contextless.rootfinder.RootFinderChain;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
 import org.trnltk.morphology.morphotactics.SuffixGraphState;
 import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
 import org.trnltk.util.MorphemeContainerFormatter;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A form-based morphologic parser implementation which does not the context of the input.
+ * <p/>
+ * Suffix form graph, predefined paths and root finders are not modified while parsing, thus parser is safe to share
+ * across threads. A listener, if set, is called from all the threads that are parsing.
  */
 public class ContextlessMorphologicParser implements MorphologicParser {
     private final Logger logger = Logger.getLogger(ContextlessMorphologicParser.class);
@@ -48,15 +53,57 @@ public class ContextlessMorphologicParser implements MorphologicParser {
     private final PredefinedPaths predefinedPaths;
     private final RootFinderChain rootFinderChain;
     private final SuffixApplier suffixApplier;
+    private final Multimap<String, ? extends Root> dictionaryRootMap;
+    private final Supplier<String> fingerprint;
 
     public ContextlessMorphologicParser(final SuffixFormGraph suffixFormGraph, final PredefinedPaths predefinedPaths, final RootFinderChain rootFinderChain, final SuffixApplier suffixApplier) {
+        this(suffixFormGraph, predefinedPaths, rootFinderChain, suffixApplier, null, null);
+    }
+
+    /**
+     * @param dictionaryRootMap Roots of the dictionary which the root finders use, might be null if they are not known
+     * @param fingerprint       Supplier of the fingerprint of the configuration of the parser, see {@link ParserFingerprint}.
+     *                          Might be null if the configuration is not known.
+     */
+    public ContextlessMorphologicParser(final SuffixFormGraph suffixFormGraph, final PredefinedPaths predefinedPaths, final RootFinderChain rootFinderChain,
+                                        final SuffixApplier suffixApplier, final Multimap<String, ? extends Root> dictionaryRootMap,
+                                        final Supplier<String> fingerprint) {
         this.suffixFormGraph = suffixFormGraph;
         this.predefinedPaths = predefinedPaths;
         this.rootFinderChain = rootFinderChain;
         this.suffixApplier = suffixApplier;
+        this.dictionaryRootMap = dictionaryRootMap;
+        this.fingerprint = fingerprint;
         this.mandatoryTransitionApplier = new MandatoryTransitionApplier(suffixFormGraph.getSuffixGraph(), suffixApplier);
     }
 
+    /**
+     * @return Suffix graph which the suffix form graph of the parser is extracted from
+     */
+    public SuffixGraph getSuffixGraph() {
+        return this.suffixFormGraph.getSuffixGraph();
+    }
+
+    public SuffixFormGraph getSuffixFormGraph() {
+        return this.suffixFormGraph;
+    }
+
+    /**
+     * @return Roots of the dictionary, or null if they are not known
+     */
+    public Multimap<String, ? extends Root> getDictionaryRootMap() {
+        return this.dictionaryRootMap;
+    }
+
+    /**
+     * Parsers with equal fingerprints produce the same results, thus results of one can be stored and used for the other.
+     *
+     * @return Fingerprint of the configuration of the parser, or null if the configuration is not known
+     */
+    public String getFingerprint() {
+        return this.fingerprint == null ? null : this.fingerprint.get();
+    }
+
     @Override
     public List<List<MorphemeContainer>> parseAll(List<TurkishSequence> inputs) {
         return new ArrayList<List<MorphemeContainer>>(Lists.transform(inputs, new Function<TurkishSequence, List<MorphemeContainer>>() {
@@ -77,6 +124,16 @@ public class ContextlessMorphologicParser implements MorphologicParser {
         }));
     }
 
+    @Override
+    public List<List<MorphemeContainer>> parseAllParallel(List<String> inputs, int parallelism) {
+        return ParallelMorphologicParsing.parseAll(this, inputs, parallelism);
+    }
+
+    @Override
+    public List<List<MorphemeContainer>> parseAllParallel(List<String> inputs, ForkJoinPool forkJoinPool, ParseProgressListener progressListener) {
+        return ParallelMorphologicParsing.parseAll(this, inputs, forkJoinPool, progressListener);
+    }
+
     @Override
     public List<MorphemeContainer> parseStr(String input) {
         return this.parse(new TurkishSequence(input));
@@ -84,9 +141,64 @@ public class ContextlessMorphologicParser implements MorphologicParser {
 
     @Override
     public LinkedList<MorphemeContainer> parse(final TurkishSequence input) {
+        final AllResultsCollector collector = new AllResultsCollector();
+        this.parse(input, collector);
+        return collector.getResults();
+    }
+
+    @Override
+    public boolean isParseable(String input) {
+        return this.isParseable(new TurkishSequence(input));
+    }
+
+    /**
+     * Checks if there is at least one parse result for the given {@link TurkishSequence}. Traversal stops at the first
+     * result found.
+     */
+    public boolean isParseable(final TurkishSequence input) {
+        final AnyResultCollector collector = new AnyResultCollector();
+        this.parse(input, collector);
+        return collector.result != null;
+    }
+
+    @Override
+    public MorphemeContainer parseFirstStr(String input) {
+        return this.parseFirst(new TurkishSequence(input));
+    }
+
+    /**
+     * Parses the given {@link TurkishSequence} until the first result is found.
+     * <p/>
+     * Result is the first one returned by {@link #parse(TurkishSequence)}. Candidates are traversed depth first, thus
+     * the first result found might be of a later breadth first level; traversal goes on only with the candidates of
+     * the earlier levels.
+     *
+     * @return First result, or null if there are no results
+     */
+    public MorphemeContainer parseFirst(final TurkishSequence input) {
+        final FirstResultCollector collector = new FirstResultCollector();
+        this.parse(input, collector);
+        return collector.result;
+    }
+
+    @Override
+    public int countParseResultsStr(String input) {
+        return this.countParseResults(new TurkishSequence(input));
+    }
+
+    /**
+     * Parses the given {@link TurkishSequence} and counts the results without keeping them.
+     */
+    public int countParseResults(final TurkishSequence input) {
+        final CountingCollector collector = new CountingCollector();
+        this.parse(input, collector);
+        return collector.count;
+    }
+
+    private void parse(final TurkishSequence input, final ResultCollector collector) {
         // * find initial containers --> find possible roots and create containers around them
         // * apply mandatory transitions
-        // * traverse until there are no candidates --> find all results
+        // * traverse candidates depth first, skipping the ones equivalent to a known dead end --> find all results
 
         if (logger.isDebugEnabled())
             logger.debug("Parsing input " + input);
@@ -104,84 +216,111 @@ public class ContextlessMorphologicParser implements MorphologicParser {
 
         final List<MorphemeContainer> candidateMorphemeContainersWithMandatoryTransitions = mandatoryTransitionApplier.applyMandatoryTransitionsToMorphemeContainers(candidateMorphemeContainers, input);
 
-        final LinkedList<MorphemeContainer> results = new LinkedList<MorphemeContainer>();
-        final LinkedList<MorphemeContainer> newCandidates = this.traverseCandidates(candidateMorphemeContainersWithMandatoryTransitions, results, input);
-
-        if (CollectionUtils.isNotEmpty(newCandidates))
-            throw new IllegalStateException("There are still parse morpheme containers to traverse, but traversing is finished : " + newCandidates.toString());
+        final ParseContext parseContext = new ParseContext(input);
+        final DeadEndMemo deadEndMemo = new DeadEndMemo();
+        for (MorphemeContainer candidateMorphemeContainer : candidateMorphemeContainersWithMandatoryTransitions) {
+            if (SuffixGraphStateType.TERMINAL.equals(candidateMorphemeContainer.getLastState().getType())) {
+                if (!this.collectTerminal(candidateMorphemeContainer, 0, collector) && listener != null)
+                    this.listener.onMorphemeContainerInvalidated(candidateMorphemeContainer);
+            } else {
+                this.traverseCandidateDepthFirst(candidateMorphemeContainer, 0, collector, deadEndMemo, parseContext);
+                if (listener != null && !collector.isSatisfied())
+                    this.listener.onMorphemeContainerInvalidated(candidateMorphemeContainer);
+            }
 
-        return results;
+            // rest of the candidates are not needed when collector has what it needs
+            if (collector.isSatisfied())
+                return;
+        }
     }
 
-    private LinkedList<MorphemeContainer> traverseCandidates(final List<MorphemeContainer> candidates, final List<MorphemeContainer> results, final TurkishSequence input) {
-        // * traverse all containers recursively --> go through the suffix graph for all containers, apply transitions and traverse the new containers
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("Gonna traverse " + candidates.size() + " candidates:");
-            for (MorphemeContainer candidate : candidates) {
-                logger.debug("\t " + candidate);
-            }
+    /**
+     * Traverses the subtree of the candidate depth first. Results are collected with the breadth first level of the
+     * candidate they are found from, so that collector can keep the order of a breadth first traversal.
+     * <p/>
+     * Candidates which are known to be dead ends in the memo are skipped and candidates whose subtree has no results
+     * are added to the memo.
+     *
+     * @return number of results found from the candidate
+     */
+    private int traverseCandidateDepthFirst(final MorphemeContainer candidate, final int level, final ResultCollector collector,
+                                            final DeadEndMemo deadEndMemo, final ParseContext parseContext) {
+        if (level > collector.getMaxLevel())
+            return 0;
+
+        final DeadEndMemo.Key key = deadEndMemo.keyOf(candidate);
+        if (deadEndMemo.isDeadEnd(key)) {
+            if (logger.isDebugEnabled())
+                logger.debug(" Skipping candidate, no results can be found from an equivalent one: " + candidate);
+            return 0;
         }
 
-        LinkedList<MorphemeContainer> newCandidates = new LinkedList<MorphemeContainer>();
-        for (MorphemeContainer candidateMorphemeContainer : candidates) {
-            if (logger.isDebugEnabled())
-                logger.debug(" Traversing candidate: %s" + candidateMorphemeContainer);
-            final List<MorphemeContainer> morphemeContainersForCandidate = this.traverseCandidate(candidateMorphemeContainer, input);
-            for (MorphemeContainer morphemeContainerForCandidate : morphemeContainersForCandidate) {
-                if (SuffixGraphStateType.TERMINAL.equals(morphemeContainerForCandidate.getLastState().getType())) {
-                    if (StringUtils.isBlank(morphemeContainerForCandidate.getRemainingSurface())) {
-                        results.add(morphemeContainerForCandidate);
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("Found a terminal result --------------------->");
-                            logger.debug(morphemeContainerForCandidate);
-                            logger.debug(MorphemeContainerFormatter.formatMorphemeContainerWithForms(morphemeContainerForCandidate));
-                        }
-                    } else {
-                        if (logger.isDebugEnabled())
-                            logger.debug("Found a terminal result, but there is still remaining to parse : " + morphemeContainerForCandidate);
-                    }
-                } else {
-                    newCandidates.add(morphemeContainerForCandidate);
-                }
+        if (logger.isDebugEnabled())
+            logger.debug(" Traversing candidate: " + candidate);
+
+        int resultCount = 0;
+        final List<MorphemeContainer> morphemeContainersForCandidate = this.traverseCandidate(candidate, parseContext);
+        for (MorphemeContainer morphemeContainerForCandidate : morphemeContainersForCandidate) {
+            if (SuffixGraphStateType.TERMINAL.equals(morphemeContainerForCandidate.getLastState().getType())) {
+                if (this.collectTerminal(morphemeContainerForCandidate, level, collector))
+                    resultCount++;
+                else if (listener != null)
+                    this.listener.onMorphemeContainerInvalidated(morphemeContainerForCandidate);
+            } else {
+                resultCount += this.traverseCandidateDepthFirst(morphemeContainerForCandidate, level + 1, collector, deadEndMemo, parseContext);
+                if (listener != null && !collector.isSatisfied())
+                    this.listener.onMorphemeContainerInvalidated(morphemeContainerForCandidate);
             }
+
+            // rest of the candidates are not needed when collector has what it needs
+            if (collector.isSatisfied())
+                return resultCount;
         }
 
-        // call recursively until nothing to traverse!
-        if (CollectionUtils.isNotEmpty(newCandidates)) {
-            List<MorphemeContainer> previousCandidates = newCandidates;
-            newCandidates = this.traverseCandidates(previousCandidates, results, input);
-            if (listener != null) {
-                Sets.SetView<MorphemeContainer> invalidatedMorphemeContainers = Sets.difference(new HashSet<MorphemeContainer>(previousCandidates), new HashSet<MorphemeContainer>(newCandidates));
-                for (MorphemeContainer invalidatedMorphemeContainer : invalidatedMorphemeContainers) {
-                    if (SuffixGraphStateType.TERMINAL.equals(invalidatedMorphemeContainer.getLastState().getType())) {
-                        if (StringUtils.isBlank(invalidatedMorphemeContainer.getRemainingSurface()))
-                            continue;
-                    }
-                    this.listener.onMorphemeContainerInvalidated(invalidatedMorphemeContainer);
-                }
+        // subtree might be cut by the collector, then it is not known to be a dead end
+        if (resultCount == 0 && collector.getMaxLevel() == Integer.MAX_VALUE)
+            deadEndMemo.markDeadEnd(key);
+
+        return resultCount;
+    }
+
+    private boolean collectTerminal(final MorphemeContainer morphemeContainer, final int level, final ResultCollector collector) {
+        if (morphemeContainer.isRemainingSurfaceBlank()) {
+            collector.collect(morphemeContainer, level);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Found a terminal result --------------------->");
+                logger.debug(morphemeContainer);
+                logger.debug(MorphemeContainerFormatter.formatMorphemeContainerWithForms(morphemeContainer));
             }
+            return true;
+        } else {
+            if (logger.isDebugEnabled())
+                logger.debug("Found a terminal result, but there is still remaining to parse : " + morphemeContainer);
+            return false;
         }
-
-        return newCandidates;
     }
 
-    private LinkedList<MorphemeContainer> traverseCandidate(final MorphemeContainer initialContainer, final TurkishSequence input) {
+    private LinkedList<MorphemeContainer> traverseCandidate(final MorphemeContainer initialContainer, final ParseContext parseContext) {
         // * traverse one container --> try all possible suffix transitions for the container and find the new containers
         //  >>> where the transitions are applied
 
         if (SuffixGraphStateType.TERMINAL.equals(initialContainer.getLastState().getType()))
             return Lists.newLinkedList(Arrays.asList(initialContainer));
 
-        final SuffixFormGraphNodeKey currentSuffixFormGraphNodeKey = new SuffixFormGraphNodeKey(initialContainer.getLastState(), initialContainer.getPhoneticAttributes());
-        final SuffixFormGraphNode currentNode = this.suffixFormGraph.getNode(currentSuffixFormGraphNodeKey);
+        final SuffixFormGraphNode currentNode = this.suffixFormGraph.getNode(initialContainer.getLastState(), initialContainer.getPhoneticAttributeNumber());
         if (currentNode == null) {
-            throw new IllegalStateException("Node not found for key : " + currentSuffixFormGraphNodeKey.getState() + " set: " + new PhoneticAttributeSets().getNumberForSet(currentSuffixFormGraphNodeKey.getPhonAttrSet()));
+            throw new IllegalStateException("Node not found for key : " + initialContainer.getLastState() + " set: " + initialContainer.getPhoneticAttributeNumber());
         }
 
         final LinkedList<MorphemeContainer> newCandidates = new LinkedList<MorphemeContainer>();
 
-        final Set<SuffixFormGraphSuffixEdge> edges = this.getApplicableSuffixesOfNodeForMorphemeContainer(currentNode, initialContainer);
+        if (!currentNode.getReachability().canConsume(initialContainer, 0)) {
+            if (logger.isDebugEnabled())
+                logger.debug(String.format("  Remaining surface cannot be consumed from node %s, dropping candidate", currentNode));
+            return newCandidates;
+        }
+
+        final List<SuffixFormGraphSuffixEdge> edges = this.getApplicableSuffixesOfNodeForMorphemeContainer(currentNode, initialContainer);
         if (logger.isDebugEnabled()) {
             if (CollectionUtils.isEmpty(edges))
                 logger.debug(String.format("  No applicable transition edges found for morpheme_container from node %s", currentNode));
@@ -199,8 +338,9 @@ public class ContextlessMorphologicParser implements MorphologicParser {
             if (logger.isDebugEnabled())
                 logger.debug(String.format("   Going to try suffixFormApplication : %s", suffixFormApplication));
 
-            final SuffixGraphState targetState = transitionEdge.getTargetSuffixFormGraphNode().getSuffixFormGraphNodeKey().getState();
-            final MorphemeContainer morphemeContainerForSuffixFormApplication = this.suffixApplier.trySuffixFormApplication(initialContainer, suffixFormApplication, targetState, transitionEdge.getPhoneticExpectations(), input);
+            final SuffixFormGraphNode targetNode = transitionEdge.getTargetSuffixFormGraphNode();
+            final MorphemeContainer morphemeContainerForSuffixFormApplication = this.suffixApplier.trySuffixTransition(initialContainer, transitionEdge.getSuffixTransition(),
+                    targetNode.getCurrentPhonAttrSet(), transitionEdge.getPhoneticExpectations(), parseContext);
             if (morphemeContainerForSuffixFormApplication != null)
                 newCandidates.add(morphemeContainerForSuffixFormApplication);
 
@@ -211,33 +351,37 @@ public class ContextlessMorphologicParser implements MorphologicParser {
         return newCandidates;
     }
 
-    private Set<SuffixFormGraphSuffixEdge> getApplicableSuffixesOfNodeForMorphemeContainer(final SuffixFormGraphNode node, final MorphemeContainer morphemeContainer) {
+    private List<SuffixFormGraphSuffixEdge> getApplicableSuffixesOfNodeForMorphemeContainer(final SuffixFormGraphNode node, final MorphemeContainer morphemeContainer) {
         if (logger.isDebugEnabled()) {
             logger.debug("  Finding applicable suffixes for morpheme_container from node " + node + " : " + morphemeContainer);
             logger.debug("   Found outputs " + node.getEdges());
         }
 
-        Set<SuffixFormGraphSuffixEdge> edges = node.getEdges();
-
-        edges = Sets.filter(edges, new Predicate<SuffixFormGraphSuffixEdge>() {
-            @Override
-            public boolean apply(SuffixFormGraphSuffixEdge input) {
-                final String appliedSuffixForm = input.getSuffixFormApplication().getActualSuffixForm();
-                return morphemeContainer.getRemainingSurface().startsWith(appliedSuffixForm);
-            }
-        });
-        if (logger.isDebugEnabled())
-            logger.debug("   Filtered out suffix forms which are not beginning of remaining surface " + morphemeContainer.getSuffixesSinceDerivationSuffix() + " : " + edges);
-
+        // only the edges with empty forms and the edges with forms starting with the first char of remaining surface
+        // can be beginning of the remaining surface
+        final List<SuffixFormGraphSuffixEdge> emptyFormEdges = node.getEmptyFormEdges();
+        final List<SuffixFormGraphSuffixEdge> nonEmptyFormEdges = morphemeContainer.getRemainingSurfaceLength() == 0 ?
+                Collections.<SuffixFormGraphSuffixEdge>emptyList() :
+                node.getEdgesStartingWith(morphemeContainer.remainingSurfaceCharAt(0));
+
+        final List<SuffixFormGraphSuffixEdge> edges = new ArrayList<SuffixFormGraphSuffixEdge>(emptyFormEdges.size() + nonEmptyFormEdges.size());
+        // edges to the states where rest of the remaining surface cannot be consumed are dropped before they are tried
+        for (SuffixFormGraphSuffixEdge edge : emptyFormEdges) {
+            if (edge.getTargetSuffixFormGraphNode().getStateReachability().canConsume(morphemeContainer, 0)
+                    && !morphemeContainer.hasSuffixSinceDerivationSuffix(edge.getSuffixFormApplication().getSuffixForm().getSuffix()))
+                edges.add(edge);
+        }
+        for (SuffixFormGraphSuffixEdge edge : nonEmptyFormEdges) {
+            final SuffixFormApplication suffixFormApplication = edge.getSuffixFormApplication();
+            final String appliedSuffixForm = suffixFormApplication.getActualSuffixForm();
+            if (morphemeContainer.remainingSurfaceStartsWith(appliedSuffixForm)
+                    && edge.getTargetSuffixFormGraphNode().getStateReachability().canConsume(morphemeContainer, appliedSuffixForm.length())
+                    && !morphemeContainer.hasSuffixSinceDerivationSuffix(suffixFormApplication.getSuffixForm().getSuffix()))
+                edges.add(edge);
+        }
 
-        edges = Sets.filter(edges, new Predicate<SuffixFormGraphSuffixEdge>() {
-            @Override
-            public boolean apply(SuffixFormGraphSuffixEdge input) {
-                return !morphemeContainer.getSuffixesSinceDerivationSuffix().contains(input.getSuffixFormApplication().getSuffixForm().getSuffix());
-            }
-        });
         if (logger.isDebugEnabled())
-            logger.debug("   Filtered out the applied suffixes since last derivation " + morphemeContainer.getSuffixesSinceDerivationSuffix() + " : " + edges);
+            logger.debug("   Filtered out suffix forms which are not beginning of remaining surface, which go to states where rest of the surface cannot be consumed and the applied suffixes since last derivation " + morphemeContainer.getSuffixesSinceDerivationSuffix() + " : " + edges);
 
         return edges;
     }
@@ -247,14 +391,16 @@ public class ContextlessMorphologicParser implements MorphologicParser {
 
         final LinkedList<MorphemeContainer> candidates = new LinkedList<MorphemeContainer>();
 
-        for (int i = 1; i < input.length() + 1; i++) {
-            final TurkishSequence partialInput = input.subsequence(0, i);
+        // facts about the input are computed once, not for every partial input by every root finder
+        final InputProfile inputProfile = InputProfile.of(input);
+        final List<List<Root>> rootsForAllPrefixes = this.rootFinderChain.findRootsForAllPrefixes(inputProfile);
 
-            final List<Root> roots = this.rootFinderChain.findRootsForPartialInput(partialInput, input);
+        for (int i = 1; i < input.length() + 1; i++) {
+            final List<Root> roots = rootsForAllPrefixes.get(i);
 
 
             if (logger.isDebugEnabled()) {
-                logger.debug(String.format("Found %d root candidates for partial input '%s':", roots.size(), partialInput));
+                logger.debug(String.format("Found %d root candidates for partial input '%s':", roots.size(), input.getUnderlyingString().substring(0, i)));
                 for (Root root : roots) {
                     logger.debug("\t " + root.toString());
                 }
@@ -307,4 +453,95 @@ public class ContextlessMorphologicParser implements MorphologicParser {
     public void setListener(ContextlessMorphologicParserListener listener) {
         this.listener = listener;
     }
+
+    /**
+     * Collects terminal results found while traversing. Traversal stops once the collector is satisfied.
+     * <p/>
+     * Level of a result is the number of candidates traversed before reaching it, which is the iteration a breadth
+     * first traversal would find it.
+     */
+    private static abstract class ResultCollector {
+        abstract void collect(MorphemeContainer result, int level);
+
+        boolean isSatisfied() {
+            return false;
+        }
+
+        /**
+         * @return Maximum level of the candidates which can still change what is collected
+         */
+        int getMaxLevel() {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static class AllResultsCollector extends ResultCollector {
+        private final List<List<MorphemeContainer>> resultsByLevel = new ArrayList<List<MorphemeContainer>>();
+
+        @Override
+        void collect(MorphemeContainer result, int level) {
+            while (resultsByLevel.size() <= level)
+                resultsByLevel.add(new ArrayList<MorphemeContainer>());
+            resultsByLevel.get(level).add(result);
+        }
+
+        LinkedList<MorphemeContainer> getResults() {
+            final LinkedList<MorphemeContainer> results = new LinkedList<MorphemeContainer>();
+            for (List<MorphemeContainer> resultsOfLevel : resultsByLevel) {
+                results.addAll(resultsOfLevel);
+            }
+            return results;
+        }
+    }
+
+    private static class AnyResultCollector extends ResultCollector {
+        private MorphemeContainer result;
+
+        @Override
+        void collect(MorphemeContainer result, int level) {
+            if (this.result == null)
+                this.result = result;
+        }
+
+        @Override
+        boolean isSatisfied() {
+            return this.result != null;
+        }
+    }
+
+    /**
+     * Keeps the first result of the earliest level, which is the first result of a breadth first traversal. Results of
+     * a level are found in the same order by a depth first traversal.
+     */
+    private static class FirstResultCollector extends ResultCollector {
+        private MorphemeContainer result;
+        private int resultLevel = Integer.MAX_VALUE;
+
+        @Override
+        void collect(MorphemeContainer result, int level) {
+            if (level < this.resultLevel) {
+                this.result = result;
+                this.resultLevel = level;
+            }
+        }
+
+        @Override
+        boolean isSatisfied() {
+            return this.resultLevel == 0;
+        }
+
+        @Override
+        int getMaxLevel() {
+            return this.result == null ? Integer.MAX_VALUE : this.resultLevel - 1;
+        }
+    }
+
+    private static class CountingCollector extends ResultCollector {
+        private int count;
+
+        @Override
+        void collect(MorphemeContainer result, int level) {
+            count++;
+        }
+    }
 }
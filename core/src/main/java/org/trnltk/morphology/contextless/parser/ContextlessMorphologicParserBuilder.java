@@ -1,5 +1,7 @@
 package org.trnltk.morphology.contextless.parser;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.HashMultimap;
 import org.apache.commons.lang3.Validate;
 import org.trnltk.model.lexicon.Root;
@@ -7,6 +9,7 @@ import org.trnltk.morphology.contextless.parser.cache.MorphologicParserCache;
 import org.trnltk.morphology.contextless.parser.cache.SimpleOfflineCache;
 import org.trnltk.morphology.contextless.rootfinder.*;
 import org.trnltk.morphology.lexicon.RootMapFactory;
+import org.trnltk.morphology.lexicon.RootTrie;
 import org.trnltk.morphology.morphotactics.*;
 import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 import org.trnltk.morphology.phonetics.PhoneticsEngine;
@@ -78,16 +81,18 @@ public class ContextlessMorphologicParserBuilder {
         // create common phonetic and morphotactic parts
         final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
         final PhoneticAttributeSets phoneticAttributeSets = new PhoneticAttributeSets();
-        final SuffixFormSequenceApplier suffixFormSequenceApplier = new SuffixFormSequenceApplier();
+
+        // need to initialize suffix graph first
+        suffixGraph.initialize();
+
+        // suffix form realizations are computed once for the graph, both for extraction and for parsing
+        final SuffixFormSequenceApplier suffixFormSequenceApplier = new SuffixFormRealizationTable(suffixGraph, new SuffixFormSequenceApplier());
         final PhoneticsEngine phoneticsEngine = new PhoneticsEngine(suffixFormSequenceApplier);
         final SuffixApplier suffixApplier = new SuffixApplier(phoneticsEngine);
 
         // following is to extract a form-based graph from a suffix-based graph
         final SuffixFormGraphExtractor suffixFormGraphExtractor = new SuffixFormGraphExtractor(suffixFormSequenceApplier, phoneticsAnalyzer, phoneticAttributeSets);
 
-        // need to initialize suffix graph first
-        suffixGraph.initialize();
-
         // extract the formBasedGraph
         final SuffixFormGraph suffixFormGraph = suffixFormGraphExtractor.extract(suffixGraph);
 
@@ -96,7 +101,13 @@ public class ContextlessMorphologicParserBuilder {
         final PredefinedPaths predefinedPaths = new PredefinedPaths(suffixGraph, _dictionaryRootMap, suffixApplier);
         predefinedPaths.initialize();
 
-        final MorphologicParser parser = new ContextlessMorphologicParser(suffixFormGraph, predefinedPaths, rootFinderChain, suffixApplier);
+        // root finders offered to the builder after this point are not used by the parser
+        final RootFinderChain parserRootFinderChain = new RootFinderChain(rootFinderChain);
+
+        // fingerprint is computed now, builder state might be changed after the parser is built
+        final Supplier<String> fingerprint = Suppliers.ofInstance(ParserFingerprint.compute(suffixGraph, _dictionaryRootMap, parserRootFinderChain));
+
+        final MorphologicParser parser = new ContextlessMorphologicParser(suffixFormGraph, predefinedPaths, parserRootFinderChain, suffixApplier, _dictionaryRootMap, fingerprint);
 
         if (cache != null)
             return new CachingMorphologicParser(cache, parser, useLocalCache);
@@ -105,7 +116,8 @@ public class ContextlessMorphologicParserBuilder {
     }
 
     public ContextlessMorphologicParserBuilder addAllBundledNoBruteForceRootFinders(boolean includeProperNounRootFinders) {
-        final DictionaryRootFinder dictionaryRootFinder = new DictionaryRootFinder(_dictionaryRootMap);
+        // bundled dictionary is not modified after builder is created, so it is safe to use a compiled trie
+        final DictionaryRootFinder dictionaryRootFinder = new DictionaryRootFinder(RootTrie.create(_dictionaryRootMap));
         final RangeDigitsRootFinder rangeDigitsRootFinder = new RangeDigitsRootFinder();
         final OrdinalDigitsRootFinder ordinalDigitsRootFinder = new OrdinalDigitsRootFinder();
         final CardinalDigitsRootFinder cardinalDigitsRootFinder = new CardinalDigitsRootFinder();
@@ -23,6 +23,14 @@ import org.trnltk.model.morpheme.MorphemeContainer;
  */
 public interface ContextlessMorphologicParserListener {
 
+    /**
+     * Called for each traversed {@link MorphemeContainer} that is not a parse result, once the parser is done with it:
+     * non-terminal candidates, including the ones created around the roots, after their subtree is traversed and
+     * terminal candidates that still have remaining surface.
+     * <p/>
+     * When parsing stops at a first result, e.g. {@link ContextlessMorphologicParser#parseFirst(org.trnltk.model.letter.TurkishSequence)},
+     * the candidates which are left for that are not reported.
+     */
     public void onMorphemeContainerInvalidated(MorphemeContainer morphemeContainer);
 
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.base.Objects;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.SuffixTransition;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Remembers the morpheme containers from which no terminal result could be reached, for the duration of one parse.
+ * <p/>
+ * Two containers are considered equivalent if every input of the traversal from them is equal. That is, the node they
+ * are at in the suffix form graph, the offset they are at in the input and every part of their history which is read
+ * by the suffix applier and by the specifications of suffix forms:
+ * <ul>
+ * <li>Root; root specifications and lexeme attribute specifications read it</li>
+ * <li>Transitions from the last derivation suffix, last derivation and last non-blank derivation; suffix groups and
+ * suffixes since derivation, repetition checks, post derivative conditions and since-derivation specifications read
+ * them</li>
+ * <li>Last transition; post conditions of it are checked against the next container</li>
+ * <li>Whether there is a non-blank transition and whether there is a transition which changes the phonetics; lexeme
+ * attributes of the next containers are computed with them</li>
+ * </ul>
+ * Thus, if a container is a dead end, all the equivalent containers are dead ends, too; post conditions and post
+ * derivative conditions are evaluated the same for the children of both.
+ * <p/>
+ * Since the history before the last derivation is not a part of the equivalence, equivalent containers with different
+ * paths can only be found right after a derivation. Only those containers are memoized; checking every container
+ * costs more than the traversal it saves.
+ * <p/>
+ * Memo is not safe to share across threads, a new one is created for each parse.
+ */
+final class DeadEndMemo {
+    private final Set<Key> deadEnds = new HashSet<Key>();
+
+    /**
+     * @return Key of the container, or null if the container is not memoized
+     */
+    Key keyOf(MorphemeContainer morphemeContainer) {
+        final SuffixTransition lastSuffixTransition = morphemeContainer.getLastSuffixTransition();
+        if (lastSuffixTransition == null || lastSuffixTransition != morphemeContainer.getLastDerivationSuffixTransition())
+            return null;
+        return new Key(morphemeContainer);
+    }
+
+    boolean isDeadEnd(Key key) {
+        return key != null && this.deadEnds.contains(key);
+    }
+
+    void markDeadEnd(Key key) {
+        if (key != null)
+            this.deadEnds.add(key);
+    }
+
+    /**
+     * Hash code and the first comparisons use the cheap fields of the container; history of the containers are
+     * compared only when everything else is equal.
+     */
+    static final class Key {
+        private final MorphemeContainer morphemeContainer;
+        private final String surfaceSoFar;
+        private final int hashCode;
+
+        private Key(MorphemeContainer morphemeContainer) {
+            this.morphemeContainer = morphemeContainer;
+            this.surfaceSoFar = morphemeContainer.getSurfaceSoFar().getUnderlyingString();
+            // only the hash codes which are cached or cheap to compute
+            int hashCode = surfaceSoFar.hashCode();
+            hashCode = 31 * hashCode + morphemeContainer.getRoot().getSequence().getUnderlyingString().hashCode();
+            hashCode = 31 * hashCode + morphemeContainer.getLastState().hashCode();
+            hashCode = 31 * hashCode + morphemeContainer.getPhoneticAttributeNumber();
+            hashCode = 31 * hashCode + morphemeContainer.getLastSuffixTransition().getSuffixFormApplication().getSuffixForm().getSuffix().hashCode();
+            this.hashCode = hashCode;
+        }
+
+        /**
+         * Compares the transitions in order. Set equality would hash the transitions, which hashes the specifications
+         * of the suffix forms.
+         */
+        private static boolean sameTransitions(Collection<SuffixTransition> first, Collection<SuffixTransition> second) {
+            if (first.size() != second.size())
+                return false;
+            final Iterator<SuffixTransition> secondIterator = second.iterator();
+            for (SuffixTransition suffixTransition : first) {
+                if (!sameTransition(suffixTransition, secondIterator.next()))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Rejects the transitions of different suffixes before comparing the suffix forms, which compares the
+         * specifications of them.
+         */
+        private static boolean sameTransition(SuffixTransition first, SuffixTransition second) {
+            if (first == second)
+                return true;
+            else if (first == null || second == null)
+                return false;
+            else if (!first.getSuffixFormApplication().getSuffixForm().getSuffix().equals(second.getSuffixFormApplication().getSuffixForm().getSuffix()))
+                return false;
+            else
+                return first.equals(second);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Key thatKey = (Key) o;
+            final MorphemeContainer self = this.morphemeContainer;
+            final MorphemeContainer that = thatKey.morphemeContainer;
+
+            if (hashCode != thatKey.hashCode) return false;
+            else if (self.getPhoneticAttributeNumber() != that.getPhoneticAttributeNumber()) return false;
+            else if (!surfaceSoFar.equals(thatKey.surfaceSoFar)) return false;
+            else if (self.getRemainingSurfaceLength() != that.getRemainingSurfaceLength()) return false;
+            else if (!self.getRemainingSurface().equals(that.getRemainingSurface())) return false;
+            else if (!self.getLastState().equals(that.getLastState())) return false;
+            else if (!self.getRoot().equals(that.getRoot())) return false;
+            else if (!Objects.equal(self.getPhoneticExpectations(), that.getPhoneticExpectations())) return false;
+            else if (!Objects.equal(self.getLexemeAttributes(), that.getLexemeAttributes())) return false;
+            else if (!sameTransition(self.getLastSuffixTransition(), that.getLastSuffixTransition())) return false;
+            else if (!sameTransition(self.getLastDerivationSuffixTransition(), that.getLastDerivationSuffixTransition())) return false;
+            else if (!sameTransition(self.getLastNonBlankDerivation(), that.getLastNonBlankDerivation())) return false;
+            else if ((self.getLastNonBlankSuffixTransition() == null) != (that.getLastNonBlankSuffixTransition() == null)) return false;
+            else if (!sameTransitions(self.getTransitionsFromDerivationSuffix(), that.getTransitionsFromDerivationSuffix())) return false;
+            else if (self.hasPhoneticallyChangingTransition() != that.hasPhoneticallyChangingTransition()) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
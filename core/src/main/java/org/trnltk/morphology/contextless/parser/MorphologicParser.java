@@ -20,6 +20,7 @@ import org.trnltk.model.morpheme.MorphemeContainer;
 import org.trnltk.model.letter.TurkishSequence;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The contract for the morphologic parser implementations.
@@ -27,6 +28,8 @@ import java.util.List;
  * A morphologic parser takes the input and fragments it into smaller parts, namely morphemes.
  * These smaller parts are root, suffixes, etc.
  * Morphemes are contained within a {@link MorphemeContainer}.
+ * <p/>
+ * Implementations are safe to share across threads once they are built.
  */
 public interface MorphologicParser {
 
@@ -40,6 +43,25 @@ public interface MorphologicParser {
      */
     public List<MorphemeContainer> parse(final TurkishSequence input);
 
+    /**
+     * Checks if the given string has at least one morphologic parse result. Parsing stops at the first result found.
+     */
+    public boolean isParseable(final String input);
+
+    /**
+     * Parses the given string until the first morphologic parse result is found.
+     * <p/>
+     * Result is the first one returned by {@link #parseStr(String)}.
+     *
+     * @return First result, or null if there are no results
+     */
+    public MorphemeContainer parseFirstStr(final String input);
+
+    /**
+     * Parses the given string and returns the number of possible morphologic parse results, without keeping them.
+     */
+    public int countParseResultsStr(final String input);
+
     /**
      * Parses all of the given strings and returns all possible results for each. Returned results are in inputs' order.
      */
@@ -50,4 +72,21 @@ public interface MorphologicParser {
      */
     @SuppressWarnings("UnusedDeclaration")
     public List<List<MorphemeContainer>> parseAll(final List<TurkishSequence> input);
+
+    /**
+     * Parses all of the given strings in parallel using a new pool of given parallelism, and returns all possible
+     * results for each. Returned results are in inputs' order.
+     *
+     * @see ParallelMorphologicParsing
+     */
+    public List<List<MorphemeContainer>> parseAllParallel(final List<String> input, final int parallelism);
+
+    /**
+     * Parses all of the given strings in parallel using the given pool, and returns all possible results for each.
+     * Returned results are in inputs' order.
+     *
+     * @param progressListener Listener to notify as the inputs are parsed, can be null
+     * @see ParallelMorphologicParsing
+     */
+    public List<List<MorphemeContainer>> parseAllParallel(final List<String> input, final ForkJoinPool forkJoinPool, final ParseProgressListener progressListener);
 }
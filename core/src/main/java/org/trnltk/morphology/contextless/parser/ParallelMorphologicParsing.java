@@ -0,0 +1,141 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses a batch of inputs in parallel with a {@link ForkJoinPool}.
+ * <p/>
+ * Inputs are split into halves recursively until a chunk is small enough. Chunk size adapts to the number of inputs
+ * and the parallelism of the pool, so that there are several chunks per worker to steal. Each chunk is parsed with
+ * {@link MorphologicParser#parseAllStr(java.util.List)} of the given parser, thus caching parsers use their batch
+ * logic for a chunk.
+ * <p/>
+ * Results are written to the index of their inputs, so the order of the inputs is preserved.
+ * <p/>
+ * Given parser must be safe to share across threads.
+ */
+public class ParallelMorphologicParsing {
+
+    // at least this many chunks for each worker, so that idle workers can steal
+    private static final int CHUNKS_PER_WORKER = 8;
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private ParallelMorphologicParsing() {
+    }
+
+    /**
+     * Parses the inputs in parallel with a new pool of given parallelism. Pool is shut down once all inputs are parsed.
+     */
+    public static List<List<MorphemeContainer>> parseAll(MorphologicParser parser, List<String> inputs, int parallelism) {
+        Validate.isTrue(parallelism > 0, "Parallelism must be positive");
+
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            return parseAll(parser, inputs, forkJoinPool, null);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Parses the inputs in parallel with the given pool.
+     *
+     * @param progressListener Listener to notify after each parsed chunk, can be null
+     * @return Results for each input, in inputs' order
+     */
+    public static List<List<MorphemeContainer>> parseAll(MorphologicParser parser, List<String> inputs, ForkJoinPool forkJoinPool,
+                                                         ParseProgressListener progressListener) {
+        Validate.notNull(parser);
+        Validate.notNull(inputs);
+        Validate.notNull(forkJoinPool);
+
+        if (inputs.isEmpty())
+            return new ArrayList<List<MorphemeContainer>>();
+
+        // random access is needed for splitting
+        final List<String> inputList = new ArrayList<String>(inputs);
+
+        // tasks set the results of distinct indices; they are visible once the pool invocation returns
+        final List<List<MorphemeContainer>> results = new ArrayList<List<MorphemeContainer>>(
+                Collections.nCopies(inputList.size(), (List<MorphemeContainer>) null));
+
+        final int chunkCount = forkJoinPool.getParallelism() * CHUNKS_PER_WORKER;
+        final int chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, inputList.size() / chunkCount));
+
+        forkJoinPool.invoke(new ParseTask(parser, inputList, results, 0, inputList.size(), chunkSize, progressListener, new AtomicInteger()));
+
+        return results;
+    }
+
+    private static class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MorphologicParser parser;
+        private final List<String> inputs;
+        private final List<List<MorphemeContainer>> results;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final ParseProgressListener progressListener;
+        private final AtomicInteger parsedCount;
+
+        private ParseTask(MorphologicParser parser, List<String> inputs, List<List<MorphemeContainer>> results, int from, int to,
+                          int chunkSize, ParseProgressListener progressListener, AtomicInteger parsedCount) {
+            this.parser = parser;
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.progressListener = progressListener;
+            this.parsedCount = parsedCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                this.parseChunk();
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ParseTask(parser, inputs, results, from, middle, chunkSize, progressListener, parsedCount),
+                        new ParseTask(parser, inputs, results, middle, to, chunkSize, progressListener, parsedCount));
+            }
+        }
+
+        private void parseChunk() {
+            final List<List<MorphemeContainer>> chunkResults = parser.parseAllStr(inputs.subList(from, to));
+            for (int i = 0; i < chunkResults.size(); i++) {
+                results.set(from + i, chunkResults.get(i));
+            }
+
+            final int parsed = parsedCount.addAndGet(to - from);
+            if (progressListener != null)
+                progressListener.onProgress(parsed, inputs.size());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.trnltk.model.letter.TurkishSequence;
+import org.trnltk.util.Constants;
+
+/**
+ * Input of a parse, prepared once for all the suffix form applications tried while parsing it.
+ * <p/>
+ * Input is kept lower cased as a char array; so checking if an applied suffix form matches the input is a region
+ * comparison, without building the applied string or lower casing it.
+ * <p/>
+ * Immutable, thus safe to share across threads.
+ */
+public class ParseContext {
+    private final TurkishSequence input;
+    // null if lower casing changes the length of the input; then regions cannot be compared
+    private final char[] lowerCaseInput;
+
+    public ParseContext(TurkishSequence input) {
+        this.input = input;
+
+        final String inputString = input.getUnderlyingString();
+        final String lowerCaseInputString = inputString.toLowerCase(Constants.TURKISH_LOCALE);
+        this.lowerCaseInput = lowerCaseInputString.length() == inputString.length() ? lowerCaseInputString.toCharArray() : null;
+    }
+
+    public TurkishSequence getInput() {
+        return input;
+    }
+
+    /**
+     * @return false if applications cannot be matched with {@link #applicationMatches(String, String)}
+     */
+    public boolean isRegionMatchingSupported() {
+        return lowerCaseInput != null;
+    }
+
+    /**
+     * Checks if the surface so far followed by the applied suffix form matches the beginning of the input, ignoring
+     * case. Same with checking if the lower cased input starts with the lower cased concatenation of them.
+     * <p/>
+     * Surface so far is compared as well, since it doesn't always match the input; e.g. roots found by brute force
+     * root finders might have a devoiced last letter.
+     *
+     * @param surfaceSoFar      Surface so far of the container
+     * @param appliedSuffixForm Applied suffix form
+     * @return true if the input starts with the surface so far and the applied suffix form
+     */
+    public boolean applicationMatches(String surfaceSoFar, String appliedSuffixForm) {
+        final int offset = surfaceSoFar.length();
+        if (offset + appliedSuffixForm.length() > lowerCaseInput.length)
+            return false;
+
+        return this.regionMatches(offset, appliedSuffixForm) && this.regionMatches(0, surfaceSoFar);
+    }
+
+    private boolean regionMatches(int offset, String str) {
+        final int length = str.length();
+        for (int i = 0; i < length; i++) {
+            if (lowerCaseInput[offset + i] != toLowerCase(str.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    private static char toLowerCase(char c) {
+        // same with String#toLowerCase(Locale) for Turkish locale, for a single char
+        if (c == 'I')
+            return 'ı';
+        else if (c == 'İ')
+            return 'i';
+        else
+            return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+/**
+ * Contract for a listener that is notified while a batch of inputs are being parsed in parallel.
+ * <p/>
+ * Listener is called from the worker threads, thus implementations must be thread safe.
+ *
+ * @see MorphologicParser#parseAllParallel(java.util.List, java.util.concurrent.ForkJoinPool, ParseProgressListener)
+ */
+public interface ParseProgressListener {
+
+    /**
+     * Called after a chunk of inputs is parsed.
+     *
+     * @param parsedCount Number of inputs parsed so far, including the ones in the chunk
+     * @param totalCount  Number of all inputs
+     */
+    public void onProgress(int parsedCount, int totalCount);
+
+}
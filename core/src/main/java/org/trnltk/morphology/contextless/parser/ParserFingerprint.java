@@ -0,0 +1,109 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Multimap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.trnltk.model.lexicon.Root;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.morphology.contextless.rootfinder.RootFinderChain;
+import org.trnltk.morphology.morphotactics.SuffixEdge;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraphState;
+
+import java.util.*;
+
+/**
+ * Computes a fingerprint of the configuration of a {@link ContextlessMorphologicParser}: its suffix graph, its
+ * dictionary and its root finders. Parsers with equal fingerprints produce the same results, thus stored results of
+ * one can be used by the other.
+ * <p/>
+ * Suffix graph is described by its states, edges, suffixes and suffix forms with their conditions. Dictionary is
+ * described by its roots, independent of their order. Root finders are described by their classes and policies; root
+ * finders which keep their own data besides the dictionary are expected to be configured the same way.
+ * <p/>
+ * Descriptions are hashed, so the fingerprint does not depend on the identity hash codes or iteration orders of a JVM.
+ */
+public final class ParserFingerprint {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private ParserFingerprint() {
+    }
+
+    /**
+     * @return Fingerprint as a hex string
+     */
+    public static String compute(SuffixGraph suffixGraph, Multimap<String, ? extends Root> dictionaryRootMap, RootFinderChain rootFinderChain) {
+        final Hasher hasher = HASH_FUNCTION.newHasher();
+        putSuffixGraph(hasher, suffixGraph);
+        putDictionary(hasher, dictionaryRootMap);
+        hasher.putString(rootFinderChain.describe(), Charsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    private static void putSuffixGraph(Hasher hasher, SuffixGraph suffixGraph) {
+        final List<SuffixGraphState> states = new ArrayList<SuffixGraphState>(suffixGraph.getAllSuffixGraphStates());
+        Collections.sort(states, new Comparator<SuffixGraphState>() {
+            @Override
+            public int compare(SuffixGraphState first, SuffixGraphState second) {
+                return first.getName().compareTo(second.getName());
+            }
+        });
+        for (SuffixGraphState state : states) {
+            hasher.putString(state.getName(), Charsets.UTF_8).putString(state.getType().name(), Charsets.UTF_8);
+
+            final List<String> edges = new ArrayList<String>();
+            for (SuffixEdge suffixEdge : state.getOutEdges()) {
+                edges.add(suffixEdge.getSuffix().getName() + "->" + suffixEdge.getTargetState().getName());
+            }
+            Collections.sort(edges);
+            for (String edge : edges) {
+                hasher.putString(edge, Charsets.UTF_8);
+            }
+        }
+
+        final List<Suffix> suffixes = new ArrayList<Suffix>(suffixGraph.getAllSuffixes());
+        Collections.sort(suffixes, new Comparator<Suffix>() {
+            @Override
+            public int compare(Suffix first, Suffix second) {
+                return first.getName().compareTo(second.getName());
+            }
+        });
+        for (Suffix suffix : suffixes) {
+            hasher.putString(suffix.getClass().getName(), Charsets.UTF_8).putString(suffix.toString(), Charsets.UTF_8);
+            if (suffix.getSuffixGroup() != null)
+                hasher.putString(suffix.getSuffixGroup().getName(), Charsets.UTF_8);
+            // order of the forms is the order of the results
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                hasher.putString(suffixForm.toString(), Charsets.UTF_8);
+            }
+        }
+    }
+
+    private static void putDictionary(Hasher hasher, Multimap<String, ? extends Root> dictionaryRootMap) {
+        // sum of the hashes does not depend on the order of the roots
+        long sum = 0;
+        for (Root root : dictionaryRootMap.values()) {
+            sum += HASH_FUNCTION.hashString(root.getClass().getName() + root.toString(), Charsets.UTF_8).asLong();
+        }
+        hasher.putInt(dictionaryRootMap.size()).putLong(sum);
+    }
+}
@@ -23,6 +23,7 @@ import com.google.common.collect.Sets;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 import org.trnltk.model.lexicon.PhoneticAttributeMetadata;
 
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -46,6 +47,8 @@ import java.util.Set;
  */
 public class PhoneticAttributeSets {
 
+    private static final int PHONETIC_ATTRIBUTE_COUNT = PhoneticAttribute.values().length;
+
     private final ImmutableMap<Long, Set<PhoneticAttribute>> validPhoneticAttributeSetsMap;
     private final ImmutableCollection<Set<PhoneticAttribute>> validPhoneticAttributeSets;
 
@@ -77,16 +80,47 @@ public class PhoneticAttributeSets {
     }
 
     public long getNumberForSet(Set<PhoneticAttribute> set) {
-        long number = 0L;
-        for (PhoneticAttribute phoneticAttribute : PhoneticAttribute.values()) {
-            if (set.contains(phoneticAttribute))
-                number = number | 0x1L;
+        return numberOf(set);
+    }
 
-            number = number << 1;
+    /**
+     * Computes the number of a phonetic attribute set, which is also a bit mask of the attributes in the set. First
+     * attribute of {@link PhoneticAttribute} is the highest bit.
+     * <p/>
+     * Since there are only a few attributes, number always fits into an int.
+     *
+     * @param set Phonetic attributes
+     * @return number for the set
+     */
+    public static int numberOf(Set<PhoneticAttribute> set) {
+        final int highestBit = PHONETIC_ATTRIBUTE_COUNT - 1;
+        int number = 0;
+        for (PhoneticAttribute phoneticAttribute : set) {
+            number |= 1 << (highestBit - phoneticAttribute.ordinal());
         }
+        return number;
+    }
 
-        number = number >> 1;
+    /**
+     * Inverse of {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     *
+     * @param number Number for a set
+     * @return Set of the phonetic attributes for the number
+     */
+    public static EnumSet<PhoneticAttribute> setOf(int number) {
+        final int highestBit = PHONETIC_ATTRIBUTE_COUNT - 1;
+        final EnumSet<PhoneticAttribute> set = EnumSet.noneOf(PhoneticAttribute.class);
+        for (PhoneticAttribute phoneticAttribute : PhoneticAttribute.values()) {
+            if ((number & (1 << (highestBit - phoneticAttribute.ordinal()))) != 0)
+                set.add(phoneticAttribute);
+        }
+        return set;
+    }
 
-        return number;
+    /**
+     * @return upper bound (exclusive) of the numbers returned by {@link PhoneticAttributeSets#numberOf(java.util.Set)}
+     */
+    public static int numberBound() {
+        return 1 << PHONETIC_ATTRIBUTE_COUNT;
     }
 }
@@ -187,7 +187,10 @@ public class PredefinedPathBuilder {
     }
 
 
-    private static class ForcedSuffixForm extends SuffixForm {
+    /**
+     * A suffix form which is not a form of its suffix in the graph, but given in a predefined path.
+     */
+    public static class ForcedSuffixForm extends SuffixForm {
         public ForcedSuffixForm(Suffix suffix, String strSuffixFormApplication) {
             super(suffix, strSuffixFormApplication, null, null, null);
         }
@@ -0,0 +1,174 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.AbstractIterator;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+import org.trnltk.model.morpheme.MorphemeContainer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Parses a stream of inputs with constant memory.
+ * <p/>
+ * Inputs are pulled from the source only when there is room for a new parse; at most <code>maxInFlight</code> inputs
+ * are read and being parsed at a time. Results are returned in inputs' order, as pairs of input and parse results.
+ * Nothing is kept for a result once it is returned, thus memory is released as results are consumed.
+ * <p/>
+ * Parses are run on the given {@link Executor}. Given parser must be safe to share across threads if the executor
+ * has more than one thread.
+ * <p/>
+ * Returned iterators are not thread safe; they are supposed to be consumed by a single thread.
+ */
+public class StreamingMorphologicParser {
+
+    private static final Splitter WORD_SPLITTER = Splitter.on(CharMatcher.WHITESPACE).omitEmptyStrings();
+
+    private final MorphologicParser parser;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /**
+     * @param parser      Parser to parse the inputs with
+     * @param executor    Executor to run the parses on
+     * @param maxInFlight Maximum number of inputs read and being parsed at a time
+     */
+    public StreamingMorphologicParser(MorphologicParser parser, Executor executor, int maxInFlight) {
+        Validate.notNull(parser);
+        Validate.notNull(executor);
+        Validate.isTrue(maxInFlight > 0, "Max in flight count must be positive");
+
+        this.parser = parser;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Parses the inputs lazily, as the returned iterator is consumed.
+     *
+     * @return Pairs of input and parse results, in inputs' order
+     */
+    public Iterator<Pair<String, List<MorphemeContainer>>> parseStream(final Iterator<String> inputs) {
+        Validate.notNull(inputs);
+        return new ParseResultIterator(inputs);
+    }
+
+    /**
+     * Parses the words read from the reader lazily, as the returned iterator is consumed. Words are separated by
+     * whitespace, such as spaces, tabs and line breaks.
+     * <p/>
+     * Reader is read line by line and closed when it is exhausted.
+     *
+     * @return Pairs of word and parse results, in words' order
+     */
+    public Iterator<Pair<String, List<MorphemeContainer>>> parseStream(final Reader reader) {
+        Validate.notNull(reader);
+        return this.parseStream(new WordIterator(reader));
+    }
+
+    private class ParseResultIterator extends AbstractIterator<Pair<String, List<MorphemeContainer>>> {
+        private final Iterator<String> inputs;
+        private final ArrayDeque<Future<Pair<String, List<MorphemeContainer>>>> inFlight;
+
+        private ParseResultIterator(Iterator<String> inputs) {
+            this.inputs = inputs;
+            this.inFlight = new ArrayDeque<Future<Pair<String, List<MorphemeContainer>>>>(maxInFlight);
+        }
+
+        @Override
+        protected Pair<String, List<MorphemeContainer>> computeNext() {
+            this.fill();
+
+            final Future<Pair<String, List<MorphemeContainer>>> head = inFlight.poll();
+            if (head == null)
+                return endOfData();
+
+            final Pair<String, List<MorphemeContainer>> result;
+            try {
+                result = head.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a parse result", e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new IllegalStateException(cause);
+            }
+
+            // start next parse while the consumer is processing this result
+            this.fill();
+
+            return result;
+        }
+
+        private void fill() {
+            while (inFlight.size() < maxInFlight && inputs.hasNext()) {
+                final String input = inputs.next();
+                final FutureTask<Pair<String, List<MorphemeContainer>>> task = new FutureTask<Pair<String, List<MorphemeContainer>>>(new Callable<Pair<String, List<MorphemeContainer>>>() {
+                    @Override
+                    public Pair<String, List<MorphemeContainer>> call() throws Exception {
+                        return Pair.of(input, parser.parseStr(input));
+                    }
+                });
+                inFlight.add(task);
+                executor.execute(task);
+            }
+        }
+    }
+
+    private static class WordIterator extends AbstractIterator<String> {
+        private final BufferedReader reader;
+        private Iterator<String> wordsOfLine;
+
+        private WordIterator(Reader reader) {
+            this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        }
+
+        @Override
+        protected String computeNext() {
+            try {
+                while (wordsOfLine == null || !wordsOfLine.hasNext()) {
+                    final String line = reader.readLine();
+                    if (line == null) {
+                        reader.close();
+                        return endOfData();
+                    }
+                    wordsOfLine = WORD_SPLITTER.split(line).iterator();
+                }
+                return wordsOfLine.next();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read inputs", e);
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.trnltk.morphology.contextless.parser;
 
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
 import org.trnltk.common.specification.Specification;
@@ -67,7 +68,7 @@ public class SuffixApplier {
      */
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean transitionAllowedForSuffix(MorphemeContainer morphemeContainer, Suffix suffix) {
-        if (suffix.getSuffixGroup() != null && morphemeContainer.getSuffixGroupsSinceLastDerivationSuffix().contains(suffix.getSuffixGroup())) {
+        if (suffix.getSuffixGroup() != null && morphemeContainer.hasSuffixGroupSinceLastDerivationSuffix(suffix.getSuffixGroup())) {
             if (logger.isDebugEnabled()) {
                 logger.debug(String.format("    Another suffix is already added on the same group(%s) since last derivation, skipping suffix.", suffix.getSuffixGroup()));
                 logger.debug(String.format("    Groups since last derivation are : %s", morphemeContainer.getSuffixGroupsSinceLastDerivationSuffix()));
@@ -88,7 +89,7 @@ public class SuffixApplier {
      * <ul>
      * <li>Is precondition of the suffix form satisfied with the given container?</li>
      * <li>If suffixForm is not blank, is the phonetic expectations of container is satisfied with the suffix form?</li>
-     * <li>If suffix form is phonetically applicable to container? see {@link PhoneticsEngine#isSuffixFormApplicable(java.util.Set, org.trnltk.model.suffix.SuffixFormSequence)}</li>
+     * <li>If suffix form is phonetically applicable to container? see {@link PhoneticsEngine#isSuffixFormApplicable(int, org.trnltk.model.suffix.SuffixFormSequence)}</li>
      * <li>Does computed suffix form application based on phonetic attributes match the remaining part of the surface?</li>
      * <li>Are the post conditions of the suffix forms in the last inflection group satisfied when suffix form is applied?</li>
      * <li>If the current state of the container is derivational, is the post derivation condition of the container satisfied with suffix form?</li>
@@ -105,9 +106,9 @@ public class SuffixApplier {
 
         final TurkishSequence soFar = morphemeContainer.getSurfaceSoFar();
         final ImmutableSet<LexemeAttribute> morphemeContainerLexemeAttributes = morphemeContainer.getLexemeAttributes();
-        final ImmutableSet<PhoneticAttribute> morphemeContainerPhoneticAttributes = morphemeContainer.getPhoneticAttributes();
+        final int morphemeContainerPhoneticAttributeNumber = morphemeContainer.getPhoneticAttributeNumber();
 
-        final Pair<TurkishSequence, String> appliedPhonetics = this.phoneticsEngine.apply(soFar, morphemeContainerPhoneticAttributes, suffixForm.getForm(), morphemeContainerLexemeAttributes);
+        final Pair<TurkishSequence, String> appliedPhonetics = this.phoneticsEngine.apply(soFar, morphemeContainerPhoneticAttributeNumber, suffixForm.getForm(), morphemeContainerLexemeAttributes);
         final TurkishSequence modifiedWord = appliedPhonetics.getLeft();
         final String fittingSuffixForm = appliedPhonetics.getRight();
         final String appliedStr = modifiedWord.getUnderlyingString() + fittingSuffixForm;
@@ -178,6 +179,42 @@ public class SuffixApplier {
      * @see SuffixApplier#transitionAllowedForSuffixForm(org.trnltk.model.morpheme.MorphemeContainer, org.trnltk.model.suffix.SuffixForm)
      */
     public MorphemeContainer trySuffixFormApplication(MorphemeContainer morphemeContainer, SuffixFormApplication suffixFormApplication, SuffixGraphState targetState, ImmutableSet<PhoneticExpectation> phoneticExpectations, TurkishSequence input) {
+        return this.trySuffixFormApplication(morphemeContainer, suffixFormApplication, targetState, null, phoneticExpectations, new ParseContext(input));
+    }
+
+    /**
+     * Same with {@link SuffixApplier#trySuffixFormApplication(org.trnltk.model.morpheme.MorphemeContainer, org.trnltk.model.suffix.SuffixFormApplication, org.trnltk.morphology.morphotactics.SuffixGraphState, com.google.common.collect.ImmutableSet, org.trnltk.model.letter.TurkishSequence)},
+     * but the application is matched with the input prepared in the parse context; without building the applied string.
+     * <p/>
+     * Phonetic attributes of the target, if given, are adopted by the new container instead of calculating them from
+     * its surface; see {@link MorphemeContainer#addTransition(SuffixFormApplication, SuffixGraphState, ImmutableSet)}.
+     *
+     * @param phoneticAttributesOfTarget Phonetic attributes after the application, e.g. of the target node of the edge
+     *                                   of the application in the suffix form graph; or null to calculate them
+     */
+    public MorphemeContainer trySuffixFormApplication(MorphemeContainer morphemeContainer, SuffixFormApplication suffixFormApplication, SuffixGraphState targetState,
+                                                      ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget, ImmutableSet<PhoneticExpectation> phoneticExpectations,
+                                                      ParseContext parseContext) {
+        return this.trySuffixFormApplication(morphemeContainer, suffixFormApplication, targetState, null, phoneticAttributesOfTarget, phoneticExpectations, parseContext);
+    }
+
+    /**
+     * Same with {@link SuffixApplier#trySuffixFormApplication(org.trnltk.model.morpheme.MorphemeContainer, org.trnltk.model.suffix.SuffixFormApplication, org.trnltk.morphology.morphotactics.SuffixGraphState, com.google.common.collect.ImmutableSet, com.google.common.collect.ImmutableSet, ParseContext)},
+     * but the given transition instance is added to the new container; see {@link MorphemeContainer#addTransition(SuffixTransition, ImmutableSet)}.
+     *
+     * @param suffixTransition Transition to apply, e.g. the transition of an edge in the suffix form graph. Source state
+     *                         of it must be the last state of the container
+     */
+    public MorphemeContainer trySuffixTransition(MorphemeContainer morphemeContainer, SuffixTransition suffixTransition,
+                                                 ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget, ImmutableSet<PhoneticExpectation> phoneticExpectations,
+                                                 ParseContext parseContext) {
+        return this.trySuffixFormApplication(morphemeContainer, suffixTransition.getSuffixFormApplication(), suffixTransition.getTargetState(), suffixTransition,
+                phoneticAttributesOfTarget, phoneticExpectations, parseContext);
+    }
+
+    private MorphemeContainer trySuffixFormApplication(MorphemeContainer morphemeContainer, SuffixFormApplication suffixFormApplication, SuffixGraphState targetState,
+                                                       SuffixTransition sharedSuffixTransition, ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget,
+                                                       ImmutableSet<PhoneticExpectation> phoneticExpectations, ParseContext parseContext) {
         final SuffixForm suffixForm = suffixFormApplication.getSuffixForm();
         final Suffix suffix = suffixForm.getSuffix();
 
@@ -198,15 +235,18 @@ public class SuffixApplier {
 
         final String actualSuffixForm = suffixFormApplication.getActualSuffixForm();
         final String fittingSuffixForm = suffixFormApplication.getFittingSuffixForm();
-        final String appliedStr = soFar.getUnderlyingString() + actualSuffixForm;
+        final TurkishSequence input = parseContext.getInput();
 
         // Does given suffix form application match the remaining part of the surface?
-        if (phoneticsEngine.applicationMatches(input, appliedStr, false)) {
+        if (this.applicationMatches(parseContext, soFar, actualSuffixForm)) {
             if (logger.isDebugEnabled())
-                logger.debug(String.format("      Word '%s' starts with applied str '%s' (%s), adding to current morpheme container", input, appliedStr, actualSuffixForm));
+                logger.debug(String.format("      Word '%s' starts with applied str '%s' (%s), adding to current morpheme container", input, soFar.getUnderlyingString() + actualSuffixForm, actualSuffixForm));
 
             final MorphemeContainer cloneMorphemeContainer = new MorphemeContainer(morphemeContainer);
-            cloneMorphemeContainer.addTransition(new SuffixFormApplication(suffixForm, actualSuffixForm, fittingSuffixForm), targetState);
+            if (sharedSuffixTransition != null)
+                cloneMorphemeContainer.addTransition(sharedSuffixTransition, phoneticAttributesOfTarget);
+            else
+                cloneMorphemeContainer.addTransition(suffixFormApplication, targetState, phoneticAttributesOfTarget);
 
             // Are the post conditions of the suffix forms in the last inflection group satisfied when suffix form application is applied?
             if (morphemeContainer.hasTransitions()) {
@@ -247,11 +287,22 @@ public class SuffixApplier {
 
         } else {
             if (logger.isDebugEnabled())
-                logger.debug(String.format("      Word '%s' does not start with applied str '%s', skipping", input, appliedStr));
+                logger.debug(String.format("      Word '%s' does not start with applied str '%s', skipping", input, soFar.getUnderlyingString() + actualSuffixForm));
             return null;
         }
     }
 
+    private boolean applicationMatches(ParseContext parseContext, TurkishSequence soFar, String actualSuffixForm) {
+        if (!parseContext.isRegionMatchingSupported())
+            return phoneticsEngine.applicationMatches(parseContext.getInput(), soFar.getUnderlyingString() + actualSuffixForm, false);
+
+        // applied str is blank only if both are blank
+        if (soFar.isBlank() && StringUtils.isBlank(actualSuffixForm))
+            return false;
+
+        return parseContext.applicationMatches(soFar.getUnderlyingString(), actualSuffixForm);
+    }
+
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     private boolean transitionAllowedForSuffixForm(MorphemeContainer morphemeContainer, SuffixForm suffixForm) {
         // Is precondition of the suffix form satisfied with the given container?
@@ -270,7 +321,7 @@ public class SuffixApplier {
         }
 
         // Does computed suffix form application based on phonetic attributes match the remaining part of the surface?
-        if (!phoneticsEngine.isSuffixFormApplicable(morphemeContainer.getPhoneticAttributes(), suffixForm.getForm())) {
+        if (!phoneticsEngine.isSuffixFormApplicable(morphemeContainer.getPhoneticAttributeNumber(), suffixForm.getForm())) {
             if (logger.isDebugEnabled())
                 logger.debug(String.format("      Suffix form '%s' is not phonetically applicable to '%s', skipping.", suffixForm.getForm(), morphemeContainer.getSurfaceSoFar()));
 
@@ -24,6 +24,7 @@ import org.trnltk.morphology.morphotactics.SuffixGraphState;
 import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -36,20 +37,32 @@ import java.util.Set;
  * phonetic attribute combinations. Thus, applicable forms are not computed dynamically based on input,
  * phonetic attributes of the morpheme container and the surface; but are computed in advance for all possible distinct
  * scenarios.
+ * <p/>
+ * Besides the map of nodes, graph keeps the nodes in a table indexed by the ordinal of the state and a dense index of
+ * the phonetic attributes combination. Parser looks up the nodes from that table without hashing the keys.
  */
 public class SuffixFormGraph {
 
     private final Map<SuffixFormGraphNodeKey, SuffixFormGraphNode> nodeMap = new HashMap<SuffixFormGraphNodeKey, SuffixFormGraphNode>();
     private final SuffixGraph suffixGraph;
 
+    // nodeTable[state ordinal][set index]
+    // set index is the dense index of a phonetic attribute set number, assigned in the order the sets are seen
+    private final int[] setIndexByNumber;
+    private int setCount = 0;
+    private SuffixFormGraphNode[][] nodeTable = new SuffixFormGraphNode[0][];
+
     public SuffixFormGraph(SuffixGraph suffixGraph) {
         this.suffixGraph = suffixGraph;
+        this.setIndexByNumber = new int[PhoneticAttributeSets.numberBound()];
+        Arrays.fill(this.setIndexByNumber, -1);
     }
 
     public SuffixFormGraphNode addNode(SuffixFormGraphNodeKey suffixFormGraphNodeKey, SuffixGraphStateType suffixGraphStateType, Set<PhoneticAttribute> phonAttrSet) {
         final SuffixFormGraphNode suffixFormGraphNode = new SuffixFormGraphNode(suffixFormGraphNodeKey, suffixGraphStateType, Sets.immutableEnumSet(phonAttrSet));
         final SuffixFormGraphNode existingSuffixFormGraphNode = this.nodeMap.put(suffixFormGraphNodeKey, suffixFormGraphNode);
         Validate.isTrue(existingSuffixFormGraphNode == null);
+        this.putToNodeTable(suffixFormGraphNodeKey, suffixFormGraphNode);
 
         return suffixFormGraphNode;
     }
@@ -57,12 +70,60 @@ public class SuffixFormGraph {
     public void addNode(SuffixFormGraphNodeKey suffixFormGraphNodeKey, SuffixFormGraphNode suffixFormGraphNode) {
         final SuffixFormGraphNode existingNode = nodeMap.put(suffixFormGraphNodeKey, suffixFormGraphNode);
         Validate.isTrue(existingNode == null);
+        this.putToNodeTable(suffixFormGraphNodeKey, suffixFormGraphNode);
+    }
+
+    private void putToNodeTable(SuffixFormGraphNodeKey suffixFormGraphNodeKey, SuffixFormGraphNode suffixFormGraphNode) {
+        final int stateOrdinal = suffixFormGraphNodeKey.getState().getOrdinal();
+        if (stateOrdinal < 0)       // state of a graph which is not initialized, node can only be found using the map
+            return;
+
+        final int phonAttrNumber = suffixFormGraphNodeKey.getPhonAttrNumber();
+        int setIndex = this.setIndexByNumber[phonAttrNumber];
+        if (setIndex < 0) {
+            setIndex = this.setCount++;
+            this.setIndexByNumber[phonAttrNumber] = setIndex;
+        }
+
+        if (stateOrdinal >= this.nodeTable.length)
+            this.nodeTable = Arrays.copyOf(this.nodeTable, stateOrdinal + 1);
+
+        SuffixFormGraphNode[] nodesOfState = this.nodeTable[stateOrdinal];
+        if (nodesOfState == null)
+            nodesOfState = new SuffixFormGraphNode[setIndex + 1];
+        else if (setIndex >= nodesOfState.length)
+            nodesOfState = Arrays.copyOf(nodesOfState, setIndex + 1);
+
+        nodesOfState[setIndex] = suffixFormGraphNode;
+        this.nodeTable[stateOrdinal] = nodesOfState;
     }
 
     public SuffixFormGraphNode getNode(SuffixFormGraphNodeKey suffixFormGraphNodeKey) {
         return nodeMap.get(suffixFormGraphNodeKey);
     }
 
+    /**
+     * Finds the node for given state and phonetic attributes combination, without creating a key.
+     *
+     * @param state          State of the node
+     * @param phonAttrNumber Number of the phonetic attributes combination, see {@link PhoneticAttributeSets#numberOf(java.util.Set)}
+     * @return node, null if not found
+     */
+    public SuffixFormGraphNode getNode(SuffixGraphState state, int phonAttrNumber) {
+        final int stateOrdinal = state.getOrdinal();
+        if (stateOrdinal < 0)
+            return nodeMap.get(new SuffixFormGraphNodeKey(state, PhoneticAttributeSets.setOf(phonAttrNumber)));
+
+        if (stateOrdinal >= this.nodeTable.length)
+            return null;
+        final SuffixFormGraphNode[] nodesOfState = this.nodeTable[stateOrdinal];
+        final int setIndex = this.setIndexByNumber[phonAttrNumber];
+        if (nodesOfState == null || setIndex < 0 || setIndex >= nodesOfState.length)
+            return null;
+
+        return nodesOfState[setIndex];
+    }
+
     public SuffixGraphState getDefaultStateForRoot(Root root) {
         final SuffixGraphState defaultStateForRoot = this.suffixGraph.getDefaultStateForRoot(root);
         if (defaultStateForRoot == null)
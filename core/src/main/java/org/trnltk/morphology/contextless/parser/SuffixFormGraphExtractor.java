@@ -18,30 +18,29 @@ package org.trnltk.morphology.contextless.parser;
 
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.Validate;
-import org.trnltk.model.letter.TurkishAlphabet;
 import org.trnltk.model.suffix.Suffix;
 import org.trnltk.model.suffix.SuffixForm;
 import org.trnltk.model.suffix.SuffixFormApplication;
 import org.trnltk.model.suffix.SuffixFormSequence;
+import org.trnltk.model.suffix.SuffixTransition;
 import org.trnltk.morphology.morphotactics.SuffixEdge;
 import org.trnltk.morphology.morphotactics.SuffixFormSequenceApplier;
 import org.trnltk.morphology.morphotactics.SuffixGraph;
 import org.trnltk.morphology.morphotactics.SuffixGraphState;
+import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
 import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 import org.trnltk.model.lexicon.PhoneticExpectation;
-import org.trnltk.model.letter.TurkicLetter;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Extracts a {@link SuffixFormGraph} from a {@link SuffixGraph}.
  * <p/>
  * Computes all possible applicable suffix forms for combinations of suffixes, phonetic attribute combinations and
  * suffix graph states.
+ * <p/>
+ * After the graph is explored, nodes are annotated with the {@link SuffixFormGraphNode.Reachability} of terminal nodes.
  */
 public class SuffixFormGraphExtractor {
 
@@ -60,15 +59,19 @@ public class SuffixFormGraphExtractor {
         final Collection<SuffixGraphState> rootSuffixGraphStates = suffixGraph.getRootSuffixGraphStates();
 
         final SuffixFormGraph suffixFormGraph = new SuffixFormGraph(suffixGraph);
+        // only kept while the graph is extracted
+        final CanonicalTransitions canonicalTransitions = new CanonicalTransitions();
 
         for (SuffixGraphState rootSuffixGraphState : rootSuffixGraphStates) {
-            exploreStateBasedSuffixGraph(rootSuffixGraphState, suffixFormGraph);
+            exploreStateBasedSuffixGraph(rootSuffixGraphState, suffixFormGraph, canonicalTransitions);
         }
 
+        annotateReachability(suffixFormGraph);
+
         return suffixFormGraph;
     }
 
-    private void exploreStateBasedSuffixGraph(SuffixGraphState suffixGraphState, SuffixFormGraph suffixFormGraph) {
+    private void exploreStateBasedSuffixGraph(SuffixGraphState suffixGraphState, SuffixFormGraph suffixFormGraph, CanonicalTransitions canonicalTransitions) {
         for (Set<PhoneticAttribute> validPhonAttrSet : this.phoneticAttributeSets.getValidPhoneticAttributeSets()) {
             final SuffixFormGraphNodeKey suffixFormGraphNodeKey = new SuffixFormGraphNodeKey(suffixGraphState, validPhonAttrSet);
 
@@ -86,13 +89,14 @@ public class SuffixFormGraphExtractor {
             for (SuffixEdge outEdge : outEdges) {
                 final SuffixGraphState targetState = outEdge.getTargetState();
                 final Suffix suffix = outEdge.getSuffix();
-                addTransitionNodes(suffixFormGraph, suffixFormGraphNode, suffix, targetState);
-                exploreStateBasedSuffixGraph(targetState, suffixFormGraph);
+                addTransitionNodes(suffixFormGraph, suffixFormGraphNode, suffix, targetState, canonicalTransitions);
+                exploreStateBasedSuffixGraph(targetState, suffixFormGraph, canonicalTransitions);
             }
         }
     }
 
-    private void addTransitionNodes(SuffixFormGraph suffixFormGraph, SuffixFormGraphNode sourceSuffixFormGraphNode, Suffix suffix, SuffixGraphState targetState) {
+    private void addTransitionNodes(SuffixFormGraph suffixFormGraph, SuffixFormGraphNode sourceSuffixFormGraphNode, Suffix suffix, SuffixGraphState targetState,
+                                    CanonicalTransitions canonicalTransitions) {
         for (SuffixForm suffixForm : suffix.getSuffixForms()) {
             final SuffixFormSequence suffixFormSequence = suffixForm.getForm();
             final boolean suffixFormSequenceApplicable = suffixFormSequenceApplier.isApplicable(suffixFormSequence, sourceSuffixFormGraphNode.getCurrentPhonAttrSet());
@@ -100,27 +104,19 @@ public class SuffixFormGraphExtractor {
                 continue;
 
             final String appliedSuffixForm = suffixFormSequenceApplier.apply(suffixFormSequence, sourceSuffixFormGraphNode.getCurrentPhonAttrSet());
-            addSuffixFormEdge(suffixFormGraph, sourceSuffixFormGraphNode, targetState, suffixForm, appliedSuffixForm, appliedSuffixForm);
-
-            if (StringUtils.isNotBlank(appliedSuffixForm) && suffixFormSequence.lastLetterCanBeVoiced()) {
-                final TurkicLetter lastLetter = TurkishAlphabet.getLetter(appliedSuffixForm.charAt(appliedSuffixForm.length() - 1));
-                Validate.notNull(lastLetter);
-                final TurkicLetter voicedLastLetter = TurkishAlphabet.voice(lastLetter);
-                if (voicedLastLetter != null) {
-                    final String voicedSuffixForm = appliedSuffixForm.substring(0, appliedSuffixForm.length() - 1) + voicedLastLetter.charValue();
-                    addSuffixFormEdge(suffixFormGraph, sourceSuffixFormGraphNode, targetState, suffixForm, voicedSuffixForm, appliedSuffixForm, Arrays.asList(PhoneticExpectation.VowelStart));
-                }
-            }
-        }
-    }
+            addSuffixFormEdge(suffixFormGraph, sourceSuffixFormGraphNode, targetState, suffixForm, appliedSuffixForm, appliedSuffixForm, null, canonicalTransitions);
 
-    private void addSuffixFormEdge(SuffixFormGraph suffixFormGraph, SuffixFormGraphNode sourceSuffixFormGraphNode, SuffixGraphState targetState, SuffixForm suffixForm, String appliedSuffixForm, String fittingSuffixForm) {
-        this.addSuffixFormEdge(suffixFormGraph, sourceSuffixFormGraphNode, targetState, suffixForm, appliedSuffixForm, fittingSuffixForm, null);
+            final String voicedSuffixForm = suffixFormSequenceApplier.applyVoiced(suffixFormSequence, sourceSuffixFormGraphNode.getCurrentPhonAttrSet());
+            if (voicedSuffixForm != null)
+                addSuffixFormEdge(suffixFormGraph, sourceSuffixFormGraphNode, targetState, suffixForm, voicedSuffixForm, appliedSuffixForm,
+                        Arrays.asList(PhoneticExpectation.VowelStart), canonicalTransitions);
+        }
     }
 
     private SuffixFormGraphSuffixEdge addSuffixFormEdge(SuffixFormGraph charSuffixGraph, SuffixFormGraphNode sourceCharSuffixGraphNode,
                                                         SuffixGraphState targetState, SuffixForm suffixForm, String appliedSuffixForm,
-                                                        String fittingSuffixForm, Collection<PhoneticExpectation> phoneticExpectations) {
+                                                        String fittingSuffixForm, Collection<PhoneticExpectation> phoneticExpectations,
+                                                        CanonicalTransitions canonicalTransitions) {
         final ImmutableSet<PhoneticAttribute> newNodePhoneticAttributes;
 
         final boolean appliedSuffixFormIsEmpty = StringUtils.isBlank(appliedSuffixForm);
@@ -143,10 +139,129 @@ public class SuffixFormGraphExtractor {
             charSuffixGraph.addNode(newCharSuffixGraphNodeKey, newCharSuffixGraphNode);
         }
 
+        final SuffixFormApplication suffixFormApplication;
         if (appliedSuffixFormIsEmpty)
-            return sourceCharSuffixGraphNode.addEmptySuffixFormEdge(newCharSuffixGraphNode, suffixForm);
+            suffixFormApplication = new SuffixFormApplication(suffixForm, StringUtils.EMPTY, StringUtils.EMPTY);
         else
-            return sourceCharSuffixGraphNode.addSuffixFormEdge(newCharSuffixGraphNode, new SuffixFormApplication(suffixForm, appliedSuffixForm, fittingSuffixForm), phoneticExpectations);
+            suffixFormApplication = new SuffixFormApplication(suffixForm, appliedSuffixForm, fittingSuffixForm);
+
+        // the parser adds the transitions of the edges to the containers, instead of creating new ones
+        final SuffixTransition suffixTransition = canonicalTransitions.get(sourceCharSuffixGraphNode.getSuffixFormGraphNodeKey().getState(),
+                suffixFormApplication, targetState);
+        return sourceCharSuffixGraphNode.addSuffixFormEdge(newCharSuffixGraphNode, suffixTransition, appliedSuffixFormIsEmpty ? null : phoneticExpectations);
+
+    }
+
+    /**
+     * Annotates the nodes with the reachability of terminal nodes.
+     * <p/>
+     * Phonetic attributes of a container can be different than the ones of the target node of an edge. Thus, the
+     * reachability of a node is computed using the reachability of the states its edges go to, which is the
+     * combination of the reachability of all nodes of a state. Computed until nothing changes, since there are
+     * cycles in the graph.
+     */
+    private void annotateReachability(SuffixFormGraph suffixFormGraph) {
+        final Collection<SuffixFormGraphNode> nodes = suffixFormGraph.getMap().values();
+
+        final Map<SuffixFormGraphNode, Integer> minRemainingLengths = new HashMap<SuffixFormGraphNode, Integer>();
+        final Map<SuffixFormGraphNode, Set<Character>> nextFormFirstChars = new HashMap<SuffixFormGraphNode, Set<Character>>();
+        for (SuffixFormGraphNode node : nodes) {
+            final boolean terminal = SuffixGraphStateType.TERMINAL.equals(node.getSuffixGraphStateType());
+            minRemainingLengths.put(node, terminal ? 0 : Integer.MAX_VALUE);
+
+            final Set<Character> firstChars = new TreeSet<Character>();
+            for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                final String appliedSuffixForm = edge.getSuffixFormApplication().getActualSuffixForm();
+                if (!appliedSuffixForm.isEmpty())
+                    firstChars.add(appliedSuffixForm.charAt(0));
+            }
+            nextFormFirstChars.put(node, firstChars);
+        }
+
+        Map<SuffixGraphState, Integer> stateMinRemainingLengths;
+        Map<SuffixGraphState, Set<Character>> stateNextFormFirstChars;
+        boolean changed;
+        do {
+            stateMinRemainingLengths = new HashMap<SuffixGraphState, Integer>();
+            stateNextFormFirstChars = new HashMap<SuffixGraphState, Set<Character>>();
+            for (SuffixFormGraphNode node : nodes) {
+                final SuffixGraphState state = node.getSuffixFormGraphNodeKey().getState();
+                final Integer stateMinRemainingLength = stateMinRemainingLengths.get(state);
+                if (stateMinRemainingLength == null || stateMinRemainingLength > minRemainingLengths.get(node))
+                    stateMinRemainingLengths.put(state, minRemainingLengths.get(node));
+
+                if (!stateNextFormFirstChars.containsKey(state))
+                    stateNextFormFirstChars.put(state, new TreeSet<Character>());
+                stateNextFormFirstChars.get(state).addAll(nextFormFirstChars.get(node));
+            }
 
+            changed = false;
+            for (SuffixFormGraphNode node : nodes) {
+                for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                    final SuffixGraphState targetState = edge.getTargetSuffixFormGraphNode().getSuffixFormGraphNodeKey().getState();
+                    final String appliedSuffixForm = edge.getSuffixFormApplication().getActualSuffixForm();
+
+                    final int targetMinRemainingLength = stateMinRemainingLengths.get(targetState);
+                    if (targetMinRemainingLength != Integer.MAX_VALUE) {
+                        final int minRemainingLength = appliedSuffixForm.length() + targetMinRemainingLength;
+                        if (minRemainingLength < minRemainingLengths.get(node)) {
+                            minRemainingLengths.put(node, minRemainingLength);
+                            changed = true;
+                        }
+                    }
+
+                    if (appliedSuffixForm.isEmpty() && nextFormFirstChars.get(node).addAll(stateNextFormFirstChars.get(targetState)))
+                        changed = true;
+                }
+            }
+        } while (changed);
+
+        final Map<SuffixGraphState, SuffixFormGraphNode.Reachability> stateReachabilities = new HashMap<SuffixGraphState, SuffixFormGraphNode.Reachability>();
+        for (SuffixGraphState state : stateMinRemainingLengths.keySet()) {
+            stateReachabilities.put(state, new SuffixFormGraphNode.Reachability(stateMinRemainingLengths.get(state), toCharArray(stateNextFormFirstChars.get(state))));
+        }
+
+        for (SuffixFormGraphNode node : nodes) {
+            final SuffixFormGraphNode.Reachability reachability = new SuffixFormGraphNode.Reachability(minRemainingLengths.get(node), toCharArray(nextFormFirstChars.get(node)));
+            node.setReachability(reachability, stateReachabilities.get(node.getSuffixFormGraphNodeKey().getState()));
+        }
+    }
+
+    private static char[] toCharArray(Set<Character> sortedChars) {
+        final char[] chars = new char[sortedChars.size()];
+        int i = 0;
+        for (Character c : sortedChars) {
+            chars[i++] = c;
+        }
+        return chars;
+    }
+
+    /**
+     * Instances of the applications and the transitions which are shared by the edges of the graph. Edges of the nodes
+     * of the same state with different phonetic attributes often make equal transitions; they all reference the same
+     * transition and the same application.
+     */
+    private static class CanonicalTransitions {
+        private final Map<SuffixFormApplication, SuffixFormApplication> applications = new HashMap<SuffixFormApplication, SuffixFormApplication>();
+        private final Map<SuffixTransition, SuffixTransition> transitions = new HashMap<SuffixTransition, SuffixTransition>();
+
+        /**
+         * @return Canonical transition, created if there is no equal one yet
+         */
+        SuffixTransition get(SuffixGraphState sourceState, SuffixFormApplication suffixFormApplication, SuffixGraphState targetState) {
+            SuffixFormApplication canonicalApplication = this.applications.get(suffixFormApplication);
+            if (canonicalApplication == null) {
+                canonicalApplication = suffixFormApplication;
+                this.applications.put(canonicalApplication, canonicalApplication);
+            }
+
+            final SuffixTransition suffixTransition = new SuffixTransition(sourceState, canonicalApplication, targetState);
+            final SuffixTransition canonicalTransition = this.transitions.get(suffixTransition);
+            if (canonicalTransition != null)
+                return canonicalTransition;
+
+            this.transitions.put(suffixTransition, suffixTransition);
+            return suffixTransition;
+        }
     }
 }
@@ -19,28 +19,45 @@ package org.trnltk.morphology.contextless.parser;
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
 import org.trnltk.model.suffix.SuffixForm;
 import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixTransition;
 import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 import org.trnltk.model.lexicon.PhoneticExpectation;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * A node in the {@link SuffixFormGraph} where states to go are stored with for each suffix and for each distinct
  * possible phonetic attribute combination.
+ * <p/>
+ * Besides the set of all edges, edges are also indexed by the first character of their applied suffix forms. Edges with
+ * empty applied forms are kept in a separate list. This way, parser visits only the edges which can match the remaining
+ * surface. Indexed edges are kept in the order they are added, which is the order the parser visits them.
+ * <p/>
+ * Once the graph is extracted, node is annotated with the {@link Reachability} of a terminal from it and from the
+ * nodes of its state. Parser drops the candidates which cannot consume their remaining surface.
  */
 public class SuffixFormGraphNode {
     private final SuffixFormGraphNodeKey suffixFormGraphNodeKey;
     private final Set<SuffixFormGraphSuffixEdge> edges = new HashSet<SuffixFormGraphSuffixEdge>();
+    private final List<SuffixFormGraphSuffixEdge> emptyFormEdges = new ArrayList<SuffixFormGraphSuffixEdge>();
+
+    // edgesByFirstChar.get(i) holds the non-empty form edges whose applied form starts with firstChars[i]
+    // firstChars is kept sorted for binary search
+    private char[] firstChars = new char[0];
+    private final List<List<SuffixFormGraphSuffixEdge>> edgesByFirstChar = new ArrayList<List<SuffixFormGraphSuffixEdge>>();
     private final ImmutableSet<PhoneticAttribute> currentPhonAttrSet;
     private final SuffixGraphStateType suffixGraphStateType;
 
     private boolean explored;
 
+    private Reachability reachability = Reachability.UNKNOWN;
+    private Reachability stateReachability = Reachability.UNKNOWN;
+
     SuffixFormGraphNode(SuffixFormGraphNodeKey suffixFormGraphNodeKey, SuffixGraphStateType suffixGraphStateType, ImmutableSet<PhoneticAttribute> currentPhonAttrSet) {
         this.suffixFormGraphNodeKey = suffixFormGraphNodeKey;
         this.currentPhonAttrSet = currentPhonAttrSet;   //TODO: intern?
@@ -80,12 +97,52 @@ public class SuffixFormGraphNode {
     }
 
     public SuffixFormGraphSuffixEdge addSuffixFormEdge(SuffixFormGraphNode targetSuffixFormGraphNode, SuffixFormApplication suffixFormApplication, Collection<PhoneticExpectation> phoneticExpectations) {
-        final SuffixFormGraphSuffixEdge edge = new SuffixFormGraphSuffixEdge(targetSuffixFormGraphNode, suffixFormApplication,
+        final SuffixTransition suffixTransition = new SuffixTransition(this.suffixFormGraphNodeKey.getState(), suffixFormApplication,
+                targetSuffixFormGraphNode.getSuffixFormGraphNodeKey().getState());
+        return this.addSuffixFormEdge(targetSuffixFormGraphNode, suffixTransition, phoneticExpectations);
+    }
+
+    /**
+     * @param suffixTransition Transition from the state of this node to the state of the target node, which is added to
+     *                         the containers as is when the edge is taken
+     */
+    public SuffixFormGraphSuffixEdge addSuffixFormEdge(SuffixFormGraphNode targetSuffixFormGraphNode, SuffixTransition suffixTransition, Collection<PhoneticExpectation> phoneticExpectations) {
+        Validate.isTrue(this.suffixFormGraphNodeKey.getState().equals(suffixTransition.getSourceState()));
+        Validate.isTrue(targetSuffixFormGraphNode.getSuffixFormGraphNodeKey().getState().equals(suffixTransition.getTargetState()));
+
+        final SuffixFormGraphSuffixEdge edge = new SuffixFormGraphSuffixEdge(targetSuffixFormGraphNode, suffixTransition,
                 CollectionUtils.isNotEmpty(phoneticExpectations) ? ImmutableSet.copyOf(phoneticExpectations) : ImmutableSet.<PhoneticExpectation>of());
-        this.edges.add(edge);
+        if (this.edges.add(edge))
+            this.indexEdge(edge);
         return edge;
     }
 
+    private void indexEdge(SuffixFormGraphSuffixEdge edge) {
+        final String appliedSuffixForm = edge.getSuffixFormApplication().getActualSuffixForm();
+        if (appliedSuffixForm.isEmpty()) {
+            this.emptyFormEdges.add(edge);
+            return;
+        }
+
+        final char firstChar = appliedSuffixForm.charAt(0);
+        int index = Arrays.binarySearch(this.firstChars, firstChar);
+        if (index < 0) {
+            // insert a new bucket, keeping the chars sorted. happens only while the graph is extracted
+            index = -(index + 1);
+            final int count = this.firstChars.length;
+
+            final char[] newFirstChars = new char[count + 1];
+            System.arraycopy(this.firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(this.firstChars, index, newFirstChars, index + 1, count - index);
+            newFirstChars[index] = firstChar;
+
+            this.firstChars = newFirstChars;
+            this.edgesByFirstChar.add(index, new ArrayList<SuffixFormGraphSuffixEdge>(2));
+        }
+
+        this.edgesByFirstChar.get(index).add(edge);
+    }
+
     public SuffixFormGraphSuffixEdge addEmptySuffixFormEdge(SuffixFormGraphNode targetSuffixFormGraphNode, SuffixForm suffixForm) {
         return this.addSuffixFormEdge(
                 targetSuffixFormGraphNode,
@@ -98,6 +155,25 @@ public class SuffixFormGraphNode {
         return edges;
     }
 
+    /**
+     * @return Edges with an empty applied suffix form, e.g. free, zero or empty transitions
+     */
+    public List<SuffixFormGraphSuffixEdge> getEmptyFormEdges() {
+        return emptyFormEdges;
+    }
+
+    /**
+     * @param firstChar First character of the applied suffix form
+     * @return Edges with a non-empty applied suffix form which starts with given character. Empty list if there is none
+     */
+    public List<SuffixFormGraphSuffixEdge> getEdgesStartingWith(char firstChar) {
+        final int index = Arrays.binarySearch(this.firstChars, firstChar);
+        if (index < 0)
+            return Collections.emptyList();
+        else
+            return this.edgesByFirstChar.get(index);
+    }
+
     public SuffixGraphStateType getSuffixGraphStateType() {
         return suffixGraphStateType;
     }
@@ -109,4 +185,96 @@ public class SuffixFormGraphNode {
     public void setExplored(boolean explored) {
         this.explored = explored;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return Reachability of a terminal from this node
+     */
+    public Reachability getReachability() {
+        return reachability;
+    }
+
+    /**
+     * @return Reachability of a terminal from any node of the state of this node. Since it holds for all the nodes of
+     *         the state, it can be checked before a transition is applied and the node of the new container is known.
+     */
+    public Reachability getStateReachability() {
+        return stateReachability;
+    }
+
+    void setReachability(Reachability reachability, Reachability stateReachability) {
+        this.reachability = reachability;
+        this.stateReachability = stateReachability;
+    }
+
+    /**
+     * Facts about the paths from a node to a terminal node, ignoring the conditions of the suffix forms.
+     * <p/>
+     * Since the conditions can only block a path, a surface which cannot be consumed by any path cannot be parsed.
+     */
+    public static final class Reachability {
+        /**
+         * Reachability of a node which is not annotated; any surface can be consumed.
+         */
+        public static final Reachability UNKNOWN = new Reachability(0, null);
+
+        private final int minRemainingLength;
+        private final char[] nextFormFirstChars;
+
+        Reachability(int minRemainingLength, char[] nextFormFirstChars) {
+            this.minRemainingLength = minRemainingLength;
+            this.nextFormFirstChars = nextFormFirstChars;
+        }
+
+        /**
+         * @return Minimum number of characters to consume to reach a terminal node, {@link Integer#MAX_VALUE} if no
+         *         terminal node is reachable
+         */
+        public int getMinRemainingLength() {
+            return minRemainingLength;
+        }
+
+        /**
+         * @return true if a terminal node is reachable by the transitions with empty forms
+         */
+        public boolean isTerminalReachableWithoutChars() {
+            return minRemainingLength == 0;
+        }
+
+        /**
+         * @param c Character to check
+         * @return true if a non-empty form which starts with the character can be the next one applied
+         */
+        public boolean canStartNextForm(char c) {
+            return nextFormFirstChars == null || Arrays.binarySearch(nextFormFirstChars, c) >= 0;
+        }
+
+        /**
+         * @param surface Surface
+         * @param offset  Beginning of the remaining part of the surface
+         * @return false if a terminal node cannot be reached by consuming the remaining part of the surface
+         */
+        public boolean canConsume(String surface, int offset) {
+            final int remainingLength = surface.length() - offset;
+            return this.canConsume(remainingLength, remainingLength == 0 ? 0 : surface.charAt(offset));
+        }
+
+        /**
+         * @param morphemeContainer Container
+         * @param consumedLength    Length of the beginning of the remaining surface of the container to skip
+         * @return false if a terminal node cannot be reached by consuming the rest of the remaining surface of the container
+         */
+        public boolean canConsume(MorphemeContainer morphemeContainer, int consumedLength) {
+            final int remainingLength = morphemeContainer.getRemainingSurfaceLength() - consumedLength;
+            return this.canConsume(remainingLength, remainingLength == 0 ? 0 : morphemeContainer.remainingSurfaceCharAt(consumedLength));
+        }
+
+        private boolean canConsume(int remainingLength, char firstChar) {
+            if (remainingLength == 0)
+                return minRemainingLength == 0;
+            else if (Character.isWhitespace(firstChar))
+                return true;        // parser might treat a blank remaining surface as consumed, not pruning
+            else
+                return remainingLength >= minRemainingLength && this.canStartNextForm(firstChar);
+        }
+    }
+}
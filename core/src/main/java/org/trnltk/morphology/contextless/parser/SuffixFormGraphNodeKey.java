@@ -32,10 +32,12 @@ public class SuffixFormGraphNodeKey {
 
     private final ImmutableSet<PhoneticAttribute> phonAttrSet;
     private final SuffixGraphState state;
+    private final int phonAttrNumber;
 
     public SuffixFormGraphNodeKey(SuffixGraphState state, Set<PhoneticAttribute> phonAttrSet) {
         this.state = state;
         this.phonAttrSet = Sets.immutableEnumSet(phonAttrSet);
+        this.phonAttrNumber = PhoneticAttributeSets.numberOf(this.phonAttrSet);
     }
 
     @Override
@@ -70,6 +72,13 @@ public class SuffixFormGraphNodeKey {
         return phonAttrSet;
     }
 
+    /**
+     * @return number of the phonetic attributes combination, see {@link PhoneticAttributeSets#numberOf(java.util.Set)}
+     */
+    public int getPhonAttrNumber() {
+        return phonAttrNumber;
+    }
+
     public SuffixGraphState getState() {
         return state;
     }
@@ -19,6 +19,7 @@ package org.trnltk.morphology.contextless.parser;
 import com.google.common.collect.ImmutableSet;
 import org.trnltk.model.lexicon.PhoneticExpectation;
 import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixTransition;
 
 /**
  * Defines a transition from a {@link SuffixFormGraphNode} to another one.
@@ -35,11 +36,19 @@ public class SuffixFormGraphSuffixEdge {
 
     private final SuffixFormGraphNode targetSuffixFormGraphNode;
     private final SuffixFormApplication suffixFormApplication;
+    private final SuffixTransition suffixTransition;
     private final ImmutableSet<PhoneticExpectation> phoneticExpectations;
 
-    public SuffixFormGraphSuffixEdge(SuffixFormGraphNode targetSuffixFormGraphNode, SuffixFormApplication suffixFormApplication, ImmutableSet<PhoneticExpectation> phoneticExpectations) {
+    /**
+     * @param targetSuffixFormGraphNode Target node of the edge
+     * @param suffixTransition          Transition the edge makes; it is added to the containers as is, thus shared by all
+     *                                  the parse results which take the edge
+     * @param phoneticExpectations      Phonetic expectations of the edge
+     */
+    public SuffixFormGraphSuffixEdge(SuffixFormGraphNode targetSuffixFormGraphNode, SuffixTransition suffixTransition, ImmutableSet<PhoneticExpectation> phoneticExpectations) {
         this.targetSuffixFormGraphNode = targetSuffixFormGraphNode;
-        this.suffixFormApplication = suffixFormApplication;
+        this.suffixFormApplication = suffixTransition.getSuffixFormApplication();
+        this.suffixTransition = suffixTransition;
         this.phoneticExpectations = phoneticExpectations;
     }
 
@@ -79,6 +88,13 @@ public class SuffixFormGraphSuffixEdge {
         return suffixFormApplication;
     }
 
+    /**
+     * @return Transition from the state of the source node to the state of the target node with the application of the edge
+     */
+    public SuffixTransition getSuffixTransition() {
+        return suffixTransition;
+    }
+
     public ImmutableSet<PhoneticExpectation> getPhoneticExpectations() {
         return phoneticExpectations;
     }
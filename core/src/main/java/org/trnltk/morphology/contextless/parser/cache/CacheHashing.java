@@ -0,0 +1,37 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+/**
+ * Hashing helpers for the caches.
+ */
+final class CacheHashing {
+
+    private CacheHashing() {
+    }
+
+    /**
+     * Spreads the bits of a hash code, since string hash codes of similar keys differ only in a few bits.
+     *
+     * @param hashCode Hash code, e.g. of a {@link String}
+     * @return Spread hash
+     */
+    static int spread(int hashCode) {
+        final int hash = hashCode * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
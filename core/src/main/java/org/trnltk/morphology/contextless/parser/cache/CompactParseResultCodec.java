@@ -0,0 +1,344 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.lexicon.PhoneticExpectation;
+import org.trnltk.model.lexicon.Root;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixTransition;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
+import org.trnltk.morphology.contextless.parser.SuffixFormGraph;
+import org.trnltk.morphology.contextless.parser.SuffixFormGraphNode;
+import org.trnltk.morphology.contextless.parser.SuffixFormGraphSuffixEdge;
+import org.trnltk.morphology.morphotactics.SuffixGraphState;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Encodes parse results as ids against the tables of a parser configuration; much smaller than {@link ParseResultCodec}.
+ * <p/>
+ * Codec numbers the states of the suffix graph, the suffix form applications of the edges of the suffix form graph and
+ * the roots of the dictionary. A container is then encoded as the id of its root, the id of its root state, a pair of
+ * (suffix form application id, target state id) for each transition and its phonetic expectations. Ids are written as
+ * variable length integers, thus a typical container takes a byte for each id.
+ * <p/>
+ * Roots which are not in the dictionary (e.g. numeral, proper noun and brute force roots) and suffix form applications
+ * which are not on the suffix form graph (e.g. the ones of predefined paths) are encoded in place, the way
+ * {@link ParseResultCodec} does.
+ * <p/>
+ * Ids are assigned in a sorted order, so codecs of parsers with the same suffix graph and dictionary assign the same
+ * ids. Such codecs have the same {@link #getVersion()}; results encoded by one can only be decoded by a codec with the
+ * same version, which must be checked by the stores and the transports of the results.
+ * <p/>
+ * Results can be decoded to containers, or to {@link ParseResultView}s which share the objects in the tables and do not
+ * compute the derived state of a container.
+ * <p/>
+ * Codec is immutable and safe to share across threads.
+ */
+public class CompactParseResultCodec extends ParseResultCodec {
+    private static final int IN_PLACE = 0;
+
+    private final SuffixGraphState[] states;
+    private final Map<SuffixGraphState, Integer> stateIds;
+    private final SuffixFormApplication[] suffixFormApplications;
+    private final Map<SuffixFormApplication, Integer> suffixFormApplicationIds;
+    private final Root[] roots;
+    private final Map<Root, Integer> rootIds;
+    private final String version;
+
+    /**
+     * @param suffixFormGraph   Suffix form graph of the parser which produces the results to encode
+     * @param dictionaryRootMap Roots of the dictionary of the parser
+     */
+    public CompactParseResultCodec(SuffixFormGraph suffixFormGraph, Multimap<String, ? extends Root> dictionaryRootMap) {
+        super(suffixFormGraph.getSuffixGraph());
+        Validate.notNull(dictionaryRootMap);
+
+        this.states = sortedStates(suffixFormGraph);
+        this.stateIds = idsOf(this.states);
+        this.suffixFormApplications = sortedSuffixFormApplications(suffixFormGraph);
+        this.suffixFormApplicationIds = idsOf(this.suffixFormApplications);
+        this.roots = sortedRoots(dictionaryRootMap);
+        this.rootIds = idsOf(this.roots);
+        this.version = this.computeVersion();
+    }
+
+    /**
+     * Creates a codec for the tables of the given parser.
+     *
+     * @throws IllegalArgumentException if the dictionary of the parser is not known
+     */
+    public static CompactParseResultCodec forParser(ContextlessMorphologicParser parser) {
+        Validate.isTrue(parser.getDictionaryRootMap() != null, "Dictionary of the parser is not known");
+        return new CompactParseResultCodec(parser.getSuffixFormGraph(), parser.getDictionaryRootMap());
+    }
+
+    /**
+     * @return Version of the tables; codecs with the same version encode and decode the results the same way
+     */
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public byte[] encode(List<MorphemeContainer> morphemeContainers) {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(byteArrayOutputStream);
+        try {
+            if (morphemeContainers == null) {
+                writeVarInt(out, 0);
+            } else {
+                writeVarInt(out, morphemeContainers.size());
+                for (MorphemeContainer morphemeContainer : morphemeContainers) {
+                    writeMorphemeContainer(out, morphemeContainer);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // never thrown by a byte array stream
+            throw new IllegalStateException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @Override
+    public List<MorphemeContainer> decode(String input, byte[] encoded, int offset, int length) {
+        final List<ParseResultView> views;
+        try {
+            views = this.readViews(encoded, offset, length);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot decode the parse results of " + input, e);
+        }
+        if (views.isEmpty())
+            return Collections.emptyList();
+
+        final List<MorphemeContainer> morphemeContainers = new ArrayList<MorphemeContainer>(views.size());
+        for (ParseResultView view : views) {
+            morphemeContainers.add(view.toMorphemeContainer(input));
+        }
+        return morphemeContainers;
+    }
+
+    /**
+     * @param encoded Encoded results
+     * @return Views of the decoded results, possibly empty
+     */
+    public List<ParseResultView> decodeViews(byte[] encoded) {
+        return this.decodeViews(encoded, 0, encoded.length);
+    }
+
+    /**
+     * @param encoded Array which contains the encoded results
+     * @param offset  Offset of the encoded results in the array
+     * @param length  Length of the encoded results
+     * @return Views of the decoded results, possibly empty
+     */
+    public List<ParseResultView> decodeViews(byte[] encoded, int offset, int length) {
+        try {
+            return this.readViews(encoded, offset, length);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot decode the parse results", e);
+        }
+    }
+
+    private void writeMorphemeContainer(DataOutput out, MorphemeContainer morphemeContainer) throws IOException {
+        final Integer rootId = rootIds.get(morphemeContainer.getRoot());
+        if (rootId != null) {
+            writeVarInt(out, rootId + 1);
+        } else {
+            writeVarInt(out, IN_PLACE);
+            writeRoot(out, morphemeContainer.getRoot());
+        }
+        writeVarInt(out, stateIdOf(morphemeContainer.getRootState()));
+
+        final List<SuffixTransition> suffixTransitions = morphemeContainer.getSuffixTransitions();
+        writeVarInt(out, suffixTransitions.size());
+        for (SuffixTransition suffixTransition : suffixTransitions) {
+            final SuffixFormApplication suffixFormApplication = suffixTransition.getSuffixFormApplication();
+            final Integer suffixFormApplicationId = suffixFormApplicationIds.get(suffixFormApplication);
+            if (suffixFormApplicationId != null) {
+                writeVarInt(out, suffixFormApplicationId + 1);
+            } else {
+                writeVarInt(out, IN_PLACE);
+                writeSuffixFormApplication(out, suffixFormApplication);
+            }
+            writeVarInt(out, stateIdOf(suffixTransition.getTargetState()));
+        }
+
+        final ImmutableSet<PhoneticExpectation> phoneticExpectations = morphemeContainer.getPhoneticExpectations();
+        if (phoneticExpectations == null) {
+            writeVarInt(out, 0);
+        } else {
+            int bits = 0;
+            for (PhoneticExpectation phoneticExpectation : phoneticExpectations) {
+                bits |= 1 << phoneticExpectation.ordinal();
+            }
+            writeVarInt(out, bits + 1);
+        }
+    }
+
+    private List<ParseResultView> readViews(byte[] encoded, int offset, int length) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded, offset, length));
+        final int count = readVarInt(in);
+        if (count == 0)
+            return Collections.emptyList();
+
+        final List<ParseResultView> views = new ArrayList<ParseResultView>(count);
+        for (int i = 0; i < count; i++) {
+            views.add(readView(in));
+        }
+        return views;
+    }
+
+    private ParseResultView readView(DataInput in) throws IOException {
+        final int rootRef = readVarInt(in);
+        final Root root = rootRef == IN_PLACE ? readRoot(in) : elementAt(roots, rootRef - 1);
+        final SuffixGraphState rootState = elementAt(states, readVarInt(in));
+
+        final int transitionCount = readVarInt(in);
+        final SuffixFormApplication[] applications = new SuffixFormApplication[transitionCount];
+        final SuffixGraphState[] targetStates = new SuffixGraphState[transitionCount];
+        for (int i = 0; i < transitionCount; i++) {
+            final int suffixFormApplicationRef = readVarInt(in);
+            applications[i] = suffixFormApplicationRef == IN_PLACE
+                    ? readSuffixFormApplication(in)
+                    : elementAt(suffixFormApplications, suffixFormApplicationRef - 1);
+            targetStates[i] = elementAt(states, readVarInt(in));
+        }
+
+        final int phoneticExpectationBits = readVarInt(in);
+        ImmutableSet<PhoneticExpectation> phoneticExpectations = null;
+        if (phoneticExpectationBits != 0) {
+            final EnumSet<PhoneticExpectation> set = EnumSet.noneOf(PhoneticExpectation.class);
+            for (PhoneticExpectation phoneticExpectation : PhoneticExpectation.values()) {
+                if (((phoneticExpectationBits - 1) & (1 << phoneticExpectation.ordinal())) != 0)
+                    set.add(phoneticExpectation);
+            }
+            phoneticExpectations = Sets.immutableEnumSet(set);
+        }
+
+        return new ParseResultView(root, rootState, applications, targetStates, phoneticExpectations);
+    }
+
+    private int stateIdOf(SuffixGraphState state) {
+        final Integer stateId = stateIds.get(state);
+        if (stateId == null)
+            throw new IllegalArgumentException("State " + state.getName() + " is not in the suffix graph of the codec");
+        return stateId;
+    }
+
+    private static <T> T elementAt(T[] table, int id) throws IOException {
+        if (id < 0 || id >= table.length)
+            throw new IOException("Unknown id " + id + ", results might be encoded with another version");
+        return table[id];
+    }
+
+    private String computeVersion() {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        // roots and suffix forms which are not in the tables are encoded in place
+        hasher.putString(super.getVersion(), Charsets.UTF_8).putByte((byte) 0);
+        for (SuffixGraphState state : states) {
+            hasher.putString(state.getName(), Charsets.UTF_8).putByte((byte) 0);
+        }
+        for (SuffixFormApplication suffixFormApplication : suffixFormApplications) {
+            hasher.putString(describe(suffixFormApplication), Charsets.UTF_8).putByte((byte) 0);
+        }
+        for (Root root : roots) {
+            hasher.putString(describe(root), Charsets.UTF_8).putByte((byte) 0);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static SuffixGraphState[] sortedStates(SuffixFormGraph suffixFormGraph) {
+        final List<SuffixGraphState> states = new ArrayList<SuffixGraphState>(suffixFormGraph.getSuffixGraph().getAllSuffixGraphStates());
+        Collections.sort(states, new Comparator<SuffixGraphState>() {
+            @Override
+            public int compare(SuffixGraphState first, SuffixGraphState second) {
+                return first.getName().compareTo(second.getName());
+            }
+        });
+        return states.toArray(new SuffixGraphState[states.size()]);
+    }
+
+    private static SuffixFormApplication[] sortedSuffixFormApplications(SuffixFormGraph suffixFormGraph) {
+        final TreeMap<String, SuffixFormApplication> applications = new TreeMap<String, SuffixFormApplication>();
+        for (SuffixFormGraphNode node : suffixFormGraph.getMap().values()) {
+            for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                final SuffixFormApplication suffixFormApplication = edge.getSuffixFormApplication();
+                applications.put(describe(suffixFormApplication), suffixFormApplication);
+            }
+        }
+        return applications.values().toArray(new SuffixFormApplication[applications.size()]);
+    }
+
+    private static Root[] sortedRoots(Multimap<String, ? extends Root> dictionaryRootMap) {
+        final TreeMap<String, Root> roots = new TreeMap<String, Root>();
+        for (Root root : dictionaryRootMap.values()) {
+            roots.put(describe(root), root);
+        }
+        return roots.values().toArray(new Root[roots.size()]);
+    }
+
+    // suffix forms are described by their index, since the forms of a suffix can share the form string
+    private static String describe(SuffixFormApplication suffixFormApplication) {
+        final SuffixForm suffixForm = suffixFormApplication.getSuffixForm();
+        return suffixForm.getSuffix().getName() + '\u0000' + indexOf(suffixForm) + '\u0000'
+                + suffixFormApplication.getActualSuffixForm() + '\u0000' + suffixFormApplication.getFittingSuffixForm();
+    }
+
+    private static String describe(Root root) {
+        return root.getClass().getName() + '\u0000' + root;
+    }
+
+    private static <T> Map<T, Integer> idsOf(T[] table) {
+        final Map<T, Integer> ids = new HashMap<T, Integer>(table.length * 2);
+        for (int i = 0; i < table.length; i++) {
+            ids.put(table[i], i);
+        }
+        return ids;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+}
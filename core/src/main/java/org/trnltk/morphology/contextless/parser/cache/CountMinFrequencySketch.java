@@ -0,0 +1,122 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch of 4-bit counters which estimates how often the keys are accessed.
+ * <p/>
+ * Each key has a counter in each of the 4 rows of the sketch; the estimate is the minimum of them. Counters saturate
+ * at 15. After a number of increments (the sample size), all counters are halved, so that the sketch ages and follows
+ * the recent popularity of the keys.
+ * <p/>
+ * 16 counters are packed in a long, thus the sketch costs 8 bytes per expected key.
+ * <p/>
+ * Sketch is safe to share across threads; counters are incremented with compare-and-set. Increments racing with the
+ * aging might be lost, which only makes the estimate a little less accurate.
+ */
+final class CountMinFrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger incrementCount = new AtomicInteger();
+
+    /**
+     * @param expectedSize Expected number of distinct keys to track, ie. maximum size of the cache
+     */
+    CountMinFrequencySketch(long expectedSize) {
+        final int size = (int) Math.min(Math.max(expectedSize, 8), 1 << 30);
+        final int tableSize = Integer.highestOneBit(size - 1) << 1;
+        this.table = new AtomicLongArray(tableSize);
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) Math.min(10L * size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Estimated number of recent accesses of the key, between 0 and 15
+     */
+    int frequency(Object key) {
+        final int hash = CacheHashing.spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int rowHash = rowHash(hash, row);
+            frequency = Math.min(frequency, (int) ((table.get(indexOf(rowHash)) >>> offsetOf(rowHash)) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the key.
+     */
+    void increment(Object key) {
+        final int hash = CacheHashing.spread(key.hashCode());
+        boolean incremented = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int rowHash = rowHash(hash, row);
+            incremented |= incrementAt(indexOf(rowHash), offsetOf(rowHash));
+        }
+
+        // only one thread sees the exact sample size
+        if (incremented && incrementCount.incrementAndGet() == sampleSize)
+            reset();
+    }
+
+    private boolean incrementAt(int index, int offset) {
+        final long mask = 0xfL << offset;
+        while (true) {
+            final long current = table.get(index);
+            if ((current & mask) == mask)
+                return false;
+            if (table.compareAndSet(index, current, current + (1L << offset)))
+                return true;
+        }
+    }
+
+    /**
+     * Halves every counter.
+     */
+    private void reset() {
+        for (int index = 0; index < table.length(); index++) {
+            while (true) {
+                final long current = table.get(index);
+                if (table.compareAndSet(index, current, (current >>> 1) & RESET_MASK))
+                    break;
+            }
+        }
+        incrementCount.addAndGet(-sampleSize / 2);
+    }
+
+    private int indexOf(int rowHash) {
+        return (rowHash >>> 4) & tableMask;
+    }
+
+    private static int offsetOf(int rowHash) {
+        return (rowHash & 0xf) << 2;
+    }
+
+    private static int rowHash(int hash, int row) {
+        long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+        rowHash += rowHash >>> 32;
+        return (int) rowHash;
+    }
+}
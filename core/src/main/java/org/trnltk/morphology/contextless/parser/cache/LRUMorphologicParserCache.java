@@ -32,6 +32,8 @@ import java.util.Map;
  * <p/>
  * An entry in the cache is consisted of a key (surface string) and a list of {@link MorphemeContainer}. It is worth
  * noting a {@link MorphemeContainer} is a heavy weight object.
+ * <p/>
+ * Cache is safe to share across threads.
  */
 public class LRUMorphologicParserCache implements MorphologicParserCache {
 
@@ -70,16 +72,13 @@ public class LRUMorphologicParserCache implements MorphologicParserCache {
 
     @Override
     public void put(String input, List<MorphemeContainer> morphemeContainers) {
-        synchronized (this.cache) {
-            this.cache.put(input, morphemeContainers);
-        }
+        // Guava cache is concurrent itself
+        this.cache.put(input, morphemeContainers);
     }
 
     @Override
     public void putAll(Map<String, List<MorphemeContainer>> map) {
-        synchronized (this.cache) {
-            this.cache.putAll(map);
-        }
+        this.cache.putAll(map);
     }
 
     @Override
@@ -0,0 +1,392 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent cache which keeps the parse results in a memory mapped file.
+ * <p/>
+ * Results survive restarts of the JVM, and multiple JVMs on a host can share the same file. Results are not kept on
+ * the heap; they are encoded with a {@link ParseResultCodec} and decoded each time they are read with {@link #get(String)}.
+ * A {@link CompactParseResultCodec} makes the records much smaller. The hash of the {@link ParseResultCodec#getVersion()}
+ * of the codec is stored in the file when it is created; a file cannot be opened with a codec of another version, e.g.
+ * a compact codec of a parser whose dictionary or suffix graph is changed.
+ * <p/>
+ * File consists of a header, a hash table and the records. The hash table is an open addressing table with linear
+ * probing; a slot holds the hash of the input and the offset of its record, zero when the slot is empty. A record
+ * holds the input and the encoded results.
+ * <p/>
+ * Size of the file is fixed when it is created. Once the table is 3/4 full or there is no space left for records, new
+ * entries are silently dropped. Entries are never evicted or replaced.
+ * <p/>
+ * If the cache is opened for appending, entries put on the cache are written to the file. A record is written before
+ * the slot pointing to it. Writers in different JVMs are serialized with a lock on the file; thus putting the entries
+ * in batches, e.g. using this cache as the L1 of a {@link TwoLevelMorphologicParserCache}, is much cheaper than putting
+ * them one by one. A file must not be opened more than once in the same JVM for appending.
+ * <p/>
+ * Reads do not lock. Plain writes to the mapped buffer are not ordered for the readers, therefore the end of the records
+ * written so far is published through a volatile field after each batch; readers only follow the slots which point
+ * before the published end. A slot pointing after it is either written by another JVM or not published yet; the end is
+ * then read again while holding the lock of the writers. Records which cannot be decoded, e.g. of a corrupt file, are
+ * counted and treated as misses. Cache is safe to share across threads.
+ */
+public class MappedFileMorphologicParserCache implements MorphologicParserCache, Closeable {
+    private static final int MAGIC = 0x54524e4c;
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC_POSITION = 0;
+    private static final int VERSION_POSITION = 4;
+    private static final int SLOT_COUNT_POSITION = 8;
+    private static final int ENTRY_COUNT_POSITION = 12;
+    private static final int DATA_END_POSITION = 16;
+    private static final int CODEC_VERSION_POSITION = 24;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int SLOT_SIZE = 8;
+
+    private static final int UNPUBLISHED = -1;
+
+    private final ParseResultCodec codec;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean appendOnlinePuts;
+    private final int slotCount;
+    private final int slotMask;
+
+    private volatile int publishedDataEnd;
+    private final AtomicLong undecodableRecordCount = new AtomicLong();
+
+    private MappedFileMorphologicParserCache(ParseResultCodec codec, RandomAccessFile randomAccessFile, MappedByteBuffer buffer,
+                                             boolean appendOnlinePuts) throws IOException {
+        this.codec = codec;
+        this.randomAccessFile = randomAccessFile;
+        this.channel = randomAccessFile.getChannel();
+        this.buffer = buffer;
+        this.appendOnlinePuts = appendOnlinePuts;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(MAGIC_POSITION) != MAGIC)
+            throw new IOException("Not a parse cache file");
+        if (buffer.getInt(VERSION_POSITION) != FORMAT_VERSION)
+            throw new IOException("Unsupported parse cache file version " + buffer.getInt(VERSION_POSITION));
+
+        final int slotCount = buffer.getInt(SLOT_COUNT_POSITION);
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || HEADER_SIZE + (long) slotCount * SLOT_SIZE > buffer.capacity())
+            throw new IOException("Corrupt parse cache file header");
+        if (buffer.getLong(CODEC_VERSION_POSITION) != codecVersionHashOf(codec))
+            throw new IOException("Parse cache file is written with another codec version than " + codec.getVersion());
+        this.slotCount = slotCount;
+        this.slotMask = slotCount - 1;
+        this.publishedDataEnd = buffer.getInt(DATA_END_POSITION);
+    }
+
+    /**
+     * Opens the cache file for reading only. Entries put on the cache are ignored.
+     *
+     * @param file        Existing cache file
+     * @param suffixGraph Suffix graph of the parser which produced the results in the file
+     */
+    public static MappedFileMorphologicParserCache openReadOnly(File file, SuffixGraph suffixGraph) {
+        return openReadOnly(file, new ParseResultCodec(suffixGraph));
+    }
+
+    /**
+     * Opens the cache file for reading only. Entries put on the cache are ignored.
+     *
+     * @param file  Existing cache file
+     * @param codec Codec which the results in the file are encoded with, or one with the same version
+     */
+    public static MappedFileMorphologicParserCache openReadOnly(File file, ParseResultCodec codec) {
+        Validate.notNull(codec);
+        try {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                final MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+                return new MappedFileMorphologicParserCache(codec, randomAccessFile, buffer, false);
+            } catch (IOException e) {
+                randomAccessFile.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open parse cache file " + file, e);
+        }
+    }
+
+    /**
+     * Opens the cache file for reading and appending; creates the file if it doesn't exist. If the file exists, size
+     * parameters are ignored.
+     *
+     * @param file              Cache file
+     * @param suffixGraph       Suffix graph of the parser which produces the results
+     * @param maximumEntryCount Maximum number of entries to put in a new file
+     * @param maximumDataSize   Maximum number of bytes of the records in a new file
+     */
+    public static MappedFileMorphologicParserCache openForAppending(File file, SuffixGraph suffixGraph, int maximumEntryCount, int maximumDataSize) {
+        return openForAppending(file, new ParseResultCodec(suffixGraph), maximumEntryCount, maximumDataSize);
+    }
+
+    /**
+     * Opens the cache file for reading and appending; creates the file if it doesn't exist. If the file exists, size
+     * parameters are ignored.
+     *
+     * @param file              Cache file
+     * @param codec             Codec to encode the results with; must have the version of the one the existing file is
+     *                          written with
+     * @param maximumEntryCount Maximum number of entries to put in a new file
+     * @param maximumDataSize   Maximum number of bytes of the records in a new file
+     */
+    public static MappedFileMorphologicParserCache openForAppending(File file, ParseResultCodec codec, int maximumEntryCount, int maximumDataSize) {
+        Validate.notNull(codec);
+        Validate.isTrue(maximumEntryCount > 0, "maximumEntryCount must be positive");
+        Validate.isTrue(maximumDataSize > 0, "maximumDataSize must be positive");
+
+        // table is at most 3/4 full
+        final long minimumSlotCount = (long) maximumEntryCount * 4 / 3 + 1;
+        Validate.isTrue(minimumSlotCount <= 1 << 26, "maximumEntryCount is too large");
+        final int slotCount = Integer.highestOneBit((int) minimumSlotCount - 1) << 1;
+        final long fileSize = HEADER_SIZE + (long) slotCount * SLOT_SIZE + maximumDataSize;
+        Validate.isTrue(fileSize <= Integer.MAX_VALUE, "Cache file would be too large to map");
+
+        try {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                final FileChannel channel = randomAccessFile.getChannel();
+                final FileLock lock = channel.lock();
+                try {
+                    if (randomAccessFile.length() == 0) {
+                        randomAccessFile.setLength(fileSize);
+                        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                        header.putInt(VERSION_POSITION, FORMAT_VERSION);
+                        header.putInt(SLOT_COUNT_POSITION, slotCount);
+                        header.putInt(ENTRY_COUNT_POSITION, 0);
+                        header.putInt(DATA_END_POSITION, slotPosition(slotCount));
+                        header.putLong(CODEC_VERSION_POSITION, codecVersionHashOf(codec));
+                        // magic is written last, a file without it is not valid
+                        header.putInt(MAGIC_POSITION, MAGIC);
+                        header.force();
+                    }
+                } finally {
+                    lock.release();
+                }
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+                return new MappedFileMorphologicParserCache(codec, randomAccessFile, buffer, true);
+            } catch (IOException e) {
+                randomAccessFile.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open parse cache file " + file, e);
+        }
+    }
+
+    @Override
+    public List<MorphemeContainer> get(String input) {
+        final byte[] key = input.getBytes(Charsets.UTF_8);
+        final int hash = CacheHashing.spread(input.hashCode());
+        try {
+            int recordPosition = this.find(hash, key, this.publishedDataEnd);
+            if (recordPosition == UNPUBLISHED)
+                recordPosition = this.find(hash, key, this.refreshPublishedDataEnd());
+            if (recordPosition == 0 || recordPosition == UNPUBLISHED)
+                return null;
+
+            final int valuePosition = recordPosition + 4 + key.length;
+            final int valueLength = buffer.getInt(valuePosition);
+            final byte[] value = new byte[valueLength];
+            final ByteBuffer view = buffer.duplicate();
+            view.position(valuePosition + 4);
+            view.get(value);
+            return codec.decode(input, value);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException e) {
+            undecodableRecordCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String input, List<MorphemeContainer> morphemeContainers) {
+        this.putAll(Collections.singletonMap(input, morphemeContainers));
+    }
+
+    @Override
+    public synchronized void putAll(Map<String, List<MorphemeContainer>> map) {
+        if (!appendOnlinePuts || map.isEmpty())
+            return;
+
+        try {
+            final FileLock lock = channel.lock();
+            try {
+                for (Map.Entry<String, List<MorphemeContainer>> entry : map.entrySet()) {
+                    if (!this.append(entry.getKey(), entry.getValue()))
+                        break;
+                }
+            } finally {
+                // publishes the records and the slots written by this JVM and the ones seen under the lock
+                this.publishedDataEnd = buffer.getInt(DATA_END_POSITION);
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write to parse cache file", e);
+        }
+    }
+
+    @Override
+    public void build(MorphologicParser parser) {
+        // do nothing since it is filled online or by another process
+    }
+
+    @Override
+    public boolean isNotBuilt() {
+        return false;
+    }
+
+    /**
+     * @return Number of entries in the file, including the ones written by other JVMs
+     */
+    public synchronized int size() {
+        return buffer.getInt(ENTRY_COUNT_POSITION);
+    }
+
+    /**
+     * @return Number of records which are found but cannot be decoded, e.g. because the file is corrupt
+     */
+    public long getUndecodableRecordCount() {
+        return undecodableRecordCount.get();
+    }
+
+    /**
+     * Writes the changes to the storage device.
+     */
+    public void force() {
+        if (appendOnlinePuts)
+            buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.force();
+        this.randomAccessFile.close();
+    }
+
+    /**
+     * Must be called while holding the file lock.
+     *
+     * @return false if the file is full
+     */
+    private boolean append(String input, List<MorphemeContainer> morphemeContainers) {
+        final byte[] key = input.getBytes(Charsets.UTF_8);
+        final int hash = CacheHashing.spread(input.hashCode());
+        if (this.find(hash, key, Integer.MAX_VALUE) != 0)
+            return true;
+
+        final int entryCount = buffer.getInt(ENTRY_COUNT_POSITION);
+        if (entryCount + 1 > slotCount / 4 * 3)
+            return false;
+
+        final byte[] value = codec.encode(morphemeContainers);
+        final int recordPosition = buffer.getInt(DATA_END_POSITION);
+        final long recordEnd = (long) recordPosition + 4 + key.length + 4 + value.length;
+        if (recordEnd > buffer.capacity())
+            return false;
+
+        final ByteBuffer view = buffer.duplicate();
+        view.position(recordPosition);
+        view.putInt(key.length);
+        view.put(key);
+        view.putInt(value.length);
+        view.put(value);
+        buffer.putInt(DATA_END_POSITION, (int) recordEnd);
+
+        int slot = hash & slotMask;
+        while (buffer.getInt(slotPosition(slot) + 4) != 0) {
+            slot = (slot + 1) & slotMask;
+        }
+        // offset is written last, it publishes the slot
+        buffer.putInt(slotPosition(slot), hash);
+        buffer.putInt(slotPosition(slot) + 4, recordPosition);
+        buffer.putInt(ENTRY_COUNT_POSITION, entryCount + 1);
+        return true;
+    }
+
+    /**
+     * Reads the end of the records while holding the lock of the writers in this JVM, thus all of their writes are seen.
+     */
+    private synchronized int refreshPublishedDataEnd() {
+        final int dataEnd = buffer.getInt(DATA_END_POSITION);
+        this.publishedDataEnd = dataEnd;
+        return dataEnd;
+    }
+
+    /**
+     * @param dataEnd Slots pointing to a record at or after this position are not followed
+     * @return Position of the record of the key, 0 if there is no record or {@link #UNPUBLISHED} if a slot pointing
+     *         after <code>dataEnd</code> is met
+     */
+    private int find(int hash, byte[] key, int dataEnd) {
+        int slot = hash & slotMask;
+        for (int probe = 0; probe < slotCount; probe++) {
+            final int recordPosition = buffer.getInt(slotPosition(slot) + 4);
+            if (recordPosition == 0)
+                return 0;
+            if (recordPosition >= dataEnd)
+                return UNPUBLISHED;
+            if (buffer.getInt(slotPosition(slot)) == hash && this.keyEquals(recordPosition, key))
+                return recordPosition;
+            slot = (slot + 1) & slotMask;
+        }
+        return 0;
+    }
+
+    private boolean keyEquals(int recordPosition, byte[] key) {
+        if (buffer.getInt(recordPosition) != key.length)
+            return false;
+        final int keyPosition = recordPosition + 4;
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(keyPosition + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long codecVersionHashOf(ParseResultCodec codec) {
+        return Hashing.murmur3_128().hashString(codec.getVersion(), Charsets.UTF_8).asLong();
+    }
+}
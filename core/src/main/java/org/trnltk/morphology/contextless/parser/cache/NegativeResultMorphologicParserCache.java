@@ -0,0 +1,141 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.CacheStats;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache layer for the inputs which cannot be parsed, in front of another cache.
+ * <p/>
+ * Unparseable inputs (typos, foreign words, fragments of URLs) are the most expensive ones to parse, since every
+ * root and every path is tried for them. Storing their empty results in a regular cache wastes entries which could
+ * hold parse results. This cache puts them on a {@link RotatingBloomFilter} instead, and passes only the inputs with
+ * parse results to the underlying cache. A repeated unparseable input then costs a single filter lookup.
+ * <p/>
+ * Filter is looked up before the underlying cache. Since Bloom filters have false positives, a parseable input is
+ * reported as unparseable with about the given false positive probability. The probability is for a full
+ * generation of the filter; when a generation has the expected number of inputs, the filter is rotated and the
+ * inputs of the oldest generation are forgotten. Thus, the probability never goes above twice the given one.
+ * <p/>
+ * Statistics of the filter are kept separately from the ones of the underlying cache; see {@link #stats()}.
+ * <p/>
+ * Cache is safe to share across threads as long as the underlying cache is.
+ */
+public class NegativeResultMorphologicParserCache implements MorphologicParserCache {
+
+    private final MorphologicParserCache delegate;
+    private final RotatingBloomFilter unparseableInputs;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong insertionCount = new AtomicLong();
+
+    /**
+     * @param delegate                   Cache for the inputs which have parse results
+     * @param expectedUnparseableCount   Number of unparseable inputs to remember before the filter is rotated. Filter
+     *                                   uses about {@code -2 * expectedUnparseableCount * ln(falsePositiveProbability) / ln(2)^2}
+     *                                   bits, which is about 2.4 bytes per input for 1%.
+     * @param falsePositiveProbability   Probability of reporting a parseable input as unparseable
+     */
+    public NegativeResultMorphologicParserCache(MorphologicParserCache delegate, int expectedUnparseableCount, double falsePositiveProbability) {
+        Validate.notNull(delegate, "delegate must not be null");
+        Validate.isTrue(expectedUnparseableCount > 0, "expectedUnparseableCount must be positive");
+        Validate.isTrue(falsePositiveProbability > 0.0 && falsePositiveProbability < 1.0, "falsePositiveProbability must be between 0 and 1");
+
+        this.delegate = delegate;
+        this.unparseableInputs = new RotatingBloomFilter(expectedUnparseableCount, falsePositiveProbability);
+    }
+
+    @Override
+    public List<MorphemeContainer> get(String input) {
+        if (unparseableInputs.mightContain(input)) {
+            hitCount.incrementAndGet();
+            return Collections.emptyList();
+        }
+
+        missCount.incrementAndGet();
+        return delegate.get(input);
+    }
+
+    @Override
+    public void put(String input, List<MorphemeContainer> morphemeContainers) {
+        if (morphemeContainers == null || morphemeContainers.isEmpty()) {
+            unparseableInputs.put(input);
+            insertionCount.incrementAndGet();
+        } else {
+            delegate.put(input, morphemeContainers);
+        }
+    }
+
+    @Override
+    public void putAll(Map<String, List<MorphemeContainer>> map) {
+        final Map<String, List<MorphemeContainer>> parseableMap = new HashMap<String, List<MorphemeContainer>>(map.size());
+        for (Map.Entry<String, List<MorphemeContainer>> entry : map.entrySet()) {
+            final List<MorphemeContainer> morphemeContainers = entry.getValue();
+            if (morphemeContainers == null || morphemeContainers.isEmpty()) {
+                unparseableInputs.put(entry.getKey());
+                insertionCount.incrementAndGet();
+            } else {
+                parseableMap.put(entry.getKey(), morphemeContainers);
+            }
+        }
+
+        if (!parseableMap.isEmpty())
+            delegate.putAll(parseableMap);
+    }
+
+    @Override
+    public void build(MorphologicParser parser) {
+        delegate.build(parser);
+    }
+
+    @Override
+    public boolean isNotBuilt() {
+        return delegate.isNotBuilt();
+    }
+
+    /**
+     * @return Statistics of the filter: hits are the inputs reported as unparseable and misses are the ones passed to
+     *         the underlying cache. Inputs forgotten with the rotations of the filter are counted as evictions.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, unparseableInputs.droppedCount());
+    }
+
+    /**
+     * @return Number of unparseable inputs put on the filter, including the repeated ones
+     */
+    public long insertionCount() {
+        return insertionCount.get();
+    }
+
+    /**
+     * @return Number of times the filter is rotated
+     */
+    public long rotationCount() {
+        return unparseableInputs.rotationCount();
+    }
+}
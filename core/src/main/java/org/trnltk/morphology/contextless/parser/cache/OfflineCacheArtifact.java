@@ -0,0 +1,142 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+import org.apache.commons.lang3.Validate;
+import org.apache.log4j.Logger;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A precompiled set of parse results which can be loaded by a {@link SimpleOfflineCache} instead of parsing the words.
+ * <p/>
+ * An artifact is a gzipped file of a header and the entries. Header consists of a format version, the
+ * fingerprint of the parser which produced the results (see {@link org.trnltk.morphology.contextless.parser.ParserFingerprint})
+ * and the version of the codec. An entry consists of a word and its results encoded with a {@link CompactParseResultCodec}.
+ * <p/>
+ * An artifact is only read for a parser with the same fingerprint; otherwise, results would not be the ones the parser
+ * produces.
+ * <p/>
+ * Artifacts of the bundled word lists are built by the <code>offlineCacheArtifacts</code> profile of the build, which
+ * runs {@link #main(String[])} for the default parser configuration.
+ */
+public final class OfflineCacheArtifact {
+    private static final Logger logger = Logger.getLogger(OfflineCacheArtifact.class);
+
+    private static final int MAGIC = 0x54524e43;
+    private static final int FORMAT_VERSION = 2;
+
+    private OfflineCacheArtifact() {
+    }
+
+    /**
+     * Parses the words in parallel and writes the results to the given file as an artifact.
+     *
+     * @param parser      Parser to parse the words with; it must have a fingerprint
+     * @param words       Words to parse
+     * @param file        Artifact file to write
+     * @param parallelism Number of threads to parse with
+     */
+    public static void write(ContextlessMorphologicParser parser, Collection<String> words, File file, int parallelism) throws IOException {
+        final String fingerprint = parser.getFingerprint();
+        Validate.notNull(fingerprint, "Parser configuration is not known, artifact cannot be read by any parser");
+
+        final List<String> distinctWords = Lists.newArrayList(new LinkedHashSet<String>(words));
+        final List<List<MorphemeContainer>> results = parser.parseAllParallel(distinctWords, parallelism);
+        final CompactParseResultCodec codec = CompactParseResultCodec.forParser(parser);
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(fingerprint);
+            out.writeUTF(codec.getVersion());
+            out.writeInt(distinctWords.size());
+            for (int i = 0; i < distinctWords.size(); i++) {
+                final byte[] encoded = codec.encode(results.get(i));
+                out.writeUTF(distinctWords.get(i));
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @param artifact Artifact to read
+     * @param parser   Parser which will use the results
+     * @return Results by word, or null if the artifact is not built for the parser or it is not in a known format
+     */
+    public static Map<String, List<MorphemeContainer>> read(URL artifact, ContextlessMorphologicParser parser) throws IOException {
+        final String fingerprint = parser.getFingerprint();
+        if (fingerprint == null)
+            return null;
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(artifact.openStream())));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !fingerprint.equals(in.readUTF()))
+                return null;
+
+            final CompactParseResultCodec codec = CompactParseResultCodec.forParser(parser);
+            if (!codec.getVersion().equals(in.readUTF()))
+                return null;
+            final int count = in.readInt();
+            final Map<String, List<MorphemeContainer>> results = new HashMap<String, List<MorphemeContainer>>(count * 4 / 3 + 1);
+            byte[] encoded = new byte[256];
+            for (int i = 0; i < count; i++) {
+                final String word = in.readUTF();
+                final int length = in.readInt();
+                if (length > encoded.length)
+                    encoded = new byte[Math.max(length, encoded.length * 2)];
+                in.readFully(encoded, 0, length);
+                results.put(word, codec.decode(word, encoded, 0, length));
+            }
+            return results;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes the artifact of a bundled word list for the default parser configuration, that is the parser built by
+     * <code>ContextlessMorphologicParserBuilder.newBuilder().build(true)</code>.
+     * <p/>
+     * Arguments: name of the word list resource, e.g. <code>top20kwords.txt</code>, and the artifact file to write.
+     */
+    public static void main(String[] args) throws IOException {
+        Validate.isTrue(args.length == 2, "Usage: OfflineCacheArtifact <word list resource> <artifact file>");
+
+        final List<String> words = Resources.readLines(Resources.getResource(args[0]), Charsets.UTF_8);
+        final ContextlessMorphologicParser parser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.newBuilder().build(true);
+
+        final File file = new File(args[1]);
+        final long start = System.currentTimeMillis();
+        write(parser, words, file, Runtime.getRuntime().availableProcessors());
+        logger.info(String.format("Wrote parse results of %d words to %s in %d ms", words.size(), file, System.currentTimeMillis() - start));
+    }
+}
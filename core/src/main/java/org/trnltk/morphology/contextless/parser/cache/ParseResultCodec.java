@@ -0,0 +1,367 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.letter.TurkishSequence;
+import org.trnltk.model.lexicon.*;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixTransition;
+import org.trnltk.morphology.contextless.parser.PredefinedPathBuilder;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraphState;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Encodes parse results of an input to bytes and decodes them back to equal {@link MorphemeContainer}s.
+ * <p/>
+ * An encoded container consists of its root, the name of its root state, its transitions and its phonetic
+ * expectations. A transition is encoded as the name of the suffix, the index of the suffix form in the suffix, the
+ * actual and fitting suffix forms and the name of the target state. Suffix forms of predefined paths are not forms of
+ * their suffixes, they are encoded with their form strings instead of an index. Roots are encoded with their lexemes, thus roots
+ * which are not in the dictionary (e.g. brute force and numeral roots) are encoded, too.
+ * <p/>
+ * States, suffixes and suffix forms are looked up in the given {@link SuffixGraph} while decoding, therefore the graph
+ * must be the same as the one of the parser which produced the results. The input is not encoded; it is given while
+ * decoding to compute the remaining surface of the containers the way parser does.
+ * <p/>
+ * Parts of speech, lexeme attributes, phonetic attributes and phonetic expectations are encoded with the ordinals of
+ * their enum constants. Constants of these enums are part of the {@link #getVersion()}.
+ * <p/>
+ * Codec is stateless and safe to share across threads.
+ */
+public class ParseResultCodec {
+    private static final int ROOT_IMMUTABLE = 0;
+    private static final int ROOT_DYNAMIC = 1;
+    private static final int ROOT_NUMERAL = 2;
+
+    private static final int LEXEME_IMMUTABLE = 0;
+    private static final int LEXEME_DYNAMIC = 1;
+
+    private static final int FORCED_SUFFIX_FORM = -1;
+
+    private static final String FORMAT = "names-1";
+
+    @SuppressWarnings("unchecked")
+    private static final String VERSION = computeVersion(FORMAT, PrimaryPos.class, SecondaryPos.class, LexemeAttribute.class,
+            PhoneticAttribute.class, PhoneticExpectation.class);
+
+    private final SuffixGraph suffixGraph;
+
+    /**
+     * @param suffixGraph Suffix graph of the parser which produces the results to encode
+     */
+    public ParseResultCodec(SuffixGraph suffixGraph) {
+        Validate.notNull(suffixGraph);
+        this.suffixGraph = suffixGraph;
+    }
+
+    /**
+     * @return Version of the encoding; changes with the format and with the constants of the enums encoded with ordinals
+     */
+    public String getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * @param morphemeContainers Parse results of an input, null is encoded as no results
+     * @return Encoded results
+     */
+    public byte[] encode(List<MorphemeContainer> morphemeContainers) {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(byteArrayOutputStream);
+        try {
+            if (morphemeContainers == null) {
+                out.writeShort(0);
+            } else {
+                Validate.isTrue(morphemeContainers.size() <= Short.MAX_VALUE, "Too many results to encode");
+                out.writeShort(morphemeContainers.size());
+                for (MorphemeContainer morphemeContainer : morphemeContainers) {
+                    writeMorphemeContainer(out, morphemeContainer);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // never thrown by a byte array stream
+            throw new IllegalStateException(e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * @param input   Input which is parsed to the encoded results
+     * @param encoded Encoded results
+     * @return Decoded results, possibly empty
+     */
+    public List<MorphemeContainer> decode(String input, byte[] encoded) {
+        return this.decode(input, encoded, 0, encoded.length);
+    }
+
+    /**
+     * @param input   Input which is parsed to the encoded results
+     * @param encoded Array which contains the encoded results
+     * @param offset  Offset of the encoded results in the array
+     * @param length  Length of the encoded results
+     * @return Decoded results, possibly empty
+     */
+    public List<MorphemeContainer> decode(String input, byte[] encoded, int offset, int length) {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded, offset, length));
+        try {
+            final int count = in.readShort();
+            if (count == 0)
+                return Collections.emptyList();
+
+            final List<MorphemeContainer> morphemeContainers = new ArrayList<MorphemeContainer>(count);
+            for (int i = 0; i < count; i++) {
+                morphemeContainers.add(readMorphemeContainer(in, input));
+            }
+            return morphemeContainers;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot decode the parse results of " + input, e);
+        }
+    }
+
+    private void writeMorphemeContainer(DataOutput out, MorphemeContainer morphemeContainer) throws IOException {
+        writeRoot(out, morphemeContainer.getRoot());
+        out.writeUTF(morphemeContainer.getRootState().getName());
+
+        final List<SuffixTransition> suffixTransitions = morphemeContainer.getSuffixTransitions();
+        out.writeShort(suffixTransitions.size());
+        for (SuffixTransition suffixTransition : suffixTransitions) {
+            writeSuffixFormApplication(out, suffixTransition.getSuffixFormApplication());
+            out.writeUTF(suffixTransition.getTargetState().getName());
+        }
+
+        writeEnumSet(out, morphemeContainer.getPhoneticExpectations());
+    }
+
+    private MorphemeContainer readMorphemeContainer(DataInput in, String input) throws IOException {
+        final Root root = readRoot(in);
+        final SuffixGraphState rootState = stateOf(in.readUTF());
+
+        final MorphemeContainer morphemeContainer = new MorphemeContainer(root, rootState, input.substring(root.getSequence().length()));
+        final int transitionCount = in.readShort();
+        for (int i = 0; i < transitionCount; i++) {
+            final SuffixFormApplication suffixFormApplication = readSuffixFormApplication(in);
+            final SuffixGraphState targetState = stateOf(in.readUTF());
+            morphemeContainer.addTransition(suffixFormApplication, targetState);
+        }
+
+        final EnumSet<PhoneticExpectation> phoneticExpectations = readEnumSet(in, PhoneticExpectation.class);
+        morphemeContainer.overwritePhoneticExpectations(phoneticExpectations == null ? null : Sets.immutableEnumSet(phoneticExpectations));
+        return morphemeContainer;
+    }
+
+    void writeSuffixFormApplication(DataOutput out, SuffixFormApplication suffixFormApplication) throws IOException {
+        final SuffixForm suffixForm = suffixFormApplication.getSuffixForm();
+        out.writeUTF(suffixForm.getSuffix().getName());
+        if (suffixForm instanceof PredefinedPathBuilder.ForcedSuffixForm) {
+            out.writeByte(FORCED_SUFFIX_FORM);
+            out.writeUTF(suffixForm.getForm().getSuffixFormStr());
+        } else {
+            out.writeByte(indexOf(suffixForm));
+        }
+        out.writeUTF(suffixFormApplication.getActualSuffixForm());
+        out.writeUTF(suffixFormApplication.getFittingSuffixForm());
+    }
+
+    SuffixFormApplication readSuffixFormApplication(DataInput in) throws IOException {
+        final Suffix suffix = this.suffixGraph.getSuffix(in.readUTF());
+        if (suffix == null)
+            throw new IOException("Suffix not found in the graph");
+        final int suffixFormIndex = in.readByte();
+        final SuffixForm suffixForm = suffixFormIndex == FORCED_SUFFIX_FORM
+                ? new PredefinedPathBuilder.ForcedSuffixForm(suffix, in.readUTF())
+                : suffixFormAt(suffix, suffixFormIndex);
+        final String actualSuffixForm = in.readUTF();
+        final String fittingSuffixForm = in.readUTF();
+        return new SuffixFormApplication(suffixForm, actualSuffixForm, fittingSuffixForm);
+    }
+
+    static void writeRoot(DataOutput out, Root root) throws IOException {
+        if (root instanceof NumeralRoot) {
+            final NumeralRoot numeralRoot = (NumeralRoot) root;
+            out.writeByte(ROOT_NUMERAL);
+            out.writeUTF(numeralRoot.getSequence().getUnderlyingString());
+            out.writeUTF(numeralRoot.getUnderlyingNumeralText());
+            writeEnum(out, numeralRoot.getLexeme().getSecondaryPos());
+            writeEnumSet(out, numeralRoot.getPhoneticAttributes());
+        } else if (root instanceof ImmutableRoot || root instanceof DynamicRoot) {
+            out.writeByte(root instanceof ImmutableRoot ? ROOT_IMMUTABLE : ROOT_DYNAMIC);
+            out.writeUTF(root.getSequence().getUnderlyingString());
+            writeLexeme(out, root.getLexeme());
+            writeEnumSet(out, root.getPhoneticAttributes());
+            writeEnumSet(out, root.getPhoneticExpectations());
+        } else {
+            throw new IllegalArgumentException("Unknown root type " + root.getClass());
+        }
+    }
+
+    static Root readRoot(DataInput in) throws IOException {
+        final int rootType = in.readByte();
+        final TurkishSequence sequence = new TurkishSequence(in.readUTF());
+        switch (rootType) {
+            case ROOT_NUMERAL: {
+                final String underlyingNumeralText = in.readUTF();
+                final SecondaryPos secondaryPos = readEnum(in, SecondaryPos.class);
+                return new NumeralRoot(sequence, underlyingNumeralText, secondaryPos, immutableOrNull(readEnumSet(in, PhoneticAttribute.class)));
+            }
+            case ROOT_IMMUTABLE: {
+                final Lexeme lexeme = readLexeme(in);
+                return new ImmutableRoot(sequence, lexeme, immutableOrNull(readEnumSet(in, PhoneticAttribute.class)),
+                        immutableOrNull(readEnumSet(in, PhoneticExpectation.class)));
+            }
+            case ROOT_DYNAMIC: {
+                final Lexeme lexeme = readLexeme(in);
+                if (!(lexeme instanceof DynamicLexeme))
+                    throw new IOException("Dynamic root without a dynamic lexeme");
+                return new DynamicRoot(sequence, (DynamicLexeme) lexeme, readEnumSet(in, PhoneticAttribute.class),
+                        readEnumSet(in, PhoneticExpectation.class));
+            }
+            default:
+                throw new IOException("Unknown root type " + rootType);
+        }
+    }
+
+    private static void writeLexeme(DataOutput out, Lexeme lexeme) throws IOException {
+        if (lexeme instanceof ImmutableLexeme)
+            out.writeByte(LEXEME_IMMUTABLE);
+        else if (lexeme instanceof DynamicLexeme)
+            out.writeByte(LEXEME_DYNAMIC);
+        else
+            throw new IllegalArgumentException("Unknown lexeme type " + lexeme.getClass());
+
+        writeString(out, lexeme.getLemma());
+        writeString(out, lexeme.getLemmaRoot());
+        writeEnum(out, lexeme.getPrimaryPos());
+        writeEnum(out, lexeme.getSecondaryPos());
+        writeEnumSet(out, lexeme.getAttributes());
+    }
+
+    private static Lexeme readLexeme(DataInput in) throws IOException {
+        final int lexemeType = in.readByte();
+        final String lemma = readString(in);
+        final String lemmaRoot = readString(in);
+        final PrimaryPos primaryPos = readEnum(in, PrimaryPos.class);
+        final SecondaryPos secondaryPos = readEnum(in, SecondaryPos.class);
+        final EnumSet<LexemeAttribute> attributes = readEnumSet(in, LexemeAttribute.class);
+        if (lexemeType == LEXEME_IMMUTABLE)
+            return new ImmutableLexeme(lemma, lemmaRoot, primaryPos, secondaryPos, immutableOrNull(attributes));
+        else if (lexemeType == LEXEME_DYNAMIC)
+            return new DynamicLexeme(lemma, lemmaRoot, primaryPos, secondaryPos, attributes);
+        else
+            throw new IOException("Unknown lexeme type " + lexemeType);
+    }
+
+    SuffixGraphState stateOf(String stateName) throws IOException {
+        final SuffixGraphState suffixGraphState = this.suffixGraph.getSuffixGraphState(stateName);
+        if (suffixGraphState == null)
+            throw new IOException("State " + stateName + " not found in the graph");
+        return suffixGraphState;
+    }
+
+    static int indexOf(SuffixForm suffixForm) {
+        int index = 0;
+        for (SuffixForm form : suffixForm.getSuffix().getSuffixForms()) {
+            if (form == suffixForm) {
+                Validate.isTrue(index <= Byte.MAX_VALUE, "Too many forms to encode");
+                return index;
+            }
+            index++;
+        }
+        throw new IllegalArgumentException("Suffix form " + suffixForm + " is not a form of its suffix");
+    }
+
+    private static SuffixForm suffixFormAt(Suffix suffix, int index) throws IOException {
+        final Iterator<SuffixForm> iterator = suffix.getSuffixForms().iterator();
+        for (int i = 0; i < index && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        if (!iterator.hasNext())
+            throw new IOException("Suffix " + suffix.getName() + " has no form with index " + index);
+        return iterator.next();
+    }
+
+    private static void writeString(DataOutput out, String str) throws IOException {
+        out.writeBoolean(str != null);
+        if (str != null)
+            out.writeUTF(str);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // constants are hashed in their ordinal order, thus reordering or adding a constant changes the version
+    static String computeVersion(String format, Class<? extends Enum<?>>... enumClasses) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Class<? extends Enum<?>> enumClass : enumClasses) {
+            for (Enum<?> constant : enumClass.getEnumConstants()) {
+                hasher.putString(constant.name(), Charsets.UTF_8).putByte((byte) 0);
+            }
+            hasher.putByte((byte) 1);
+        }
+        return format + '-' + hasher.hash().toString();
+    }
+
+    private static void writeEnum(DataOutput out, Enum<?> e) throws IOException {
+        out.writeByte(e == null ? -1 : e.ordinal());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInput in, Class<E> enumClass) throws IOException {
+        final int ordinal = in.readByte();
+        return ordinal < 0 ? null : enumClass.getEnumConstants()[ordinal];
+    }
+
+    // enums with less than 64 constants are encoded
+    private static void writeEnumSet(DataOutput out, Set<? extends Enum<?>> set) throws IOException {
+        out.writeBoolean(set != null);
+        if (set != null) {
+            long bits = 0L;
+            for (Enum<?> e : set) {
+                bits |= 1L << e.ordinal();
+            }
+            out.writeLong(bits);
+        }
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> readEnumSet(DataInput in, Class<E> enumClass) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        final long bits = in.readLong();
+        final EnumSet<E> set = EnumSet.noneOf(enumClass);
+        for (E e : enumClass.getEnumConstants()) {
+            if ((bits & (1L << e.ordinal())) != 0)
+                set.add(e);
+        }
+        return set;
+    }
+
+    private static <E extends Enum<E>> ImmutableSet<E> immutableOrNull(EnumSet<E> set) {
+        return set == null ? null : Sets.immutableEnumSet(set);
+    }
+}
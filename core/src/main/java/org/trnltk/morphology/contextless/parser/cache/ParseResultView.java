@@ -0,0 +1,97 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.ImmutableSet;
+import org.trnltk.model.lexicon.PhoneticExpectation;
+import org.trnltk.model.lexicon.Root;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.morphology.morphotactics.SuffixGraphState;
+
+/**
+ * A parse result decoded by {@link CompactParseResultCodec} without creating a {@link MorphemeContainer}.
+ * <p/>
+ * View holds only references to the root, the states and the suffix form applications, which are shared with the
+ * tables of the codec; thus it is much lighter than a container. A container can be created from it when the derived
+ * state of the container (e.g. suffixes since derivation, phonetic attributes) is needed.
+ * <p/>
+ * Views are immutable.
+ */
+public final class ParseResultView {
+    private final Root root;
+    private final SuffixGraphState rootState;
+    private final SuffixFormApplication[] suffixFormApplications;
+    private final SuffixGraphState[] targetStates;
+    private final ImmutableSet<PhoneticExpectation> phoneticExpectations;
+
+    ParseResultView(Root root, SuffixGraphState rootState, SuffixFormApplication[] suffixFormApplications,
+                    SuffixGraphState[] targetStates, ImmutableSet<PhoneticExpectation> phoneticExpectations) {
+        this.root = root;
+        this.rootState = rootState;
+        this.suffixFormApplications = suffixFormApplications;
+        this.targetStates = targetStates;
+        this.phoneticExpectations = phoneticExpectations;
+    }
+
+    public Root getRoot() {
+        return root;
+    }
+
+    public SuffixGraphState getRootState() {
+        return rootState;
+    }
+
+    public int getTransitionCount() {
+        return suffixFormApplications.length;
+    }
+
+    public SuffixFormApplication getSuffixFormApplication(int index) {
+        return suffixFormApplications[index];
+    }
+
+    public SuffixGraphState getTargetState(int index) {
+        return targetStates[index];
+    }
+
+    /**
+     * @return Target state of the last transition, or the root state if there are no transitions
+     */
+    public SuffixGraphState getLastState() {
+        return targetStates.length == 0 ? rootState : targetStates[targetStates.length - 1];
+    }
+
+    /**
+     * @return Phonetic expectations of the result, might be null
+     */
+    public ImmutableSet<PhoneticExpectation> getPhoneticExpectations() {
+        return phoneticExpectations;
+    }
+
+    /**
+     * @param input Input which is parsed to the result
+     * @return A container equal to the one which is encoded
+     */
+    public MorphemeContainer toMorphemeContainer(String input) {
+        final MorphemeContainer morphemeContainer = new MorphemeContainer(root, rootState, input.substring(root.getSequence().length()));
+        for (int i = 0; i < suffixFormApplications.length; i++) {
+            morphemeContainer.addTransition(suffixFormApplications[i], targetStates[i]);
+        }
+        morphemeContainer.overwritePhoneticExpectations(phoneticExpectations);
+        return morphemeContainer;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.Weigher;
+import org.trnltk.model.morpheme.MorphemeContainer;
+
+import java.util.List;
+
+/**
+ * Estimates the retained heap size of a parse cache entry in bytes: the input, the result list and the
+ * {@link MorphemeContainer}s in it.
+ * <p/>
+ * A container retains its surface, attribute sets and the items of its transition chain. Chain items are shared with
+ * the other containers of the same input which have the same prefix, so a transition costs much less than a container.
+ * Roots, suffix graph states and suffix forms are shared by every entry, thus they are not counted.
+ * <p/>
+ * Constants are measured on a 64 bit JVM with compressed references, with the parse results of the bundled parse sets.
+ * Estimate of the whole sets was within 2% of the measured heap; entries with a few short results are overestimated.
+ */
+public final class ParseResultWeigher implements Weigher<String, List<MorphemeContainer>> {
+
+    // cache entry, the key string and the result list
+    static final int ENTRY_SIZE = 104;
+    static final int CHAR_SIZE = 2;
+    static final int REFERENCE_SIZE = 4;
+    static final int CONTAINER_SIZE = 536;
+    static final int TRANSITION_SIZE = 16;
+
+    @Override
+    public int weigh(String input, List<MorphemeContainer> morphemeContainers) {
+        return (int) Math.min(estimateSize(input, morphemeContainers), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param input              Key of the entry
+     * @param morphemeContainers Parse results of the input, might be null
+     * @return Estimated retained size of the entry in bytes
+     */
+    public static long estimateSize(String input, List<MorphemeContainer> morphemeContainers) {
+        long size = ENTRY_SIZE + CHAR_SIZE * input.length();
+        if (morphemeContainers == null)
+            return size;
+
+        size += REFERENCE_SIZE * morphemeContainers.size();
+        for (MorphemeContainer morphemeContainer : morphemeContainers) {
+            size += CONTAINER_SIZE + TRANSITION_SIZE * morphemeContainer.getTransitionCount();
+        }
+        return size;
+    }
+}
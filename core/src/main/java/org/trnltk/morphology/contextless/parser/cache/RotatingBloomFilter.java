@@ -0,0 +1,150 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of strings which is rotated when it is full.
+ * <p/>
+ * Filter has two generations. Strings are put on the current generation and looked up in both. When the current
+ * generation has the expected number of strings, it becomes the previous generation and the old previous one is
+ * dropped with its strings. Thus, the filter forgets the strings which are not put again for a while, and the false
+ * positive probability stays around twice the configured one, no matter how many strings are put.
+ * <p/>
+ * Indices of the bits of a string are computed from its 64 bit murmur3 hash, with double hashing.
+ * <p/>
+ * Filter is safe to share across threads; bits are set with compare-and-set. A string put while the generations are
+ * rotated might be lost, which only causes a miss later.
+ */
+final class RotatingBloomFilter {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final double LN_2 = Math.log(2);
+
+    private final int expectedInsertions;
+    private final long bitCount;
+    private final int hashFunctionCount;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private final AtomicLong rotationCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param expectedInsertions        Number of strings a generation holds before it is rotated
+     * @param falsePositiveProbability  False positive probability of a generation with expected number of strings
+     */
+    RotatingBloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        this.expectedInsertions = expectedInsertions;
+        final long optimalBitCount = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2));
+        // whole longs, but not more than the indices computed by double hashing can address
+        this.bitCount = Math.min(Math.max(64, (optimalBitCount + 63) / 64 * 64), Integer.MAX_VALUE + 1L);
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN_2));
+        this.current = new Generation();
+        this.previous = new Generation();
+    }
+
+    boolean mightContain(String string) {
+        final long hash = HASH_FUNCTION.hashUnencodedChars(string).asLong();
+        return current.contains(hash) || previous.contains(hash);
+    }
+
+    void put(String string) {
+        final long hash = HASH_FUNCTION.hashUnencodedChars(string).asLong();
+        final Generation generation = this.current;
+        // strings that were already in the generation, or seemed so, do not count
+        if (generation.put(hash) && generation.insertionCount.incrementAndGet() == expectedInsertions)
+            rotate(generation);
+    }
+
+    /**
+     * @return Number of times the generations are rotated
+     */
+    long rotationCount() {
+        return rotationCount.get();
+    }
+
+    /**
+     * @return Number of strings dropped by the rotations
+     */
+    long droppedCount() {
+        return droppedCount.get();
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (this.current != full)
+            return;
+        droppedCount.addAndGet(this.previous.insertionCount.get());
+        this.previous = full;
+        this.current = new Generation();
+        rotationCount.incrementAndGet();
+    }
+
+    private final class Generation {
+        private final AtomicLongArray bits;
+        private final AtomicInteger insertionCount = new AtomicInteger();
+
+        private Generation() {
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        private boolean contains(long hash) {
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashFunctionCount; i++) {
+                final long index = indexOf(hash1 + i * hash2);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return true if any bit is changed
+         */
+        private boolean put(long hash) {
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashFunctionCount; i++) {
+                final long index = indexOf(hash1 + i * hash2);
+                final int wordIndex = (int) (index >>> 6);
+                final long mask = 1L << index;
+                while (true) {
+                    final long word = bits.get(wordIndex);
+                    if ((word & mask) != 0)
+                        break;
+                    if (bits.compareAndSet(wordIndex, word, word | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        private long indexOf(int combinedHash) {
+            // flip all the bits if the hash is negative
+            return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitCount;
+        }
+    }
+}
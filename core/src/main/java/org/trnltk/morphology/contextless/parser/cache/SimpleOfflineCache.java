@@ -4,7 +4,9 @@ import com.google.common.collect.Lists;
 import com.google.common.io.CharSource;
 import com.google.common.io.Resources;
 import org.apache.commons.lang3.Validate;
+import org.apache.log4j.Logger;
 import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
 import org.trnltk.morphology.contextless.parser.MorphologicParser;
 
 import java.io.IOException;
@@ -26,10 +28,19 @@ import java.util.Map;
  * <p/>
  * If you don't have the text already (online case), you can still use this cache. In that case, you can put the most
  * frequent 20000 words in Turkish into the cache. This list of words is bundled.
+ * <p/>
+ * Words are parsed in parallel when the cache is built. If an {@link OfflineCacheArtifact} is given and it is built
+ * for the parser, results are read from the artifact instead. Artifacts of the bundled word lists are used if they
+ * are bundled, too.
+ * <p/>
+ * Cache is not modified after it is built, thus it is safe to share across threads once built.
  */
 public class SimpleOfflineCache implements MorphologicParserCache {
+    private static final Logger logger = Logger.getLogger(SimpleOfflineCache.class);
+
     private Map<String, List<MorphemeContainer>> map;
     private Collection<String> cacheKeys;
+    private final URL artifact;
     private boolean built;
 
     /**
@@ -37,7 +48,7 @@ public class SimpleOfflineCache implements MorphologicParserCache {
      */
     public static SimpleOfflineCache forTop20kWords() {
         final URL resource = Resources.getResource("top20kwords.txt");
-        return fromFile(resource);
+        return fromFile(resource, SimpleOfflineCache.class.getClassLoader().getResource("top20kwords.cache"));
     }
 
     /**
@@ -45,10 +56,10 @@ public class SimpleOfflineCache implements MorphologicParserCache {
      */
     public static SimpleOfflineCache forTop2kWords() {
         final URL resource = Resources.getResource("top2kwords.txt");
-        return fromFile(resource);
+        return fromFile(resource, SimpleOfflineCache.class.getClassLoader().getResource("top2kwords.cache"));
     }
 
-    private static SimpleOfflineCache fromFile(URL resource) {
+    private static SimpleOfflineCache fromFile(URL resource, URL artifact) {
         CharSource charSource = Resources.asCharSource(resource, Charset.forName("utf-8"));
         final List<String> lines;
         try {
@@ -58,23 +69,42 @@ public class SimpleOfflineCache implements MorphologicParserCache {
         }
         // read eagerly
         final List<String> cacheKeys = Lists.newArrayList(lines);
-        return new SimpleOfflineCache(cacheKeys);
+        return new SimpleOfflineCache(cacheKeys, artifact);
     }
 
     /**
      * Builds a cache with values of given words and their parse results.
      */
     public SimpleOfflineCache(Collection<String> words) {
+        this(words, null);
+    }
+
+    /**
+     * Builds a cache with values of given words and their parse results, reading the results from the given artifact
+     * if it is built for the parser.
+     *
+     * @param words    Words to cache, parsed if the artifact cannot be used
+     * @param artifact Artifact of the words, might be null
+     */
+    public SimpleOfflineCache(Collection<String> words, URL artifact) {
         Validate.notEmpty(words, "Cache keys cannot be null or empty.");
         this.cacheKeys = words;
+        this.artifact = artifact;
     }
 
     @Override
     public void build(MorphologicParser parser) {
-        this.map = new HashMap<String, List<MorphemeContainer>>(this.cacheKeys.size());
+        if (this.artifact != null && parser instanceof ContextlessMorphologicParser)
+            this.map = this.readArtifact((ContextlessMorphologicParser) parser);
 
-        for (String cacheKey : cacheKeys) {
-            this.map.put(cacheKey, parser.parseStr(cacheKey));
+        if (this.map == null) {
+            final List<String> words = Lists.newArrayList(this.cacheKeys);
+            final List<List<MorphemeContainer>> results = parser.parseAllParallel(words, Runtime.getRuntime().availableProcessors());
+
+            this.map = new HashMap<String, List<MorphemeContainer>>(words.size());
+            for (int i = 0; i < words.size(); i++) {
+                this.map.put(words.get(i), results.get(i));
+            }
         }
 
         //remove reference as we don't need it anymore. help GC
@@ -83,6 +113,18 @@ public class SimpleOfflineCache implements MorphologicParserCache {
         this.built = true;
     }
 
+    private Map<String, List<MorphemeContainer>> readArtifact(ContextlessMorphologicParser parser) {
+        try {
+            final Map<String, List<MorphemeContainer>> results = OfflineCacheArtifact.read(this.artifact, parser);
+            if (results == null)
+                logger.info("Offline cache artifact " + this.artifact + " is not built for the parser, words will be parsed");
+            return results;
+        } catch (IOException e) {
+            logger.warn("Cannot read offline cache artifact " + this.artifact + ", words will be parsed", e);
+            return null;
+        }
+    }
+
     @Override
     public boolean isNotBuilt() {
         return !this.built;
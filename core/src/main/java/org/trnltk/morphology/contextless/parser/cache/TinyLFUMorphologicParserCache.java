@@ -0,0 +1,259 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.CacheStats;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A frequency aware cache for a {@link org.trnltk.morphology.contextless.parser.CachingMorphologicParser}.
+ * <p/>
+ * Word frequencies are Zipfian; a LRU cache lets a burst of rare words evict the frequent ones. This cache keeps a
+ * {@link CountMinFrequencySketch} of the accesses and uses it to decide which entries stay (TinyLFU):
+ * <ul>
+ * <li>New entries are put in a small LRU window, which is 1% of the maximum size. That way, a new entry gets a chance
+ * to build up its frequency.</li>
+ * <li>An entry leaving the window is admitted to the main LRU segment only if it is accessed more often than the entry
+ * that main segment would evict for it. Otherwise, the entry leaving the window is evicted.</li>
+ * </ul>
+ * Every {@link #get(String)}, whether it is a hit or a miss, counts as an access of the input.
+ * <p/>
+ * Entries are stored in a concurrent map; reads do not lock and writes do not wait for each other. Reads and new
+ * entries are recorded in buffers, and the recency order and the evictions are maintained by draining the buffers
+ * by the thread which can acquire the policy lock without waiting. Thus, cache might exceed the maximum size for a
+ * short time. A writer waits for the lock only if the cache is too much over the maximum size.
+ * <p/>
+ * Statistics about hits, misses and evictions are kept to help sizing the cache; see {@link #stats()}.
+ * <p/>
+ * Cache is safe to share across threads.
+ */
+public class TinyLFUMorphologicParserCache implements MorphologicParserCache {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    private final int maximumSize;
+    private final int windowMaximumSize;
+    private final int mainMaximumSize;
+    private final int maximumOverflow;
+
+    private final ConcurrentHashMap<String, List<MorphemeContainer>> data;
+    private final CountMinFrequencySketch sketch;
+
+    // lossy; a slot is overwritten if it is not drained in time
+    private final AtomicReferenceArray<String> readBuffer = new AtomicReferenceArray<String>(READ_BUFFER_SIZE);
+    private final AtomicInteger readCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> writeBuffer = new ConcurrentLinkedQueue<String>();
+
+    // guards window and main. both are in LRU order, first one is the least recently used
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LinkedHashSet<String> window = new LinkedHashSet<String>();
+    private final LinkedHashSet<String> main = new LinkedHashSet<String>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong rejectionCount = new AtomicLong();
+
+    /**
+     * @param concurrencyLevel Guides underlying map to permit concurrency. Ideally, value should be number of threads
+     *                         that access the {@link org.trnltk.morphology.contextless.parser.CachingMorphologicParser}
+     * @param maximumSize      Maximum number of entries in the cache.
+     */
+    public TinyLFUMorphologicParserCache(int concurrencyLevel, int maximumSize) {
+        Validate.isTrue(concurrencyLevel > 0, "concurrencyLevel must be positive");
+        Validate.isTrue(maximumSize > 0, "maximumSize must be positive");
+
+        this.maximumSize = maximumSize;
+        this.windowMaximumSize = Math.max(1, maximumSize / 100);
+        this.mainMaximumSize = maximumSize - windowMaximumSize;
+        this.maximumOverflow = Math.max(READ_BUFFER_SIZE, maximumSize / 8);
+        this.data = new ConcurrentHashMap<String, List<MorphemeContainer>>(Math.min(maximumSize, 1 << 16), 0.75f, concurrencyLevel);
+        this.sketch = new CountMinFrequencySketch(maximumSize);
+    }
+
+    @Override
+    public List<MorphemeContainer> get(String input) {
+        sketch.increment(input);
+
+        final List<MorphemeContainer> morphemeContainers = data.get(input);
+        if (morphemeContainers == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        final int count = readCount.getAndIncrement();
+        readBuffer.lazySet(count & READ_BUFFER_MASK, input);
+        if ((count & (READ_DRAIN_THRESHOLD - 1)) == READ_DRAIN_THRESHOLD - 1)
+            tryMaintain();
+
+        return morphemeContainers;
+    }
+
+    @Override
+    public void put(String input, List<MorphemeContainer> morphemeContainers) {
+        final List<MorphemeContainer> previous = data.put(input, morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers);
+        if (previous == null)
+            writeBuffer.add(input);
+        afterWrite();
+    }
+
+    @Override
+    public void putAll(Map<String, List<MorphemeContainer>> map) {
+        for (Map.Entry<String, List<MorphemeContainer>> entry : map.entrySet()) {
+            final List<MorphemeContainer> morphemeContainers = entry.getValue();
+            final List<MorphemeContainer> previous = data.put(entry.getKey(), morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers);
+            if (previous == null)
+                writeBuffer.add(entry.getKey());
+        }
+        afterWrite();
+    }
+
+    @Override
+    public void build(MorphologicParser parser) {
+        // do nothing since it is an online cache
+    }
+
+    @Override
+    public boolean isNotBuilt() {
+        // do nothing since it is an online cache
+        return false;
+    }
+
+    /**
+     * @return Approximate number of entries in the cache
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * Drains the buffers and evicts the entries over the maximum size, waiting for the other threads doing the same.
+     */
+    public void cleanUp() {
+        policyLock.lock();
+        try {
+            maintain();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * @return Hit, miss and eviction counts of the cache. Entries rejected by the frequency check when leaving the
+     *         window are counted as evictions, too.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+    }
+
+    /**
+     * @return Number of entries which were evicted when leaving the window, since they were less frequent than the
+     *         entry main segment would evict for them
+     */
+    public long rejectionCount() {
+        return rejectionCount.get();
+    }
+
+    private void afterWrite() {
+        if (data.size() > maximumSize + maximumOverflow)
+            cleanUp();
+        else
+            tryMaintain();
+    }
+
+    private void tryMaintain() {
+        if (policyLock.tryLock()) {
+            try {
+                maintain();
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void maintain() {
+        drainReadBuffer();
+        drainWriteBuffer();
+        evictFromWindow();
+    }
+
+    private void drainReadBuffer() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            final String input = readBuffer.getAndSet(i, null);
+            if (input != null) {
+                if (window.remove(input))
+                    window.add(input);
+                else if (main.remove(input))
+                    main.add(input);
+            }
+        }
+    }
+
+    private void drainWriteBuffer() {
+        String input;
+        while ((input = writeBuffer.poll()) != null) {
+            // entry might be evicted by a racing eviction before its write is drained
+            if (!data.containsKey(input))
+                continue;
+            main.remove(input);
+            window.remove(input);
+            window.add(input);
+        }
+    }
+
+    private void evictFromWindow() {
+        while (window.size() > windowMaximumSize) {
+            final Iterator<String> windowIterator = window.iterator();
+            final String candidate = windowIterator.next();
+            windowIterator.remove();
+
+            if (main.size() < mainMaximumSize) {
+                main.add(candidate);
+                continue;
+            }
+
+            final Iterator<String> mainIterator = main.iterator();
+            final String victim = mainIterator.hasNext() ? mainIterator.next() : null;
+            if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+                mainIterator.remove();
+                data.remove(victim);
+                main.add(candidate);
+            } else {
+                data.remove(candidate);
+                rejectionCount.incrementAndGet();
+            }
+            evictionCount.incrementAndGet();
+        }
+    }
+}
@@ -16,13 +16,14 @@
 
 package org.trnltk.morphology.contextless.parser.cache;
 
+import org.apache.commons.lang3.Validate;
 import org.trnltk.model.morpheme.MorphemeContainer;
 import org.trnltk.morphology.contextless.parser.MorphologicParser;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An L2 cache and an L1 cache. When a value is not found in L2 cache (self), value from L1 cache is returned.
@@ -31,40 +32,81 @@ import java.util.Map;
  * Putting entries from L2 to L1 is done in a batch manner. That helps having an efficient cache considering the locality
  * of the inputs; ie. an input that is being parsed is likely to be parsed very soon again.
  * <p/>
- * L2 cache is cleared when {@code l2MaxSize} is reached.
+ * L2 cache is split into stripes by the hash of the input, each stripe holding at most {@code l2MaxSize / stripeCount}
+ * entries. A stripe is drained into L1 and cleared when it is full.
+ * <p/>
+ * Reads never block: a stripe publishes its entries in a concurrent map which is replaced, not cleared, when the stripe
+ * is drained. The entries of a stripe are put on L1 before the stripe is replaced, thus an entry is always found
+ * either in L2 or in L1 (unless L1 evicts it). Writes lock only the stripe of the input.
  * <p/>
  * It is important to choose {@code l2MaxSize} wisely.
  * <p/>
- * Too large: L2 cache will get slower and blocking while putting the values in L1 takes too much time.
+ * Too large: L2 cache will get slower and writers of a stripe are blocked while putting the values in L1 takes too much time.
+ * <p/>
+ * Too small: L1 will be used unnecessarily and writers are blocked too often while putting the values in L1.
  * <p/>
- * Too small: L1 will be used unnecessarily and too much blocking while putting the values in L1.
+ * Cache is safe to share across threads, if the L1 cache is.
  */
 public class TwoLevelMorphologicParserCache implements MorphologicParserCache {
 
-    private boolean built = false;
+    private volatile boolean built = false;
 
-    private int l2MaxSize;
     private final MorphologicParserCache l1Cache;
 
-    private int l2Size;
-    private Map<String, List<MorphemeContainer>> l2Cache;
+    private final int l2MaxSize;
+    private final Stripe[] stripes;
+    private final int stripeMask;
 
     /**
-     * See documentation of <code>TwoLevelMorphologicParserCache</code>
+     * See documentation of <code>TwoLevelMorphologicParserCache</code>. Number of stripes is guided by the number of
+     * available processors.
      *
      * @param l2MaxSize Max size of cache level 2
      * @param l1Cache   L1 cache to use
      */
     public TwoLevelMorphologicParserCache(int l2MaxSize, MorphologicParserCache l1Cache) {
+        this(l2MaxSize, l1Cache, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * See documentation of <code>TwoLevelMorphologicParserCache</code>
+     *
+     * @param l2MaxSize        Max size of cache level 2
+     * @param l1Cache          L1 cache to use
+     * @param concurrencyLevel Guides the number of stripes of L2. Ideally, value should be number of threads that access
+     *                         the {@link org.trnltk.morphology.contextless.parser.CachingMorphologicParser}
+     */
+    public TwoLevelMorphologicParserCache(int l2MaxSize, MorphologicParserCache l1Cache, int concurrencyLevel) {
+        Validate.isTrue(l2MaxSize > 0, "l2MaxSize must be positive");
+        Validate.isTrue(concurrencyLevel > 0, "concurrencyLevel must be positive");
+
         this.l2MaxSize = l2MaxSize;
         this.l1Cache = l1Cache;
-        this.l2Cache = new HashMap<String, List<MorphemeContainer>>(l2MaxSize);
-        this.l2Size = 0;
+
+        // power of two, so that a stripe is selected with a mask. every stripe can hold at least one entry
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel && stripeCount * 2 <= l2MaxSize)
+            stripeCount *= 2;
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // first stripes get the remainder
+            this.stripes[i] = new Stripe(l2MaxSize / stripeCount + (i < l2MaxSize % stripeCount ? 1 : 0));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    private Stripe stripeOf(String input) {
+        // spread the hash, since the low bits of string hash codes of similar inputs are alike
+        int hash = input.hashCode();
+        hash ^= (hash >>> 16);
+        hash ^= (hash >>> 8);
+        return stripes[hash & stripeMask];
     }
 
     @Override
     public List<MorphemeContainer> get(String input) {
-        final List<MorphemeContainer> morphemeContainers = l2Cache.get(input);
+        final List<MorphemeContainer> morphemeContainers = stripeOf(input).entries.get(input);
         if (morphemeContainers != null) {
             return morphemeContainers;
         } else {
@@ -74,43 +116,17 @@ public class TwoLevelMorphologicParserCache implements MorphologicParserCache {
 
     @Override
     public void put(String input, List<MorphemeContainer> morphemeContainers) {
-        //noinspection SynchronizeOnNonFinalField
-        synchronized (l2Cache) {
-            // l2Cache should not be changed during put operation.
-            // remember : there can be multiple threads accessing this instance of TwoLevelMorphologicParserCache
-            l2Cache.put(input, morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers);
-            l2Size++;
-        }
-        if (l2Size >= l2MaxSize) {
-            //noinspection SynchronizeOnNonFinalField
-            synchronized (l2Cache) {
-                // l2Cache should not be changed during bulk insert to l1Cache operation
-                l1Cache.putAll(l2Cache);
-                // TODO: weird code! lock is on l2Cache, but it is reinitialized!
-                // shouldn't the lock be on 'this' ?
-                l2Cache = new HashMap<String, List<MorphemeContainer>>(l2MaxSize);
-                l2Size = 0;
-            }
-        }
+        stripeOf(input).put(input, morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers);
     }
 
     @Override
     public void putAll(Map<String, List<MorphemeContainer>> map) {
-        if (l2Size + map.size() >= l2MaxSize) {
-            //noinspection SynchronizeOnNonFinalField
-            synchronized (l2Cache) {
-                l1Cache.putAll(l2Cache);
-                l1Cache.putAll(map);
-                // TODO: weird code! lock is on l2Cache, but it is reinitialized!
-                // shouldn't the lock be on 'this' ?
-                l2Cache = new HashMap<String, List<MorphemeContainer>>(l2MaxSize);
-                l2Size = 0;
-            }
+        if (map.size() >= l2MaxSize) {
+            // would fill L2 anyway
+            l1Cache.putAll(map);
         } else {
-            //noinspection SynchronizeOnNonFinalField
-            synchronized (l2Cache) {
-                l2Cache.putAll(map);
-                l2Size += map.size();
+            for (Map.Entry<String, List<MorphemeContainer>> entry : map.entrySet()) {
+                this.put(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -119,7 +135,7 @@ public class TwoLevelMorphologicParserCache implements MorphologicParserCache {
     public void build(MorphologicParser parser) {
         // cannot build self, since it is online.
         // but l1Cache might need building
-        if(l1Cache.isNotBuilt())
+        if (l1Cache.isNotBuilt())
             l1Cache.build(parser);
 
         built = true;
@@ -129,4 +145,34 @@ public class TwoLevelMorphologicParserCache implements MorphologicParserCache {
     public boolean isNotBuilt() {
         return !this.built;
     }
-}
\ No newline at end of file
+
+    /**
+     * A part of L2. Entries are read without locking; writes are serialized by the stripe itself.
+     */
+    private final class Stripe {
+        private final int maxSize;
+
+        // replaced by the writer which drains the stripe. readers see either the full map or the new one
+        private volatile Map<String, List<MorphemeContainer>> entries;
+
+        private Stripe(int maxSize) {
+            this.maxSize = maxSize;
+            this.entries = newEntries();
+        }
+
+        private Map<String, List<MorphemeContainer>> newEntries() {
+            return new ConcurrentHashMap<String, List<MorphemeContainer>>(maxSize * 2, 0.75f, 1);
+        }
+
+        private synchronized void put(String input, List<MorphemeContainer> morphemeContainers) {
+            final Map<String, List<MorphemeContainer>> current = this.entries;
+            current.put(input, morphemeContainers);
+
+            if (current.size() >= maxSize) {
+                // put on L1 before replacing, so that the entries are never missing for the readers
+                l1Cache.putAll(current);
+                this.entries = newEntries();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A LRU cache for a {@link org.trnltk.morphology.contextless.parser.CachingMorphologicParser} which is bounded by the
+ * estimated heap size of the entries, instead of the number of them.
+ * <p/>
+ * An entry might be an empty list or a dozen {@link MorphemeContainer}s with long transition chains; a bound on the
+ * number of entries says little about the heap used by the cache. Here, each entry is weighed by
+ * {@link ParseResultWeigher} and least recently used entries are discarded when the total weight is over the byte
+ * budget.
+ * <p/>
+ * Like the Guava cache it is built on, the budget is divided between the segments of the cache (see the concurrency
+ * level). An entry heavier than the budget of a segment is discarded right away.
+ * <p/>
+ * Total weight, number of entries and the hit, miss and eviction counts are reported to help capacity planning; see
+ * {@link #weightedSize()}, {@link #size()} and {@link #stats()}.
+ * <p/>
+ * Cache is safe to share across threads.
+ */
+public class WeightedLRUMorphologicParserCache implements MorphologicParserCache {
+
+    private final long maximumWeight;
+    private final Cache<String, List<MorphemeContainer>> cache;
+    private final AtomicLong weightedSize = new AtomicLong();
+
+    /**
+     * @param concurrencyLevel Guides underlying cache mechanism to permit concurrency. Ideally, value should be
+     *                         number of threads that access the
+     *                         {@link org.trnltk.morphology.contextless.parser.CachingMorphologicParser}
+     * @param initialCapacity  Initial capacity of the cache to reserve memory.
+     * @param maximumWeight    Budget of the cache in bytes, as estimated by {@link ParseResultWeigher}
+     */
+    public WeightedLRUMorphologicParserCache(int concurrencyLevel, int initialCapacity, long maximumWeight) {
+        Validate.isTrue(maximumWeight > 0, "maximumWeight must be positive");
+
+        this.maximumWeight = maximumWeight;
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(concurrencyLevel)
+                .initialCapacity(initialCapacity)
+                .maximumWeight(maximumWeight)
+                .weigher(new ParseResultWeigher())
+                .removalListener(new RemovalListener<String, List<MorphemeContainer>>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, List<MorphemeContainer>> notification) {
+                        // replaced entries are notified, too
+                        weightedSize.addAndGet(-ParseResultWeigher.estimateSize(notification.getKey(), notification.getValue()));
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public List<MorphemeContainer> get(String input) {
+        return this.cache.getIfPresent(input);
+    }
+
+    @Override
+    public void put(String input, List<MorphemeContainer> morphemeContainers) {
+        final List<MorphemeContainer> value = morphemeContainers == null ? Collections.<MorphemeContainer>emptyList() : morphemeContainers;
+        // added before the put, since the entry might be evicted while it is put
+        weightedSize.addAndGet(ParseResultWeigher.estimateSize(input, value));
+        this.cache.put(input, value);
+    }
+
+    @Override
+    public void putAll(Map<String, List<MorphemeContainer>> map) {
+        final Map<String, List<MorphemeContainer>> values = new HashMap<String, List<MorphemeContainer>>(map.size());
+        long weight = 0;
+        for (Map.Entry<String, List<MorphemeContainer>> entry : map.entrySet()) {
+            final List<MorphemeContainer> value = entry.getValue() == null ? Collections.<MorphemeContainer>emptyList() : entry.getValue();
+            values.put(entry.getKey(), value);
+            weight += ParseResultWeigher.estimateSize(entry.getKey(), value);
+        }
+        weightedSize.addAndGet(weight);
+        this.cache.putAll(values);
+    }
+
+    @Override
+    public void build(MorphologicParser parser) {
+        // do nothing since it is an online cache
+    }
+
+    @Override
+    public boolean isNotBuilt() {
+        // do nothing since it is an online cache
+        return false;
+    }
+
+    /**
+     * @return Budget of the cache in bytes
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return Estimated size of the entries in the cache in bytes
+     */
+    public long weightedSize() {
+        return weightedSize.get();
+    }
+
+    /**
+     * @return Approximate number of entries in the cache
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return Estimated average size of an entry in bytes, 0 if the cache is empty
+     */
+    public long averageEntrySize() {
+        final long size = cache.size();
+        return size == 0 ? 0 : weightedSize.get() / size;
+    }
+
+    /**
+     * @return Hit, miss and eviction counts of the cache. Evicted entries are counted, replaced ones are not.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -53,18 +53,30 @@ import java.util.List;
  * <br/>
  * Root : 'suboru', Lexeme:'soburusu'
  */
-public class BruteForceCompoundNounRootFinder implements RootFinder {
+public class BruteForceCompoundNounRootFinder implements InputProfileAwareRootFinder {
     private final BruteForceNounRootFinder bruteForceNounRootFinder = new BruteForceNounRootFinder();
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || wholeSurface == null)
             return false;
 
-        if (wholeSurface == null || wholeSurface.isBlank())
+        final InputProfile inputProfile = InputProfile.of(wholeSurface);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        // at least 5 chars for the compound and 2 chars for the suffix starting with 'n'
+        return !inputProfile.isBlank() && inputProfile.length() >= 7;
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        if (partialInput.isBlank())
             return false;
 
-        if (wholeSurface.length() == partialInput.length())
+        if (inputProfile.length() == partialInput.length())
             return false;
 
         // no compound should be found an input shorter than sth like "atsu-yu". even that doesn't make sense
@@ -82,16 +94,16 @@ public class BruteForceCompoundNounRootFinder implements RootFinder {
             return false;
 
 
-        final TurkishChar firstCharAfterPartialInput = wholeSurface.charAt(partialInput.length());
+        final TurkishChar firstCharAfterPartialInput = inputProfile.getInput().charAt(partialInput.length());
         final TurkicLetter firstLetterAfterPartialInput = firstCharAfterPartialInput.getLetter();
 
-        if (Character.isUpperCase(firstCharAfterPartialInput.getCharValue()))
+        if (inputProfile.isUpperCaseAt(partialInput.length()))
             return false;
 
         else if (!firstLetterAfterPartialInput.equals(TurkishAlphabet.L_n))
             return false;
 
-        else if (wholeSurface.length() < partialInput.length() + 2)    //need a char after char 'n'
+        else if (inputProfile.length() < partialInput.length() + 2)    //need a char after char 'n'
             return false;
 
         return true;
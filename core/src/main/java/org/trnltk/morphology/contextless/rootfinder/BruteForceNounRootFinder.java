@@ -36,26 +36,36 @@ import java.util.*;
  * Checks for possible inverse harmony, doubling, voicing (except nk->nG voicing) and explicit no voicing.
  * Doesn't check possible vowel drops.
  */
-public class BruteForceNounRootFinder implements RootFinder {
+public class BruteForceNounRootFinder implements InputProfileAwareRootFinder {
 
     private final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || wholeSurface == null)
             return false;
 
-        else if (wholeSurface == null || wholeSurface.isBlank()) {
+        else if (wholeSurface.length() < partialInput.length())
             return false;
-        }
 
-        else if (wholeSurface.length() < partialInput.length())
+        else if (!wholeSurface.startsWith(partialInput))
             return false;
 
-        else if (partialInput.length() < 2 && wholeSurface.length() >= 2)
+        final InputProfile inputProfile = InputProfile.of(wholeSurface);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        return !inputProfile.isBlank();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        if (partialInput.isBlank())
             return false;
 
-        else if (!wholeSurface.startsWith(partialInput))
+        else if (partialInput.length() < 2 && inputProfile.length() >= 2)
             return false;
 
         return true;
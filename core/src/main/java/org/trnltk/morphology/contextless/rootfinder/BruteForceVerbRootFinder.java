@@ -50,20 +50,32 @@ import java.util.*;
  * In verbs voicing only occurs on roots ending with 't', so others (pçk) are ignored.
  * Ignores inverse harmony, since verbs don't have it.
  */
-public class BruteForceVerbRootFinder implements RootFinder {
+public class BruteForceVerbRootFinder implements InputProfileAwareRootFinder {
     private final PhoneticsEngine phoneticsEngine = new PhoneticsEngine(new SuffixFormSequenceApplier());
     private final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
     private static final SuffixFormSequence INFINITIVE_SUFFIX_FORM = new SuffixFormSequence("mAk");
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || wholeSurface == null)
             return false;
 
-        if (wholeSurface == null || wholeSurface.isBlank())
+        if (!wholeSurface.startsWith(partialInput))
             return false;
 
-        if (!wholeSurface.startsWith(partialInput))
+        final InputProfile inputProfile = InputProfile.of(wholeSurface);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        // a verb root must have a vowel
+        return !inputProfile.isBlank() && inputProfile.hasVowel();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        if (partialInput.isBlank())
             return false;
 
         if (partialInput.length() < 2) // not possible except (d,diyor) and (y,yiyor). but they are already in the dictionary
@@ -73,9 +85,8 @@ public class BruteForceVerbRootFinder implements RootFinder {
         if (lastVowel == null)
             return false;
 
-        if (wholeSurface.length() > partialInput.length()) {
-            final TurkishChar firstCharAfterPartialInput = wholeSurface.charAt(partialInput.length());
-            if (Character.isUpperCase(firstCharAfterPartialInput.getCharValue()))
+        if (inputProfile.length() > partialInput.length()) {
+            if (inputProfile.isUpperCaseAt(partialInput.length()))
                 return false;
         }
 
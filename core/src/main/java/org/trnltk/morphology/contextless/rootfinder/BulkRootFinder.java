@@ -0,0 +1,47 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import org.trnltk.model.lexicon.Root;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link RootFinder} which finds the roots for all partial inputs of an input in one call, instead of being called
+ * for every partial input.
+ * <p/>
+ * {@link RootFinderChain} uses this method instead of {@link RootFinder#findRootsForPartialInput(org.trnltk.model.letter.TurkishSequence, org.trnltk.model.letter.TurkishSequence)}
+ * when it finds the roots for all partial inputs; root finders which are not bulk are called for every partial input.
+ */
+public interface BulkRootFinder extends InputProfileAwareRootFinder {
+
+    /**
+     * Finds the roots for all partial inputs, which are the beginnings of the input.
+     * <p/>
+     * Only called if {@link #handlesInput(InputProfile)} returns true for the profile. Returned roots must pass the
+     * check defined in {@link RootValidator} for their partial inputs.
+     *
+     * @param inputProfile Profile of the whole input
+     * @return List of size {@code input.length() + 1}, where item at index {@code i} contains the roots for the partial
+     *         input with length {@code i}. Item is null if the partial input is not handled; an empty collection if it
+     *         is handled but no roots are found. Distinction matters for the policy
+     *         {@link RootFinderChain.RootFinderPolicy#STOP_CHAIN_WHEN_INPUT_IS_HANDLED}.
+     */
+    public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile);
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import org.trnltk.model.lexicon.Root;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helpers for the implementations of {@link BulkRootFinder}.
+ */
+final class BulkRootFinders {
+
+    private BulkRootFinders() {
+    }
+
+    /**
+     * @param inputLength Length of the input
+     * @return Mutable list of size {@code inputLength + 1}, where no partial input is handled
+     */
+    static List<Collection<? extends Root>> newNotHandledList(int inputLength) {
+        return new ArrayList<Collection<? extends Root>>(Collections.<Collection<? extends Root>>nCopies(inputLength + 1, null));
+    }
+}
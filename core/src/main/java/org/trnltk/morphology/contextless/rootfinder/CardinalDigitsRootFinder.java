@@ -27,10 +27,11 @@ import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
 
-public class CardinalDigitsRootFinder implements RootFinder {
+public class CardinalDigitsRootFinder implements BulkRootFinder {
 
     // TODO: how about marking "10." as Ordinal?
     // TODO: how about marking "10%" as Percentage?
@@ -41,7 +42,6 @@ public class CardinalDigitsRootFinder implements RootFinder {
             Pattern.compile("^[-+]?(\\d{1,3}\\.)+\\d{3}(,\\d)?\\d*$")
     );
 
-    private static final char APOSTROPHE = '\'';
     private static final char GROUPING_SEPARATOR = '.';
     private static final char FRACTION_SEPARATOR = ',';
 
@@ -55,7 +55,25 @@ public class CardinalDigitsRootFinder implements RootFinder {
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence input) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || input == null)
+            return false;
+
+        final InputProfile inputProfile = InputProfile.of(input);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        return inputProfile.startsWithNumber();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        if (partialInput.isBlank())
+            return false;
+
+        if (partialInput.length() > inputProfile.getNumberSpanLength())
+            // quick check: partial input has a char which cannot be in a number
             return false;
 
         if (!Character.isDigit(partialInput.getLastChar().getCharValue()) &&
@@ -64,12 +82,8 @@ public class CardinalDigitsRootFinder implements RootFinder {
             //quick check:
             return false;
 
-        if (partialInput.getLastChar().getCharValue() == APOSTROPHE)
-            // if last char is apostrophe, then a root was already created for the input with 1 char less
-            return false;
-
-        if (partialInput.length() < input.length()) {
-            final char charAfterPartialInput = input.charAt(partialInput.length()).getCharValue();
+        if (partialInput.length() < inputProfile.length()) {
+            final char charAfterPartialInput = inputProfile.charAt(partialInput.length());
             if (Character.isDigit(charAfterPartialInput)) {
                 // if next char is also a digit, don't return a root for current partial input
                 // so, for whole surface "123", partial inputs "1" and "12" will not return any roots
@@ -85,9 +99,8 @@ public class CardinalDigitsRootFinder implements RootFinder {
             } else {
                 // if there is apostrophe in whole surface, but that apostrophe is not the char after current partial input, skip this one
                 // thus, for surface "12'ye", only partial input "12" returns a root
-                final String inputUnderlyingString = input.getUnderlyingString();
-                final int lastIndexOfApostopheInInput = inputUnderlyingString.lastIndexOf(APOSTROPHE);
-                if (lastIndexOfApostopheInInput > 0 && lastIndexOfApostopheInInput != partialInput.length()) {
+                final int lastIndexOfApostropheInInput = inputProfile.getLastApostropheIndex();
+                if (lastIndexOfApostropheInInput > 0 && lastIndexOfApostropheInInput != partialInput.length()) {
                     return false;
                 }
             }
@@ -104,6 +117,25 @@ public class CardinalDigitsRootFinder implements RootFinder {
         return false;
     }
 
+    @Override
+    public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+        final TurkishSequence input = inputProfile.getInput();
+        final List<Collection<? extends Root>> result = BulkRootFinders.newNotHandledList(input.length());
+
+        // a number can only be found in the number span of the input
+        for (int i = 1; i < inputProfile.getNumberSpanLength() + 1; i++) {
+            if (i < inputProfile.length() && Character.isDigit(inputProfile.charAt(i)))
+                // quick check: next char is also a digit, number is not complete yet
+                continue;
+
+            final TurkishSequence partialInput = input.subsequence(0, i);
+            if (this.handles(partialInput, inputProfile))
+                result.set(i, this.findRootsForPartialInput(partialInput, input));
+        }
+
+        return result;
+    }
+
     @Override
     public List<Root> findRootsForPartialInput(final TurkishSequence partialInput, final TurkishSequence input) {
         final String partialInputUnderlyingString = partialInput.getUnderlyingString();
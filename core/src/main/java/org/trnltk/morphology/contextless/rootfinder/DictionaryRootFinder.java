@@ -22,17 +22,35 @@ import org.apache.commons.lang3.Validate;
 import org.trnltk.model.letter.TurkishAlphabet;
 import org.trnltk.model.letter.TurkishSequence;
 import org.trnltk.model.lexicon.Root;
+import org.trnltk.morphology.lexicon.RootTrie;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
-public class DictionaryRootFinder implements RootFinder {
+/**
+ * Finds the roots from a dictionary.
+ * <p/>
+ * Dictionary can be given as a root map or as a compiled {@link RootTrie}. When a root map is given, it is looked up
+ * for every partial input; thus changes on the map are visible to the root finder. When a trie is given, the partial
+ * input is walked in the trie. {@link #findRootsForAllPrefixes(InputProfile)} walks the trie once for all partial
+ * inputs.
+ */
+public class DictionaryRootFinder implements BulkRootFinder {
     private final Multimap<String, ? extends Root> rootMap;
+    private final RootTrie rootTrie;
 
     public DictionaryRootFinder(Multimap<String, ? extends Root> rootMap) {
         Validate.notNull(rootMap);
         this.rootMap = rootMap;
+        this.rootTrie = null;
+    }
+
+    public DictionaryRootFinder(RootTrie rootTrie) {
+        Validate.notNull(rootTrie);
+        this.rootMap = null;
+        this.rootTrie = rootTrie;
     }
 
     @Override
@@ -40,14 +58,43 @@ public class DictionaryRootFinder implements RootFinder {
         return partialInput != null && !partialInput.isBlank();
     }
 
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        return !inputProfile.isBlank();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        return !partialInput.isBlank();
+    }
+
+    @Override
+    public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+        final TurkishSequence input = inputProfile.getInput();
+        final List<Collection<? extends Root>> result = BulkRootFinders.newNotHandledList(input.length());
+        final List<List<Root>> trieRoots = this.rootTrie != null ? this.rootTrie.findRootsForAllPrefixes(input.getUnderlyingString()) : null;
+
+        for (int i = 1; i < input.length() + 1; i++) {
+            if (inputProfile.isBlank(i))
+                continue;
+
+            if (trieRoots != null)
+                result.set(i, trieRoots.get(i));
+            else
+                result.set(i, this.findRootsForPartialInput(input.subsequence(0, i), input));
+        }
+
+        return result;
+    }
+
     @Override
     public Collection<? extends Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence _input) {
-        final Collection<? extends Root> roots = this.rootMap.get(partialInput.getUnderlyingString());
+        final Collection<? extends Root> roots = this.getRoots(partialInput.getUnderlyingString());
         if (Character.isUpperCase(partialInput.charAt(0).getCharValue())) {
             final ArrayList<Root> result = new ArrayList<Root>();
 
             final String uncapitalized = TurkishAlphabet.uncapitalize(partialInput.getUnderlyingString());
-            final Collection<? extends Root> lowerCaseRoots = this.rootMap.get(uncapitalized);
+            final Collection<? extends Root> lowerCaseRoots = this.getRoots(uncapitalized);
             result.addAll(roots);
             result.addAll(lowerCaseRoots);
 
@@ -64,4 +111,11 @@ public class DictionaryRootFinder implements RootFinder {
         }
 
     }
+
+    private Collection<? extends Root> getRoots(String rootStr) {
+        if (this.rootTrie != null)
+            return this.rootTrie.get(rootStr);
+        else
+            return this.rootMap.get(rootStr);
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.letter.TurkishSequence;
+
+/**
+ * Facts about a whole input which are used by the root finders, computed in a single pass over the input.
+ * <p/>
+ * {@link RootFinderChain} creates a profile once for an input and passes it to the {@link InputProfileAwareRootFinder}s
+ * for all the partial inputs. Thus, a root finder doesn't have to scan the whole input again for every partial input;
+ * it can also tell that it cannot handle any partial input of the input and be skipped for it.
+ * <p/>
+ * Profiles are immutable.
+ */
+public final class InputProfile {
+    private static final char APOSTROPHE = '\'';
+
+    private final TurkishSequence input;
+    private final String underlyingString;
+    private final int firstNonBlankIndex;
+    private final int lastApostropheIndex;
+    private final int firstVowelIndex;
+    private final boolean[] upperCase;
+    private final boolean allUpperCase;
+    private final int numberSpanLength;
+    private final boolean numberSpanHasDigit;
+    private final boolean allPunctuation;
+
+    private InputProfile(TurkishSequence input) {
+        this.input = input;
+        this.underlyingString = input.getUnderlyingString();
+
+        final int length = this.underlyingString.length();
+        int firstNonBlankIndex = -1;
+        int lastApostropheIndex = -1;
+        int firstVowelIndex = -1;
+        final boolean[] upperCase = new boolean[length];
+        boolean allUpperCase = length > 0;
+        boolean inNumberSpan = true;
+        int numberSpanLength = 0;
+        boolean numberSpanHasDigit = false;
+
+        for (int i = 0; i < length; i++) {
+            final char c = this.underlyingString.charAt(i);
+
+            if (firstNonBlankIndex < 0 && !Character.isWhitespace(c))
+                firstNonBlankIndex = i;
+
+            if (c == APOSTROPHE)
+                lastApostropheIndex = i;
+
+            if (firstVowelIndex < 0 && input.charAt(i).getLetter().isVowel())
+                firstVowelIndex = i;
+
+            upperCase[i] = Character.isUpperCase(c);
+            allUpperCase &= upperCase[i];
+
+            if (inNumberSpan) {
+                final boolean digit = Character.isDigit(c);
+                if (digit || c == '.' || c == ',' || c == '-' || c == '+') {
+                    numberSpanLength++;
+                    numberSpanHasDigit |= digit;
+                } else {
+                    inNumberSpan = false;
+                }
+            }
+        }
+
+        this.firstNonBlankIndex = firstNonBlankIndex;
+        this.lastApostropheIndex = lastApostropheIndex;
+        this.firstVowelIndex = firstVowelIndex;
+        this.upperCase = upperCase;
+        this.allUpperCase = allUpperCase;
+        this.numberSpanLength = numberSpanLength;
+        this.numberSpanHasDigit = numberSpanHasDigit;
+        this.allPunctuation = isAllPunctuation(this.underlyingString);
+    }
+
+    /**
+     * @param input Whole input
+     * @return Profile of the input
+     */
+    public static InputProfile of(TurkishSequence input) {
+        Validate.notNull(input);
+        return new InputProfile(input);
+    }
+
+    /**
+     * You can check types defined in java.lang.Character class. such as START_PUNCTUATION
+     * http://www.unicode.org/notes/tn36/Categories.txt
+     * http://www.fileformat.info/info/unicode/category/index.htm
+     * ALL Punc =
+     * [Pc]	Punctuation, Connector
+     * [Pd]	Punctuation, Dash
+     * [Pe]	Punctuation, Close
+     * [Pf]	Punctuation, Final quote (may behave like Ps or Pe depending on usage)
+     * [Pi]	Punctuation, Initial quote (may behave like Ps or Pe depending on usage)
+     * [Po]	Punctuation, Other
+     * [Ps]	Punctuation, Open
+     * [Sm]	Symbol, Math
+     * [So]	Symbol, Other
+     */
+    private static boolean isAllPunctuation(String str) {
+        if (str.isEmpty())
+            return false;
+
+        for (int i = 0; i < str.length(); ) {
+            final int codePoint = str.codePointAt(i);
+            switch (Character.getType(codePoint)) {
+                case Character.CONNECTOR_PUNCTUATION:
+                case Character.DASH_PUNCTUATION:
+                case Character.END_PUNCTUATION:
+                case Character.FINAL_QUOTE_PUNCTUATION:
+                case Character.INITIAL_QUOTE_PUNCTUATION:
+                case Character.OTHER_PUNCTUATION:
+                case Character.START_PUNCTUATION:
+                case Character.MATH_SYMBOL:
+                case Character.OTHER_SYMBOL:
+                    break;
+                default:
+                    return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
+    }
+
+    public TurkishSequence getInput() {
+        return input;
+    }
+
+    public int length() {
+        return underlyingString.length();
+    }
+
+    /**
+     * @return Char of the input at given index
+     */
+    public char charAt(int index) {
+        return underlyingString.charAt(index);
+    }
+
+    /**
+     * @return true if input is empty or consists of whitespace
+     */
+    public boolean isBlank() {
+        return firstNonBlankIndex < 0;
+    }
+
+    /**
+     * @param length Length of the partial input
+     * @return true if the partial input with given length, which is a beginning of the input, is empty or consists of
+     *         whitespace
+     */
+    public boolean isBlank(int length) {
+        return firstNonBlankIndex < 0 || length <= firstNonBlankIndex;
+    }
+
+    public boolean hasApostrophe() {
+        return lastApostropheIndex >= 0;
+    }
+
+    /**
+     * @return Index of the last apostrophe in the input, -1 if there is none
+     */
+    public int getLastApostropheIndex() {
+        return lastApostropheIndex;
+    }
+
+    /**
+     * @return Index of the first vowel in the input, -1 if there is none
+     */
+    public int getFirstVowelIndex() {
+        return firstVowelIndex;
+    }
+
+    public boolean hasVowel() {
+        return firstVowelIndex >= 0;
+    }
+
+    public boolean startsWithUpperCase() {
+        return upperCase.length > 0 && upperCase[0];
+    }
+
+    /**
+     * @return true if the char of the input at given index is upper case
+     */
+    public boolean isUpperCaseAt(int index) {
+        return upperCase[index];
+    }
+
+    /**
+     * @return true if input is not empty and all of its chars are upper case
+     */
+    public boolean isAllUpperCase() {
+        return allUpperCase;
+    }
+
+    /**
+     * Number span is the beginning of the input which consists of digits, signs and separators; e.g. "123.456,7"
+     * for "123.456,7'si" and "10-20" for "10-20'ye". A number root can only be found for a partial input in the span.
+     *
+     * @return Length of the number span, 0 if the input doesn't start with a number char
+     */
+    public int getNumberSpanLength() {
+        return numberSpanLength;
+    }
+
+    /**
+     * @return true if the number span has a digit; that is, a number root could be found for a partial input
+     */
+    public boolean startsWithNumber() {
+        return numberSpanHasDigit;
+    }
+
+    /**
+     * @return true if input is not empty and all of its chars are punctuation or symbols
+     */
+    public boolean isAllPunctuation() {
+        return allPunctuation;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import org.trnltk.model.letter.TurkishSequence;
+
+/**
+ * A {@link RootFinder} which decides whether it handles a partial input using the {@link InputProfile} of the whole
+ * input, instead of scanning the whole input for every partial input.
+ * <p/>
+ * {@link RootFinderChain} uses these methods instead of {@link RootFinder#handles(TurkishSequence, TurkishSequence)}.
+ */
+public interface InputProfileAwareRootFinder extends RootFinder {
+
+    /**
+     * A quick check if any partial input of the input could be handled. If false, the root finder is skipped for all
+     * partial inputs of the input.
+     *
+     * @param inputProfile Profile of the whole input
+     * @return false if no partial input of the input can be handled
+     */
+    public boolean handlesInput(InputProfile inputProfile);
+
+    /**
+     * Same with {@link RootFinder#handles(TurkishSequence, TurkishSequence)}, but facts about the whole input are read
+     * from the profile. Only called if {@link #handlesInput(InputProfile)} returns true for the profile.
+     *
+     * @param partialInput Partial surface, must be a beginning of the input of the profile
+     * @param inputProfile Profile of the whole input
+     * @return true if partial input could be handled
+     */
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile);
+}
@@ -29,7 +29,7 @@ import org.trnltk.model.letter.TurkishChar;
 import java.util.Arrays;
 import java.util.List;
 
-public class ProperNounFromApostropheRootFinder implements RootFinder {
+public class ProperNounFromApostropheRootFinder implements InputProfileAwareRootFinder {
     private static final char APOSTROPHE = '\'';
     private static final TurkishChar TURKISH_CHAR_E_UPPERCASE = TurkishAlphabet.getChar('E');
 
@@ -49,6 +49,18 @@ public class ProperNounFromApostropheRootFinder implements RootFinder {
         return false;
     }
 
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        // apostrophe must come after an upper case char
+        return inputProfile.startsWithUpperCase() && inputProfile.getLastApostropheIndex() > 0;
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        // only the partial input is checked
+        return this.handles(partialInput, inputProfile.getInput());
+    }
+
     @Override
     public List<? extends Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence input) {
         final TurkishSequence properNounCandidate = partialInput.subsequence(0, partialInput.length() - 1);
@@ -28,30 +28,38 @@ import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 import java.util.Arrays;
 import java.util.List;
 
-public class ProperNounWithoutApostropheRootFinder implements RootFinder {
-    private static final char APOSTROPHE = '\'';
+public class ProperNounWithoutApostropheRootFinder implements InputProfileAwareRootFinder {
     private static final TurkishChar TURKISH_CHAR_E_UPPERCASE = TurkishAlphabet.getChar('E');
 
     private final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || wholeSurface == null)
             return false;
 
-        if (wholeSurface == null || wholeSurface.isBlank())
+        final InputProfile inputProfile = InputProfile.of(wholeSurface);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        if (inputProfile.isBlank())
             return false;
 
         // the case with apostrophe is handled by ProperNounFromApostropheRootFinder
-        final String wholeSurfaceUnderlyingString = wholeSurface.getUnderlyingString();
         //noinspection RedundantIfStatement
-        if (!Character.isUpperCase(wholeSurface.charAt(0).getCharValue()) || wholeSurfaceUnderlyingString.contains(String.valueOf(APOSTROPHE))) {
+        if (!inputProfile.startsWithUpperCase() || inputProfile.hasApostrophe())
             return false;
-        }
 
         return true;
     }
 
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        return !partialInput.isBlank();
+    }
+
     @Override
     public List<? extends Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence input) {
         final String partialInputUnderlyingString = partialInput.getUnderlyingString();
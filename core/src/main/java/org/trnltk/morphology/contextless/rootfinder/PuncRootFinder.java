@@ -21,30 +21,14 @@ import org.trnltk.model.lexicon.ImmutableLexeme;
 import org.trnltk.model.lexicon.ImmutableRoot;
 import org.trnltk.model.letter.TurkishSequence;
 import org.trnltk.model.lexicon.PrimaryPos;
+import org.trnltk.model.lexicon.Root;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Pattern;
 
 
-public class PuncRootFinder implements RootFinder {
-
-    /**
-     * You can check types defined in java.lang.Character class. such as START_PUNCTUATION
-     * http://www.unicode.org/notes/tn36/Categories.txt
-     * http://www.fileformat.info/info/unicode/category/index.htm
-     * ALL Punc =
-     * [Pc]	Punctuation, Connector
-     * [Pd]	Punctuation, Dash
-     * [Pe]	Punctuation, Close
-     * [Pf]	Punctuation, Final quote (may behave like Ps or Pe depending on usage)
-     * [Pi]	Punctuation, Initial quote (may behave like Ps or Pe depending on usage)
-     * [Po]	Punctuation, Other
-     * [Ps]	Punctuation, Open
-     * [Sm]	Symbol, Math
-     * [So]	Symbol, Other
-     */
-    private static final Pattern ALL_PUNC_PATTERN = Pattern.compile("^(\\p{Pc}|\\p{Pd}|\\p{Pe}|\\p{Pf}|\\p{Pi}|\\p{Po}|\\p{Ps}|\\p{Sm}|\\p{So})+$");
+public class PuncRootFinder implements BulkRootFinder {
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence input) {
@@ -53,11 +37,34 @@ public class PuncRootFinder implements RootFinder {
 
         if (partialInput.length() == input.length()) {
             Validate.isTrue(input.equals(partialInput));
-            return ALL_PUNC_PATTERN.matcher(partialInput.getUnderlyingString()).matches();
+            final InputProfile inputProfile = InputProfile.of(input);
+            return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
         }
         return false;
     }
 
+    /**
+     * @see InputProfile#isAllPunctuation() for the chars which are considered as punctuation
+     */
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        return inputProfile.isAllPunctuation();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        return partialInput.length() == inputProfile.length();
+    }
+
+    @Override
+    public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+        // only the whole input is handled
+        final TurkishSequence input = inputProfile.getInput();
+        final List<Collection<? extends Root>> result = BulkRootFinders.newNotHandledList(input.length());
+        result.set(input.length(), this.findRootsForPartialInput(input, input));
+        return result;
+    }
+
     @Override
     public List<ImmutableRoot> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence input) {
         final ImmutableLexeme lexeme = new ImmutableLexeme(partialInput.getUnderlyingString(), input.getUnderlyingString(), PrimaryPos.Punctuation, null, null);
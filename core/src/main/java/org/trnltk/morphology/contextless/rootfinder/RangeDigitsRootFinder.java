@@ -27,10 +27,11 @@ import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 import org.trnltk.numeral.DigitsToTextConverter;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
 
-public class RangeDigitsRootFinder implements RootFinder {
+public class RangeDigitsRootFinder implements BulkRootFinder {
 
     private static List<Pattern> NUMBER_REGEXES = Arrays.asList(
             // ^(NormalNr or GroupedNr) ( RangeOp [NormalNr or GroupedNr] )* RangeOp (NormalNr or GroupedNr)$
@@ -51,15 +52,33 @@ public class RangeDigitsRootFinder implements RootFinder {
 
     @Override
     public boolean handles(TurkishSequence partialInput, TurkishSequence input) {
-        if (partialInput == null || partialInput.isBlank())
+        if (partialInput == null || input == null)
+            return false;
+
+        final InputProfile inputProfile = InputProfile.of(input);
+        return this.handlesInput(inputProfile) && this.handles(partialInput, inputProfile);
+    }
+
+    @Override
+    public boolean handlesInput(InputProfile inputProfile) {
+        return inputProfile.startsWithNumber();
+    }
+
+    @Override
+    public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+        if (partialInput.isBlank())
+            return false;
+
+        if (partialInput.length() > inputProfile.getNumberSpanLength())
+            // quick check: partial input has a char which cannot be in a number
             return false;
 
         if (!Character.isDigit(partialInput.getLastChar().getCharValue()))
             //quick check:
             return false;
 
-        if (partialInput.length() < input.length()) {
-            final char charAfterPartialInput = input.charAt(partialInput.length()).getCharValue();
+        if (partialInput.length() < inputProfile.length()) {
+            final char charAfterPartialInput = inputProfile.charAt(partialInput.length());
             if (Character.isDigit(charAfterPartialInput)) {
                 // if next char is also a digit, don't return a root for current partial input
                 // so, for whole surface "10-20", partial inputs "10-2" and "1" will not return any roots
@@ -84,6 +103,25 @@ public class RangeDigitsRootFinder implements RootFinder {
         return false;
     }
 
+    @Override
+    public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+        final TurkishSequence input = inputProfile.getInput();
+        final List<Collection<? extends Root>> result = BulkRootFinders.newNotHandledList(input.length());
+
+        // a number can only be found in the number span of the input
+        for (int i = 1; i < inputProfile.getNumberSpanLength() + 1; i++) {
+            if (i < inputProfile.length() && Character.isDigit(inputProfile.charAt(i)))
+                // quick check: next char is also a digit, number is not complete yet
+                continue;
+
+            final TurkishSequence partialInput = input.subsequence(0, i);
+            if (this.handles(partialInput, inputProfile))
+                result.set(i, this.findRootsForPartialInput(partialInput, input));
+        }
+
+        return result;
+    }
+
     @Override
     public List<Root> findRootsForPartialInput(final TurkishSequence partialInput, final TurkishSequence input) {
         final String partialInputUnderlyingString = partialInput.getUnderlyingString();
@@ -21,7 +21,10 @@ import org.apache.commons.lang3.Validate;
 import org.trnltk.model.lexicon.Root;
 import org.trnltk.model.letter.TurkishSequence;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -34,6 +37,15 @@ public class RootFinderChain {
         this.rootValidator = rootValidator;
     }
 
+    /**
+     * Creates a chain with the root finders of the given chain. Root finders offered to one of the chains later are not
+     * seen by the other.
+     */
+    public RootFinderChain(RootFinderChain rootFinderChain) {
+        this.rootValidator = rootFinderChain.rootValidator;
+        this.rootFinderChainItems.addAll(rootFinderChain.rootFinderChainItems);
+    }
+
     public RootFinderChain offer(RootFinder rootFinder, RootFinderPolicy rootFinderPolicy) {
         if (RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED.equals(rootFinderPolicy)) {
             final RootFinderChainItem lastChainItem = rootFinderChainItems.peekLast();
@@ -47,23 +59,34 @@ public class RootFinderChain {
     }
 
     public List<Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence input) {
+        return this.findRootsForPartialInput(partialInput, InputProfile.of(input));
+    }
+
+    /**
+     * Same with {@link #findRootsForPartialInput(TurkishSequence, TurkishSequence)}, but with the profile of the input
+     * which is created once for all partial inputs of it.
+     * <p/>
+     * An {@link InputProfileAwareRootFinder} is skipped without checking the partial input if it doesn't handle the
+     * input.
+     *
+     * @param partialInput Partial input, a beginning of the input of the profile
+     * @param inputProfile Profile of the whole input
+     */
+    public List<Root> findRootsForPartialInput(TurkishSequence partialInput, InputProfile inputProfile) {
+        final TurkishSequence input = inputProfile.getInput();
         LinkedList<Root> roots = new LinkedList<Root>();
         for (RootFinderChainItem rootFinderChainItem : rootFinderChainItems) {
             final RootFinder rootFinder = rootFinderChainItem.getRootFinder();
             final RootFinderPolicy rootFinderPolicy = rootFinderChainItem.getRootFinderPolicy();
 
-            if (!rootFinder.handles(partialInput, input))
+            final InputProfileAwareRootFinder inputProfileAwareRootFinder = rootFinderChainItem.getInputProfileAwareRootFinder();
+            if (inputProfileAwareRootFinder != null) {
+                if (!inputProfileAwareRootFinder.handlesInput(inputProfile) || !inputProfileAwareRootFinder.handles(partialInput, inputProfile))
+                    continue;
+            } else if (!rootFinder.handles(partialInput, input))
                 continue;
             final Collection<? extends Root> rootsForPartialInput = rootFinder.findRootsForPartialInput(partialInput, input);
-            if (CollectionUtils.isNotEmpty(rootsForPartialInput)) {
-                //roots must be beginning of the partial input
-                for (Root rootForPartialInput : rootsForPartialInput) {
-                    final boolean isPartialInputValid = rootValidator.isValid(rootForPartialInput, partialInput);
-                    if (!isPartialInputValid)
-                        throw new IllegalArgumentException("Invalid root " + rootForPartialInput.toString() + " for partial input " + partialInput);
-                }
-                roots.addAll(rootsForPartialInput);
-            }
+            this.addRoots(roots, rootsForPartialInput, partialInput);
 
             if (RootFinderPolicy.CONTINUE_ON_CHAIN.equals(rootFinderPolicy))
                 //noinspection UnnecessaryContinue
@@ -76,10 +99,112 @@ public class RootFinderChain {
         return roots;
     }
 
+    /**
+     * Finds the roots for all partial inputs of the input; same with calling
+     * {@link #findRootsForPartialInput(TurkishSequence, InputProfile)} for every partial input.
+     * <p/>
+     * A {@link BulkRootFinder} is called once for the whole input. Other root finders are called for every partial
+     * input. Policies of the root finders are applied for every partial input separately; a root finder with policy
+     * {@link RootFinderPolicy#STOP_CHAIN_WHEN_INPUT_IS_HANDLED} only stops the chain for the partial inputs it handles.
+     *
+     * @param inputProfile Profile of the whole input
+     * @return List of size {@code input.length() + 1}, where item at index {@code i} contains the roots for the partial
+     *         input with length {@code i}. Items are never null.
+     */
+    public List<List<Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+        final TurkishSequence input = inputProfile.getInput();
+        final int length = input.length();
+
+        // results of the bulk root finders, in the order of the chain items. null for the other root finders and
+        // for the bulk root finders which don't handle the input
+        final List<List<Collection<? extends Root>>> bulkResults = new ArrayList<List<Collection<? extends Root>>>(rootFinderChainItems.size());
+        for (RootFinderChainItem rootFinderChainItem : rootFinderChainItems) {
+            final BulkRootFinder bulkRootFinder = rootFinderChainItem.getBulkRootFinder();
+            if (bulkRootFinder != null && bulkRootFinder.handlesInput(inputProfile))
+                bulkResults.add(bulkRootFinder.findRootsForAllPrefixes(inputProfile));
+            else
+                bulkResults.add(null);
+        }
+
+        final List<List<Root>> result = new ArrayList<List<Root>>(length + 1);
+        result.add(Collections.<Root>emptyList());
+
+        for (int i = 1; i < length + 1; i++) {
+            // created only if needed; it is not needed if all root finders are bulk and no roots are found
+            TurkishSequence partialInput = null;
+
+            final LinkedList<Root> roots = new LinkedList<Root>();
+            final Iterator<List<Collection<? extends Root>>> bulkResultIterator = bulkResults.iterator();
+            for (RootFinderChainItem rootFinderChainItem : rootFinderChainItems) {
+                final List<Collection<? extends Root>> bulkResult = bulkResultIterator.next();
+                final RootFinderPolicy rootFinderPolicy = rootFinderChainItem.getRootFinderPolicy();
+
+                final Collection<? extends Root> rootsForPartialInput;
+                if (rootFinderChainItem.getBulkRootFinder() != null) {
+                    rootsForPartialInput = bulkResult != null ? bulkResult.get(i) : null;
+                    if (rootsForPartialInput == null)
+                        continue;
+                    if (CollectionUtils.isNotEmpty(rootsForPartialInput) && partialInput == null)
+                        partialInput = input.subsequence(0, i);
+                } else {
+                    if (partialInput == null)
+                        partialInput = input.subsequence(0, i);
+
+                    final InputProfileAwareRootFinder inputProfileAwareRootFinder = rootFinderChainItem.getInputProfileAwareRootFinder();
+                    if (inputProfileAwareRootFinder != null) {
+                        if (!inputProfileAwareRootFinder.handlesInput(inputProfile) || !inputProfileAwareRootFinder.handles(partialInput, inputProfile))
+                            continue;
+                    } else if (!rootFinderChainItem.getRootFinder().handles(partialInput, input))
+                        continue;
+
+                    rootsForPartialInput = rootFinderChainItem.getRootFinder().findRootsForPartialInput(partialInput, input);
+                }
+
+                this.addRoots(roots, rootsForPartialInput, partialInput);
+
+                if (RootFinderPolicy.CONTINUE_ON_CHAIN.equals(rootFinderPolicy))
+                    //noinspection UnnecessaryContinue
+                    continue;
+                else if (RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED.equals(rootFinderPolicy))
+                    break;
+                else
+                    throw new IllegalStateException();
+            }
+
+            result.add(roots);
+        }
+
+        return result;
+    }
+
+    private void addRoots(List<Root> roots, Collection<? extends Root> rootsForPartialInput, TurkishSequence partialInput) {
+        if (CollectionUtils.isNotEmpty(rootsForPartialInput)) {
+            //roots must be beginning of the partial input
+            for (Root rootForPartialInput : rootsForPartialInput) {
+                final boolean isPartialInputValid = rootValidator.isValid(rootForPartialInput, partialInput);
+                if (!isPartialInputValid)
+                    throw new IllegalArgumentException("Invalid root " + rootForPartialInput.toString() + " for partial input " + partialInput);
+            }
+            roots.addAll(rootsForPartialInput);
+        }
+    }
+
     public boolean hasRootFinders() {
         return !rootFinderChainItems.isEmpty();
     }
 
+    /**
+     * @return Classes and policies of the root finders in the chain, in order
+     */
+    public String describe() {
+        final StringBuilder builder = new StringBuilder();
+        for (RootFinderChainItem rootFinderChainItem : rootFinderChainItems) {
+            builder.append(rootFinderChainItem.getRootFinder().getClass().getName())
+                    .append('(').append(rootFinderChainItem.getRootFinderPolicy()).append(')').append('\n');
+        }
+        return builder.toString();
+    }
+
     public enum RootFinderPolicy {
         STOP_CHAIN_WHEN_INPUT_IS_HANDLED,
         CONTINUE_ON_CHAIN
@@ -88,6 +213,8 @@ public class RootFinderChain {
     private static class RootFinderChainItem {
         private final RootFinder rootFinder;
         private final RootFinderPolicy rootFinderPolicy;
+        private final InputProfileAwareRootFinder inputProfileAwareRootFinder;
+        private final BulkRootFinder bulkRootFinder;
 
         private RootFinderChainItem(RootFinder rootFinder, RootFinderPolicy rootFinderPolicy) {
             Validate.notNull(rootFinder);
@@ -95,6 +222,8 @@ public class RootFinderChain {
 
             this.rootFinder = rootFinder;
             this.rootFinderPolicy = rootFinderPolicy;
+            this.inputProfileAwareRootFinder = rootFinder instanceof InputProfileAwareRootFinder ? (InputProfileAwareRootFinder) rootFinder : null;
+            this.bulkRootFinder = rootFinder instanceof BulkRootFinder ? (BulkRootFinder) rootFinder : null;
         }
 
         public RootFinder getRootFinder() {
@@ -104,5 +233,19 @@ public class RootFinderChain {
         public RootFinderPolicy getRootFinderPolicy() {
             return rootFinderPolicy;
         }
+
+        /**
+         * @return Root finder if it is {@link InputProfileAwareRootFinder}, null otherwise
+         */
+        public InputProfileAwareRootFinder getInputProfileAwareRootFinder() {
+            return inputProfileAwareRootFinder;
+        }
+
+        /**
+         * @return Root finder if it is {@link BulkRootFinder}, null otherwise
+         */
+        public BulkRootFinder getBulkRootFinder() {
+            return bulkRootFinder;
+        }
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.lexicon;
+
+import com.google.common.collect.Multimap;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.letter.TurkishAlphabet;
+import org.trnltk.model.lexicon.Root;
+
+import java.util.*;
+
+/**
+ * A compiled, immutable character trie of roots.
+ * <p/>
+ * Contains the same information with a root map (see {@link RootMapGenerator}), but allows finding the roots for
+ * all prefixes of an input by walking the input only once. Root map needs a hash lookup (and a string to hash)
+ * for each prefix of the input.
+ * <p/>
+ * Nodes are stored in flat arrays: outgoing edges of a node are kept sorted by their characters and found with a
+ * binary search.
+ * <p/>
+ * Trie is built once and it is not possible to modify it later. Thus, it is safe to share an instance between threads.
+ */
+public class RootTrie {
+
+    private static final Root[] NO_ROOTS = new Root[0];
+
+    // edges of node i are at [edgeStart[i], edgeStart[i+1]) of edgeChars and edgeTargets
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final Root[][] nodeRoots;
+
+    private RootTrie(int[] edgeStart, char[] edgeChars, int[] edgeTargets, Root[][] nodeRoots) {
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.nodeRoots = nodeRoots;
+    }
+
+    /**
+     * Compiles a trie from a root map. Roots of a key are kept in the iteration order of the map.
+     * <p/>
+     * Later changes to the root map are not reflected to the trie.
+     *
+     * @param rootMap Map of root strings to roots
+     * @return compiled trie
+     */
+    public static RootTrie create(Multimap<String, ? extends Root> rootMap) {
+        Validate.notNull(rootMap);
+
+        final BuildNode buildRoot = new BuildNode();
+        for (String key : rootMap.keySet()) {
+            final Collection<? extends Root> roots = rootMap.get(key);
+            if (roots.isEmpty())
+                continue;
+
+            BuildNode node = buildRoot;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+            }
+            node.roots.addAll(roots);
+        }
+
+        // flatten the nodes breadth first, so that node ids are assigned in the order of edges
+        final List<BuildNode> nodes = new ArrayList<BuildNode>();
+        int edgeCount = 0;
+        nodes.add(buildRoot);
+        for (int i = 0; i < nodes.size(); i++) {
+            final BuildNode node = nodes.get(i);
+            for (BuildNode child : node.children.values()) {
+                child.id = nodes.size();
+                nodes.add(child);
+                edgeCount++;
+            }
+        }
+
+        final int[] edgeStart = new int[nodes.size() + 1];
+        final char[] edgeChars = new char[edgeCount];
+        final int[] edgeTargets = new int[edgeCount];
+        final Root[][] nodeRoots = new Root[nodes.size()][];
+
+        int edgeIndex = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            final BuildNode node = nodes.get(i);
+            edgeStart[i] = edgeIndex;
+            for (Map.Entry<Character, BuildNode> childEntry : node.children.entrySet()) {
+                edgeChars[edgeIndex] = childEntry.getKey();
+                edgeTargets[edgeIndex] = childEntry.getValue().id;
+                edgeIndex++;
+            }
+            nodeRoots[i] = node.roots.isEmpty() ? NO_ROOTS : node.roots.toArray(new Root[node.roots.size()]);
+        }
+        edgeStart[nodes.size()] = edgeIndex;
+
+        return new RootTrie(edgeStart, edgeChars, edgeTargets, nodeRoots);
+    }
+
+    /**
+     * Returns the roots with exactly given root string.
+     *
+     * @param key Root string
+     * @return Unmodifiable collection of roots, empty collection if there is none
+     */
+    public Collection<Root> get(CharSequence key) {
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = this.findChild(node, key.charAt(i));
+        }
+
+        if (node < 0 || nodeRoots[node].length == 0)
+            return Collections.emptyList();
+        else
+            return Collections.unmodifiableList(Arrays.asList(nodeRoots[node]));
+    }
+
+    /**
+     * Finds the roots for all prefixes of the given input with a single walk.
+     * <p/>
+     * If first letter of the input is uppercase, roots of the prefixes with uncapitalized first letter are also
+     * found, within the same walk. These come after the roots of the prefix as it is.
+     *
+     * @param input The input
+     * @return List of size {@code input.length() + 1}, where item at index {@code i} contains the roots for the
+     * prefix with length {@code i}. Items are never null and they are unmodifiable.
+     */
+    public List<List<Root>> findRootsForAllPrefixes(CharSequence input) {
+        final int length = input.length();
+        final List<List<Root>> result = new ArrayList<List<Root>>(length + 1);
+        for (int i = 0; i <= length; i++) {
+            result.add(Collections.<Root>emptyList());
+        }
+
+        if (length == 0)
+            return result;
+
+        final char firstChar = input.charAt(0);
+        this.walk(input, firstChar, result);
+
+        if (Character.isUpperCase(firstChar)) {
+            final char uncapitalizedFirstChar = TurkishAlphabet.uncapitalize(String.valueOf(firstChar)).charAt(0);
+            if (uncapitalizedFirstChar != firstChar)
+                this.walk(input, uncapitalizedFirstChar, result);
+        }
+
+        return result;
+    }
+
+    private void walk(CharSequence input, char firstChar, List<List<Root>> result) {
+        int node = 0;
+        for (int i = 0; i < input.length(); i++) {
+            node = this.findChild(node, i == 0 ? firstChar : input.charAt(i));
+            if (node < 0)
+                return;
+
+            final Root[] roots = nodeRoots[node];
+            if (roots.length == 0)
+                continue;
+
+            final List<Root> existing = result.get(i + 1);
+            if (existing.isEmpty()) {
+                result.set(i + 1, Collections.unmodifiableList(Arrays.asList(roots)));
+            } else {
+                final List<Root> merged = new ArrayList<Root>(existing.size() + roots.length);
+                merged.addAll(existing);
+                merged.addAll(Arrays.asList(roots));
+                result.set(i + 1, Collections.unmodifiableList(merged));
+            }
+        }
+    }
+
+    private int findChild(int node, char c) {
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final char midChar = edgeChars[mid];
+            if (midChar < c)
+                low = mid + 1;
+            else if (midChar > c)
+                high = mid - 1;
+            else
+                return edgeTargets[mid];
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of nodes in the trie, including the root node
+     */
+    public int getNodeCount() {
+        return nodeRoots.length;
+    }
+
+    private static class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<Character, BuildNode>();
+        private final List<Root> roots = new ArrayList<Root>(1);
+        private int id;
+
+        private BuildNode child(char c) {
+            BuildNode child = children.get(c);
+            if (child == null) {
+                child = new BuildNode();
+                children.put(c, child);
+            }
+            return child;
+        }
+    }
+}
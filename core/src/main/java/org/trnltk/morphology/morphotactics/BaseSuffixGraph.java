@@ -24,6 +24,7 @@ import org.trnltk.model.lexicon.Root;
 import org.trnltk.model.lexicon.SecondaryPos;
 import org.trnltk.model.suffix.*;
 import org.trnltk.model.lexicon.PrimaryPos;
+import org.trnltk.morphology.morphotactics.suffixformspecifications.CompiledSpecification;
 
 import java.util.*;
 
@@ -53,6 +54,96 @@ public abstract class BaseSuffixGraph implements SuffixGraph {
         this.stateMap = ImmutableMap.copyOf(stateMap);
         this.suffixMap = ImmutableMap.copyOf(suffixMap);
         this.validate();
+        this.assignOrdinals();
+        this.compileConditions();
+    }
+
+    /**
+     * Assigns dense ordinals to states, suffixes, suffix groups and suffix form sequences, so that parser can keep them
+     * in bitsets and arrays.
+     * <p/>
+     * Decorated graph is initialized before, thus its states and suffixes already have their ordinals. Numbering
+     * continues after them. Groups are numbered by their names, since groups are equal when their names are equal.
+     * Similarly, suffix form sequences are numbered by their form strings.
+     */
+    private void assignOrdinals() {
+        final Collection<SuffixGraphState> decoratedStates = this.decorated.getAllSuffixGraphStates();
+        int nextStateOrdinal = 0;
+        for (SuffixGraphState state : decoratedStates) {
+            nextStateOrdinal = Math.max(nextStateOrdinal, state.getOrdinal() + 1);
+        }
+        for (SuffixGraphState state : Iterables.concat(decoratedStates, this.stateMap.values())) {
+            if (state.getOrdinal() < 0)
+                state.setOrdinal(nextStateOrdinal++);
+        }
+
+        final Collection<Suffix> decoratedSuffixes = this.decorated.getAllSuffixes();
+
+        int nextSuffixOrdinal = 0;
+        final Map<String, Integer> groupOrdinals = new HashMap<String, Integer>();
+        for (Suffix suffix : decoratedSuffixes) {
+            nextSuffixOrdinal = Math.max(nextSuffixOrdinal, suffix.getOrdinal() + 1);
+            final SuffixGroup suffixGroup = suffix.getSuffixGroup();
+            if (suffixGroup != null && suffixGroup.getOrdinal() >= 0)
+                groupOrdinals.put(suffixGroup.getName(), suffixGroup.getOrdinal());
+        }
+        int nextGroupOrdinal = groupOrdinals.isEmpty() ? 0 : Collections.max(groupOrdinals.values()) + 1;
+
+        for (Suffix suffix : Iterables.concat(decoratedSuffixes, this.suffixMap.values())) {
+            if (suffix.getOrdinal() < 0)
+                suffix.setOrdinal(nextSuffixOrdinal++);
+
+            final SuffixGroup suffixGroup = suffix.getSuffixGroup();
+            if (suffixGroup != null && suffixGroup.getOrdinal() < 0) {
+                Integer groupOrdinal = groupOrdinals.get(suffixGroup.getName());
+                if (groupOrdinal == null) {
+                    groupOrdinal = nextGroupOrdinal++;
+                    groupOrdinals.put(suffixGroup.getName(), groupOrdinal);
+                }
+                suffixGroup.setOrdinal(groupOrdinal);
+            }
+        }
+
+        final Map<String, Integer> sequenceOrdinals = new HashMap<String, Integer>();
+        for (Suffix suffix : decoratedSuffixes) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                final SuffixFormSequence sequence = suffixForm.getForm();
+                if (sequence.getOrdinal() >= 0)
+                    sequenceOrdinals.put(sequence.getSuffixFormStr(), sequence.getOrdinal());
+            }
+        }
+        int nextSequenceOrdinal = sequenceOrdinals.isEmpty() ? 0 : Collections.max(sequenceOrdinals.values()) + 1;
+
+        for (Suffix suffix : Iterables.concat(decoratedSuffixes, this.suffixMap.values())) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                final SuffixFormSequence sequence = suffixForm.getForm();
+                if (sequence.getOrdinal() >= 0)
+                    continue;
+                Integer sequenceOrdinal = sequenceOrdinals.get(sequence.getSuffixFormStr());
+                if (sequenceOrdinal == null) {
+                    sequenceOrdinal = nextSequenceOrdinal++;
+                    sequenceOrdinals.put(sequence.getSuffixFormStr(), sequenceOrdinal);
+                }
+                sequence.setOrdinal(sequenceOrdinal);
+            }
+        }
+    }
+
+    /**
+     * Compiles the conditions of the suffix forms of the graph, so that they are evaluated as flat programs instead of
+     * walking the specification trees. See {@link CompiledSpecification}.
+     * <p/>
+     * Decorated graph compiled its suffix forms when it is initialized.
+     */
+    private void compileConditions() {
+        for (Suffix suffix : this.suffixMap.values()) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                suffixForm.setCompiledConditions(
+                        CompiledSpecification.compile(suffixForm.getPrecondition()),
+                        CompiledSpecification.compile(suffixForm.getPostCondition()),
+                        CompiledSpecification.compile(suffixForm.getPostDerivativeCondition()));
+            }
+        }
     }
 
     @Override
@@ -176,6 +267,12 @@ public abstract class BaseSuffixGraph implements SuffixGraph {
         return Lists.newLinkedList(Iterables.concat(this.suffixMap.values(), this.decorated.getAllSuffixes()));
     }
 
+    @Override
+    public LinkedList<SuffixGraphState> getAllSuffixGraphStates() {
+        Validate.isTrue(this.stateMap instanceof ImmutableMap, "Suffix graph not initialized yet!");
+        return Lists.newLinkedList(Iterables.concat(this.stateMap.values(), this.decorated.getAllSuffixGraphStates()));
+    }
+
     @SuppressWarnings("WeakerAccess")
     protected void validate() {
         for (String stateName : this.stateMap.keySet()) {
@@ -54,6 +54,11 @@ public class EmptySuffixGraph implements SuffixGraph {
         return Collections.emptyList();
     }
 
+    @Override
+    public Collection<SuffixGraphState> getAllSuffixGraphStates() {
+        return Collections.emptyList();
+    }
+
     @Override
     public SuffixForm getSuffixForm(String suffixName, String suffixFormStr) {
         return null;
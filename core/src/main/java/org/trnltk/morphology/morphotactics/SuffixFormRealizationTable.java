@@ -0,0 +1,203 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.morphotactics;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.trnltk.model.lexicon.PhoneticAttribute;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormSequence;
+import org.trnltk.morphology.contextless.parser.PhoneticAttributeSets;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Precomputes the realization of every {@link SuffixFormSequence} of a {@link SuffixGraph} for every phonetic
+ * attribute combination that affects it.
+ * <p/>
+ * A realization consists of the applied form, the voiced variant of the applied form and the applicability of the
+ * sequence. Only {@link SuffixFormRealizationTable#MODIFIER_ATTRIBUTES} are considered by the sequence rules, thus
+ * the table has a column for each combination of them and a row for each sequence ordinal assigned by
+ * {@link SuffixGraph#initialize()}. Lookup of a phonetic attribute number is two array accesses.
+ * <p/>
+ * Applied forms are interned, so equal forms of different sequences are the same instance.
+ * <p/>
+ * Sequences which are not in the graph are delegated.
+ */
+public class SuffixFormRealizationTable extends SuffixFormSequenceApplier {
+
+    private static final ImmutableList<PhoneticAttribute> MODIFIER_ATTRIBUTES = ImmutableList.of(
+            PhoneticAttribute.LastVowelBack,
+            PhoneticAttribute.LastVowelFrontal,
+            PhoneticAttribute.LastVowelUnrounded,
+            PhoneticAttribute.LastVowelRounded,
+            PhoneticAttribute.LastLetterConsonant,
+            PhoneticAttribute.LastLetterVowel,
+            PhoneticAttribute.LastLetterVoiceless
+    );
+
+    private static final int COLUMN_COUNT = 1 << MODIFIER_ATTRIBUTES.size();
+
+    private static final int[] COLUMN_BY_NUMBER = createColumnByNumber();
+
+    private final SuffixFormSequenceApplier delegate;
+    private final Realization[][] realizations;
+
+    public SuffixFormRealizationTable(SuffixGraph suffixGraph, SuffixFormSequenceApplier delegate) {
+        this.delegate = delegate;
+        this.realizations = this.createRealizations(suffixGraph.getAllSuffixes());
+    }
+
+    private static int[] createColumnByNumber() {
+        final int[] columnByNumber = new int[PhoneticAttributeSets.numberBound()];
+        for (int number = 0; number < columnByNumber.length; number++) {
+            int column = 0;
+            for (int i = 0; i < MODIFIER_ATTRIBUTES.size(); i++) {
+                if ((number & PhoneticAttributeSets.numberOf(EnumSet.of(MODIFIER_ATTRIBUTES.get(i)))) != 0)
+                    column |= 1 << i;
+            }
+            columnByNumber[number] = column;
+        }
+        return columnByNumber;
+    }
+
+    private static Set<PhoneticAttribute> attributesOfColumn(int column) {
+        final EnumSet<PhoneticAttribute> attributes = EnumSet.noneOf(PhoneticAttribute.class);
+        for (int i = 0; i < MODIFIER_ATTRIBUTES.size(); i++) {
+            if ((column & (1 << i)) != 0)
+                attributes.add(MODIFIER_ATTRIBUTES.get(i));
+        }
+        return attributes;
+    }
+
+    private Realization[][] createRealizations(Collection<Suffix> allSuffixes) {
+        int rowCount = 0;
+        for (Suffix suffix : allSuffixes) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                rowCount = Math.max(rowCount, suffixForm.getForm().getOrdinal() + 1);
+            }
+        }
+
+        final Interner<String> interner = Interners.newStrongInterner();
+        final Realization[][] table = new Realization[rowCount][];
+        for (Suffix suffix : allSuffixes) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                final SuffixFormSequence suffixFormSequence = suffixForm.getForm();
+                final int ordinal = suffixFormSequence.getOrdinal();
+                if (ordinal < 0 || table[ordinal] != null)
+                    continue;
+
+                final Realization[] row = new Realization[COLUMN_COUNT];
+                for (int column = 0; column < COLUMN_COUNT; column++) {
+                    final Set<PhoneticAttribute> phoneticAttributes = attributesOfColumn(column);
+                    final String appliedSuffixForm = this.delegate.apply(suffixFormSequence, phoneticAttributes);
+                    final String voicedSuffixForm = this.delegate.applyVoiced(suffixFormSequence, phoneticAttributes);
+                    final boolean applicable = this.delegate.isApplicable(suffixFormSequence, phoneticAttributes);
+                    row[column] = new Realization(interner.intern(appliedSuffixForm),
+                            voicedSuffixForm == null ? null : interner.intern(voicedSuffixForm), applicable);
+                }
+                table[ordinal] = row;
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * @return Precomputed realization, or null if the sequence is not in the graph of the table
+     */
+    public Realization getRealization(SuffixFormSequence suffixFormSequence, int phoneticAttributeNumber) {
+        final int ordinal = suffixFormSequence.getOrdinal();
+        if (ordinal < 0 || ordinal >= this.realizations.length)
+            return null;
+        final Realization[] row = this.realizations[ordinal];
+        return row == null ? null : row[COLUMN_BY_NUMBER[phoneticAttributeNumber]];
+    }
+
+    @Override
+    public String apply(SuffixFormSequence suffixFormSequence, Set<PhoneticAttribute> phoneticAttributesOfSurface) {
+        return this.apply(suffixFormSequence, PhoneticAttributeSets.numberOf(phoneticAttributesOfSurface));
+    }
+
+    @Override
+    public String apply(SuffixFormSequence suffixFormSequence, int phoneticAttributeNumber) {
+        final Realization realization = this.getRealization(suffixFormSequence, phoneticAttributeNumber);
+        if (realization == null)
+            return this.delegate.apply(suffixFormSequence, phoneticAttributeNumber);
+        return realization.getAppliedSuffixForm();
+    }
+
+    @Override
+    public String applyVoiced(SuffixFormSequence suffixFormSequence, Set<PhoneticAttribute> phoneticAttributesOfSurface) {
+        return this.applyVoiced(suffixFormSequence, PhoneticAttributeSets.numberOf(phoneticAttributesOfSurface));
+    }
+
+    @Override
+    public String applyVoiced(SuffixFormSequence suffixFormSequence, int phoneticAttributeNumber) {
+        final Realization realization = this.getRealization(suffixFormSequence, phoneticAttributeNumber);
+        if (realization == null)
+            return this.delegate.applyVoiced(suffixFormSequence, phoneticAttributeNumber);
+        return realization.getVoicedSuffixForm();
+    }
+
+    @Override
+    public boolean isApplicable(SuffixFormSequence suffixFormSequence, Set<PhoneticAttribute> phoneticAttributesOfSurface) {
+        return this.isApplicable(suffixFormSequence, PhoneticAttributeSets.numberOf(phoneticAttributesOfSurface));
+    }
+
+    @Override
+    public boolean isApplicable(SuffixFormSequence suffixFormSequence, int phoneticAttributeNumber) {
+        final Realization realization = this.getRealization(suffixFormSequence, phoneticAttributeNumber);
+        if (realization == null)
+            return this.delegate.isApplicable(suffixFormSequence, phoneticAttributeNumber);
+        return realization.isApplicable();
+    }
+
+    /**
+     * Realization of a {@link SuffixFormSequence} for a phonetic attribute combination.
+     */
+    public static final class Realization {
+        private final String appliedSuffixForm;
+        private final String voicedSuffixForm;
+        private final boolean applicable;
+
+        private Realization(String appliedSuffixForm, String voicedSuffixForm, boolean applicable) {
+            this.appliedSuffixForm = appliedSuffixForm;
+            this.voicedSuffixForm = voicedSuffixForm;
+            this.applicable = applicable;
+        }
+
+        public String getAppliedSuffixForm() {
+            return appliedSuffixForm;
+        }
+
+        /**
+         * @return Applied form with last letter voiced, or null if it cannot be voiced
+         */
+        public String getVoicedSuffixForm() {
+            return voicedSuffixForm;
+        }
+
+        public boolean isApplicable() {
+            return applicable;
+        }
+    }
+}
@@ -18,8 +18,13 @@ package org.trnltk.morphology.morphotactics;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.trnltk.model.letter.TurkicLetter;
+import org.trnltk.model.letter.TurkishAlphabet;
 import org.trnltk.model.suffix.SuffixFormSequence;
 import org.trnltk.model.lexicon.PhoneticAttribute;
+import org.trnltk.morphology.contextless.parser.PhoneticAttributeSets;
 
 import java.util.Set;
 
@@ -35,6 +40,45 @@ public class SuffixFormSequenceApplier {
         return builder.toString().trim();
     }
 
+    /**
+     * Same as {@link SuffixFormSequenceApplier#apply(SuffixFormSequence, java.util.Set)}, but phonetic attributes are
+     * given as a number computed by {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     */
+    public String apply(final SuffixFormSequence suffixFormSequence, final int phoneticAttributeNumber) {
+        return this.apply(suffixFormSequence, PhoneticAttributeSets.setOf(phoneticAttributeNumber));
+    }
+
+    /**
+     * Applies the suffix form sequence and voices the last letter of the result, e.g. "dIk" is applied as "dik" and
+     * voiced as "diğ" for "gel".
+     *
+     * @return Voiced application, or null if the last letter of the sequence cannot be voiced
+     */
+    public String applyVoiced(final SuffixFormSequence suffixFormSequence, final Set<PhoneticAttribute> phoneticAttributesOfSurface) {
+        if (!suffixFormSequence.lastLetterCanBeVoiced())
+            return null;
+
+        final String appliedSuffixForm = this.apply(suffixFormSequence, phoneticAttributesOfSurface);
+        if (StringUtils.isBlank(appliedSuffixForm))
+            return null;
+
+        final TurkicLetter lastLetter = TurkishAlphabet.getLetter(appliedSuffixForm.charAt(appliedSuffixForm.length() - 1));
+        Validate.notNull(lastLetter);
+        final TurkicLetter voicedLastLetter = TurkishAlphabet.voice(lastLetter);
+        if (voicedLastLetter == null)
+            return null;
+
+        return appliedSuffixForm.substring(0, appliedSuffixForm.length() - 1) + voicedLastLetter.charValue();
+    }
+
+    /**
+     * Same as {@link SuffixFormSequenceApplier#applyVoiced(SuffixFormSequence, java.util.Set)}, but phonetic attributes
+     * are given as a number computed by {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     */
+    public String applyVoiced(final SuffixFormSequence suffixFormSequence, final int phoneticAttributeNumber) {
+        return this.applyVoiced(suffixFormSequence, PhoneticAttributeSets.setOf(phoneticAttributeNumber));
+    }
+
     public boolean isApplicable(final SuffixFormSequence suffixFormSequence, final Set<PhoneticAttribute> phoneticAttributesOfSurface) {
         final ImmutableList<SuffixFormSequence.SuffixFormSequenceRule> rules = suffixFormSequence.getRules();
         if (CollectionUtils.isEmpty(rules))
@@ -57,4 +101,12 @@ public class SuffixFormSequenceApplier {
 
     }
 
+    /**
+     * Same as {@link SuffixFormSequenceApplier#isApplicable(SuffixFormSequence, java.util.Set)}, but phonetic
+     * attributes are given as a number computed by {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     */
+    public boolean isApplicable(final SuffixFormSequence suffixFormSequence, final int phoneticAttributeNumber) {
+        return this.isApplicable(suffixFormSequence, PhoneticAttributeSets.setOf(phoneticAttributeNumber));
+    }
+
 }
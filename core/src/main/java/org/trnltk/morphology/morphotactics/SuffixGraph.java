@@ -36,5 +36,7 @@ public interface SuffixGraph {
 
     Collection<Suffix> getAllSuffixes();
 
+    Collection<SuffixGraphState> getAllSuffixGraphStates();
+
     SuffixForm getSuffixForm(String suffixName, String suffixFormStr);
 }
@@ -19,6 +19,7 @@ package org.trnltk.morphology.morphotactics;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
+import org.apache.commons.lang3.Validate;
 import org.trnltk.model.lexicon.SecondaryPos;
 import org.trnltk.model.suffix.Suffix;
 import org.trnltk.model.lexicon.PrimaryPos;
@@ -31,6 +32,7 @@ public class SuffixGraphState {
     private final PrimaryPos primaryPos;
     private final SecondaryPos secondaryPos;
     private ImmutableSet<SuffixEdge> outEdges;
+    private int ordinal = -1;
 
     public SuffixGraphState(String name, SuffixGraphStateType suffixGraphStateType, PrimaryPos primaryPos, SecondaryPos secondaryPos) {
         this.name = name;
@@ -56,6 +58,24 @@ public class SuffixGraphState {
         return type;
     }
 
+    /**
+     * @return Dense ordinal of the state in its {@link SuffixGraph}, or -1 if graph is not initialized yet
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the dense ordinal of the state. Ordinals are assigned when the {@link SuffixGraph} is initialized.
+     *
+     * @throws IllegalStateException if the ordinal is already assigned
+     */
+    public void setOrdinal(int ordinal) {
+        Validate.isTrue(ordinal >= 0, "Ordinal must not be negative");
+        Validate.validState(this.ordinal < 0, "Ordinal of state %s is already assigned", this.name);
+        this.ordinal = ordinal;
+    }
+
     public ImmutableSet<SuffixEdge> getOutEdges() {
         return this.outEdges;
     }
@@ -27,6 +27,10 @@ public class AppliesToRoot extends AbstractSpecification<MorphemeContainer> {
         this.rootStr = rootStr;
     }
 
+    String getRootStr() {
+        return rootStr;
+    }
+
     @Override
     public String describe() {
         return String.format("applies_to_root(%s)", this.rootStr);
@@ -0,0 +1,252 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.morphotactics.suffixformspecifications;
+
+import org.apache.commons.lang3.Validate;
+import org.trnltk.common.specification.*;
+import org.trnltk.model.lexicon.LexemeAttributeBits;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A specification of a suffix form, compiled into a flat program.
+ * <p/>
+ * Conditions of suffix forms are trees of {@link AndSpecification}s, {@link OrSpecification}s and
+ * {@link NotSpecification}s with the specifications in this package as leaves. Compiler flattens the tree into a
+ * branching program: each instruction is a leaf test with the instructions to go when the test passes and when it
+ * fails. Thus, evaluation is a loop over the instructions which short circuits as the tree does, without any virtual
+ * calls to the nodes of the tree.
+ * <p/>
+ * Leaf tests read the compact state of the container: lexeme attributes of the root as bits, whether a phonetically
+ * changing transition is added and the bitsets of the suffixes since last derivation. A leaf which cannot be compiled
+ * to a test, e.g. one with a suffix form string, is evaluated by calling the leaf itself.
+ * <p/>
+ * Compiled specification is immutable, thus safe to share across threads.
+ */
+public final class CompiledSpecification extends AbstractSpecification<MorphemeContainer> {
+
+    // exits of the program
+    private static final int SATISFIED = -1;
+    private static final int NOT_SATISFIED = -2;
+
+    // leaf tests
+    private static final byte ROOT_HAS_PRIMARY_POS = 0;
+    private static final byte ROOT_HAS_SECONDARY_POS = 1;
+    private static final byte APPLIES_TO_ROOT = 2;
+    private static final byte HAS_LEXEME_ATTRIBUTES = 3;
+    private static final byte DOESNT_HAVE_LEXEME_ATTRIBUTES = 4;
+    private static final byte HAS_SUFFIX_SINCE_LAST_DERIVATION = 5;
+    private static final byte HAS_SUFFIX_AS_LAST_DERIVATION = 6;
+    private static final byte HAS_LAST_NON_BLANK_DERIVATION = 7;
+    private static final byte LAST_SUFFIX_GOES_TO_STATE_WITH_TYPE = 8;
+    private static final byte EVALUATE_LEAF = 9;
+
+    private final Specification<MorphemeContainer> source;
+
+    private final int entry;
+    private final byte[] tests;
+    private final long[] bits;
+    private final Object[] operands;
+    private final int[] onSatisfied;
+    private final int[] onNotSatisfied;
+
+    private CompiledSpecification(Specification<MorphemeContainer> source, Builder builder, int entry) {
+        this.source = source;
+        this.entry = entry;
+        final int size = builder.tests.size();
+        this.tests = new byte[size];
+        this.bits = new long[size];
+        this.operands = builder.operands.toArray();
+        this.onSatisfied = new int[size];
+        this.onNotSatisfied = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.tests[i] = builder.tests.get(i);
+            this.bits[i] = builder.bits.get(i);
+            this.onSatisfied[i] = builder.onSatisfied.get(i);
+            this.onNotSatisfied[i] = builder.onNotSatisfied.get(i);
+        }
+    }
+
+    /**
+     * Compiles the given specification.
+     *
+     * @param specification Specification to compile, can be null
+     * @return Compiled specification which is satisfied by the same containers; null if the given one is null
+     */
+    public static CompiledSpecification compile(Specification<MorphemeContainer> specification) {
+        if (specification == null)
+            return null;
+        else if (specification instanceof CompiledSpecification)
+            return (CompiledSpecification) specification;
+
+        final Builder builder = new Builder();
+        final int entry = builder.compile(specification, SATISFIED, NOT_SATISFIED);
+        return new CompiledSpecification(specification, builder, entry);
+    }
+
+    /**
+     * @return Specification which this one is compiled from
+     */
+    public Specification<MorphemeContainer> getSource() {
+        return source;
+    }
+
+    /**
+     * @return Number of the instructions of the program
+     */
+    public int getInstructionCount() {
+        return tests.length;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(MorphemeContainer morphemeContainer) {
+        Validate.notNull(morphemeContainer);
+
+        int instruction = this.entry;
+        while (instruction >= 0) {
+            instruction = this.test(instruction, morphemeContainer) ? this.onSatisfied[instruction] : this.onNotSatisfied[instruction];
+        }
+        return instruction == SATISFIED;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean test(int instruction, MorphemeContainer morphemeContainer) {
+        switch (this.tests[instruction]) {
+            case ROOT_HAS_PRIMARY_POS:
+                return this.operands[instruction] == morphemeContainer.getRoot().getLexeme().getPrimaryPos();
+            case ROOT_HAS_SECONDARY_POS:
+                return this.operands[instruction] == morphemeContainer.getRoot().getLexeme().getSecondaryPos();
+            case APPLIES_TO_ROOT:
+                return this.operands[instruction].equals(morphemeContainer.getRoot().getSequence().getUnderlyingString());
+            case HAS_LEXEME_ATTRIBUTES: {
+                if (morphemeContainer.hasPhoneticallyChangingTransition())
+                    return true;
+                final long rootBits = morphemeContainer.getRootLexemeAttributeBits();
+                return rootBits != 0L && (rootBits & this.bits[instruction]) == this.bits[instruction];
+            }
+            case DOESNT_HAVE_LEXEME_ATTRIBUTES: {
+                if (morphemeContainer.hasPhoneticallyChangingTransition())
+                    return true;
+                final long rootBits = morphemeContainer.getRootLexemeAttributeBits();
+                return rootBits != 0L && (rootBits & this.bits[instruction]) == 0L;
+            }
+            case HAS_SUFFIX_SINCE_LAST_DERIVATION:
+                return morphemeContainer.hasSuffixSinceDerivationSuffix((Suffix) this.operands[instruction]);
+            case HAS_SUFFIX_AS_LAST_DERIVATION:
+                return hasSuffix(morphemeContainer.getLastDerivationSuffixTransition(), (Suffix) this.operands[instruction]);
+            case HAS_LAST_NON_BLANK_DERIVATION:
+                return hasSuffix(morphemeContainer.getLastNonBlankDerivation(), (Suffix) this.operands[instruction]);
+            case LAST_SUFFIX_GOES_TO_STATE_WITH_TYPE: {
+                final SuffixTransition lastSuffixTransition = morphemeContainer.getLastSuffixTransition();
+                return lastSuffixTransition != null && lastSuffixTransition.getTargetState().getType() == this.operands[instruction];
+            }
+            case EVALUATE_LEAF:
+                return ((Specification<MorphemeContainer>) this.operands[instruction]).isSatisfiedBy(morphemeContainer);
+            default:
+                throw new IllegalStateException("Unknown test " + this.tests[instruction]);
+        }
+    }
+
+    private static boolean hasSuffix(SuffixTransition suffixTransition, Suffix suffix) {
+        if (suffixTransition == null)
+            return false;
+        final Suffix transitionSuffix = suffixTransition.getSuffixFormApplication().getSuffixForm().getSuffix();
+        return transitionSuffix == suffix || transitionSuffix.equals(suffix);
+    }
+
+    @Override
+    public String describe() {
+        return this.source.toString();
+    }
+
+    /**
+     * Emits the instructions in reverse order; an instruction is emitted after the instructions it goes to.
+     */
+    private static class Builder {
+        private final List<Byte> tests = new ArrayList<Byte>();
+        private final List<Long> bits = new ArrayList<Long>();
+        private final List<Object> operands = new ArrayList<Object>();
+        private final List<Integer> onSatisfied = new ArrayList<Integer>();
+        private final List<Integer> onNotSatisfied = new ArrayList<Integer>();
+
+        /**
+         * @return Instruction to start evaluating the specification
+         */
+        @SuppressWarnings("unchecked")
+        private int compile(Specification<MorphemeContainer> specification, int onSatisfied, int onNotSatisfied) {
+            if (specification instanceof TrueSpecification) {
+                return onSatisfied;
+            } else if (specification instanceof FalseSpecification) {
+                return onNotSatisfied;
+            } else if (specification instanceof AndSpecification) {
+                final AndSpecification<MorphemeContainer> and = (AndSpecification<MorphemeContainer>) specification;
+                final int second = this.compile(and.getSpec2(), onSatisfied, onNotSatisfied);
+                return this.compile(and.getSpec1(), second, onNotSatisfied);
+            } else if (specification instanceof OrSpecification) {
+                final OrSpecification<MorphemeContainer> or = (OrSpecification<MorphemeContainer>) specification;
+                final int second = this.compile(or.getSpec2(), onSatisfied, onNotSatisfied);
+                return this.compile(or.getSpec1(), onSatisfied, second);
+            } else if (specification instanceof NotSpecification) {
+                final NotSpecification<MorphemeContainer> not = (NotSpecification<MorphemeContainer>) specification;
+                return this.compile(not.getWrapped(), onNotSatisfied, onSatisfied);
+            } else if (specification instanceof CompiledSpecification) {
+                return this.compile(((CompiledSpecification) specification).getSource(), onSatisfied, onNotSatisfied);
+            } else {
+                return this.compileLeaf(specification, onSatisfied, onNotSatisfied);
+            }
+        }
+
+        private int compileLeaf(Specification<MorphemeContainer> specification, int onSatisfied, int onNotSatisfied) {
+            if (specification instanceof RootHasPrimaryPos) {
+                return this.emit(ROOT_HAS_PRIMARY_POS, 0L, ((RootHasPrimaryPos) specification).getPrimaryPos(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof RootHasSecondaryPos) {
+                return this.emit(ROOT_HAS_SECONDARY_POS, 0L, ((RootHasSecondaryPos) specification).getSecondaryPos(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof AppliesToRoot) {
+                return this.emit(APPLIES_TO_ROOT, 0L, ((AppliesToRoot) specification).getRootStr(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof HasLexemeAttributes) {
+                final long attributeBits = LexemeAttributeBits.bitsOf(((HasLexemeAttributes) specification).getLexemeAttributes());
+                return this.emit(HAS_LEXEME_ATTRIBUTES, attributeBits, null, onSatisfied, onNotSatisfied);
+            } else if (specification instanceof DoesntHaveLexemeAttributes) {
+                final long attributeBits = LexemeAttributeBits.bitsOf(((DoesntHaveLexemeAttributes) specification).getLexemeAttributes());
+                return this.emit(DOESNT_HAVE_LEXEME_ATTRIBUTES, attributeBits, null, onSatisfied, onNotSatisfied);
+            } else if (specification instanceof HasSuffixFormSinceLastDerivation && ((HasSuffixFormSinceLastDerivation) specification).getSuffixFormStr() == null) {
+                return this.emit(HAS_SUFFIX_SINCE_LAST_DERIVATION, 0L, ((HasSuffixFormSinceLastDerivation) specification).getSuffix(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof HasSuffixFormAsLastDerivation && ((HasSuffixFormAsLastDerivation) specification).getSuffixFormStr() == null) {
+                return this.emit(HAS_SUFFIX_AS_LAST_DERIVATION, 0L, ((HasSuffixFormAsLastDerivation) specification).getSuffix(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof HasLastNonBlankDerivation && ((HasLastNonBlankDerivation) specification).getSuffixFormStr() == null) {
+                return this.emit(HAS_LAST_NON_BLANK_DERIVATION, 0L, ((HasLastNonBlankDerivation) specification).getSuffix(), onSatisfied, onNotSatisfied);
+            } else if (specification instanceof LastSuffixGoesToStateWithType) {
+                return this.emit(LAST_SUFFIX_GOES_TO_STATE_WITH_TYPE, 0L, ((LastSuffixGoesToStateWithType) specification).getSuffixGraphStateType(), onSatisfied, onNotSatisfied);
+            } else {
+                return this.emit(EVALUATE_LEAF, 0L, specification, onSatisfied, onNotSatisfied);
+            }
+        }
+
+        private int emit(byte test, long bits, Object operand, int onSatisfied, int onNotSatisfied) {
+            this.tests.add(test);
+            this.bits.add(bits);
+            this.operands.add(operand);
+            this.onSatisfied.add(onSatisfied);
+            this.onNotSatisfied.add(onNotSatisfied);
+            return this.tests.size() - 1;
+        }
+    }
+}
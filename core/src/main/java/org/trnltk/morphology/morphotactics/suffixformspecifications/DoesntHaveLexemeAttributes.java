@@ -16,21 +16,13 @@
 
 package org.trnltk.morphology.morphotactics.suffixformspecifications;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.trnltk.model.lexicon.LexemeAttribute;
-import org.trnltk.model.suffix.ConditionalFreeTransitionSuffix;
-import org.trnltk.model.suffix.FreeTransitionSuffix;
 import org.trnltk.model.morpheme.MorphemeContainer;
-import org.trnltk.model.suffix.SuffixTransition;
-import org.trnltk.model.suffix.ZeroTransitionSuffix;
 import org.trnltk.common.specification.AbstractSpecification;
 
-import java.util.Collection;
 import java.util.Set;
 
 public class DoesntHaveLexemeAttributes extends AbstractSpecification<MorphemeContainer> {
@@ -40,6 +32,10 @@ public class DoesntHaveLexemeAttributes extends AbstractSpecification<MorphemeCo
         this.lexemeAttributes = lexemeAttributes;
     }
 
+    ImmutableSet<LexemeAttribute> getLexemeAttributes() {
+        return lexemeAttributes;
+    }
+
     @Override
     public String describe() {
         return String.format("doesnt_have_lexeme_attributes(%s)", this.lexemeAttributes);
@@ -49,21 +45,9 @@ public class DoesntHaveLexemeAttributes extends AbstractSpecification<MorphemeCo
     public boolean isSatisfiedBy(MorphemeContainer morphemeContainer) {
         Validate.notNull(morphemeContainer);
 
-        Collection<SuffixTransition> suffixTransitions = morphemeContainer.getSuffixTransitions();
-
-        // filter out free suffixTransitions, zero suffixTransitions and suffixTransitions with empty suffix forms
-        // since all those three don't change the phonetic attributes of a string
-        suffixTransitions = Collections2.filter(suffixTransitions, new Predicate<SuffixTransition>() {
-            @Override
-            public boolean apply(SuffixTransition input) {
-                return !(input.getSuffixFormApplication().getSuffixForm().getSuffix() instanceof FreeTransitionSuffix) &&
-                        !(input.getSuffixFormApplication().getSuffixForm().getSuffix() instanceof ZeroTransitionSuffix) &&
-                        !(input.getSuffixFormApplication().getSuffixForm().getSuffix() instanceof ConditionalFreeTransitionSuffix) &&
-                        StringUtils.isNotEmpty(input.getSuffixFormApplication().getActualSuffixForm()); // The str " " would change the phonetics!
-            }
-        });
-
-        if (CollectionUtils.isNotEmpty(suffixTransitions))
+        // free transitions, zero transitions and transitions with empty suffix forms don't change the phonetic
+        // attributes of a string. if there is any other transition, lexeme attributes don't matter anymore
+        if (morphemeContainer.hasPhoneticallyChangingTransition())
             return true;
 
         final Set<LexemeAttribute> morphemeContainerLexemeAttributes = morphemeContainer.getRoot().getLexeme().getAttributes();
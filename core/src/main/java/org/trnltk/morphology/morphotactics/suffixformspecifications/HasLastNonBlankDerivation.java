@@ -32,6 +32,17 @@ public class HasLastNonBlankDerivation extends AbstractSpecification<MorphemeCon
         this.suffixFormStr = suffixFormStr;
     }
 
+    Suffix getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return Form string of the suffix form, or null if any form of the suffix satisfies the specification
+     */
+    String getSuffixFormStr() {
+        return suffixFormStr;
+    }
+
     @Override
     public String describe() {
         if (this.suffixFormStr != null)    // can be blank
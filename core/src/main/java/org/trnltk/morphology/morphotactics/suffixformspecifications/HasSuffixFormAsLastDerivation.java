@@ -31,6 +31,17 @@ public class HasSuffixFormAsLastDerivation extends AbstractSpecification<Morphem
         this.suffixFormStr = suffixFormStr;
     }
 
+    Suffix getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return Form string of the suffix form, or null if any form of the suffix satisfies the specification
+     */
+    String getSuffixFormStr() {
+        return suffixFormStr;
+    }
+
     @Override
     public String describe() {
         if (this.suffixFormStr != null)    // can be blank
@@ -18,14 +18,12 @@ package org.trnltk.morphology.morphotactics.suffixformspecifications;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.Validate;
 import org.trnltk.model.suffix.Suffix;
 import org.trnltk.model.suffix.SuffixTransition;
 import org.trnltk.common.specification.AbstractSpecification;
 import org.trnltk.model.morpheme.MorphemeContainer;
 
-import java.util.Collection;
 import java.util.Set;
 
 class HasSuffixFormSinceLastDerivation extends AbstractSpecification<MorphemeContainer> {
@@ -38,6 +36,17 @@ class HasSuffixFormSinceLastDerivation extends AbstractSpecification<MorphemeCon
         this.suffixFormStr = suffixFormStr;
     }
 
+    Suffix getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * @return Form string of the suffix form, or null if any form of the suffix satisfies the specification
+     */
+    String getSuffixFormStr() {
+        return suffixFormStr;
+    }
+
     @Override
     public String describe() {
         if (this.suffixFormStr != null)    // can be blank
@@ -50,8 +59,7 @@ class HasSuffixFormSinceLastDerivation extends AbstractSpecification<MorphemeCon
     public boolean isSatisfiedBy(MorphemeContainer morphemeContainer) {
         Validate.notNull(morphemeContainer);
 
-        final Collection<Suffix> suffixesSinceDerivationSuffix = morphemeContainer.getSuffixesSinceDerivationSuffix();
-        if (CollectionUtils.isEmpty(suffixesSinceDerivationSuffix))
+        if (morphemeContainer.hasNoTransitionsSinceDerivationSuffix())
             return false;
 
         if (suffixFormStr != null) {    // can be blank
@@ -64,7 +72,7 @@ class HasSuffixFormSinceLastDerivation extends AbstractSpecification<MorphemeCon
                 }
             });
         } else {
-            return suffixesSinceDerivationSuffix.contains(this.suffix);
+            return morphemeContainer.hasSuffixSinceDerivationSuffix(this.suffix);
         }
     }
 }
@@ -29,6 +29,10 @@ public class LastSuffixGoesToStateWithType extends AbstractSpecification<Morphem
         this.suffixGraphStateType = suffixGraphStateType;
     }
 
+    SuffixGraphStateType getSuffixGraphStateType() {
+        return suffixGraphStateType;
+    }
+
     @Override
     public String describe() {
         return String.format("suffix_goes_to_state_type(%s)", this.suffixGraphStateType);
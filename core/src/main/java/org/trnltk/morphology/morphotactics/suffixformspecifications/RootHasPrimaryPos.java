@@ -28,6 +28,10 @@ public class RootHasPrimaryPos extends AbstractSpecification<MorphemeContainer>
         this.primaryPos = primaryPos;
     }
 
+    PrimaryPos getPrimaryPos() {
+        return primaryPos;
+    }
+
     @Override
     public String describe() {
         return String.format("root_has_pos(%s)", primaryPos);
@@ -29,6 +29,10 @@ public class RootHasSecondaryPos extends AbstractSpecification<MorphemeContainer
         this.secondaryPos = secondaryPos;
     }
 
+    SecondaryPos getSecondaryPos() {
+        return secondaryPos;
+    }
+
     @Override
     public String describe() {
         return String.format("root_has_secondary_pos(%s)", secondaryPos);
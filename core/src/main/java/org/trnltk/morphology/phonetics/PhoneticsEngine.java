@@ -30,16 +30,19 @@ import org.trnltk.model.lexicon.LexemeAttribute;
 import org.trnltk.model.lexicon.PhoneticAttribute;
 import org.trnltk.model.lexicon.PhoneticExpectation;
 import org.trnltk.model.suffix.SuffixFormSequence;
+import org.trnltk.morphology.contextless.parser.PhoneticAttributeSets;
 import org.trnltk.morphology.morphotactics.SuffixFormSequenceApplier;
 import org.trnltk.util.Constants;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Set;
 
 public class PhoneticsEngine {
 
     private static final char PLUS = '+';
+    private static final int LAST_LETTER_VOICELESS_STOP_NUMBER = PhoneticAttributeSets.numberOf(EnumSet.of(PhoneticAttribute.LastLetterVoicelessStop));
 
     private final SuffixFormSequenceApplier suffixFormSequenceApplier;
     private final PhoneticsAnalyzer phoneticsAnalyzer = new PhoneticsAnalyzer();
@@ -58,6 +61,20 @@ public class PhoneticsEngine {
         return this.suffixFormSequenceApplier.isApplicable(suffixFormSequence, phoneticAttributes);
     }
 
+    /**
+     * Same as {@link PhoneticsEngine#isSuffixFormApplicable(java.util.Set, org.trnltk.model.suffix.SuffixFormSequence)},
+     * but phonetic attributes are given as a number computed by {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     */
+    public boolean isSuffixFormApplicable(final int phoneticAttributeNumber, final SuffixFormSequence suffixFormSequence) {
+        if (!suffixFormSequence.isNotBlank())
+            return true;
+
+        if (phoneticAttributeNumber == 0)
+            return false;
+
+        return this.suffixFormSequenceApplier.isApplicable(suffixFormSequence, phoneticAttributeNumber);
+    }
+
     public Pair<TurkishSequence, String> apply(TurkishSequence surface, SuffixFormSequence form, Collection<LexemeAttribute> lexemeAttributes) {
         return this.apply(surface, phoneticsAnalyzer.calculatePhoneticAttributes(surface, lexemeAttributes), form, lexemeAttributes);
     }
@@ -72,18 +89,34 @@ public class PhoneticsEngine {
         final Collection<LexemeAttribute> lexemeAttributes = _lexemeAttributes == null ? new ArrayList<LexemeAttribute>() : _lexemeAttributes;
         final Set<PhoneticAttribute> phoneticAttributes = _phoneticAttributes == null ? ImmutableSet.<PhoneticAttribute>of() : _phoneticAttributes;
 
-        return this.handlePhonetics(surface, phoneticAttributes, suffixFormSequence, lexemeAttributes);
+        return this.handlePhonetics(surface, PhoneticAttributeSets.numberOf(phoneticAttributes), suffixFormSequence, lexemeAttributes);
+    }
+
+    /**
+     * Same as {@link PhoneticsEngine#apply(org.trnltk.model.letter.TurkishSequence, java.util.Set, org.trnltk.model.suffix.SuffixFormSequence, java.util.Collection)},
+     * but phonetic attributes are given as a number computed by {@link PhoneticAttributeSets#numberOf(java.util.Set)}.
+     */
+    public Pair<TurkishSequence, String> apply(final TurkishSequence surface, final int phoneticAttributeNumber, final SuffixFormSequence suffixFormSequence, final Collection<LexemeAttribute> _lexemeAttributes) {
+        if (surface == null || surface.isBlank())
+            return Pair.of(null, null);
+
+        if (suffixFormSequence == null || !suffixFormSequence.isNotBlank())
+            return Pair.of(surface, StringUtils.EMPTY);
+
+        final Collection<LexemeAttribute> lexemeAttributes = _lexemeAttributes == null ? new ArrayList<LexemeAttribute>() : _lexemeAttributes;
+
+        return this.handlePhonetics(surface, phoneticAttributeNumber, suffixFormSequence, lexemeAttributes);
     }
 
-    private Pair<TurkishSequence, String> handlePhonetics(final TurkishSequence _surface, final Set<PhoneticAttribute> phoneticAttributes, final SuffixFormSequence suffixFormSequence, final Collection<LexemeAttribute> lexemeAttributes) {
+    private Pair<TurkishSequence, String> handlePhonetics(final TurkishSequence _surface, final int phoneticAttributeNumber, final SuffixFormSequence suffixFormSequence, final Collection<LexemeAttribute> lexemeAttributes) {
         TurkishSequence newSurface = _surface;
 
         // first try voicing
-        if (!lexemeAttributes.contains(LexemeAttribute.NoVoicing) && phoneticAttributes.contains(PhoneticAttribute.LastLetterVoicelessStop) && suffixFormSequence.isFirstLetterVowel()) {
+        if (!lexemeAttributes.contains(LexemeAttribute.NoVoicing) && (phoneticAttributeNumber & LAST_LETTER_VOICELESS_STOP_NUMBER) != 0 && suffixFormSequence.isFirstLetterVowel()) {
             newSurface = _surface.voiceLastLetterIfPossible();
         }
 
-        final String appliedSuffixForm = suffixFormSequenceApplier.apply(suffixFormSequence, phoneticAttributes);
+        final String appliedSuffixForm = suffixFormSequenceApplier.apply(suffixFormSequence, phoneticAttributeNumber);
 
         return Pair.of(newSurface, appliedSuffixForm);
     }
@@ -0,0 +1,263 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.model.morpheme;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.lexicon.*;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixGroup;
+import org.trnltk.model.suffix.SuffixTransition;
+import org.trnltk.morphology.morphotactics.BasicSuffixGraph;
+import org.trnltk.morphology.morphotactics.ProperNounSuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MorphemeContainerTest {
+
+    private static final ImmutableSet<PhoneticAttribute> WRONG_PHONETIC_ATTRIBUTES = Sets.immutableEnumSet(PhoneticAttribute.LastLetterVowel);
+
+    private SuffixGraph suffixGraph;
+    private PhoneticsAnalyzer phoneticsAnalyzer;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new ProperNounSuffixGraph(new BasicSuffixGraph());
+        suffixGraph.initialize();
+        phoneticsAnalyzer = new PhoneticsAnalyzer();
+    }
+
+    @Test
+    public void shouldAdoptPhoneticAttributesOfTarget() {
+        final MorphemeContainer container = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        container.addTransition(new SuffixFormApplication(formOf("A3Sg_Noun"), "", ""), suffixGraph.getSuffixGraphState("NOUN_WITH_AGREEMENT"),
+                phoneticsAnalyzer.calculateNewPhoneticAttributes(container.getPhoneticAttributes(), ""));
+
+        final ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget = phoneticsAnalyzer.calculateNewPhoneticAttributes(container.getPhoneticAttributes(), "ı");
+        container.addTransition(new SuffixFormApplication(formOf("P3Sg_Noun"), "ı", "ı"), suffixGraph.getSuffixGraphState("NOUN_WITH_POSSESSION"),
+                phoneticAttributesOfTarget);
+
+        assertThat(container.getPhoneticAttributes(), sameInstance(phoneticAttributesOfTarget));
+        assertThat(container.getPhoneticAttributes(),
+                equalTo((ImmutableSet<PhoneticAttribute>) Sets.immutableEnumSet(phoneticsAnalyzer.calculatePhoneticAttributes("kitabı", container.getLexemeAttributes()))));
+    }
+
+    @Test
+    public void shouldCalculatePhoneticAttributesForInverseHarmonyRoots() {
+        final MorphemeContainer container = newNounContainer("saat", "saat", PrimaryPos.Noun, null, LexemeAttribute.InverseHarmony, LexemeAttribute.NoVoicing);
+        final MorphemeContainer withoutGivenAttributes = addAgreementAndPossession(new MorphemeContainer(container), "i", null);
+        final MorphemeContainer withGivenAttributes = addAgreementAndPossession(new MorphemeContainer(container), "i", WRONG_PHONETIC_ATTRIBUTES);
+
+        assertThat(withGivenAttributes.getPhoneticAttributes(), equalTo(withoutGivenAttributes.getPhoneticAttributes()));
+        assertThat(withGivenAttributes.getPhoneticAttributes(),
+                equalTo((ImmutableSet<PhoneticAttribute>) Sets.immutableEnumSet(phoneticsAnalyzer.calculatePhoneticAttributes("saati", withGivenAttributes.getLexemeAttributes()))));
+    }
+
+    @Test
+    public void shouldCalculatePhoneticAttributesForEndsWithAynRoots() {
+        final MorphemeContainer container = newNounContainer("cami", "cami", PrimaryPos.Noun, null, LexemeAttribute.EndsWithAyn);
+        final MorphemeContainer withoutGivenAttributes = addAgreementAndPossession(new MorphemeContainer(container), "i", null);
+        final MorphemeContainer withGivenAttributes = addAgreementAndPossession(new MorphemeContainer(container), "i", WRONG_PHONETIC_ATTRIBUTES);
+
+        assertThat(withGivenAttributes.getPhoneticAttributes(), equalTo(withoutGivenAttributes.getPhoneticAttributes()));
+        assertThat(withGivenAttributes.getPhoneticAttributes(),
+                equalTo((ImmutableSet<PhoneticAttribute>) Sets.immutableEnumSet(phoneticsAnalyzer.calculatePhoneticAttributes("camii", withGivenAttributes.getLexemeAttributes()))));
+    }
+
+    @Test
+    public void shouldUsePhoneticAttributesOfRootAfterNonAlphanumericSuffixForms() {
+        final MorphemeContainer container = newNounContainer("Ankara", "Ankara", PrimaryPos.Noun, SecondaryPos.ProperNoun);
+        final ImmutableSet<PhoneticAttribute> phoneticAttributesOfRoot = container.getPhoneticAttributes();
+
+        container.addTransition(new SuffixFormApplication(formOf("Apos_Proper_Noun"), "'", "'"), suffixGraph.getSuffixGraphState("NOUN_ROOT"),
+                WRONG_PHONETIC_ATTRIBUTES);
+        assertThat(container.getPhoneticAttributes(), equalTo(phoneticAttributesOfRoot));
+
+        // an alphanumeric form after a non-alphanumeric one doesn't make the given attributes valid
+        addAgreementAndPossession(container, "sı", WRONG_PHONETIC_ATTRIBUTES);
+        assertThat(container.getPhoneticAttributes(), equalTo(phoneticAttributesOfRoot));
+    }
+
+    @Test
+    public void shouldTrackSuffixesAndGroupsSinceDerivationSuffixWithOrdinals() {
+        final MorphemeContainer container = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        assertSameWithCollectedSuffixesAndGroups(container);
+
+        addTransition(container, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        addTransition(container, "Pnon_Noun", "", "NOUN_WITH_POSSESSION");
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun")), equalTo(true));
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("Pnon_Noun")), equalTo(true));
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("Loc_Noun")), equalTo(false));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun").getSuffixGroup()), equalTo(true));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(suffixGraph.getSuffix("Loc_Noun").getSuffixGroup()), equalTo(false));
+        assertSameWithCollectedSuffixesAndGroups(container);
+
+        addTransition(container, "Nom_Deriv_Noun", "", "NOUN_NOM_DERIV");
+        addTransition(container, "Dim", "cık", "NOUN_ROOT");
+        addTransition(container, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        // suffixes before the derivation are not tracked anymore
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun")), equalTo(true));
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("Pnon_Noun")), equalTo(false));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(suffixGraph.getSuffix("Pnon_Noun").getSuffixGroup()), equalTo(false));
+        assertSameWithCollectedSuffixesAndGroups(container);
+    }
+
+    @Test
+    public void shouldTrackSuffixesAndGroupsWithoutOrdinals() {
+        final SuffixGroup unindexedGroup = new SuffixGroup("Unindexed_Group");
+        final Suffix unindexed = new Suffix("Unindexed", unindexedGroup, "Unindexed", false);
+        unindexed.addSuffixForm("lIk");
+        final Suffix otherUnindexed = new Suffix("Other_Unindexed", new SuffixGroup("Other_Unindexed_Group"), "Other", false);
+        otherUnindexed.addSuffixForm("cI");
+        assertThat(unindexed.getOrdinal(), equalTo(-1));
+        assertThat(unindexedGroup.getOrdinal(), equalTo(-1));
+
+        final MorphemeContainer container = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        addTransition(container, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        container.addTransition(new SuffixFormApplication(unindexed.getSuffixForms().iterator().next(), "ı", "ı"),
+                suffixGraph.getSuffixGraphState("NOUN_WITH_POSSESSION"));
+
+        // the suffixes with and without ordinals are found by walking the transitions
+        assertThat(container.hasSuffixSinceDerivationSuffix(unindexed), equalTo(true));
+        assertThat(container.hasSuffixSinceDerivationSuffix(otherUnindexed), equalTo(false));
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun")), equalTo(true));
+        assertThat(container.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("Loc_Noun")), equalTo(false));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(unindexedGroup), equalTo(true));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(otherUnindexed.getSuffixGroup()), equalTo(false));
+        assertThat(container.hasSuffixGroupSinceLastDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun").getSuffixGroup()), equalTo(true));
+        assertSameWithCollectedSuffixesAndGroups(container);
+
+        // a copy keeps falling back to the transitions
+        final MorphemeContainer copy = new MorphemeContainer(container);
+        assertThat(copy.hasSuffixSinceDerivationSuffix(suffixGraph.getSuffix("A3Sg_Noun")), equalTo(true));
+        assertThat(copy.hasSuffixSinceDerivationSuffix(unindexed), equalTo(true));
+    }
+
+    @Test
+    public void shouldNotSeeTransitionsAddedToCopies() {
+        final MorphemeContainer original = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        addTransition(original, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        final List<SuffixTransition> transitionsBeforeCopy = original.getSuffixTransitions();
+
+        final MorphemeContainer copy = new MorphemeContainer(original);
+        assertThat(copy, equalTo(original));
+        assertThat(copy.getSuffixTransitions(), equalTo(transitionsBeforeCopy));
+
+        addTransition(original, "Pnon_Noun", "", "NOUN_WITH_POSSESSION");
+        assertThat(copy.getTransitionCount(), equalTo(1));
+        assertThat(suffixNamesOf(copy), equalTo(Arrays.asList("A3Sg_Noun")));
+
+        addTransition(copy, "P3Sg_Noun", "ı", "NOUN_WITH_POSSESSION");
+        addTransition(copy, "Loc_Noun", "nda", "NOUN_WITH_CASE");
+        assertThat(original.getTransitionCount(), equalTo(2));
+        assertThat(suffixNamesOf(original), equalTo(Arrays.asList("A3Sg_Noun", "Pnon_Noun")));
+        assertThat(suffixNamesOf(copy), equalTo(Arrays.asList("A3Sg_Noun", "P3Sg_Noun", "Loc_Noun")));
+
+        // list returned before the copy is not changed either
+        assertThat(transitionsBeforeCopy.size(), equalTo(1));
+        assertThat(copy, not(equalTo(original)));
+    }
+
+    @Test
+    public void shouldKeepOrderOfTransitionsOfCopiesOfCopies() {
+        final MorphemeContainer original = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        addTransition(original, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        final MorphemeContainer copy = new MorphemeContainer(original);
+        addTransition(copy, "Pnon_Noun", "", "NOUN_WITH_POSSESSION");
+        final MorphemeContainer copyOfCopy = new MorphemeContainer(copy);
+        addTransition(copy, "Nom_Noun", "", "NOUN_WITH_CASE");
+        addTransition(copyOfCopy, "Dat_Noun", "a", "NOUN_WITH_CASE");
+
+        assertThat(suffixNamesOf(original), equalTo(Arrays.asList("A3Sg_Noun")));
+        assertThat(suffixNamesOf(copy), equalTo(Arrays.asList("A3Sg_Noun", "Pnon_Noun", "Nom_Noun")));
+        assertThat(suffixNamesOf(copyOfCopy), equalTo(Arrays.asList("A3Sg_Noun", "Pnon_Noun", "Dat_Noun")));
+        assertThat(copyOfCopy.getLastSuffixTransition(), sameInstance(copyOfCopy.getSuffixTransitions().get(2)));
+        assertThat(copyOfCopy.getSurfaceSoFar().getUnderlyingString(), equalTo("kitaba"));
+    }
+
+    @Test
+    public void shouldBeEqualToContainerWithEqualTransitions() {
+        final MorphemeContainer first = newNounContainer("kitab", "kitap", PrimaryPos.Noun, null, LexemeAttribute.Voicing);
+        final MorphemeContainer second = new MorphemeContainer(first);
+        // transitions are added separately, chains are not shared
+        addTransition(first, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        addTransition(first, "P3Sg_Noun", "ı", "NOUN_WITH_POSSESSION");
+        addTransition(second, "A3Sg_Noun", "", "NOUN_WITH_AGREEMENT");
+        addTransition(second, "P3Sg_Noun", "ı", "NOUN_WITH_POSSESSION");
+
+        assertThat(second, equalTo(first));
+        assertThat(second.hashCode(), equalTo(first.hashCode()));
+    }
+
+    private static List<String> suffixNamesOf(MorphemeContainer container) {
+        final List<String> suffixNames = new ArrayList<String>();
+        for (SuffixTransition suffixTransition : container.getSuffixTransitions()) {
+            suffixNames.add(suffixTransition.getSuffixFormApplication().getSuffixForm().getSuffix().getName());
+        }
+        return suffixNames;
+    }
+
+    private void assertSameWithCollectedSuffixesAndGroups(MorphemeContainer container) {
+        final Set<Suffix> suffixes = container.getSuffixesSinceDerivationSuffix();
+        final Set<SuffixGroup> suffixGroups = container.getSuffixGroupsSinceLastDerivationSuffix();
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            assertThat(suffix.getName(), container.hasSuffixSinceDerivationSuffix(suffix), equalTo(suffixes.contains(suffix)));
+            if (suffix.getSuffixGroup() != null)
+                assertThat(suffix.getSuffixGroup().getName(), container.hasSuffixGroupSinceLastDerivationSuffix(suffix.getSuffixGroup()),
+                        equalTo(suffixGroups.contains(suffix.getSuffixGroup())));
+        }
+    }
+
+    private void addTransition(MorphemeContainer container, String suffixName, String appliedForm, String targetStateName) {
+        final SuffixForm suffixForm = suffixGraph.getSuffix(suffixName).getSuffixForms().iterator().next();
+        container.addTransition(new SuffixFormApplication(suffixForm, appliedForm, appliedForm), suffixGraph.getSuffixGraphState(targetStateName));
+    }
+
+    private MorphemeContainer addAgreementAndPossession(MorphemeContainer container, String possessionForm, ImmutableSet<PhoneticAttribute> phoneticAttributesOfTarget) {
+        container.addTransition(new SuffixFormApplication(formOf("A3Sg_Noun"), "", ""), suffixGraph.getSuffixGraphState("NOUN_WITH_AGREEMENT"),
+                phoneticAttributesOfTarget);
+        container.addTransition(new SuffixFormApplication(formOf("P3Sg_Noun"), possessionForm, possessionForm), suffixGraph.getSuffixGraphState("NOUN_WITH_POSSESSION"),
+                phoneticAttributesOfTarget);
+        return container;
+    }
+
+    private MorphemeContainer newNounContainer(String rootStr, String lemma, PrimaryPos primaryPos, SecondaryPos secondaryPos, LexemeAttribute... lexemeAttributes) {
+        final ImmutableSet<LexemeAttribute> lexemeAttributeSet = lexemeAttributes.length == 0 ? ImmutableSet.<LexemeAttribute>of() : Sets.immutableEnumSet(Sets.newHashSet(lexemeAttributes));
+        final Lexeme lexeme = new ImmutableLexeme(lemma, lemma, primaryPos, secondaryPos, lexemeAttributeSet);
+        final ImmutableSet<PhoneticAttribute> phoneticAttributes = Sets.immutableEnumSet(phoneticsAnalyzer.calculatePhoneticAttributes(rootStr, lexemeAttributeSet));
+        final ImmutableRoot root = new ImmutableRoot(rootStr, lexeme, phoneticAttributes, ImmutableSet.<PhoneticExpectation>of());
+        final String rootStateName = SecondaryPos.ProperNoun.equals(secondaryPos) ? "PROPER_NOUN_ROOT" : "NOUN_ROOT";
+        return new MorphemeContainer(root, suffixGraph.getSuffixGraphState(rootStateName), "");
+    }
+
+    private SuffixForm formOf(String suffixName) {
+        return suffixGraph.getSuffix(suffixName).getSuffixForms().iterator().next();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.letter.TurkishSequence;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.cache.LRUMorphologicParserCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CachingMorphologicParserTest {
+
+    private static final int THREAD_COUNT = 16;
+
+    private BlockingParser delegate;
+    private CachingMorphologicParser parser;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = new BlockingParser();
+        parser = new CachingMorphologicParser(new LRUMorphologicParserCache(1, 100, 1000), delegate, true);
+    }
+
+    @Test
+    public void shouldParseConcurrentMissesOnlyOnce() throws Exception {
+        delegate.block("elma");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final List<Future<List<MorphemeContainer>>> futures = new ArrayList<Future<List<MorphemeContainer>>>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(new Callable<List<MorphemeContainer>>() {
+                @Override
+                public List<MorphemeContainer> call() throws Exception {
+                    return parser.parseStr("elma");
+                }
+            }));
+        }
+
+        delegate.awaitEntered();
+        // let the other threads reach the in-flight parse before releasing it
+        Thread.sleep(200);
+        delegate.release();
+
+        final List<MorphemeContainer> first = futures.get(0).get();
+        for (Future<List<MorphemeContainer>> future : futures) {
+            assertThat(future.get(), sameInstance(first));
+        }
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(parser.parseStr("elma"), sameInstance(first));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+    }
+
+    @Test
+    public void shouldParseDuplicatesInBatchOnlyOnce() {
+        final List<List<MorphemeContainer>> results = parser.parseAllStr(Lists.newArrayList("elma", "armut", "elma", "elma"));
+
+        assertThat(results.size(), equalTo(4));
+        assertThat(results.get(2), sameInstance(results.get(0)));
+        assertThat(results.get(3), sameInstance(results.get(0)));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+
+        parser.parseAllStr(Lists.newArrayList("armut", "elma"));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+    }
+
+    @Test
+    public void shouldParseTurkishSequencesAsStrings() {
+        final List<List<MorphemeContainer>> results = parser.parseAll(Lists.newArrayList(new TurkishSequence("elma"), new TurkishSequence("armut")));
+
+        assertThat(results.size(), equalTo(2));
+        assertThat(parser.parseStr("elma"), sameInstance(results.get(0)));
+        assertThat(parser.parseStr("armut"), sameInstance(results.get(1)));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+    }
+
+    @Test
+    public void shouldWaitForParsesInFlightInBatch() throws Exception {
+        delegate.block("elma");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final Future<List<MorphemeContainer>> single = executorService.submit(new Callable<List<MorphemeContainer>>() {
+            @Override
+            public List<MorphemeContainer> call() throws Exception {
+                return parser.parseStr("elma");
+            }
+        });
+        delegate.awaitEntered();
+
+        final Future<List<List<MorphemeContainer>>> batch = executorService.submit(new Callable<List<List<MorphemeContainer>>>() {
+            @Override
+            public List<List<MorphemeContainer>> call() throws Exception {
+                return parser.parseAllStr(Lists.newArrayList("armut", "elma", "kiraz"));
+            }
+        });
+
+        // rest of the batch is parsed while the in-flight parse is blocked
+        while (delegate.parseCount("kiraz") == 0) {
+            Thread.sleep(10);
+        }
+        assertThat(batch.isDone(), equalTo(false));
+        delegate.release();
+
+        assertThat(batch.get().get(1), sameInstance(single.get()));
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+        assertThat(delegate.parseCount("kiraz"), equalTo(1));
+    }
+
+    @Test
+    public void shouldParseDuplicatesInBatchOnlyOnceWithoutLocalCache() {
+        parser = new CachingMorphologicParser(new LRUMorphologicParserCache(1, 100, 1000), delegate, false);
+
+        final List<List<MorphemeContainer>> results = parser.parseAllStr(Lists.newArrayList("elma", "armut", "elma", "elma"));
+
+        assertThat(results.size(), equalTo(4));
+        assertThat(results.get(2), sameInstance(results.get(0)));
+        assertThat(results.get(3), sameInstance(results.get(0)));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+
+        final List<List<MorphemeContainer>> secondResults = parser.parseAllStr(Lists.newArrayList("armut", "elma"));
+        assertThat(secondResults.get(0), sameInstance(results.get(1)));
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+    }
+
+    @Test
+    public void shouldWaitForParsesInFlightInBatchWithoutLocalCache() throws Exception {
+        parser = new CachingMorphologicParser(new LRUMorphologicParserCache(1, 100, 1000), delegate, false);
+        delegate.block("elma");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final Future<List<MorphemeContainer>> single = executorService.submit(new Callable<List<MorphemeContainer>>() {
+            @Override
+            public List<MorphemeContainer> call() throws Exception {
+                return parser.parseStr("elma");
+            }
+        });
+        delegate.awaitEntered();
+
+        final Future<List<List<MorphemeContainer>>> batch = executorService.submit(new Callable<List<List<MorphemeContainer>>>() {
+            @Override
+            public List<List<MorphemeContainer>> call() throws Exception {
+                return parser.parseAllStr(Lists.newArrayList("armut", "elma"));
+            }
+        });
+
+        while (delegate.parseCount("armut") == 0) {
+            Thread.sleep(10);
+        }
+        delegate.release();
+
+        assertThat(batch.get().get(1), sameInstance(single.get()));
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+
+        assertThat(delegate.parseCount("elma"), equalTo(1));
+        assertThat(delegate.parseCount("armut"), equalTo(1));
+    }
+
+    @Test
+    public void shouldNotParseWhenResultIsCachedAfterMiss() {
+        final LRUMorphologicParserCache cache = new LRUMorphologicParserCache(1, 100, 1000);
+        final List<MorphemeContainer> cachedResult = new ArrayList<MorphemeContainer>();
+        cache.put("elma", cachedResult);
+        // first lookup misses as if the result of another thread is put just after it
+        parser = new CachingMorphologicParser(new LRUMorphologicParserCache(1, 100, 1000) {
+            private boolean missed;
+
+            @Override
+            public List<MorphemeContainer> get(String input) {
+                if (!missed) {
+                    missed = true;
+                    return null;
+                }
+                return cache.get(input);
+            }
+        }, delegate, true);
+
+        assertThat(parser.parseStr("elma"), sameInstance(cachedResult));
+        assertThat(delegate.parseCount("elma"), equalTo(0));
+    }
+
+    @Test
+    public void shouldNotKeepFailedParsesInFlight() {
+        delegate.failOnce("elma");
+
+        try {
+            parser.parseStr("elma");
+            throw new AssertionError("Failure of the delegate is expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertThat(parser.parseStr("elma"), notNullValue());
+        assertThat(delegate.parseCount("elma"), equalTo(2));
+    }
+
+    /**
+     * Returns a new list for each parse, so that results of different parses can be told apart.
+     */
+    private static class BlockingParser implements MorphologicParser {
+        private final ConcurrentMap<String, AtomicInteger> parseCounts = new ConcurrentHashMap<String, AtomicInteger>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile String blockedInput;
+        private volatile String failingInput;
+
+        void block(String input) {
+            this.blockedInput = input;
+        }
+
+        void failOnce(String input) {
+            this.failingInput = input;
+        }
+
+        void awaitEntered() throws InterruptedException {
+            assertThat(entered.await(10, TimeUnit.SECONDS), equalTo(true));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        int parseCount(String input) {
+            final AtomicInteger count = parseCounts.get(input);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public List<MorphemeContainer> parseStr(String input) {
+            parseCounts.putIfAbsent(input, new AtomicInteger());
+            parseCounts.get(input).incrementAndGet();
+            if (input.equals(failingInput)) {
+                failingInput = null;
+                throw new IllegalStateException("Failed parsing " + input);
+            }
+            if (input.equals(blockedInput)) {
+                entered.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return new ArrayList<MorphemeContainer>();
+        }
+
+        @Override
+        public List<MorphemeContainer> parse(TurkishSequence input) {
+            return parseStr(input.getUnderlyingString());
+        }
+
+        @Override
+        public boolean isParseable(String input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MorphemeContainer parseFirstStr(String input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int countParseResultsStr(String input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<MorphemeContainer>> parseAllStr(List<String> input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<MorphemeContainer>> parseAll(List<TurkishSequence> input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<MorphemeContainer>> parseAllParallel(List<String> input, int parallelism) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<MorphemeContainer>> parseAllParallel(List<String> input, ForkJoinPool forkJoinPool, ParseProgressListener progressListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.cache.LRUMorphologicParserCache;
+import org.trnltk.morphology.contextless.parser.cache.TwoLevelMorphologicParserCache;
+import org.trnltk.util.MorphemeContainerFormatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ParallelMorphologicParsingTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik",
+            "armudunu", "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan");
+
+    private List<String> inputs;
+
+    @Before
+    public void setUp() throws Exception {
+        // repeat words so that same input is parsed in different chunks and threads
+        inputs = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+            inputs.addAll(WORDS);
+        }
+        Collections.shuffle(inputs);
+    }
+
+    @Test
+    public void shouldParseInInputOrder() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+
+        final List<List<MorphemeContainer>> expected = parser.parseAllStr(inputs);
+        final List<List<MorphemeContainer>> actual = parser.parseAllParallel(inputs, 4);
+
+        assertSameResults(actual, expected);
+    }
+
+    @Test
+    public void shouldShareCacheAcrossThreads() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        final MorphologicParser cachingParser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .includeBundledBasicSuffixGraph()
+                .addAllBundledNoBruteForceRootFinders(false)
+                .cache(new TwoLevelMorphologicParserCache(5, new LRUMorphologicParserCache(4, 100, 1000)))
+                .build(true);
+
+        final List<List<MorphemeContainer>> expected = parser.parseAllStr(inputs);
+
+        // first run fills the cache, second one reads from it
+        assertSameResults(cachingParser.parseAllParallel(inputs, 4), expected);
+        assertSameResults(cachingParser.parseAllParallel(inputs, 4), expected);
+    }
+
+    @Test
+    public void shouldReportProgress() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        final AtomicInteger lastParsedCount = new AtomicInteger();
+        final AtomicInteger callCount = new AtomicInteger();
+
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            parser.parseAllParallel(inputs, forkJoinPool, new ParseProgressListener() {
+                @Override
+                public void onProgress(int parsedCount, int totalCount) {
+                    assertThat(totalCount, equalTo(inputs.size()));
+                    callCount.incrementAndGet();
+                    synchronized (lastParsedCount) {
+                        lastParsedCount.set(Math.max(lastParsedCount.get(), parsedCount));
+                    }
+                }
+            });
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        assertThat(lastParsedCount.get(), equalTo(inputs.size()));
+        assertThat(callCount.get() > 1, equalTo(true));
+    }
+
+    @Test
+    public void shouldParseEmptyInput() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        assertThat(parser.parseAllParallel(new ArrayList<String>(), 4).size(), equalTo(0));
+    }
+
+    private void assertSameResults(List<List<MorphemeContainer>> actual, List<List<MorphemeContainer>> expected) {
+        assertThat(actual.size(), equalTo(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(MorphemeContainerFormatter.formatMorphemeContainers(actual.get(i)),
+                    equalTo(MorphemeContainerFormatter.formatMorphemeContainers(expected.get(i))));
+        }
+    }
+}
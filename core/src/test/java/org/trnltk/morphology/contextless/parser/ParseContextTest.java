@@ -0,0 +1,52 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.junit.Test;
+import org.trnltk.model.letter.TurkishSequence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ParseContextTest {
+
+    @Test
+    public void shouldMatchApplication() {
+        assertThat(new ParseContext(new TurkishSequence("elma")).applicationMatches("elm", "a"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elma", "lar"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elma", "la"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elma", ""), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("armudunu")).applicationMatches("armud", "u"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("yapacağım")).applicationMatches("yap", "acağ"), equalTo(true));
+
+        assertThat(new ParseContext(new TurkishSequence("Elmalar")).applicationMatches("Elma", "lar"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("Elmalar")).applicationMatches("elma", "LAR"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("ELMALAR")).applicationMatches("eLma", "lAr"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("IRMAĞI")).applicationMatches("ırmağ", "ı"), equalTo(true));
+        assertThat(new ParseContext(new TurkishSequence("İNEĞİ")).applicationMatches("ineğ", "i"), equalTo(true));
+    }
+
+    @Test
+    public void shouldNotMatchApplication() {
+        assertThat(new ParseContext(new TurkishSequence("elma")).applicationMatches("elma", "x"), equalTo(false));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elma", "lax"), equalTo(false));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elma", "larx"), equalTo(false));
+        assertThat(new ParseContext(new TurkishSequence("elmalar")).applicationMatches("elmx", "lar"), equalTo(false));
+        assertThat(new ParseContext(new TurkishSequence("armudunu")).applicationMatches("armut", "u"), equalTo(false));
+        assertThat(new ParseContext(new TurkishSequence("IRMAĞI")).applicationMatches("irmağ", "ı"), equalTo(false));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.cache.LRUMorphologicParserCache;
+import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
+import org.trnltk.util.MorphemeContainerFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ParseModesTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan", "xyzxyz", "kitapxyz");
+
+    private MorphologicParser parser;
+    private MorphologicParser cachingParser;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = ContextlessMorphologicParserBuilder.createSimple();
+        cachingParser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .includeBundledBasicSuffixGraph()
+                .addAllBundledNoBruteForceRootFinders(false)
+                .cache(new LRUMorphologicParserCache(1, 100, 1000))
+                .build(true);
+    }
+
+    @Test
+    public void shouldBeConsistentWithFullParsing() {
+        for (String word : WORDS) {
+            assertConsistent(parser, word);
+        }
+    }
+
+    @Test
+    public void shouldBeConsistentWithFullParsingWhenCached() {
+        for (String word : WORDS) {
+            // first without cached results, then with them
+            assertConsistent(cachingParser, word);
+            cachingParser.parseStr(word);
+            assertConsistent(cachingParser, word);
+        }
+    }
+
+    @Test
+    public void shouldNotifyListenerOfAllCandidatesThatAreNotResults() {
+        final ContextlessMorphologicParser contextlessParser = (ContextlessMorphologicParser) parser;
+        final List<MorphemeContainer> invalidated = new ArrayList<MorphemeContainer>();
+        contextlessParser.setListener(new ContextlessMorphologicParserListener() {
+            @Override
+            public void onMorphemeContainerInvalidated(MorphemeContainer morphemeContainer) {
+                invalidated.add(morphemeContainer);
+            }
+        });
+
+        // "ki" is a terminal conjunction root with remaining surface, "kit" and "kitab" are roots without results
+        final List<MorphemeContainer> results = contextlessParser.parseStr("kitaba");
+
+        boolean rootCandidateSeen = false;
+        boolean terminalCandidateSeen = false;
+        for (MorphemeContainer morphemeContainer : invalidated) {
+            for (MorphemeContainer result : results) {
+                assertThat(morphemeContainer, not(equalTo(result)));
+            }
+            rootCandidateSeen |= morphemeContainer.getSuffixTransitions().isEmpty();
+            terminalCandidateSeen |= SuffixGraphStateType.TERMINAL.equals(morphemeContainer.getLastState().getType());
+        }
+
+        assertThat(rootCandidateSeen, equalTo(true));
+        assertThat(terminalCandidateSeen, equalTo(true));
+    }
+
+    private void assertConsistent(MorphologicParser parserToCheck, String word) {
+        final List<MorphemeContainer> results = parser.parseStr(word);
+
+        assertThat(word, parserToCheck.isParseable(word), equalTo(!results.isEmpty()));
+        assertThat(word, parserToCheck.countParseResultsStr(word), equalTo(results.size()));
+
+        final MorphemeContainer first = parserToCheck.parseFirstStr(word);
+        if (results.isEmpty())
+            assertThat(word, first, nullValue());
+        else
+            assertThat(word, MorphemeContainerFormatter.formatMorphemeContainer(first), equalTo(MorphemeContainerFormatter.formatMorphemeContainer(results.get(0))));
+    }
+}
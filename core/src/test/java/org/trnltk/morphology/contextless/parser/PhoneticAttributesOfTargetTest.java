@@ -0,0 +1,106 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.lexicon.LexemeAttribute;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.SuffixTransition;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Parser passes the phonetic attributes of the target node of an edge to the container. They must be the same with
+ * the ones the container calculates from its surface with the {@link org.trnltk.morphology.phonetics.PhoneticsAnalyzer}.
+ */
+public class PhoneticAttributesOfTargetTest {
+
+    private static final String[] WORDS = {
+            "kitaplarımızdan", "elmalar", "gelmedik", "okuyabileceğim", "yaptırtmayı", "üzümcülükteki", "armudunu",
+            // inverse harmony roots
+            "saatler", "saate", "alkolü", "alkollü",
+            // roots ending with ayn
+            "camii", "camiye", "bayiler",
+            // non-alphanumeric suffix forms
+            "Ankara'dan", "Ali'ye", "3'ü", "3'üncü"
+    };
+
+    private MorphologicParser parser;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .includeAllBundledSuffixGraphs()
+                .addAllBundledNoBruteForceRootFinders(true)
+                .build(true);
+    }
+
+    @Test
+    public void shouldHaveSamePhoneticAttributesAsCalculatedFromSurface() {
+        boolean inverseHarmonyRootSeen = false;
+        boolean endsWithAynRootSeen = false;
+        boolean nonAlphanumericSuffixFormSeen = false;
+
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            assertThat(word, results, not(empty()));
+
+            for (MorphemeContainer result : results) {
+                // a container given no attributes calculates them from the surface
+                final MorphemeContainer recalculated = new MorphemeContainer(result.getRoot(), result.getRootState(), "");
+                for (SuffixTransition suffixTransition : result.getSuffixTransitions()) {
+                    recalculated.addTransition(suffixTransition.getSuffixFormApplication(), suffixTransition.getTargetState());
+                    final String actualSuffixForm = suffixTransition.getSuffixFormApplication().getActualSuffixForm();
+                    if (!actualSuffixForm.isEmpty() && !StringUtils.isAlphanumeric(actualSuffixForm))
+                        nonAlphanumericSuffixFormSeen = true;
+                }
+
+                assertThat(word + " " + result, result.getPhoneticAttributes(), equalTo(recalculated.getPhoneticAttributes()));
+                assertThat(word + " " + result, result.getPhoneticAttributeNumber(), equalTo(recalculated.getPhoneticAttributeNumber()));
+
+                final Set<LexemeAttribute> rootLexemeAttributes = result.getRoot().getLexeme().getAttributes();
+                inverseHarmonyRootSeen |= rootLexemeAttributes.contains(LexemeAttribute.InverseHarmony);
+                endsWithAynRootSeen |= rootLexemeAttributes.contains(LexemeAttribute.EndsWithAyn);
+            }
+        }
+
+        assertThat(inverseHarmonyRootSeen, equalTo(true));
+        assertThat(endsWithAynRootSeen, equalTo(true));
+        assertThat(nonAlphanumericSuffixFormSeen, equalTo(true));
+    }
+
+    @Test
+    public void shouldAdoptPhoneticAttributesOfTargetNode() {
+        final SuffixFormGraph suffixFormGraph = ((ContextlessMorphologicParser) parser).getSuffixFormGraph();
+
+        final List<MorphemeContainer> results = parser.parseStr("kitabı");
+        assertThat(results, not(empty()));
+
+        for (MorphemeContainer result : results) {
+            final SuffixFormGraphNode lastNode = suffixFormGraph.getNode(result.getLastState(), result.getPhoneticAttributeNumber());
+            assertThat(result.toString(), lastNode, notNullValue());
+            assertThat(result.toString(), result.getPhoneticAttributes(), sameInstance(lastNode.getCurrentPhonAttrSet()));
+        }
+    }
+}
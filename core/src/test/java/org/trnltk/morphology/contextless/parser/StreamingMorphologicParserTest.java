@@ -0,0 +1,135 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.util.MorphemeContainerFormatter;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class StreamingMorphologicParserTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik",
+            "armudunu", "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan");
+
+    private MorphologicParser parser;
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = ContextlessMorphologicParserBuilder.createSimple();
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdown();
+    }
+
+    @Test
+    public void shouldParseInInputOrder() {
+        final List<String> inputs = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            inputs.addAll(WORDS);
+        }
+
+        final StreamingMorphologicParser streamingParser = new StreamingMorphologicParser(parser, executorService, 8);
+        final Iterator<Pair<String, List<MorphemeContainer>>> results = streamingParser.parseStream(inputs.iterator());
+
+        for (String input : inputs) {
+            final Pair<String, List<MorphemeContainer>> result = results.next();
+            assertThat(result.getLeft(), equalTo(input));
+            assertThat(MorphemeContainerFormatter.formatMorphemeContainers(result.getRight()),
+                    equalTo(MorphemeContainerFormatter.formatMorphemeContainers(parser.parseStr(input))));
+        }
+        assertThat(results.hasNext(), equalTo(false));
+    }
+
+    @Test
+    public void shouldReadOnlyAsManyInputsAsInFlight() {
+        final int maxInFlight = 3;
+        final Iterator<String> source = Iterators.cycle(WORDS);
+        final int[] readCount = new int[1];
+        final Iterator<String> countingInputs = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public String next() {
+                readCount[0]++;
+                return source.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        final StreamingMorphologicParser streamingParser = new StreamingMorphologicParser(parser, executorService, maxInFlight);
+        final Iterator<Pair<String, List<MorphemeContainer>>> results = streamingParser.parseStream(countingInputs);
+
+        for (int consumed = 1; consumed <= 100; consumed++) {
+            results.next();
+            assertThat(readCount[0], lessThanOrEqualTo(consumed + maxInFlight));
+        }
+    }
+
+    @Test
+    public void shouldParseWordsFromReader() {
+        final StreamingMorphologicParser streamingParser = new StreamingMorphologicParser(parser, executorService, 2);
+        final Iterator<Pair<String, List<MorphemeContainer>>> results = streamingParser.parseStream(new StringReader("kitaba  elma\n\nbu geldim \n masa"));
+
+        final List<String> inputs = new ArrayList<String>();
+        while (results.hasNext()) {
+            inputs.add(results.next().getLeft());
+        }
+
+        assertThat(inputs, equalTo((List<String>) Lists.newArrayList("kitaba", "elma", "bu", "geldim", "masa")));
+    }
+
+    @Test
+    public void shouldSplitWordsOnAllWhitespace() {
+        final StreamingMorphologicParser streamingParser = new StreamingMorphologicParser(parser, executorService, 2);
+        final Iterator<Pair<String, List<MorphemeContainer>>> results = streamingParser.parseStream(new StringReader("kitaba\telma\t\tbu\r\n\tgeldim \t masa\u00A0\t"));
+
+        final List<String> inputs = new ArrayList<String>();
+        while (results.hasNext()) {
+            inputs.add(results.next().getLeft());
+        }
+
+        assertThat(inputs, equalTo((List<String>) Lists.newArrayList("kitaba", "elma", "bu", "geldim", "masa")));
+    }
+}
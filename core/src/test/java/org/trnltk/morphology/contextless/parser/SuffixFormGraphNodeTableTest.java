@@ -0,0 +1,117 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.lexicon.PhoneticAttribute;
+import org.trnltk.model.lexicon.PrimaryPos;
+import org.trnltk.morphology.morphotactics.*;
+import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixFormGraphNodeTableTest {
+
+    private PhoneticAttributeSets phoneticAttributeSets;
+    private SuffixGraph suffixGraph;
+    private SuffixFormGraph suffixFormGraph;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new CopulaSuffixGraph(new ProperNounSuffixGraph(new NumeralSuffixGraph(new BasicSuffixGraph())));
+        suffixGraph.initialize();
+
+        phoneticAttributeSets = new PhoneticAttributeSets();
+        final SuffixFormGraphExtractor extractor = new SuffixFormGraphExtractor(new SuffixFormSequenceApplier(), new PhoneticsAnalyzer(), phoneticAttributeSets);
+        suffixFormGraph = extractor.extract(suffixGraph);
+    }
+
+    @Test
+    public void shouldFindAllNodesOfTheMapInTheTable() {
+        assertThat(suffixFormGraph.getMap().isEmpty(), equalTo(false));
+        for (Map.Entry<SuffixFormGraphNodeKey, SuffixFormGraphNode> entry : suffixFormGraph.getMap().entrySet()) {
+            final SuffixFormGraphNodeKey key = entry.getKey();
+            assertThat(key.toString(), suffixFormGraph.getNode(key.getState(), key.getPhonAttrNumber()), sameInstance(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void shouldFindSameNodesAsTheMapForAllStatesAndPhoneticAttributeSets() {
+        for (SuffixGraphState state : suffixGraph.getAllSuffixGraphStates()) {
+            for (Set<PhoneticAttribute> phonAttrSet : phoneticAttributeSets.getValidPhoneticAttributeSets()) {
+                final SuffixFormGraphNodeKey key = new SuffixFormGraphNodeKey(state, phonAttrSet);
+                final SuffixFormGraphNode nodeInTable = suffixFormGraph.getNode(state, PhoneticAttributeSets.numberOf(phonAttrSet));
+                assertThat(key.toString(), nodeInTable, sameInstance(suffixFormGraph.getNode(key)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotFindNodesForUnknownPhoneticAttributeSets() {
+        final SuffixGraphState state = suffixGraph.getAllSuffixGraphStates().iterator().next();
+        for (int number = 0; number < PhoneticAttributeSets.numberBound(); number++) {
+            if (!phoneticAttributeSets.getValidPhoneticAttributeSetsMap().containsKey((long) number))
+                assertThat(String.valueOf(number), suffixFormGraph.getNode(state, number), nullValue());
+        }
+    }
+
+    @Test
+    public void shouldNotFindNodesForUnknownStates() {
+        final SuffixGraphState unknownState = new SuffixGraphState("UNKNOWN", SuffixGraphStateType.TRANSFER, PrimaryPos.Noun, null);
+        unknownState.setOrdinal(suffixGraph.getAllSuffixGraphStates().size());
+        for (Set<PhoneticAttribute> phonAttrSet : phoneticAttributeSets.getValidPhoneticAttributeSets()) {
+            assertThat(suffixFormGraph.getNode(unknownState, PhoneticAttributeSets.numberOf(phonAttrSet)), nullValue());
+        }
+    }
+
+    @Test
+    public void shouldFallBackToTheMapForStatesWithoutOrdinals() {
+        final SuffixGraphState stateWithoutOrdinal = new SuffixGraphState("NO_ORDINAL", SuffixGraphStateType.TRANSFER, PrimaryPos.Noun, null);
+        final EnumSet<PhoneticAttribute> phonAttrSet = EnumSet.of(PhoneticAttribute.LastLetterConsonant, PhoneticAttribute.LastVowelBack, PhoneticAttribute.LastVowelUnrounded);
+        final SuffixFormGraphNodeKey key = new SuffixFormGraphNodeKey(stateWithoutOrdinal, phonAttrSet);
+        assertThat(suffixFormGraph.getNode(stateWithoutOrdinal, PhoneticAttributeSets.numberOf(phonAttrSet)), nullValue());
+
+        final SuffixFormGraphNode node = suffixFormGraph.addNode(key, SuffixGraphStateType.TRANSFER, phonAttrSet);
+
+        assertThat(suffixFormGraph.getNode(stateWithoutOrdinal, PhoneticAttributeSets.numberOf(phonAttrSet)), sameInstance(node));
+    }
+
+    @Test
+    public void shouldComputeSameNumbersAsThePhoneticAttributeSets() {
+        for (Map.Entry<Long, Set<PhoneticAttribute>> entry : phoneticAttributeSets.getValidPhoneticAttributeSetsMap().entrySet()) {
+            final Set<PhoneticAttribute> phonAttrSet = entry.getValue();
+            final int number = PhoneticAttributeSets.numberOf(phonAttrSet);
+            assertThat(phonAttrSet.toString(), (long) number, equalTo(entry.getKey()));
+            assertThat(phonAttrSet.toString(), (long) number, equalTo(phoneticAttributeSets.getNumberForSet(phonAttrSet)));
+            assertThat(phonAttrSet.toString(), number, lessThan(PhoneticAttributeSets.numberBound()));
+            assertThat(phonAttrSet.toString(), PhoneticAttributeSets.setOf(number), equalTo(phonAttrSet));
+        }
+    }
+
+    @Test
+    public void shouldComputeSetsOfAllNumbers() {
+        for (int number = 0; number < PhoneticAttributeSets.numberBound(); number++) {
+            assertThat(PhoneticAttributeSets.numberOf(PhoneticAttributeSets.setOf(number)), equalTo(number));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.parser;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.lexicon.PhoneticAttribute;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.morphology.morphotactics.BasicSuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraphState;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixFormGraphNodeTest {
+
+    private SuffixGraph suffixGraph;
+    private SuffixFormGraphNode sourceNode;
+    private SuffixFormGraphNode targetNode;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new BasicSuffixGraph();
+        suffixGraph.initialize();
+
+        sourceNode = newNode("NOUN_WITH_POSSESSION");
+        targetNode = newNode("NOUN_WITH_CASE");
+    }
+
+    @Test
+    public void shouldHaveNoEdgesWhenNoEdgeIsAdded() {
+        assertThat(sourceNode.getEdges(), empty());
+        assertThat(sourceNode.getEmptyFormEdges(), empty());
+        assertThat(sourceNode.getEdgesStartingWith('d'), empty());
+        assertThat(sourceNode.getEdgesStartingWith('\0'), empty());
+    }
+
+    @Test
+    public void shouldIndexEdgesByFirstCharOfAppliedForm() {
+        final SuffixFormGraphSuffixEdge locative = addEdge("Loc_Noun", 0, "da");
+        final SuffixFormGraphSuffixEdge dative = addEdge("Dat_Noun", 0, "ya");
+        final SuffixFormGraphSuffixEdge ablative = addEdge("Abl_Noun", 0, "dan");
+        final SuffixFormGraphSuffixEdge dativeAfterN = addEdge("Dat_Noun", 1, "na");
+        final SuffixFormGraphSuffixEdge nominative = addEdge("Nom_Noun", 0, "");
+
+        assertThat(sourceNode.getEdges().size(), equalTo(5));
+        assertThat(sourceNode.getEmptyFormEdges(), equalTo(Arrays.asList(nominative)));
+
+        // first char of both forms is 'd', edges are in the order they are added
+        assertThat(sourceNode.getEdgesStartingWith('d'), equalTo(Arrays.asList(locative, ablative)));
+        assertThat(sourceNode.getEdgesStartingWith('y'), equalTo(Arrays.asList(dative)));
+        assertThat(sourceNode.getEdgesStartingWith('n'), equalTo(Arrays.asList(dativeAfterN)));
+
+        assertThat(sourceNode.getEdgesStartingWith('a'), empty());
+        assertThat(sourceNode.getEdgesStartingWith('e'), empty());
+        assertThat(sourceNode.getEdgesStartingWith('z'), empty());
+    }
+
+    @Test
+    public void shouldNotIndexDuplicateEdges() {
+        final SuffixFormGraphSuffixEdge locative = addEdge("Loc_Noun", 0, "da");
+        addEdge("Loc_Noun", 0, "da");
+        final SuffixFormGraphSuffixEdge nominative = addEdge("Nom_Noun", 0, "");
+        addEdge("Nom_Noun", 0, "");
+
+        assertThat(sourceNode.getEdges().size(), equalTo(2));
+        assertThat(sourceNode.getEdgesStartingWith('d'), equalTo(Arrays.asList(locative)));
+        assertThat(sourceNode.getEmptyFormEdges(), equalTo(Arrays.asList(nominative)));
+    }
+
+    private SuffixFormGraphSuffixEdge addEdge(String suffixName, int formIndex, String appliedForm) {
+        final Iterator<SuffixForm> suffixForms = suffixGraph.getSuffix(suffixName).getSuffixForms().iterator();
+        for (int i = 0; i < formIndex; i++) {
+            suffixForms.next();
+        }
+        return sourceNode.addSuffixFormEdge(targetNode, new SuffixFormApplication(suffixForms.next(), appliedForm, appliedForm), null);
+    }
+
+    private SuffixFormGraphNode newNode(String stateName) {
+        final SuffixGraphState state = suffixGraph.getSuffixGraphState(stateName);
+        final ImmutableSet<PhoneticAttribute> phoneticAttributes = ImmutableSet.of(PhoneticAttribute.LastLetterVowel, PhoneticAttribute.LastVowelBack);
+        return new SuffixFormGraphNode(new SuffixFormGraphNodeKey(state, phoneticAttributes), state.getType(), phoneticAttributes);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.morphology.morphotactics.BasicSuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixFormSequenceApplier;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
+import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixFormGraphReachabilityTest {
+
+    private SuffixFormGraph suffixFormGraph;
+
+    @Before
+    public void setUp() throws Exception {
+        final SuffixGraph suffixGraph = new BasicSuffixGraph();
+        suffixGraph.initialize();
+
+        final SuffixFormGraphExtractor extractor = new SuffixFormGraphExtractor(new SuffixFormSequenceApplier(), new PhoneticsAnalyzer(), new PhoneticAttributeSets());
+        suffixFormGraph = extractor.extract(suffixGraph);
+    }
+
+    @Test
+    public void shouldReachTerminalWithoutCharsFromTerminalNodes() {
+        for (SuffixFormGraphNode node : suffixFormGraph.getMap().values()) {
+            if (SuffixGraphStateType.TERMINAL.equals(node.getSuffixGraphStateType())) {
+                assertThat(node.toString(), node.getReachability().isTerminalReachableWithoutChars(), equalTo(true));
+                assertThat(node.toString(), node.getStateReachability().isTerminalReachableWithoutChars(), equalTo(true));
+                assertThat(node.toString(), node.getReachability().canConsume("a", 0), equalTo(false));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotPruneAnyPathOfTheGraph() {
+        for (SuffixFormGraphNode node : suffixFormGraph.getMap().values()) {
+            final SuffixFormGraphNode.Reachability reachability = node.getReachability();
+            for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                final String appliedSuffixForm = edge.getSuffixFormApplication().getActualSuffixForm();
+                final SuffixFormGraphNode.Reachability targetReachability = edge.getTargetSuffixFormGraphNode().getStateReachability();
+
+                if (!appliedSuffixForm.isEmpty())
+                    assertThat(edge.toString(), reachability.canStartNextForm(appliedSuffixForm.charAt(0)), equalTo(true));
+
+                if (targetReachability.getMinRemainingLength() != Integer.MAX_VALUE)
+                    assertThat(edge.toString(), reachability.getMinRemainingLength(),
+                            lessThanOrEqualTo(appliedSuffixForm.length() + targetReachability.getMinRemainingLength()));
+
+                if (appliedSuffixForm.isEmpty() && targetReachability.isTerminalReachableWithoutChars())
+                    assertThat(edge.toString(), reachability.isTerminalReachableWithoutChars(), equalTo(true));
+            }
+
+            assertThat(node.toString(), node.getStateReachability().getMinRemainingLength(), lessThanOrEqualTo(reachability.getMinRemainingLength()));
+        }
+    }
+
+    @Test
+    public void shouldNotPruneUnannotatedNodes() {
+        assertThat(SuffixFormGraphNode.Reachability.UNKNOWN.canConsume("", 0), equalTo(true));
+        assertThat(SuffixFormGraphNode.Reachability.UNKNOWN.canConsume("kitap", 2), equalTo(true));
+    }
+}
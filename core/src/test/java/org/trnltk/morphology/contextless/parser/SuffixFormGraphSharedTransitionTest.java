@@ -0,0 +1,106 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.parser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.model.suffix.SuffixTransition;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixFormGraphSharedTransitionTest {
+
+    private ContextlessMorphologicParser parser;
+    private SuffixFormGraph suffixFormGraph;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .includeBundledBasicSuffixGraph()
+                .addAllBundledNoBruteForceRootFinders(false)
+                .build(true);
+        suffixFormGraph = parser.getSuffixFormGraph();
+    }
+
+    @Test
+    public void shouldShareEqualTransitionsAndApplicationsOfEdges() {
+        final Map<SuffixTransition, SuffixTransition> transitions = new HashMap<SuffixTransition, SuffixTransition>();
+        final Map<SuffixFormApplication, SuffixFormApplication> applications = new HashMap<SuffixFormApplication, SuffixFormApplication>();
+
+        for (SuffixFormGraphNode node : suffixFormGraph.getMap().values()) {
+            for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                final SuffixTransition suffixTransition = edge.getSuffixTransition();
+                assertThat(edge.toString(), suffixTransition.getSourceState(), equalTo(node.getSuffixFormGraphNodeKey().getState()));
+                assertThat(edge.toString(), suffixTransition.getTargetState(), equalTo(edge.getTargetSuffixFormGraphNode().getSuffixFormGraphNodeKey().getState()));
+                assertThat(edge.toString(), suffixTransition.getSuffixFormApplication(), sameInstance(edge.getSuffixFormApplication()));
+
+                if (!transitions.containsKey(suffixTransition))
+                    transitions.put(suffixTransition, suffixTransition);
+                assertThat(edge.toString(), transitions.get(suffixTransition), sameInstance(suffixTransition));
+
+                final SuffixFormApplication suffixFormApplication = edge.getSuffixFormApplication();
+                if (!applications.containsKey(suffixFormApplication))
+                    applications.put(suffixFormApplication, suffixFormApplication);
+                assertThat(edge.toString(), applications.get(suffixFormApplication), sameInstance(suffixFormApplication));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReferenceTransitionsOfEdgesInParseResults() {
+        final Map<SuffixTransition, Boolean> edgeTransitions = new IdentityHashMap<SuffixTransition, Boolean>();
+        for (SuffixFormGraphNode node : suffixFormGraph.getMap().values()) {
+            for (SuffixFormGraphSuffixEdge edge : node.getEdges()) {
+                edgeTransitions.put(edge.getSuffixTransition(), Boolean.TRUE);
+            }
+        }
+
+        for (String word : new String[]{"kitaplarımızdan", "elmalar", "gelmedik", "okuyabileceğim"}) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            assertThat(word, results, not(empty()));
+            for (MorphemeContainer result : results) {
+                for (SuffixTransition suffixTransition : result.getSuffixTransitions()) {
+                    assertThat(word + " " + suffixTransition, edgeTransitions.containsKey(suffixTransition), equalTo(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldShareTransitionsAcrossParses() {
+        final List<MorphemeContainer> first = parser.parseStr("kitaplarımızdan");
+        final List<MorphemeContainer> second = parser.parseStr("kitaplarımızdan");
+
+        assertThat(second, equalTo(first));
+        for (int i = 0; i < first.size(); i++) {
+            final List<SuffixTransition> firstTransitions = first.get(i).getSuffixTransitions();
+            final List<SuffixTransition> secondTransitions = second.get(i).getSuffixTransitions();
+            for (int j = 0; j < firstTransitions.size(); j++) {
+                assertThat(secondTransitions.get(j), sameInstance(firstTransitions.get(j)));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+import org.trnltk.util.MorphemeContainerFormatter;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompactParseResultCodecTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "bilgisayarlarımızdan", "ben", "onlara", "öyle",
+            "3'te", "123", "12.", "Ali'ye", "Ankara'dakiler", ".", "xyzxyz", "kitapxyz", "zzzlardan", "olduğunu");
+
+    private ContextlessMorphologicParser parser;
+    private CompactParseResultCodec codec;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = createParser();
+        codec = CompactParseResultCodec.forParser(parser);
+    }
+
+    private static ContextlessMorphologicParser createParser() {
+        return (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .addAllBundledRootFinders()
+                .build(true);
+    }
+
+    @Test
+    public void shouldDecodeToEqualContainers() {
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            final List<MorphemeContainer> decoded = codec.decode(word, codec.encode(results));
+
+            assertThat(word, decoded, equalTo(results));
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(word, MorphemeContainerFormatter.formatMorphemeContainerWithForms(decoded.get(i)),
+                        equalTo(MorphemeContainerFormatter.formatMorphemeContainerWithForms(results.get(i))));
+                assertThat(word, decoded.get(i).getPhoneticAttributes(), equalTo(results.get(i).getPhoneticAttributes()));
+                assertThat(word, decoded.get(i).getLexemeAttributes(), equalTo(results.get(i).getLexemeAttributes()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldDecodeToViews() {
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            final List<ParseResultView> views = codec.decodeViews(codec.encode(results));
+
+            assertThat(word, views.size(), equalTo(results.size()));
+            for (int i = 0; i < results.size(); i++) {
+                final MorphemeContainer result = results.get(i);
+                final ParseResultView view = views.get(i);
+                assertThat(word, view.getRoot(), equalTo(result.getRoot()));
+                assertThat(word, view.getRootState(), equalTo(result.getRootState()));
+                assertThat(word, view.getLastState(), equalTo(result.getLastState()));
+                assertThat(word, view.getTransitionCount(), equalTo(result.getTransitionCount()));
+                for (int j = 0; j < view.getTransitionCount(); j++) {
+                    assertThat(word, view.getSuffixFormApplication(j), equalTo(result.getSuffixTransitions().get(j).getSuffixFormApplication()));
+                    assertThat(word, view.getTargetState(j), equalTo(result.getSuffixTransitions().get(j).getTargetState()));
+                }
+                assertThat(word, view.toMorphemeContainer(word), equalTo(result));
+            }
+        }
+    }
+
+    @Test
+    public void shouldBeSmallerThanInPlaceEncoding() {
+        final ParseResultCodec inPlaceCodec = new ParseResultCodec(parser.getSuffixGraph());
+        long size = 0;
+        long inPlaceSize = 0;
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            size += codec.encode(results).length;
+            inPlaceSize += inPlaceCodec.encode(results).length;
+        }
+        assertThat(size * 4, lessThan(inPlaceSize));
+    }
+
+    @Test
+    public void shouldHaveSameVersionForSameConfiguration() {
+        final ContextlessMorphologicParser otherParser = createParser();
+        final CompactParseResultCodec otherCodec = CompactParseResultCodec.forParser(otherParser);
+
+        assertThat(otherCodec.getVersion(), equalTo(codec.getVersion()));
+        for (String word : WORDS) {
+            assertThat(word, otherCodec.decode(word, codec.encode(parser.parseStr(word))), equalTo(otherParser.parseStr(word)));
+        }
+
+        final ContextlessMorphologicParser basicParser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.createSimple();
+        assertThat(CompactParseResultCodec.forParser(basicParser).getVersion(), not(equalTo(codec.getVersion())));
+    }
+
+    @Test
+    public void shouldEncodeNullAsNoResults() {
+        assertThat(codec.decode("xyz", codec.encode(null)), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(codec.decodeViews(codec.encode(Collections.<MorphemeContainer>emptyList())), equalTo(Collections.<ParseResultView>emptyList()));
+    }
+
+    @Test
+    public void shouldDecodeFromTheMiddleOfAnArray() {
+        final List<MorphemeContainer> results = parser.parseStr("kitapçıdaki");
+        final byte[] encoded = codec.encode(results);
+        final byte[] padded = new byte[encoded.length + 10];
+        System.arraycopy(encoded, 0, padded, 5, encoded.length);
+
+        assertThat(codec.decode("kitapçıdaki", padded, 5, encoded.length), equalTo(results));
+    }
+}
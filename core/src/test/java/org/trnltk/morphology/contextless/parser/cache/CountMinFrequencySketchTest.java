@@ -0,0 +1,63 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CountMinFrequencySketchTest {
+
+    @Test
+    public void shouldNotUnderestimate() {
+        final CountMinFrequencySketch sketch = new CountMinFrequencySketch(1000);
+        for (int i = 0; i < 500; i++) {
+            for (int j = 0; j < i % 10; j++) {
+                sketch.increment("word" + i);
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            assertThat("word" + i, sketch.frequency("word" + i), greaterThanOrEqualTo(i % 10));
+        }
+    }
+
+    @Test
+    public void shouldSaturate() {
+        final CountMinFrequencySketch sketch = new CountMinFrequencySketch(1000);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("word");
+        }
+        assertThat(sketch.frequency("word"), equalTo(15));
+        assertThat(sketch.frequency("otherWord"), lessThan(15));
+    }
+
+    @Test
+    public void shouldAgeCountersAfterSampleSize() {
+        final CountMinFrequencySketch sketch = new CountMinFrequencySketch(8);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("word");
+        }
+        assertThat(sketch.frequency("word"), equalTo(10));
+
+        // sample size of the sketch is 80 increments
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("other" + i);
+        }
+        assertThat(sketch.frequency("word"), lessThanOrEqualTo(5 + 1));
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+import org.trnltk.morphology.morphotactics.BasicSuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class MappedFileMorphologicParserCacheTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan", "xyzxyz");
+
+    private SuffixGraph suffixGraph;
+    private MorphologicParser parser;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new BasicSuffixGraph();
+        parser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .suffixGraph(suffixGraph)
+                .addAllBundledNoBruteForceRootFinders(false)
+                .build(true);
+        file = File.createTempFile("parseCache", ".bin");
+        // cache creates the file when it is empty
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    @Test
+    public void shouldReadEntriesAfterReopening() throws Exception {
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 100, 1 << 16);
+        for (String word : WORDS) {
+            cache.put(word, parser.parseStr(word));
+        }
+        assertThat(cache.get("elma"), equalTo(parser.parseStr("elma")));
+        cache.close();
+
+        final MappedFileMorphologicParserCache reopened = MappedFileMorphologicParserCache.openReadOnly(file, suffixGraph);
+        assertThat(reopened.size(), equalTo(WORDS.size()));
+        for (String word : WORDS) {
+            assertThat(word, reopened.get(word), equalTo(parser.parseStr(word)));
+        }
+        assertThat(reopened.get("masalar"), nullValue());
+        assertThat(reopened.get("xyzxyz"), equalTo(Collections.<MorphemeContainer>emptyList()));
+
+        // read only cache ignores the puts
+        reopened.put("masalar", parser.parseStr("masalar"));
+        assertThat(reopened.get("masalar"), nullValue());
+        reopened.close();
+    }
+
+    @Test
+    public void shouldReadEntriesWithCompactCodec() throws Exception {
+        final CompactParseResultCodec codec = CompactParseResultCodec.forParser((ContextlessMorphologicParser) parser);
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, codec, 100, 1 << 16);
+        for (String word : WORDS) {
+            cache.put(word, parser.parseStr(word));
+        }
+        cache.close();
+
+        final MappedFileMorphologicParserCache reopened = MappedFileMorphologicParserCache.openReadOnly(file, codec);
+        for (String word : WORDS) {
+            assertThat(word, reopened.get(word), equalTo(parser.parseStr(word)));
+        }
+        reopened.close();
+    }
+
+    @Test
+    public void shouldNotOpenFileWrittenWithAnotherCodecVersion() throws Exception {
+        final CompactParseResultCodec codec = CompactParseResultCodec.forParser((ContextlessMorphologicParser) parser);
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 100, 1 << 16);
+        cache.put("elma", parser.parseStr("elma"));
+        cache.close();
+
+        try {
+            MappedFileMorphologicParserCache.openReadOnly(file, codec);
+            fail("File written with another codec version is opened");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        try {
+            MappedFileMorphologicParserCache.openForAppending(file, codec, 100, 1 << 16);
+            fail("File written with another codec version is opened");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        // a codec of an equal parser has the same version
+        final MorphologicParser equalParser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .suffixGraph(new BasicSuffixGraph())
+                .addAllBundledNoBruteForceRootFinders(false)
+                .build(true);
+        file.delete();
+        MappedFileMorphologicParserCache.openForAppending(file, codec, 100, 1 << 16).close();
+        final MappedFileMorphologicParserCache reopened = MappedFileMorphologicParserCache.openReadOnly(file, CompactParseResultCodec.forParser((ContextlessMorphologicParser) equalParser));
+        assertThat(reopened.size(), equalTo(0));
+        reopened.close();
+    }
+
+    @Test
+    public void shouldSeeEntriesAppendedByAnotherInstance() throws Exception {
+        final MappedFileMorphologicParserCache writer = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 100, 1 << 16);
+        final MappedFileMorphologicParserCache reader = MappedFileMorphologicParserCache.openReadOnly(file, suffixGraph);
+
+        final Map<String, List<MorphemeContainer>> batch = new HashMap<String, List<MorphemeContainer>>();
+        for (String word : WORDS) {
+            batch.put(word, parser.parseStr(word));
+        }
+        writer.putAll(batch);
+
+        for (String word : WORDS) {
+            assertThat(word, reader.get(word), equalTo(parser.parseStr(word)));
+        }
+
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    public void shouldNotReplaceExistingEntries() throws Exception {
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 100, 1 << 16);
+        cache.put("elma", parser.parseStr("elma"));
+        cache.put("elma", null);
+
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.get("elma"), equalTo(parser.parseStr("elma")));
+        cache.close();
+    }
+
+    @Test
+    public void shouldMissUndecodableRecords() throws Exception {
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 100, 1 << 16);
+        cache.put("elma", parser.parseStr("elma"));
+        cache.put("masa", parser.parseStr("masa"));
+        cache.close();
+
+        // 256 slots, the first record starts right after them with the input "elma"; its result count is overwritten
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.seek(32 + 256 * 8 + 4 + 4 + 4);
+        randomAccessFile.writeShort(Short.MAX_VALUE);
+        randomAccessFile.close();
+
+        final MappedFileMorphologicParserCache reopened = MappedFileMorphologicParserCache.openReadOnly(file, suffixGraph);
+        assertThat(reopened.get("elma"), nullValue());
+        assertThat(reopened.getUndecodableRecordCount(), equalTo(1L));
+        assertThat(reopened.get("masa"), equalTo(parser.parseStr("masa")));
+        assertThat(reopened.getUndecodableRecordCount(), equalTo(1L));
+        reopened.close();
+    }
+
+    @Test
+    public void shouldDropEntriesWhenFull() throws Exception {
+        final MappedFileMorphologicParserCache cache = MappedFileMorphologicParserCache.openForAppending(file, suffixGraph, 4, 1 << 16);
+        for (String word : WORDS) {
+            cache.put(word, parser.parseStr(word));
+        }
+
+        // 8 slots, at most 3/4 of them are used
+        assertThat(cache.size(), equalTo(6));
+        for (String word : WORDS.subList(0, 6)) {
+            assertThat(word, cache.get(word), equalTo(parser.parseStr(word)));
+        }
+        assertThat(cache.get(WORDS.get(6)), nullValue());
+        cache.close();
+    }
+}
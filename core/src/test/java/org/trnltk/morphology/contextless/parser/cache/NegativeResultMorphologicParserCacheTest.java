@@ -0,0 +1,102 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.CachingMorphologicParser;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class NegativeResultMorphologicParserCacheTest {
+
+    private static final List<String> WORDS = Lists.newArrayList("kitaba", "elma", "xyzxyz", "geldim", "kitapxyz", "qwqw");
+
+    private Cache<String, List<MorphemeContainer>> underlyingCache;
+    private NegativeResultMorphologicParserCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        underlyingCache = CacheBuilder.newBuilder().build();
+        cache = new NegativeResultMorphologicParserCache(new LRUMorphologicParserCache(underlyingCache), 1000, 0.001);
+    }
+
+    @Test
+    public void shouldNotPutEmptyResultsOnUnderlyingCache() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        final List<MorphemeContainer> results = parser.parseStr("elma");
+
+        cache.put("elma", results);
+        cache.put("xyzxyz", Collections.<MorphemeContainer>emptyList());
+        cache.put("qwqw", null);
+
+        assertThat(underlyingCache.size(), equalTo(1L));
+        assertThat(cache.get("elma"), sameInstance(results));
+        assertThat(cache.get("xyzxyz"), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(cache.get("qwqw"), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(cache.get("armut"), nullValue());
+
+        assertThat(cache.insertionCount(), equalTo(2L));
+        assertThat(cache.stats().hitCount(), equalTo(2L));
+        assertThat(cache.stats().missCount(), equalTo(2L));
+    }
+
+    @Test
+    public void shouldSplitMapsOnPutAll() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        final Map<String, List<MorphemeContainer>> map = new HashMap<String, List<MorphemeContainer>>();
+        for (String word : WORDS) {
+            map.put(word, parser.parseStr(word));
+        }
+
+        cache.putAll(map);
+
+        assertThat(underlyingCache.size(), equalTo(3L));
+        for (String word : WORDS) {
+            assertThat(word, cache.get(word), equalTo(map.get(word)));
+        }
+    }
+
+    @Test
+    public void shouldBeConsistentWithFullParsingWhenUsedByCachingParser() {
+        final MorphologicParser parser = ContextlessMorphologicParserBuilder.createSimple();
+        final MorphologicParser cachingParser = new CachingMorphologicParser(cache, parser, true);
+
+        // first without cached results, then with them
+        for (int i = 0; i < 2; i++) {
+            assertThat(cachingParser.parseAllStr(WORDS), equalTo(parser.parseAllStr(WORDS)));
+            for (String word : WORDS) {
+                assertThat(word, cachingParser.parseStr(word), equalTo(parser.parseStr(word)));
+                assertThat(word, cachingParser.isParseable(word), equalTo(parser.isParseable(word)));
+            }
+        }
+        assertThat(underlyingCache.size(), equalTo(3L));
+        assertThat(cache.stats().hitCount(), greaterThan(0L));
+    }
+}
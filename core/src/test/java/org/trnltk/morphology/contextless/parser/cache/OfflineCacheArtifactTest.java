@@ -0,0 +1,133 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParser;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class OfflineCacheArtifactTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan", "xyzxyz", "3'te", "Ali'ye");
+
+    private static final List<String> OTHER_WORDS = Lists.newArrayList("kitap", "ev", "masalar");
+
+    private ContextlessMorphologicParser parser;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = createParser();
+        file = File.createTempFile("offlineCache", ".cache");
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    private static ContextlessMorphologicParser createParser() {
+        return (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.newBuilder().build(true);
+    }
+
+    @Test
+    public void shouldHaveSameFingerprintForSameConfiguration() {
+        final ContextlessMorphologicParser basicParser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.createSimple();
+
+        assertThat(parser.getFingerprint(), notNullValue());
+        assertThat(createParser().getFingerprint(), equalTo(parser.getFingerprint()));
+        assertThat(basicParser.getFingerprint(), not(equalTo(parser.getFingerprint())));
+    }
+
+    @Test
+    public void shouldNotChangeFingerprintWhenBuilderIsChangedAfterBuilding() {
+        final ContextlessMorphologicParserBuilder builder = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .includeBundledBasicSuffixGraph()
+                .addAllBundledNoBruteForceRootFinders(false);
+        final ContextlessMorphologicParser basicParser = (ContextlessMorphologicParser) builder.build(true);
+
+        builder.addAllBundledBruteForceRootFinders();
+
+        final ContextlessMorphologicParser otherBasicParser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.createSimple();
+        assertThat(basicParser.getFingerprint(), equalTo(otherBasicParser.getFingerprint()));
+        assertThat(basicParser.parseStr("xyzxyz"), empty());
+    }
+
+    @Test
+    public void shouldReadResultsForParserWithSameConfiguration() throws Exception {
+        OfflineCacheArtifact.write(parser, WORDS, file, 2);
+
+        final ContextlessMorphologicParser otherParser = createParser();
+        final Map<String, List<MorphemeContainer>> results = OfflineCacheArtifact.read(file.toURI().toURL(), otherParser);
+
+        assertThat(results, notNullValue());
+        assertThat(results.size(), equalTo(WORDS.size()));
+        for (String word : WORDS) {
+            assertThat(word, results.get(word), equalTo(otherParser.parseStr(word)));
+        }
+    }
+
+    @Test
+    public void shouldNotReadResultsForParserWithDifferentConfiguration() throws Exception {
+        OfflineCacheArtifact.write(parser, WORDS, file, 2);
+
+        final ContextlessMorphologicParser basicParser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.createSimple();
+        assertThat(OfflineCacheArtifact.read(file.toURI().toURL(), basicParser), nullValue());
+    }
+
+    @Test
+    public void shouldBuildSimpleOfflineCacheFromArtifact() throws Exception {
+        OfflineCacheArtifact.write(parser, WORDS, file, 2);
+
+        // artifact is used instead of parsing the given words
+        final SimpleOfflineCache cache = new SimpleOfflineCache(OTHER_WORDS, file.toURI().toURL());
+        cache.build(parser);
+
+        for (String word : WORDS) {
+            assertThat(word, cache.get(word), equalTo(parser.parseStr(word)));
+        }
+        assertThat(cache.get("kitap"), nullValue());
+    }
+
+    @Test
+    public void shouldParseWordsWhenArtifactIsNotForParser() throws Exception {
+        OfflineCacheArtifact.write(parser, WORDS, file, 2);
+
+        final ContextlessMorphologicParser basicParser = (ContextlessMorphologicParser) ContextlessMorphologicParserBuilder.createSimple();
+        final SimpleOfflineCache cache = new SimpleOfflineCache(OTHER_WORDS, file.toURI().toURL());
+        cache.build(basicParser);
+
+        for (String word : OTHER_WORDS) {
+            assertThat(word, cache.get(word), equalTo(basicParser.parseStr(word)));
+        }
+        assertThat(cache.get("elma"), nullValue());
+    }
+}
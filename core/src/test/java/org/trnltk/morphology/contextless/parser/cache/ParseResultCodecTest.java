@@ -0,0 +1,107 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+import org.trnltk.morphology.morphotactics.*;
+import org.trnltk.util.MorphemeContainerFormatter;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParseResultCodecTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "bilgisayarlarımızdan", "ben", "onlara", "öyle",
+            "3'te", "123", "12.", "Ali'ye", "Ankara'dakiler", ".", "xyzxyz", "kitapxyz", "zzzlardan", "olduğunu");
+
+    private MorphologicParser parser;
+    private ParseResultCodec codec;
+
+    @Before
+    public void setUp() throws Exception {
+        final SuffixGraph suffixGraph = new CopulaSuffixGraph(new ProperNounSuffixGraph(new NumeralSuffixGraph(new BasicSuffixGraph())));
+        parser = ContextlessMorphologicParserBuilder.newBuilderWithoutCircumflexConversion()
+                .suffixGraph(suffixGraph)
+                .addAllBundledRootFinders()
+                .build(true);
+        codec = new ParseResultCodec(suffixGraph);
+    }
+
+    @Test
+    public void shouldDecodeToEqualContainers() {
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            final List<MorphemeContainer> decoded = codec.decode(word, codec.encode(results));
+
+            assertThat(word, decoded, equalTo(results));
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(word, MorphemeContainerFormatter.formatMorphemeContainerWithForms(decoded.get(i)),
+                        equalTo(MorphemeContainerFormatter.formatMorphemeContainerWithForms(results.get(i))));
+                assertThat(word, decoded.get(i).getPhoneticAttributes(), equalTo(results.get(i).getPhoneticAttributes()));
+                assertThat(word, decoded.get(i).getLexemeAttributes(), equalTo(results.get(i).getLexemeAttributes()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldEncodeNullAsNoResults() {
+        assertThat(codec.decode("xyz", codec.encode(null)), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(codec.decode("xyz", codec.encode(Collections.<MorphemeContainer>emptyList())), equalTo(Collections.<MorphemeContainer>emptyList()));
+    }
+
+    @Test
+    public void shouldDecodeFromTheMiddleOfAnArray() {
+        final List<MorphemeContainer> results = parser.parseStr("kitapçıdaki");
+        final byte[] encoded = codec.encode(results);
+        final byte[] padded = new byte[encoded.length + 10];
+        System.arraycopy(encoded, 0, padded, 5, encoded.length);
+
+        assertThat(codec.decode("kitapçıdaki", padded, 5, encoded.length), equalTo(results));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldChangeVersionWhenEnumConstantsChange() {
+        final String version = ParseResultCodec.computeVersion("names-1", Letters.class, Digits.class);
+
+        assertThat(ParseResultCodec.computeVersion("names-1", SameLetters.class, Digits.class), equalTo(version));
+        assertThat(ParseResultCodec.computeVersion("names-1", ReorderedLetters.class, Digits.class), not(equalTo(version)));
+        assertThat(ParseResultCodec.computeVersion("names-1", MoreLetters.class, Digits.class), not(equalTo(version)));
+        assertThat(ParseResultCodec.computeVersion("names-2", Letters.class, Digits.class), not(equalTo(version)));
+        assertThat(codec.getVersion().startsWith("names-1-"), equalTo(true));
+    }
+
+    private enum Letters {A, B}
+
+    private enum SameLetters {A, B}
+
+    private enum ReorderedLetters {B, A}
+
+    private enum MoreLetters {A, C, B}
+
+    private enum Digits {ONE, TWO}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RotatingBloomFilterTest {
+
+    @Test
+    public void shouldNotHaveFalseNegatives() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("word" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat("word" + i, filter.mightContain("word" + i), equalTo(true));
+        }
+    }
+
+    @Test
+    public void shouldHaveFalsePositivesAroundGivenProbability() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(10000, 0.01);
+        // one full generation and one almost full
+        for (int i = 0; i < 19000; i++) {
+            filter.put("word" + i);
+        }
+
+        int falsePositiveCount = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("other" + i))
+                falsePositiveCount++;
+        }
+        assertThat(falsePositiveCount, lessThan(2 * 2 * 1000));
+    }
+
+    @Test
+    public void shouldForgetOldestGenerationWhenRotated() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(100, 0.001);
+        filter.put("first");
+        for (int i = 0; i < 99; i++) {
+            filter.put("word" + i);
+        }
+        assertThat(filter.rotationCount(), equalTo(1L));
+        assertThat(filter.mightContain("first"), equalTo(true));
+
+        for (int i = 99; i < 199; i++) {
+            filter.put("word" + i);
+        }
+        assertThat(filter.rotationCount(), equalTo(2L));
+        assertThat(filter.droppedCount(), equalTo(100L));
+        assertThat(filter.mightContain("first"), equalTo(false));
+        assertThat(filter.mightContain("word198"), equalTo(true));
+    }
+
+    @Test
+    public void shouldNotCountRepeatedStrings() {
+        final RotatingBloomFilter filter = new RotatingBloomFilter(10, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.put("word");
+        }
+        assertThat(filter.rotationCount(), equalTo(0L));
+    }
+}
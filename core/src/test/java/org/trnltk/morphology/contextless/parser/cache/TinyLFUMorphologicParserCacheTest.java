@@ -0,0 +1,146 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.cache.CacheStats;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TinyLFUMorphologicParserCacheTest {
+
+    @Test
+    public void shouldKeepFrequentEntriesDuringBurstOfRareOnes() {
+        final TinyLFUMorphologicParserCache cache = new TinyLFUMorphologicParserCache(1, 100);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                access(cache, "frequent" + i);
+            }
+        }
+        // a frequent entry is accessed again after 200 rare ones; a LRU cache of the same size would evict it
+        for (int i = 0; i < 10000; i++) {
+            access(cache, "rare" + i);
+            if (i % 4 == 0)
+                access(cache, "frequent" + (i / 4) % 50);
+        }
+        cache.cleanUp();
+
+        int kept = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("frequent" + i) != null)
+                kept++;
+        }
+        assertThat(kept, greaterThanOrEqualTo(45));
+        assertThat(cache.size(), lessThanOrEqualTo(100L));
+        assertThat(cache.rejectionCount(), greaterThan(0L));
+    }
+
+    @Test
+    public void shouldKeepStatistics() {
+        final TinyLFUMorphologicParserCache cache = new TinyLFUMorphologicParserCache(1, 10);
+
+        assertThat(cache.get("elma"), nullValue());
+        cache.put("elma", null);
+        assertThat(cache.get("elma"), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(cache.get("elma"), equalTo(Collections.<MorphemeContainer>emptyList()));
+
+        final CacheStats stats = cache.stats();
+        assertThat(stats.hitCount(), equalTo(2L));
+        assertThat(stats.missCount(), equalTo(1L));
+        assertThat(stats.hitRate(), closeTo(2.0 / 3.0, 0.0001));
+        assertThat(stats.evictionCount(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldNotExceedMaximumSizeAfterCleanUp() {
+        final TinyLFUMorphologicParserCache cache = new TinyLFUMorphologicParserCache(1, 1);
+        for (int i = 0; i < 100; i++) {
+            access(cache, "word" + i);
+        }
+        cache.cleanUp();
+
+        assertThat(cache.size(), lessThanOrEqualTo(1L));
+        assertThat(cache.stats().evictionCount(), greaterThanOrEqualTo(99L));
+    }
+
+    @Test
+    public void shouldReturnOnlyPutValuesUnderConcurrentAccess() throws Exception {
+        final int threadCount = 16;
+        final int keyCount = 5000;
+        final TinyLFUMorphologicParserCache cache = new TinyLFUMorphologicParserCache(threadCount, 500);
+
+        final List<List<MorphemeContainer>> values = new ArrayList<List<MorphemeContainer>>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            // a distinct instance for each key, so that the values of different keys cannot be mixed up
+            values.add(new ArrayList<MorphemeContainer>());
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int t = 0; t < threadCount; t++) {
+            final long seed = t;
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    final Random random = new Random(seed);
+                    startLatch.await();
+                    for (int i = 0; i < 20000; i++) {
+                        // skewed towards the small indices
+                        final int index = (int) (keyCount * Math.pow(random.nextDouble(), 3));
+                        final String key = "word" + index;
+                        final List<MorphemeContainer> found = cache.get(key);
+                        if (found == null)
+                            cache.put(key, values.get(index));
+                        else
+                            assertThat(key, found, sameInstance(values.get(index)));
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        startLatch.countDown();
+        for (Future<Void> future : futures) {
+            // rethrows the assertion errors of the workers
+            future.get();
+        }
+        executorService.shutdown();
+        cache.cleanUp();
+
+        assertThat(cache.size(), lessThanOrEqualTo(500L));
+        assertThat(cache.stats().hitRate(), greaterThan(0.0));
+    }
+
+    private static void access(TinyLFUMorphologicParserCache cache, String input) {
+        if (cache.get(input) == null)
+            cache.put(input, new ArrayList<MorphemeContainer>());
+    }
+}
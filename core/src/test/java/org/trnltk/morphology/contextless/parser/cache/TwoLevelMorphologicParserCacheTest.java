@@ -0,0 +1,191 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TwoLevelMorphologicParserCacheTest {
+
+    private static final int THREAD_COUNT = 32;
+    private static final int KEY_COUNT = 2000;
+    private static final int OPERATIONS_PER_THREAD = 20000;
+
+    private RecordingCache l1Cache;
+    private List<String> keys;
+    private List<List<MorphemeContainer>> values;
+
+    @Before
+    public void setUp() throws Exception {
+        l1Cache = new RecordingCache();
+        keys = new ArrayList<String>(KEY_COUNT);
+        values = new ArrayList<List<MorphemeContainer>>(KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add("input" + i);
+            // a distinct instance for each key, so that the values of different keys cannot be mixed up
+            values.add(new ArrayList<MorphemeContainer>());
+        }
+    }
+
+    @Test
+    public void shouldKeepEntriesInL2UntilItIsFull() {
+        final TwoLevelMorphologicParserCache cache = new TwoLevelMorphologicParserCache(4, l1Cache, 1);
+
+        cache.put(keys.get(0), values.get(0));
+        cache.put(keys.get(1), values.get(1));
+        cache.put(keys.get(2), values.get(2));
+
+        assertThat(l1Cache.putAllCount.get(), equalTo(0));
+        assertThat(cache.get(keys.get(0)), sameInstance(values.get(0)));
+        assertThat(cache.get(keys.get(2)), sameInstance(values.get(2)));
+
+        cache.put(keys.get(3), values.get(3));
+
+        assertThat(l1Cache.putAllCount.get(), equalTo(1));
+        assertThat(l1Cache.entries.size(), equalTo(4));
+        for (int i = 0; i < 4; i++) {
+            assertThat(cache.get(keys.get(i)), sameInstance(values.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldPutNullResultsAsEmpty() {
+        final TwoLevelMorphologicParserCache cache = new TwoLevelMorphologicParserCache(4, l1Cache, 1);
+
+        cache.put(keys.get(0), null);
+
+        assertThat(cache.get(keys.get(0)), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(cache.get(keys.get(1)), nullValue());
+    }
+
+    @Test
+    public void shouldPutLargeMapsDirectlyOnL1() {
+        final TwoLevelMorphologicParserCache cache = new TwoLevelMorphologicParserCache(4, l1Cache, 1);
+
+        final Map<String, List<MorphemeContainer>> map = new HashMap<String, List<MorphemeContainer>>();
+        for (int i = 0; i < 5; i++) {
+            map.put(keys.get(i), values.get(i));
+        }
+        cache.putAll(map);
+
+        assertThat(l1Cache.entries.size(), equalTo(5));
+        assertThat(cache.get(keys.get(4)), sameInstance(values.get(4)));
+    }
+
+    @Test
+    public void shouldNotLoseOrMixEntriesUnderConcurrentAccess() throws Exception {
+        final TwoLevelMorphologicParserCache cache = new TwoLevelMorphologicParserCache(64, l1Cache, THREAD_COUNT);
+        final Map<String, List<MorphemeContainer>> written = new ConcurrentHashMap<String, List<MorphemeContainer>>();
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final long seed = t;
+            futures.add(executorService.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    final Random random = new Random(seed);
+                    int hits = 0;
+                    startLatch.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        final int index = random.nextInt(KEY_COUNT);
+                        final String key = keys.get(index);
+                        final List<MorphemeContainer> value = values.get(index);
+                        if (random.nextInt(4) == 0) {
+                            written.put(key, value);
+                            cache.put(key, value);
+                        } else {
+                            final List<MorphemeContainer> found = cache.get(key);
+                            if (found != null) {
+                                assertThat(key, found, sameInstance(value));
+                                hits++;
+                            }
+                        }
+                    }
+                    return hits;
+                }
+            }));
+        }
+
+        startLatch.countDown();
+        int hits = 0;
+        for (Future<Integer> future : futures) {
+            // rethrows the assertion errors of the workers
+            hits += future.get();
+        }
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+
+        assertThat(hits, greaterThan(0));
+        assertThat(l1Cache.putAllCount.get(), greaterThan(0));
+        // L1 never evicts; every written entry must be found either in L2 or in L1
+        for (Map.Entry<String, List<MorphemeContainer>> entry : written.entrySet()) {
+            assertThat(entry.getKey(), cache.get(entry.getKey()), sameInstance(entry.getValue()));
+        }
+    }
+
+    private static class RecordingCache implements MorphologicParserCache {
+        private final Map<String, List<MorphemeContainer>> entries = new ConcurrentHashMap<String, List<MorphemeContainer>>();
+        private final AtomicInteger putAllCount = new AtomicInteger();
+
+        @Override
+        public List<MorphemeContainer> get(String input) {
+            return entries.get(input);
+        }
+
+        @Override
+        public void put(String input, List<MorphemeContainer> morphemeContainers) {
+            entries.put(input, morphemeContainers);
+        }
+
+        @Override
+        public void putAll(Map<String, List<MorphemeContainer>> map) {
+            putAllCount.incrementAndGet();
+            entries.putAll(map);
+        }
+
+        @Override
+        public void build(MorphologicParser parser) {
+        }
+
+        @Override
+        public boolean isNotBuilt() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.contextless.parser.cache;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.morphology.contextless.parser.ContextlessMorphologicParserBuilder;
+import org.trnltk.morphology.contextless.parser.MorphologicParser;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WeightedLRUMorphologicParserCacheTest {
+
+    private static final List<String> WORDS = Lists.newArrayList(
+            "kitaba", "yaptırtmayı", "üzümcülükteki", "bu", "elma", "elmalar", "geldim", "gelmedik", "armudunu",
+            "kitapçıdaki", "okuyabileceğim", "evdekiler", "masa", "bilgisayarlarımızdan", "xyzxyz", "kitapxyz");
+
+    private MorphologicParser parser;
+
+    @Before
+    public void setUp() throws Exception {
+        parser = ContextlessMorphologicParserBuilder.createSimple();
+    }
+
+    @Test
+    public void shouldWeighLongerResultsMore() {
+        final long emptySize = ParseResultWeigher.estimateSize("xyzxyz", Collections.<MorphemeContainer>emptyList());
+        final long nullSize = ParseResultWeigher.estimateSize("xyzxyz", null);
+        final long shortSize = ParseResultWeigher.estimateSize("elma", parser.parseStr("elma"));
+        final long longSize = ParseResultWeigher.estimateSize("bilgisayarlarımızdan", parser.parseStr("bilgisayarlarımızdan"));
+
+        assertThat(nullSize, equalTo(emptySize));
+        assertThat(shortSize, greaterThan(emptySize));
+        assertThat(longSize, greaterThan(shortSize));
+        assertThat(new ParseResultWeigher().weigh("elma", parser.parseStr("elma")), equalTo((int) shortSize));
+    }
+
+    @Test
+    public void shouldTrackWeightedSize() {
+        final WeightedLRUMorphologicParserCache cache = new WeightedLRUMorphologicParserCache(1, 100, 1000000);
+
+        long expectedSize = 0;
+        final Map<String, List<MorphemeContainer>> map = new HashMap<String, List<MorphemeContainer>>();
+        for (String word : WORDS) {
+            final List<MorphemeContainer> results = parser.parseStr(word);
+            map.put(word, results);
+            expectedSize += ParseResultWeigher.estimateSize(word, results);
+        }
+        cache.putAll(map);
+
+        assertThat(cache.size(), equalTo((long) WORDS.size()));
+        assertThat(cache.weightedSize(), equalTo(expectedSize));
+        assertThat(cache.averageEntrySize(), equalTo(expectedSize / WORDS.size()));
+
+        // replacing an entry must not count it twice
+        cache.put("elma", map.get("elma"));
+        assertThat(cache.weightedSize(), equalTo(expectedSize));
+
+        for (String word : WORDS) {
+            assertThat(word, cache.get(word), equalTo(map.get(word)));
+        }
+        assertThat(cache.stats().evictionCount(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldEvictByWeight() {
+        final long maximumWeight = 5000;
+        final WeightedLRUMorphologicParserCache cache = new WeightedLRUMorphologicParserCache(1, 100, maximumWeight);
+
+        for (String word : WORDS) {
+            cache.put(word, parser.parseStr(word));
+            assertThat(word, cache.weightedSize(), lessThanOrEqualTo(maximumWeight));
+        }
+
+        assertThat(cache.size(), lessThan((long) WORDS.size()));
+        assertThat(cache.stats().evictionCount(), greaterThan(0L));
+        // most recently used one stays
+        assertThat(cache.get("kitapxyz"), notNullValue());
+        assertThat(cache.maximumWeight(), equalTo(maximumWeight));
+    }
+
+    @Test
+    public void shouldPutNullResultsAsEmpty() {
+        final WeightedLRUMorphologicParserCache cache = new WeightedLRUMorphologicParserCache(1, 100, 1000000);
+
+        cache.put("xyzxyz", null);
+
+        assertThat(cache.get("xyzxyz"), equalTo(Collections.<MorphemeContainer>emptyList()));
+        assertThat(cache.weightedSize(), equalTo(ParseResultWeigher.estimateSize("xyzxyz", null)));
+    }
+}
@@ -25,6 +25,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.trnltk.model.lexicon.Root;
 import org.trnltk.model.letter.TurkishSequence;
+import org.trnltk.morphology.lexicon.RootTrie;
 import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
 
 import java.util.Arrays;
@@ -38,6 +39,7 @@ import static org.hamcrest.Matchers.hasSize;
 public class DictionaryRootFinderTest {
 
     DictionaryRootFinder finder;
+    DictionaryRootFinder trieFinder;
     PhoneticsAnalyzer phoneticsAnalyzer;
 
     @Mock
@@ -57,6 +59,7 @@ public class DictionaryRootFinderTest {
                 .build();
 
         finder = new DictionaryRootFinder(map);
+        trieFinder = new DictionaryRootFinder(RootTrie.create(map));
         phoneticsAnalyzer = new PhoneticsAnalyzer();
     }
 
@@ -75,4 +78,34 @@ public class DictionaryRootFinderTest {
         final Collection<? extends Root> roots = finder.findRootsForPartialInput(new TurkishSequence(rootStr), null);
         assertThat(roots, hasSize(0));
     }
+
+    @Test
+    public void shouldFindRootsWithTrie() {
+        final TurkishSequence input = new TurkishSequence("root1abc");
+        assertThat(trieFinder.findRootsForPartialInput(new TurkishSequence("root"), input), hasSize(0));
+
+        final Collection<? extends Root> roots = trieFinder.findRootsForPartialInput(new TurkishSequence("root1"), input);
+        assertThat(roots, hasSize(2));
+        assertThat(roots, (Matcher) hasItem(root1_1));
+        assertThat(roots, (Matcher) hasItem(root1_2));
+
+        assertThat(trieFinder.findRootsForPartialInput(new TurkishSequence("root1a"), input), hasSize(0));
+    }
+
+    @Test
+    public void shouldFindRootsWithTrieWithoutWholeSurface() {
+        final Collection<? extends Root> roots = trieFinder.findRootsForPartialInput(new TurkishSequence("root2"), null);
+        assertThat(roots, hasSize(2));
+        assertThat(roots, (Matcher) hasItem(root2_1));
+        assertThat(roots, (Matcher) hasItem(root2_2));
+    }
+
+    @Test
+    public void shouldFindUncapitalizedRootsWithTrie() {
+        final TurkishSequence input = new TurkishSequence("Root2");
+        final Collection<? extends Root> roots = trieFinder.findRootsForPartialInput(input, input);
+        assertThat(roots, hasSize(2));
+        assertThat(roots, (Matcher) hasItem(root2_1));
+        assertThat(roots, (Matcher) hasItem(root2_2));
+    }
 }
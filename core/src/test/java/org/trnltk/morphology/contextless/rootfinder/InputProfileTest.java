@@ -0,0 +1,92 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import org.junit.Test;
+import org.trnltk.model.letter.TurkishSequence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class InputProfileTest {
+
+    @Test
+    public void shouldFindApostrophe() {
+        assertThat(profile("kitap").hasApostrophe(), equalTo(false));
+        assertThat(profile("kitap").getLastApostropheIndex(), equalTo(-1));
+        assertThat(profile("Ali'nin").getLastApostropheIndex(), equalTo(3));
+        assertThat(profile("O'nun'ki").getLastApostropheIndex(), equalTo(5));
+    }
+
+    @Test
+    public void shouldFindCasePattern() {
+        assertThat(profile("Ali").startsWithUpperCase(), equalTo(true));
+        assertThat(profile("Ali").isAllUpperCase(), equalTo(false));
+        assertThat(profile("Ali").isUpperCaseAt(1), equalTo(false));
+        assertThat(profile("ali").startsWithUpperCase(), equalTo(false));
+        assertThat(profile("THY").isAllUpperCase(), equalTo(true));
+        assertThat(profile("").isAllUpperCase(), equalTo(false));
+        assertThat(profile("").startsWithUpperCase(), equalTo(false));
+    }
+
+    @Test
+    public void shouldFindFirstVowel() {
+        assertThat(profile("kitap").getFirstVowelIndex(), equalTo(1));
+        assertThat(profile("elma").getFirstVowelIndex(), equalTo(0));
+        assertThat(profile("THY").hasVowel(), equalTo(false));
+        assertThat(profile("123").hasVowel(), equalTo(false));
+    }
+
+    @Test
+    public void shouldFindNumberSpan() {
+        assertThat(profile("123").getNumberSpanLength(), equalTo(3));
+        assertThat(profile("123").startsWithNumber(), equalTo(true));
+        assertThat(profile("123.456,78'i").getNumberSpanLength(), equalTo(10));
+        assertThat(profile("-10-20'ye").getNumberSpanLength(), equalTo(6));
+        assertThat(profile("3.'nün").getNumberSpanLength(), equalTo(2));
+        assertThat(profile("kitap").getNumberSpanLength(), equalTo(0));
+        assertThat(profile("kitap").startsWithNumber(), equalTo(false));
+        assertThat(profile("...").getNumberSpanLength(), equalTo(3));
+        assertThat(profile("...").startsWithNumber(), equalTo(false));
+        assertThat(profile("a123").startsWithNumber(), equalTo(false));
+    }
+
+    @Test
+    public void shouldFindPunctuation() {
+        assertThat(profile(".").isAllPunctuation(), equalTo(true));
+        assertThat(profile("...").isAllPunctuation(), equalTo(true));
+        assertThat(profile("(!?)").isAllPunctuation(), equalTo(true));
+        assertThat(profile("+=").isAllPunctuation(), equalTo(true));
+        assertThat(profile("“«").isAllPunctuation(), equalTo(true));
+        assertThat(profile("a.").isAllPunctuation(), equalTo(false));
+        assertThat(profile(". .").isAllPunctuation(), equalTo(false));
+        assertThat(profile("1.").isAllPunctuation(), equalTo(false));
+        assertThat(profile("").isAllPunctuation(), equalTo(false));
+    }
+
+    @Test
+    public void shouldFindBlankInputs() {
+        assertThat(profile("").isBlank(), equalTo(true));
+        assertThat(profile("  ").isBlank(), equalTo(true));
+        assertThat(profile(" a").isBlank(), equalTo(false));
+    }
+
+    private InputProfile profile(String input) {
+        return InputProfile.of(new TurkishSequence(input));
+    }
+}
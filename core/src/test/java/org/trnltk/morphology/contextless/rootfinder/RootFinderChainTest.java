@@ -0,0 +1,136 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.contextless.rootfinder;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.letter.TurkishSequence;
+import org.trnltk.model.lexicon.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+public class RootFinderChainTest {
+
+    private RootFinderChain rootFinderChain;
+
+    @Before
+    public void setUp() throws Exception {
+        final Multimap<String, Root> rootMap = ArrayListMultimap.create();
+        for (String rootStr : Arrays.asList("kitap", "kitab", "ali", "el", "elma")) {
+            rootMap.put(rootStr, root(rootStr));
+        }
+
+        rootFinderChain = new RootFinderChain(new RootValidator())
+                .offer(new PuncRootFinder(), RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(new RangeDigitsRootFinder(), RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(new OrdinalDigitsRootFinder(), RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(new CardinalDigitsRootFinder(), RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(new ProperNounFromApostropheRootFinder(), RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(new ProperNounWithoutApostropheRootFinder(), RootFinderChain.RootFinderPolicy.CONTINUE_ON_CHAIN)
+                .offer(new DictionaryRootFinder(rootMap), RootFinderChain.RootFinderPolicy.CONTINUE_ON_CHAIN)
+                .offer(new BruteForceNounRootFinder(), RootFinderChain.RootFinderPolicy.CONTINUE_ON_CHAIN)
+                .offer(new BruteForceVerbRootFinder(), RootFinderChain.RootFinderPolicy.CONTINUE_ON_CHAIN);
+    }
+
+    @Test
+    public void shouldFindSameRootsForAllPrefixesAsForEachPartialInput() {
+        for (String inputStr : Arrays.asList("kitaba", "elmalar", "Ali", "Ali'ye", "THY'nin", "123'e", "3.'nün", "10-20'ye",
+                "12,5", "123.456", "...", "(!)", " ali")) {
+            final TurkishSequence input = new TurkishSequence(inputStr);
+            final List<List<Root>> rootsForAllPrefixes = rootFinderChain.findRootsForAllPrefixes(InputProfile.of(input));
+
+            assertThat(inputStr, rootsForAllPrefixes, hasSize(input.length() + 1));
+            assertThat(inputStr, rootsForAllPrefixes.get(0), hasSize(0));
+            for (int i = 1; i < input.length() + 1; i++) {
+                final List<Root> expectedRoots = rootFinderChain.findRootsForPartialInput(input.subsequence(0, i), input);
+                assertThat(inputStr + " " + i, rootsForAllPrefixes.get(i).toString(), equalTo(expectedRoots.toString()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldStopChainOnlyForHandledPartialInputs() {
+        // handles only the partial input with length 2, without finding any roots
+        final BulkRootFinder bulkRootFinder = new BulkRootFinder() {
+            @Override
+            public List<Collection<? extends Root>> findRootsForAllPrefixes(InputProfile inputProfile) {
+                final List<Collection<? extends Root>> result = BulkRootFinders.newNotHandledList(inputProfile.length());
+                result.set(2, Collections.<Root>emptyList());
+                return result;
+            }
+
+            @Override
+            public boolean handlesInput(InputProfile inputProfile) {
+                return inputProfile.length() >= 2;
+            }
+
+            @Override
+            public boolean handles(TurkishSequence partialInput, InputProfile inputProfile) {
+                return partialInput.length() == 2;
+            }
+
+            @Override
+            public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
+                return partialInput.length() == 2;
+            }
+
+            @Override
+            public Collection<? extends Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence wholeSurface) {
+                return Collections.emptyList();
+            }
+        };
+
+        // finds a root for every partial input
+        final RootFinder rootFinder = new RootFinder() {
+            @Override
+            public boolean handles(TurkishSequence partialInput, TurkishSequence wholeSurface) {
+                return true;
+            }
+
+            @Override
+            public Collection<? extends Root> findRootsForPartialInput(TurkishSequence partialInput, TurkishSequence wholeSurface) {
+                return Arrays.asList(root(partialInput.getUnderlyingString()));
+            }
+        };
+
+        final RootFinderChain chain = new RootFinderChain(new RootValidator())
+                .offer(bulkRootFinder, RootFinderChain.RootFinderPolicy.STOP_CHAIN_WHEN_INPUT_IS_HANDLED)
+                .offer(rootFinder, RootFinderChain.RootFinderPolicy.CONTINUE_ON_CHAIN);
+
+        final List<List<Root>> rootsForAllPrefixes = chain.findRootsForAllPrefixes(InputProfile.of(new TurkishSequence("abc")));
+        assertThat(rootsForAllPrefixes, hasSize(4));
+        assertThat(rootsForAllPrefixes.get(1).toString(), equalTo(Arrays.asList(root("a")).toString()));
+        assertThat(rootsForAllPrefixes.get(2), hasSize(0));
+        assertThat(rootsForAllPrefixes.get(3).toString(), equalTo(Arrays.asList(root("abc")).toString()));
+    }
+
+    private static Root root(String rootStr) {
+        final Lexeme lexeme = new ImmutableLexeme(rootStr, rootStr, PrimaryPos.Noun, null, ImmutableSet.<LexemeAttribute>of());
+        return new ImmutableRoot(rootStr, lexeme, ImmutableSet.<PhoneticAttribute>of(), null);
+    }
+}
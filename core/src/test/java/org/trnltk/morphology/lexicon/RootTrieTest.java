@@ -0,0 +1,124 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.lexicon;
+
+import com.google.common.collect.ImmutableMultimap;
+import org.hamcrest.Matcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.trnltk.model.lexicon.Root;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RootTrieTest {
+
+    RootTrie trie;
+
+    @Mock
+    Root kitap_1;
+    @Mock
+    Root kitap_2;
+    @Mock
+    Root kitapcik;
+    @Mock
+    Root ki;
+    @Mock
+    Root Kitap;
+    @Mock
+    Root ilk;
+    @Mock
+    Root isik;
+
+    @Before
+    public void setUp() throws Exception {
+        final ImmutableMultimap<String, Root> map = new ImmutableMultimap.Builder<String, Root>()
+                .putAll("kitap", Arrays.asList(kitap_1, kitap_2))
+                .put("kitapçık", kitapcik)
+                .put("ki", ki)
+                .put("Kitap", Kitap)
+                .put("ilk", ilk)
+                .put("ışık", isik)
+                .build();
+
+        trie = RootTrie.create(map);
+    }
+
+    @Test
+    public void shouldGetExactRoots() {
+        assertThat(trie.get("kitap"), (Matcher) contains(kitap_1, kitap_2));
+        assertThat(trie.get("kitapçık"), (Matcher) contains(kitapcik));
+        assertThat(trie.get("kit"), hasSize(0));
+        assertThat(trie.get("kitapçıkta"), hasSize(0));
+        assertThat(trie.get("xyz"), hasSize(0));
+    }
+
+    @Test
+    public void shouldFindRootsForAllPrefixes() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("kitapçıkta");
+        assertThat(roots, hasSize(11));
+        assertThat(roots.get(0), hasSize(0));
+        assertThat(roots.get(1), hasSize(0));
+        assertThat(roots.get(2), (Matcher) contains(ki));
+        assertThat(roots.get(3), hasSize(0));
+        assertThat(roots.get(5), (Matcher) contains(kitap_1, kitap_2));
+        assertThat(roots.get(8), (Matcher) contains(kitapcik));
+        assertThat(roots.get(10), hasSize(0));
+    }
+
+    @Test
+    public void shouldFindUncapitalizedRootsInSameWalk() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("Kitapta");
+        assertThat(roots.get(2), (Matcher) contains(ki));
+        assertThat(roots.get(5), (Matcher) contains(Kitap, kitap_1, kitap_2));
+    }
+
+    @Test
+    public void shouldUncapitalizeWithTurkishLocale() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("İlkbahar");
+        assertThat(roots.get(3), (Matcher) contains(ilk));
+
+        final List<List<Root>> dotlessRoots = trie.findRootsForAllPrefixes("Işıkta");
+        assertThat(dotlessRoots.get(4), (Matcher) contains(isik));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowModifyingRootsOfPrefix() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("kitapçıkta");
+        roots.get(5).set(0, kitapcik);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowModifyingMergedRootsOfPrefix() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("Kitapta");
+        roots.get(5).set(0, kitapcik);
+    }
+
+    @Test
+    public void shouldHandleEmptyInput() {
+        final List<List<Root>> roots = trie.findRootsForAllPrefixes("");
+        assertThat(roots, hasSize(1));
+        assertThat(roots.get(0), hasSize(0));
+    }
+}
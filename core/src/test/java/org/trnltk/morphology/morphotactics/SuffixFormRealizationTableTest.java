@@ -0,0 +1,102 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.morphotactics;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.lexicon.PhoneticAttribute;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormSequence;
+import org.trnltk.morphology.contextless.parser.PhoneticAttributeSets;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixFormRealizationTableTest {
+    BasicSuffixGraph suffixGraph;
+    SuffixFormRealizationTable table;
+    SuffixFormSequenceApplier delegate = new SuffixFormSequenceApplier();
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new BasicSuffixGraph();
+        suffixGraph.initialize();
+        table = new SuffixFormRealizationTable(suffixGraph, delegate);
+    }
+
+    @Test
+    public void shouldRealizeSameAsDelegateForAllValidSets() throws Exception {
+        final PhoneticAttributeSets phoneticAttributeSets = new PhoneticAttributeSets();
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                final SuffixFormSequence sequence = suffixForm.getForm();
+                assertThat(sequence.getOrdinal(), greaterThanOrEqualTo(0));
+                for (Set<PhoneticAttribute> set : phoneticAttributeSets.getValidPhoneticAttributeSets()) {
+                    final int number = PhoneticAttributeSets.numberOf(set);
+                    assertThat(table.apply(sequence, number), equalTo(delegate.apply(sequence, set)));
+                    assertThat(table.applyVoiced(sequence, number), equalTo(delegate.applyVoiced(sequence, set)));
+                    assertThat(table.isApplicable(sequence, number), equalTo(delegate.isApplicable(sequence, set)));
+                    assertThat(table.apply(sequence, set), equalTo(delegate.apply(sequence, set)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldHaveVoicedVariant() throws Exception {
+        final SuffixFormSequence sequence = sequenceInGraph("dIk");
+        final int number = PhoneticAttributeSets.numberOf(ImmutableSet.of(PhoneticAttribute.LastLetterConsonant, PhoneticAttribute.LastVowelFrontal, PhoneticAttribute.LastVowelUnrounded));
+
+        final SuffixFormRealizationTable.Realization realization = table.getRealization(sequence, number);
+        assertThat(realization.getAppliedSuffixForm(), equalTo("dik"));
+        assertThat(realization.getVoicedSuffixForm(), equalTo("diğ"));
+        assertThat(realization.isApplicable(), equalTo(true));
+    }
+
+    @Test
+    public void shouldInternAppliedForms() throws Exception {
+        final SuffixFormSequence sequence = sequenceInGraph("dIk");
+        final int afterConsonantNumber = PhoneticAttributeSets.numberOf(ImmutableSet.of(PhoneticAttribute.LastLetterConsonant, PhoneticAttribute.LastVowelFrontal, PhoneticAttribute.LastVowelUnrounded, PhoneticAttribute.LastLetterNotVoiceless));
+        final int afterVowelNumber = PhoneticAttributeSets.numberOf(ImmutableSet.of(PhoneticAttribute.LastLetterVowel, PhoneticAttribute.LastVowelFrontal, PhoneticAttribute.LastVowelUnrounded, PhoneticAttribute.LastLetterNotVoiceless));
+
+        // different realizations, same applied form
+        assertThat(table.getRealization(sequence, afterConsonantNumber), not(sameInstance(table.getRealization(sequence, afterVowelNumber))));
+        assertThat(table.apply(sequence, afterConsonantNumber), equalTo("dik"));
+        assertThat(table.apply(sequence, afterConsonantNumber), sameInstance(table.apply(sequence, afterVowelNumber)));
+    }
+
+    @Test
+    public void shouldDelegateSequencesNotInGraph() throws Exception {
+        final SuffixFormSequence sequence = new SuffixFormSequence("+Im");
+        assertThat(table.getRealization(sequence, PhoneticAttributeSets.numberOf(ImmutableSet.of(PhoneticAttribute.LastLetterVowel))), nullValue());
+        assertThat(table.apply(sequence, ImmutableSet.of(PhoneticAttribute.LastLetterVowel)), equalTo("m"));
+    }
+
+    private SuffixFormSequence sequenceInGraph(String suffixFormStr) {
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                if (suffixForm.getForm().getSuffixFormStr().equals(suffixFormStr))
+                    return suffixForm.getForm();
+            }
+        }
+        throw new IllegalArgumentException(suffixFormStr);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.trnltk.morphology.morphotactics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixFormSequence;
+import org.trnltk.model.suffix.SuffixGroup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SuffixGraphOrdinalsTest {
+
+    private SuffixGraph suffixGraph;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new CopulaSuffixGraph(new ProperNounSuffixGraph(new NumeralSuffixGraph(new BasicSuffixGraph())));
+        suffixGraph.initialize();
+    }
+
+    @Test
+    public void shouldAssignDenseOrdinalsToSuffixes() {
+        final Set<Integer> ordinals = new HashSet<Integer>();
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            assertThat(suffix.getName(), suffix.getOrdinal(), greaterThanOrEqualTo(0));
+            assertThat(suffix.getName(), ordinals.add(suffix.getOrdinal()), equalTo(true));
+        }
+        for (int i = 0; i < ordinals.size(); i++) {
+            assertThat(ordinals.contains(i), equalTo(true));
+        }
+    }
+
+    @Test
+    public void shouldAssignDenseOrdinalsToStates() {
+        final Set<Integer> ordinals = new HashSet<Integer>();
+        for (SuffixGraphState state : suffixGraph.getAllSuffixGraphStates()) {
+            assertThat(state.getName(), state.getOrdinal(), greaterThanOrEqualTo(0));
+            assertThat(state.getName(), ordinals.add(state.getOrdinal()), equalTo(true));
+        }
+        for (int i = 0; i < ordinals.size(); i++) {
+            assertThat(ordinals.contains(i), equalTo(true));
+        }
+    }
+
+    @Test
+    public void shouldAssignSameOrdinalToGroupsWithSameName() {
+        final Map<String, Integer> ordinalsByName = new HashMap<String, Integer>();
+        final Map<Integer, String> namesByOrdinal = new HashMap<Integer, String>();
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            final SuffixGroup suffixGroup = suffix.getSuffixGroup();
+            if (suffixGroup == null)
+                continue;
+
+            assertThat(suffixGroup.getName(), suffixGroup.getOrdinal(), greaterThanOrEqualTo(0));
+            if (!ordinalsByName.containsKey(suffixGroup.getName()))
+                ordinalsByName.put(suffixGroup.getName(), suffixGroup.getOrdinal());
+            if (!namesByOrdinal.containsKey(suffixGroup.getOrdinal()))
+                namesByOrdinal.put(suffixGroup.getOrdinal(), suffixGroup.getName());
+            assertThat(suffixGroup.getName(), suffixGroup.getOrdinal(), equalTo(ordinalsByName.get(suffixGroup.getName())));
+            assertThat(suffixGroup.getName(), namesByOrdinal.get(suffixGroup.getOrdinal()), equalTo(suffixGroup.getName()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReassignOrdinalOfSuffix() {
+        final Suffix suffix = suffixGraph.getSuffix("A3Sg_Noun");
+        suffix.setOrdinal(suffix.getOrdinal() + 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReassignOrdinalOfSuffixGroup() {
+        final SuffixGroup suffixGroup = suffixGraph.getSuffix("A3Sg_Noun").getSuffixGroup();
+        suffixGroup.setOrdinal(suffixGroup.getOrdinal() + 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReassignOrdinalOfState() {
+        final SuffixGraphState state = suffixGraph.getAllSuffixGraphStates().iterator().next();
+        state.setOrdinal(state.getOrdinal() + 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReassignOrdinalOfSuffixFormSequence() {
+        final SuffixFormSequence sequence = suffixGraph.getSuffix("P3Sg_Noun").getSuffixForms().iterator().next().getForm();
+        sequence.setOrdinal(sequence.getOrdinal() + 1);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright  2013  Ali Ok (aliokATapacheDOTorg)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.trnltk.morphology.morphotactics.suffixformspecifications;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.trnltk.common.specification.Specification;
+import org.trnltk.common.specification.Specifications;
+import org.trnltk.common.specification.TrueSpecification;
+import org.trnltk.model.lexicon.*;
+import org.trnltk.model.morpheme.MorphemeContainer;
+import org.trnltk.model.suffix.Suffix;
+import org.trnltk.model.suffix.SuffixForm;
+import org.trnltk.model.suffix.SuffixFormApplication;
+import org.trnltk.morphology.morphotactics.BasicSuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraph;
+import org.trnltk.morphology.morphotactics.SuffixGraphStateType;
+import org.trnltk.morphology.phonetics.PhoneticsAnalyzer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.trnltk.morphology.morphotactics.suffixformspecifications.SuffixFormSpecifications.*;
+
+public class CompiledSpecificationTest {
+
+    private SuffixGraph suffixGraph;
+    private List<MorphemeContainer> morphemeContainers;
+
+    @Before
+    public void setUp() throws Exception {
+        suffixGraph = new BasicSuffixGraph();
+        suffixGraph.initialize();
+
+        final Lexeme lexeme = new ImmutableLexeme("kitap", "kitap", PrimaryPos.Noun, null, ImmutableSet.of(LexemeAttribute.Voicing));
+        final ImmutableSet<PhoneticAttribute> phoneticAttributes = Sets.immutableEnumSet(new PhoneticsAnalyzer().calculatePhoneticAttributes("kitab", null));
+        final ImmutableRoot root = new ImmutableRoot("kitab", lexeme, phoneticAttributes, ImmutableSet.of(PhoneticExpectation.VowelStart));
+
+        final MorphemeContainer rootContainer = new MorphemeContainer(root, suffixGraph.getSuffixGraphState("NOUN_ROOT"), "ı");
+
+        final MorphemeContainer withAgreement = new MorphemeContainer(rootContainer);
+        withAgreement.addTransition(new SuffixFormApplication(formOf("A3Sg_Noun"), "", ""), suffixGraph.getSuffixGraphState("NOUN_WITH_AGREEMENT"));
+
+        final MorphemeContainer withPossession = new MorphemeContainer(withAgreement);
+        withPossession.addTransition(new SuffixFormApplication(formOf("P3Sg_Noun"), "ı", "ı"), suffixGraph.getSuffixGraphState("NOUN_WITH_POSSESSION"));
+
+        morphemeContainers = Arrays.asList(rootContainer, withAgreement, withPossession);
+    }
+
+    private SuffixForm formOf(String suffixName) {
+        return suffixGraph.getSuffix(suffixName).getSuffixForms().iterator().next();
+    }
+
+    @Test
+    public void shouldBeSatisfiedBySameContainersWithSource() {
+        final Suffix a3sg = suffixGraph.getSuffix("A3Sg_Noun");
+        final Suffix p3sg = suffixGraph.getSuffix("P3Sg_Noun");
+
+        @SuppressWarnings("unchecked")
+        final List<Specification<MorphemeContainer>> specifications = Arrays.asList(
+                rootHasPrimaryPos(PrimaryPos.Noun),
+                rootHasPrimaryPos(PrimaryPos.Verb),
+                rootHasSecondaryPos(SecondaryPos.ProperNoun),
+                appliesToRoot("kitab"),
+                hasLexemeAttributes(LexemeAttribute.Voicing),
+                hasLexemeAttributes(LexemeAttribute.Voicing, LexemeAttribute.Doubling),
+                doesntHaveLexemeAttributes(LexemeAttribute.Voicing),
+                doesntHaveLexemeAttributes(LexemeAttribute.Doubling),
+                comesAfter(a3sg),
+                comesAfter(p3sg, "+sI"),
+                doesntComeAfter(p3sg),
+                comesAfterDerivation(a3sg),
+                comesAfterLastNonBlankDerivation(p3sg),
+                followedBySuffixGoesTo(SuffixGraphStateType.TRANSFER),
+                rootHasProgressiveVowelDrop(),
+                Specifications.and(rootHasPrimaryPos(PrimaryPos.Noun), doesnt(comesAfter(p3sg))),
+                Specifications.or(comesAfter(p3sg), hasLexemeAttributes(LexemeAttribute.Doubling), appliesToRoot("kitap")),
+                Specifications.and(Specifications.or(comesAfter(a3sg), comesAfter(p3sg)), doesnt(rootHasPrimaryPos(PrimaryPos.Verb)))
+        );
+
+        for (Specification<MorphemeContainer> specification : specifications) {
+            final CompiledSpecification compiledSpecification = CompiledSpecification.compile(specification);
+            for (MorphemeContainer morphemeContainer : morphemeContainers) {
+                assertThat(specification + " " + morphemeContainer, compiledSpecification.isSatisfiedBy(morphemeContainer),
+                        equalTo(specification.isSatisfiedBy(morphemeContainer)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCompileConstantsWithoutInstructions() {
+        @SuppressWarnings("unchecked")
+        final Specification<MorphemeContainer> trueSpecification = (Specification<MorphemeContainer>) TrueSpecification.INSTANCE;
+
+        assertThat(CompiledSpecification.compile(trueSpecification).getInstructionCount(), equalTo(0));
+        assertThat(CompiledSpecification.compile(trueSpecification).isSatisfiedBy(morphemeContainers.get(0)), equalTo(true));
+        assertThat(CompiledSpecification.compile(trueSpecification.not()).isSatisfiedBy(morphemeContainers.get(0)), equalTo(false));
+        assertThat(CompiledSpecification.compile(null), nullValue());
+    }
+
+    @Test
+    public void shouldCompileConditionsOfGraphOnInitialization() {
+        for (Suffix suffix : suffixGraph.getAllSuffixes()) {
+            for (SuffixForm suffixForm : suffix.getSuffixForms()) {
+                if (suffixForm.getPrecondition() != null)
+                    assertThat(suffixForm.getPrecondition(), instanceOf(CompiledSpecification.class));
+                if (suffixForm.getPostCondition() != null)
+                    assertThat(suffixForm.getPostCondition(), instanceOf(CompiledSpecification.class));
+                if (suffixForm.getPostDerivativeCondition() != null)
+                    assertThat(suffixForm.getPostDerivativeCondition(), instanceOf(CompiledSpecification.class));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReplaceCompiledConditions() {
+        final SuffixForm suffixForm = suffixGraph.getSuffix("P3Sg_Noun").getSuffixForms().iterator().next();
+        suffixForm.setCompiledConditions(null, null, null);
+    }
+}